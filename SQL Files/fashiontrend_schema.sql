@@ -1,3 +1,8 @@
+-- Creates the database at schema version 1 with sample data. Later schema changes, such as the lookup
+-- indexes, generated keys and the history and location tables, are applied by the versioned migrations in
+-- src/main/resources/db/migration when the application starts; the tables created here must stay identical
+-- to V1__baseline.sql.
+
 -- Drop the database if it exists
 DROP DATABASE IF EXISTS fashiontrend_db;
 
@@ -0,0 +1,110 @@
+package com.wileyedge.fashiontrendanalysis;
+
+import com.wileyedge.fashiontrendanalysis.dao.ReadOnlyRoutingInterceptor;
+import com.wileyedge.fashiontrendanalysis.dao.ReadYourWritesTracker;
+import com.wileyedge.fashiontrendanalysis.dao.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting configuration, enabled by listing the replica URLs in {@code datasource.replica.urls}.
+ *
+ * <p>The primary is configured by the usual {@code spring.datasource} properties. The read-only methods of the
+ * services read from the replicas, everything else goes to the primary. Without replica URLs this configuration
+ * is skipped and the single auto-configured data source is used.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "urls")
+public class DataSourceConfig {
+
+    /**
+     * Provides the data source shared by all DAOs, routing between the primary and the replicas.
+     *
+     * @param properties  The spring.datasource properties of the primary.
+     * @param environment The environment the connection pool settings are bound from.
+     * @param tracker     The writes of the current client.
+     * @param urls        The JDBC URLs of the replicas.
+     * @param username    The user of the replicas, the one of the primary if empty.
+     * @param password    The password of the replicas, the one of the primary if the user is empty.
+     * @param retryAfter  How long a replica that refused a connection is skipped.
+     * @return The routing data source.
+     */
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                               ReadYourWritesTracker tracker,
+                                               @Value("${datasource.replica.urls}") List<String> urls,
+                                               @Value("${datasource.replica.username:}") String username,
+                                               @Value("${datasource.replica.password:}") String password,
+                                               @Value("${datasource.replica.retry-after:PT30S}") Duration retryAfter) {
+        HikariDataSource primary = pool(properties.initializeDataSourceBuilder().type(HikariDataSource.class).build(),
+                "primary", environment);
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(username.isEmpty() ? properties.determineUsername() : username)
+                    .password(username.isEmpty() ? properties.determinePassword() : password)
+                    .build();
+            replicas.add(pool(replica, "replica-" + replicas.size(), environment));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, tracker, retryAfter);
+    }
+
+    /**
+     * Provides the tracker pinning the reads of a client to the primary after it has written.
+     *
+     * @param window How long after a write the client reads from the primary.
+     * @return The tracker.
+     */
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${datasource.replica.read-your-writes:PT5S}") Duration window) {
+        return new ReadYourWritesTracker(window);
+    }
+
+    /**
+     * Provides the advisor marking the read-only service methods. It runs before the transaction advisor, so a
+     * read-only transaction already takes its connection from a replica.
+     *
+     * @param readOnlyMethods The name patterns of the read-only methods.
+     * @return The advisor applied to every {@link Service} bean.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readOnlyRoutingAdvisor(
+            @Value("${datasource.replica.read-methods:get*,find*,calculate*}") List<String> readOnlyMethods) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true),
+                new ReadOnlyRoutingInterceptor(readOnlyMethods));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Applies the spring.datasource.hikari settings to a pool, as they are only bound to auto-configured ones.
+     */
+    private static HikariDataSource pool(HikariDataSource dataSource, String name, Environment environment) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        return dataSource;
+    }
+}
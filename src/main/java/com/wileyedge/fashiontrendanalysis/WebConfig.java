@@ -0,0 +1,72 @@
+package com.wileyedge.fashiontrendanalysis;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Spring MVC configuration for the asynchronous responses, such as the streamed exports.
+ *
+ * <p>{@link SecurityConfig} enables MVC with {@code @EnableWebMvc}, which turns off Spring Boot's MVC
+ * auto-configuration, so the {@code spring.mvc.async.*} properties are never applied. The timeout and the
+ * executor of the asynchronous requests are therefore set here: the bodies are written by a bounded pool of
+ * {@code async.threads} threads, queueing at most {@code async.queue-capacity} more, and a request that is
+ * still writing after {@code async.request-timeout} is cut off.</p>
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AsyncTaskExecutor asyncExecutor;
+    private final Duration requestTimeout;
+
+    /**
+     * Constructs the configuration.
+     *
+     * @param asyncExecutor  The executor writing the asynchronous response bodies.
+     * @param requestTimeout How long an asynchronous request may take.
+     */
+    @Autowired
+    public WebConfig(@Qualifier("mvcAsyncExecutor") AsyncTaskExecutor asyncExecutor,
+                     @Value("${async.request-timeout:PT1H}") Duration requestTimeout) {
+        this.asyncExecutor = asyncExecutor;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Provides the bounded pool writing the asynchronous response bodies. A request submitted while all
+     * threads are busy and the queue is full is rejected instead of starting another thread.
+     *
+     * @param threads       The number of threads.
+     * @param queueCapacity The number of bodies waiting for a thread.
+     * @return The executor.
+     */
+    @Bean
+    public static ThreadPoolTaskExecutor mvcAsyncExecutor(@Value("${async.threads:8}") int threads,
+                                                          @Value("${async.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        return executor;
+    }
+
+    /**
+     * Applies the timeout and the executor to every asynchronous request.
+     *
+     * @param configurer The asynchronous request settings of Spring MVC.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(requestTimeout.toMillis());
+        configurer.setTaskExecutor(asyncExecutor);
+    }
+}
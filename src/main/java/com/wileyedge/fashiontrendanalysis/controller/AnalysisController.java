@@ -0,0 +1,358 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.wileyedge.fashiontrendanalysis.dao.ReplicaRoutingDataSource;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.TableVersions;
+import com.wileyedge.fashiontrendanalysis.model.AnalysisSnapshot;
+import com.wileyedge.fashiontrendanalysis.model.CategoryCorrelation;
+import com.wileyedge.fashiontrendanalysis.model.CubeCell;
+import com.wileyedge.fashiontrendanalysis.model.PopularityDistribution;
+import com.wileyedge.fashiontrendanalysis.model.PopularityStatistics;
+import com.wileyedge.fashiontrendanalysis.model.ResultCacheStats;
+import com.wileyedge.fashiontrendanalysis.service.AnalysisService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * REST Controller exposing the popularity aggregates of the AnalysisService.
+ *
+ * <p>Every response carries a strong ETag built from the versions of the tables the aggregate is computed
+ * from. A request whose If-None-Match header still matches is answered with 304 Not Modified before the
+ * AnalysisService is called, so polling clients cost neither a query nor a response body while the data
+ * is unchanged.</p>
+ */
+@RestController
+@RequestMapping("/api/analysis")
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = "ETag", methods = {RequestMethod.GET})
+public class AnalysisController {
+
+    private final AnalysisService analysisService;
+    private final TableVersions tableVersions;
+
+    /**
+     * Constructor to initialize the AnalysisService and TableVersions dependencies.
+     *
+     * @param analysisService Service that calculates the popularity aggregates.
+     * @param tableVersions   Per-table write counters used to build the ETags.
+     */
+    @Autowired
+    public AnalysisController(AnalysisService analysisService, TableVersions tableVersions) {
+        this.analysisService = analysisService;
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Fetches the average category popularity for a season.
+     *
+     * @param season  the season to calculate the popularity for
+     * @param request the current request, used to evaluate If-None-Match
+     * @return a map of category name to average popularity score, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/categories/season/{season}
+     */
+    @GetMapping("/categories/season/{season}")
+    public ResponseEntity<Map<String, Double>> getCategoryPopularityBySeason(@PathVariable String season, WebRequest request) {
+        return conditional(request, () -> analysisService.calculateCategoryPopularityBySeason(season),
+                DataTable.CATEGORY, DataTable.CATEGORY_POPULARITY);
+    }
+
+    /**
+     * Fetches the average designer popularity.
+     *
+     * @param request the current request, used to evaluate If-None-Match
+     * @return a map of designer name to average popularity score, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/designers
+     */
+    @GetMapping("/designers")
+    public ResponseEntity<Map<String, Double>> getDesignerPopularity(WebRequest request) {
+        return conditional(request, analysisService::calculateDesignerPopularity,
+                DataTable.DESIGNER);
+    }
+
+    /**
+     * Fetches the average product popularity.
+     *
+     * @param request the current request, used to evaluate If-None-Match
+     * @return a map of product name to average popularity score, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/products
+     */
+    @GetMapping("/products")
+    public ResponseEntity<Map<String, Double>> getProductPopularity(WebRequest request) {
+        return conditional(request, analysisService::calculateProductPopularity,
+                DataTable.PRODUCT, DataTable.PRODUCT_POPULARITY);
+    }
+
+    /**
+     * Fetches the average trend popularity.
+     *
+     * @param request the current request, used to evaluate If-None-Match
+     * @return a map of trend name to average popularity score, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/trends
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<Map<String, Double>> getTrendPopularity(WebRequest request) {
+        return conditional(request, analysisService::calculateTrendPopularity,
+                DataTable.TREND, DataTable.TREND_POPULARITY);
+    }
+
+    /**
+     * Fetches the average product popularity per category.
+     *
+     * @param request the current request, used to evaluate If-None-Match
+     * @return a map of category name to average product popularity score, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/products/by-category
+     */
+    @GetMapping("/products/by-category")
+    public ResponseEntity<Map<String, Double>> getProductPopularityByCategory(WebRequest request) {
+        return conditional(request, analysisService::calculateProductPopularityByCategory,
+                DataTable.CATEGORY, DataTable.PRODUCT, DataTable.PRODUCT_POPULARITY);
+    }
+
+    /**
+     * Fetches the average trend popularity per category.
+     *
+     * @param request the current request, used to evaluate If-None-Match
+     * @return a map of category name to average trend popularity score, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/trends/by-category
+     */
+    @GetMapping("/trends/by-category")
+    public ResponseEntity<Map<String, Double>> getTrendPopularityByCategory(WebRequest request) {
+        return conditional(request, analysisService::calculateTrendPopularityByCategory,
+                DataTable.CATEGORY, DataTable.TREND_CATEGORY, DataTable.TREND_POPULARITY);
+    }
+
+    /**
+     * Fetches the average trend popularity for the trends of a season.
+     *
+     * @param season  the season to calculate the popularity for
+     * @param request the current request, used to evaluate If-None-Match
+     * @return a map of trend name to average popularity score, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/trends/season/{season}
+     */
+    @GetMapping("/trends/season/{season}")
+    public ResponseEntity<Map<String, Double>> getTrendPopularityBySeason(@PathVariable String season, WebRequest request) {
+        return conditional(request, () -> analysisService.calculateTrendPopularityBySeason(season),
+                DataTable.TREND, DataTable.TREND_POPULARITY);
+    }
+
+    /**
+     * Fetches the most popular trends, optionally filtered by season, location and category.
+     *
+     * @param k          the number of trends to return
+     * @param season     the season of the trends
+     * @param location   the location of the trends
+     * @param categoryId the category of the trends
+     * @param request    the current request, used to evaluate If-None-Match
+     * @return trend names with their average popularity score, most popular first, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/trends/top?k=10&season=Fall&location=Paris&categoryId=3
+     */
+    @GetMapping("/trends/top")
+    public ResponseEntity<Map<String, Double>> getTopTrends(@RequestParam(defaultValue = "10") int k,
+                                                            @RequestParam(required = false) String season,
+                                                            @RequestParam(required = false) String location,
+                                                            @RequestParam(required = false) Long categoryId,
+                                                            WebRequest request) {
+        return conditional(request, () -> analysisService.getTopTrends(k, season, location, categoryId),
+                DataTable.TREND, DataTable.TREND_POPULARITY);
+    }
+
+    /**
+     * Fetches the most popular products, optionally filtered by category.
+     *
+     * @param k          the number of products to return
+     * @param categoryId the category of the products
+     * @param request    the current request, used to evaluate If-None-Match
+     * @return product names with their average popularity score, most popular first, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/products/top?k=10&categoryId=3
+     */
+    @GetMapping("/products/top")
+    public ResponseEntity<Map<String, Double>> getTopProducts(@RequestParam(defaultValue = "10") int k,
+                                                              @RequestParam(required = false) Long categoryId,
+                                                              WebRequest request) {
+        return conditional(request, () -> analysisService.getTopProducts(k, categoryId),
+                DataTable.PRODUCT, DataTable.PRODUCT_POPULARITY);
+    }
+
+    /**
+     * Fetches the most popular designers, optionally filtered by location.
+     *
+     * @param k        the number of designers to return
+     * @param location the location of the designers
+     * @param request  the current request, used to evaluate If-None-Match
+     * @return designer names with their popularity score, most popular first, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/designers/top?k=5&location=Paris
+     */
+    @GetMapping("/designers/top")
+    public ResponseEntity<Map<String, Double>> getTopDesigners(@RequestParam(defaultValue = "10") int k,
+                                                               @RequestParam(required = false) String location,
+                                                               WebRequest request) {
+        return conditional(request, () -> analysisService.getTopDesigners(k, location),
+                DataTable.DESIGNER);
+    }
+
+    /**
+     * Fetches the most popular categories, optionally for one season.
+     *
+     * @param k       the number of categories to return
+     * @param season  the season of the category scores
+     * @param request the current request, used to evaluate If-None-Match
+     * @return category names with their average popularity score, most popular first, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/categories/top?k=3&season=Summer
+     */
+    @GetMapping("/categories/top")
+    public ResponseEntity<Map<String, Double>> getTopCategories(@RequestParam(defaultValue = "10") int k,
+                                                                @RequestParam(required = false) String season,
+                                                                WebRequest request) {
+        return conditional(request, () -> analysisService.getTopCategories(k, season),
+                DataTable.CATEGORY, DataTable.CATEGORY_POPULARITY);
+    }
+
+    /**
+     * Fetches the estimated percentiles of the product scores of one or more trends, merged into one distribution.
+     *
+     * @param ids     the trends to include; all trends if omitted
+     * @param request the current request, used to evaluate If-None-Match
+     * @return the score distribution with the approximate number of distinct products, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/trends/distribution?ids=1,2
+     */
+    @GetMapping("/trends/distribution")
+    public ResponseEntity<PopularityDistribution> getTrendDistribution(@RequestParam(defaultValue = "") List<Long> ids,
+                                                                       WebRequest request) {
+        return conditional(request, () -> analysisService.getTrendDistribution(ids),
+                DataTable.PRODUCT_POPULARITY);
+    }
+
+    /**
+     * Fetches the estimated percentiles of the product scores of one or more categories, merged into one distribution.
+     *
+     * @param ids     the categories to include; all categories if omitted
+     * @param request the current request, used to evaluate If-None-Match
+     * @return the score distribution with the approximate number of distinct products, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/categories/distribution?ids=1,2
+     */
+    @GetMapping("/categories/distribution")
+    public ResponseEntity<PopularityDistribution> getCategoryDistribution(@RequestParam(defaultValue = "") List<Long> ids,
+                                                                          WebRequest request) {
+        return conditional(request, () -> analysisService.getCategoryDistribution(ids),
+                DataTable.PRODUCT, DataTable.PRODUCT_POPULARITY);
+    }
+
+    /**
+     * Fetches the estimated percentiles of the category scores of one or more seasons, merged into one distribution.
+     *
+     * @param seasons the seasons to include; all seasons if omitted
+     * @param request the current request, used to evaluate If-None-Match
+     * @return the score distribution with the approximate number of distinct categories, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/seasons/distribution?seasons=Fall,Summer
+     */
+    @GetMapping("/seasons/distribution")
+    public ResponseEntity<PopularityDistribution> getSeasonDistribution(@RequestParam(defaultValue = "") List<String> seasons,
+                                                                        WebRequest request) {
+        return conditional(request, () -> analysisService.getSeasonDistribution(seasons),
+                DataTable.CATEGORY_POPULARITY);
+    }
+
+    /**
+     * Fetches exact summary statistics of the trend scores: count, mean, variance, extremes and a histogram.
+     *
+     * @param season  optional season to restrict to
+     * @param request the current request, used to evaluate If-None-Match
+     * @return the statistics of the scores, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/trends/statistics?season=Summer
+     */
+    @GetMapping("/trends/statistics")
+    public ResponseEntity<PopularityStatistics> getTrendStatistics(@RequestParam(required = false) String season,
+                                                                   WebRequest request) {
+        return conditional(request, () -> analysisService.getTrendStatistics(season),
+                DataTable.TREND, DataTable.TREND_POPULARITY);
+    }
+
+    /**
+     * Queries the trend popularity cube. Grouping by more dimensions drills down, by fewer rolls up, and each
+     * of the optional dimension parameters slices the cube to one value.
+     *
+     * @param groupBy  the dimensions to group by: category, season, location and/or designer
+     * @param category the category name to slice on
+     * @param season   the season to slice on
+     * @param location the location to slice on
+     * @param designer the designer name to slice on
+     * @param request  the current request, used to evaluate If-None-Match
+     * @return the cells with their average trend popularity, highest first, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/cube?groupBy=designer&category=Outerwear&location=Paris&season=Fall
+     */
+    @GetMapping("/cube")
+    public ResponseEntity<List<CubeCell>> queryCube(@RequestParam(defaultValue = "") List<String> groupBy,
+                                                    @RequestParam(required = false) String category,
+                                                    @RequestParam(required = false) String season,
+                                                    @RequestParam(required = false) String location,
+                                                    @RequestParam(required = false) String designer,
+                                                    WebRequest request) {
+        return conditional(request, () -> analysisService.queryCube(groupBy, category, season, location, designer),
+                DataTable.CATEGORY, DataTable.DESIGNER, DataTable.TREND, DataTable.TREND_POPULARITY);
+    }
+
+    /**
+     * Fetches every aggregate, together with the product count per category, as one consistent document,
+     * so a dashboard can render all of its charts from a single request.
+     *
+     * @param request the current request, used to evaluate If-None-Match
+     * @return the snapshot of all aggregates, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/snapshot
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<AnalysisSnapshot> getSnapshot(WebRequest request) {
+        return conditional(request, analysisService::getSnapshot, DataTable.values());
+    }
+
+    /**
+     * Fetches the category × category correlation matrix of the average popularity per season.
+     *
+     * @param method  the correlation coefficient: pearson (default) or spearman
+     * @param source  the scores to correlate: category (default) for category_popularity, or trend for the
+     *                scores of each category's trends
+     * @param request the current request, used to evaluate If-None-Match
+     * @return the correlation matrix, or 304 if unchanged
+     * @apiEndpoint GET http://localhost:6363/api/analysis/categories/correlation?method=spearman&source=trend
+     */
+    @GetMapping("/categories/correlation")
+    public ResponseEntity<CategoryCorrelation> getCategoryCorrelation(@RequestParam(defaultValue = "pearson") String method,
+                                                                      @RequestParam(defaultValue = "category") String source,
+                                                                      WebRequest request) {
+        return conditional(request, () -> analysisService.getCategoryCorrelation(method, source),
+                DataTable.CATEGORY, DataTable.CATEGORY_POPULARITY, DataTable.TREND, DataTable.TREND_CATEGORY,
+                DataTable.TREND_POPULARITY);
+    }
+
+    /**
+     * Fetches the counters of the result cache in front of the per-season aggregates and correlation matrices.
+     *
+     * @return the hits, misses, evictions and invalidations since startup, and the current size
+     * @apiEndpoint GET http://localhost:6363/api/analysis/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ResultCacheStats> getCacheStats() {
+        return ResponseEntity.ok(analysisService.getCacheStats());
+    }
+
+    /**
+     * Answers a request with 304 if the client's ETag is still current, and otherwise with the computed result.
+     * The ETag is taken before the result is computed, so a concurrent write can only make it older than the body.
+     * The versions behind the ETag count the writes of this instance, so the body is read from the primary: a lagging
+     * replica could otherwise pin a stale body to a current ETag until the next write.
+     * WebRequest.checkNotModified adds the ETag header to the response in both cases.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, Supplier<T> result, DataTable... tables) {
+        String etag = tableVersions.etag(tables);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ReplicaRoutingDataSource.onPrimary(result));
+    }
+}
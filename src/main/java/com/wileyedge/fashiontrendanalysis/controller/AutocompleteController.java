@@ -0,0 +1,47 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.wileyedge.fashiontrendanalysis.model.AutocompleteSuggestion;
+import com.wileyedge.fashiontrendanalysis.service.AutocompleteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for type-ahead completion of trend, product, designer and category names.
+ */
+@RestController
+@RequestMapping("/api/autocomplete")
+@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET})
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    /**
+     * Constructor to initialize the AutocompleteService dependency.
+     *
+     * @param autocompleteService Service that completes name prefixes.
+     */
+    @Autowired
+    public AutocompleteController(AutocompleteService autocompleteService) {
+        this.autocompleteService = autocompleteService;
+    }
+
+    /**
+     * Suggests names starting with the typed prefix, most popular first.
+     *
+     * @param prefix the typed prefix, matched against the start of any word of a name
+     * @param type   optional kind of name: trend, product, designer or category
+     * @param limit  the maximum number of suggestions, 1 to 50
+     * @return the suggestions, most popular first
+     * @apiEndpoint GET http://localhost:6363/api/autocomplete?prefix=par&type=trend&limit=10
+     */
+    @GetMapping
+    public ResponseEntity<List<AutocompleteSuggestion>> complete(@RequestParam String prefix,
+                                                                 @RequestParam(required = false) String type,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(autocompleteService.complete(prefix, type, limit), HttpStatus.OK);
+    }
+}
@@ -1,6 +1,8 @@
 package com.wileyedge.fashiontrendanalysis.controller;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Category;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import com.wileyedge.fashiontrendanalysis.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -16,7 +18,7 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/categories")
-@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = "X-Next-Cursor", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
 public class CategoryController {
 
     private final CategoryService categoryService;
@@ -34,15 +36,24 @@ public class CategoryController {
     }
 
     /**
-     * Fetches all categories.
+     * Fetches one page of categories, by ID. The X-Next-Cursor response header carries the cursor of the next page
+     * and is absent on the last page.
      *
-     * @return A list containing all categories.
-     * @apiEndpoint GET http://localhost:6363/api/categories
+     * @param cursor Optional cursor of the page to fetch, as returned in X-Next-Cursor.
+     * @param limit Optional page size, bounded by pagination.max-size.
+     * @return A list containing the categories of the page.
+     * @apiEndpoint GET http://localhost:6363/api/categories?limit=100&cursor={cursor}
      */
     @GetMapping
     @CrossOrigin
-    public List<Category> getAllCategories() {
-        return categoryService.getAllCategories();
+    public ResponseEntity<List<Category>> getAllCategories(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit) {
+        KeysetPage<Category> page = categoryService.getCategoriesPage(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     /**
@@ -58,6 +69,18 @@ public class CategoryController {
         return categoryService.getCategoryById(categoryId);
     }
 
+    /**
+     * Retrieves several categories by their IDs in one request, instead of one request per category.
+     *
+     * @param ids the comma-separated IDs of the categories, at most bulk.max-ids.
+     * @return the categories keyed by ID, in request order; IDs without a category are left out.
+     * @apiEndpoint GET http://localhost:6363/api/categories?ids=1,2,3
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Long, Category>> getCategoriesByIds(@RequestParam List<Long> ids) {
+        return new ResponseEntity<>(categoryService.getCategoriesByIds(ids), HttpStatus.OK);
+    }
+
     /**
      * Adds a new category.
      *
@@ -105,6 +128,43 @@ public class CategoryController {
         return isDeleted ? new ResponseEntity<>(HttpStatus.NO_CONTENT) : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Adds several categories in one request. Every category is reported individually, so a rejected category does not
+     * prevent the others from being added.
+     *
+     * @param categories the categories to add
+     * @return the outcome and generated ID of every category, in request order
+     * @apiEndpoint POST http://localhost:6363/api/categories/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> addCategories(@RequestBody List<Category> categories) {
+        return new ResponseEntity<>(categoryService.addCategories(categories), HttpStatus.OK);
+    }
+
+    /**
+     * Updates several categories, identified by the IDs in the request body, in one request.
+     *
+     * @param categories the categories with updated details
+     * @return the outcome of every category, in request order
+     * @apiEndpoint PUT http://localhost:6363/api/categories/batch
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateCategories(@RequestBody List<Category> categories) {
+        return new ResponseEntity<>(categoryService.updateCategories(categories), HttpStatus.OK);
+    }
+
+    /**
+     * Deletes several categories by the IDs in the request body in one request.
+     *
+     * @param ids the IDs of the categories to delete
+     * @return the outcome of every ID, in request order
+     * @apiEndpoint DELETE http://localhost:6363/api/categories/batch
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteCategories(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(categoryService.deleteCategories(ids), HttpStatus.OK);
+    }
+
     /**
      * Retrieves categories associated with a specific trend.
      *
@@ -118,6 +178,19 @@ public class CategoryController {
         return categoryService.getCategoriesByTrend(trendId);
     }
 
+    /**
+     * Retrieves the categories associated with each of several trends in one request, instead of one request
+     * per trend.
+     *
+     * @param ids the comma-separated IDs of the trends, at most bulk.max-ids.
+     * @return the categories of every trend keyed by trend ID, in request order, with an empty list for trends without any.
+     * @apiEndpoint GET http://localhost:6363/api/categories/trend?ids=1,2,3
+     */
+    @GetMapping(value = "/trend", params = "ids")
+    public ResponseEntity<Map<Long, List<Category>>> getCategoriesByTrends(@RequestParam List<Long> ids) {
+        return new ResponseEntity<>(categoryService.getCategoriesByTrends(ids), HttpStatus.OK);
+    }
+
     /**
      * Retrieves categories associated with a specific product.
      *
@@ -1,6 +1,8 @@
 package com.wileyedge.fashiontrendanalysis.controller;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 import com.wileyedge.fashiontrendanalysis.service.DesignerService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,10 +12,11 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/designers")
-@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = "X-Next-Cursor", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
 public class DesignerController {
 
     private final DesignerService designerService;
@@ -24,15 +27,23 @@ public class DesignerController {
     }
 
     /**
-     * Fetches all designers.
+     * Fetches one page of designers, by ID. The X-Next-Cursor response header carries the cursor of the next page
+     * and is absent on the last page.
      *
-     * @return A list of all designers.
-     * @apiEndpoint GET http://localhost:6363/api/designers
+     * @param cursor Optional cursor of the page to fetch, as returned in X-Next-Cursor.
+     * @param limit Optional page size, bounded by pagination.max-size.
+     * @return The designers of the page.
+     * @apiEndpoint GET http://localhost:6363/api/designers?limit=100&cursor={cursor}
      */
     @GetMapping
-    public ResponseEntity<List<Designer>> getAllDesigners() {
-        List<Designer> designers = designerService.getAllDesigners();
-        return new ResponseEntity<>(designers, HttpStatus.OK);
+    public ResponseEntity<List<Designer>> getAllDesigners(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer limit) {
+        KeysetPage<Designer> page = designerService.getDesignersPage(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     /**
@@ -52,6 +63,18 @@ public class DesignerController {
         }
     }
 
+    /**
+     * Fetches several designers by their IDs in one request, instead of one request per designer.
+     *
+     * @param ids The comma-separated IDs of the designers, at most bulk.max-ids.
+     * @return The designers keyed by ID, in request order; IDs without a designer are left out.
+     * @apiEndpoint GET http://localhost:6363/api/designers?ids=1,2,3
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Long, Designer>> getDesignersByIds(@RequestParam List<Long> ids) {
+        return new ResponseEntity<>(designerService.getDesignersByIds(ids), HttpStatus.OK);
+    }
+
     /**
      * Adds a new designer.
      *
@@ -100,6 +123,43 @@ public class DesignerController {
         }
     }
 
+    /**
+     * Adds several designers in one request. Every designer is reported individually, so a rejected designer does not
+     * prevent the others from being added.
+     *
+     * @param designers the designers to add
+     * @return the outcome and generated ID of every designer, in request order
+     * @apiEndpoint POST http://localhost:6363/api/designers/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> addDesigners(@RequestBody List<Designer> designers) {
+        return new ResponseEntity<>(designerService.addDesigners(designers), HttpStatus.OK);
+    }
+
+    /**
+     * Updates several designers, identified by the IDs in the request body, in one request.
+     *
+     * @param designers the designers with updated details
+     * @return the outcome of every designer, in request order
+     * @apiEndpoint PUT http://localhost:6363/api/designers/batch
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateDesigners(@RequestBody List<Designer> designers) {
+        return new ResponseEntity<>(designerService.updateDesigners(designers), HttpStatus.OK);
+    }
+
+    /**
+     * Deletes several designers by the IDs in the request body in one request.
+     *
+     * @param ids the IDs of the designers to delete
+     * @return the outcome of every ID, in request order
+     * @apiEndpoint DELETE http://localhost:6363/api/designers/batch
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteDesigners(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(designerService.deleteDesigners(ids), HttpStatus.OK);
+    }
+
     /**
      * Fetches designers based on their location.
      *
@@ -0,0 +1,98 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.ExportFormat;
+import com.wileyedge.fashiontrendanalysis.service.ProductService;
+import com.wileyedge.fashiontrendanalysis.service.TrendService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * REST Controller for the bulk exports of the catalogue.
+ * Unlike the paginated list endpoints, an export returns a whole table in one response. The rows are streamed
+ * from a forward-only result set straight into the response as NDJSON, CSV or a JSON array, so the first bytes
+ * are sent right away and the heap used does not grow with the table.
+ */
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = "Content-Disposition", methods = {RequestMethod.GET})
+public class ExportController {
+
+    private final ProductService productService;
+    private final TrendService trendService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor to initialize the ProductService, TrendService and ObjectMapper dependencies.
+     *
+     * @param productService Service streaming the products.
+     * @param trendService   Service streaming the trends.
+     * @param objectMapper   Mapper serializing the exported rows.
+     */
+    @Autowired
+    public ExportController(ProductService productService, TrendService trendService, ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.trendService = trendService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exports all products, by ID.
+     *
+     * @param format ndjson (default), csv or json
+     * @return the streamed products, as an attachment named products.{format}
+     * @apiEndpoint GET http://localhost:6363/api/export/products?format=csv
+     */
+    @GetMapping("/products")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        return export("products", exportFormat(format), sink -> productService.exportProducts(sink::accept));
+    }
+
+    /**
+     * Exports all trends with their momentum and hot score, by ID.
+     *
+     * @param format ndjson (default), csv or json
+     * @return the streamed trends, as an attachment named trends.{format}
+     * @apiEndpoint GET http://localhost:6363/api/export/trends?format=ndjson
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<StreamingResponseBody> exportTrends(@RequestParam(defaultValue = "ndjson") String format) {
+        return export("trends", exportFormat(format), sink -> trendService.exportTrends(sink::accept));
+    }
+
+    private static ExportFormat exportFormat(String format) {
+        try {
+            return ExportFormat.fromName(format);
+        } catch (IllegalArgumentException e) {
+            throw new CustomUncheckedException("Exports can be written as ndjson, csv or json: " + format, "INVALID_FORMAT");
+        }
+    }
+
+    /**
+     * Builds the streamed response. The rows are read when the response body is written, after the headers
+     * have been sent, so errors must be detected before this is called.
+     */
+    private ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, Consumer<Consumer<Object>> rows) {
+        StreamingResponseBody body = out -> {
+            try (ExportRowWriter writer = new ExportRowWriter(format, objectMapper, out)) {
+                rows.accept(writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(name + "." + format.key()).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,117 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wileyedge.fashiontrendanalysis.model.ExportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Writes export rows to a response stream as they arrive, in one of the {@link ExportFormat}s.
+ *
+ * <p>Rows go through a single JSON generator and its fixed-size buffer, so nothing but the current row is held
+ * in memory. CSV rows are converted to a JSON tree first; the header is taken from the properties of the first
+ * row. Write failures, such as a client closing the connection, are rethrown as {@link UncheckedIOException}
+ * so that they stop the reading query.</p>
+ */
+class ExportRowWriter implements Consumer<Object>, Closeable {
+
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final JsonGenerator generator;
+    private boolean first = true;
+
+    /**
+     * Starts an export.
+     *
+     * @param format       the format to write
+     * @param objectMapper the mapper serializing the rows
+     * @param out          the response stream; it is flushed but not closed by {@link #close()}
+     * @throws IOException if the stream cannot be written
+     */
+    ExportRowWriter(ExportFormat format, ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        // The response is flushed by the generator buffer filling up, not after every row.
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        if (format == ExportFormat.JSON) {
+            generator.writeStartArray();
+        }
+    }
+
+    /**
+     * Writes one row.
+     *
+     * @param row the row, serialized with the mapper like a response body
+     */
+    @Override
+    public void accept(Object row) {
+        try {
+            switch (format) {
+                case NDJSON -> {
+                    rowWriter.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                }
+                case JSON -> rowWriter.writeValue(generator, row);
+                case CSV -> writeCsv(objectMapper.valueToTree(row));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        first = false;
+    }
+
+    /**
+     * Ends the export and flushes the buffered rows.
+     */
+    @Override
+    public void close() throws IOException {
+        if (format == ExportFormat.JSON) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+
+    private void writeCsv(JsonNode row) throws IOException {
+        if (first) {
+            StringBuilder header = new StringBuilder();
+            for (Iterator<String> names = row.fieldNames(); names.hasNext(); ) {
+                header.append(csvField(names.next())).append(names.hasNext() ? "," : "\n");
+            }
+            generator.writeRaw(header.toString());
+        }
+        StringBuilder line = new StringBuilder();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = row.fields(); fields.hasNext(); ) {
+            JsonNode value = fields.next().getValue();
+            if (!value.isNull()) {
+                line.append(csvField(value.isValueNode() ? value.asText() : value.toString()));
+            }
+            line.append(fields.hasNext() ? "," : "\n");
+        }
+        generator.writeRaw(line.toString());
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, a quote or a line break, doubling embedded quotes.
+     */
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,46 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.wileyedge.fashiontrendanalysis.model.LocationRollup;
+import com.wileyedge.fashiontrendanalysis.service.LocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for trend and designer rollups along the city → country → region location hierarchy.
+ */
+@RestController
+@RequestMapping("/api/locations")
+@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET})
+public class LocationController {
+
+    private final LocationService locationService;
+
+    /**
+     * Constructor to initialize the LocationService dependency.
+     *
+     * @param locationService Service that reads the location rollups.
+     */
+    @Autowired
+    public LocationController(LocationService locationService) {
+        this.locationService = locationService;
+    }
+
+    /**
+     * Retrieves the trend count, designer count and average trend popularity of every location of a level,
+     * optionally restricted to the children of one country or region.
+     *
+     * @param level  city, country or region
+     * @param parent optional enclosing country or region
+     * @return the rollups of the level, by name
+     * @apiEndpoint GET http://localhost:6363/api/locations/rollups?level=country&parent=Europe
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<List<LocationRollup>> getLocationRollups(@RequestParam(defaultValue = "region") String level,
+                                                                   @RequestParam(required = false) String parent) {
+        return new ResponseEntity<>(locationService.getLocationRollups(level, parent), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,78 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.wileyedge.fashiontrendanalysis.model.PopularityHistory;
+import com.wileyedge.fashiontrendanalysis.service.PopularityHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * REST Controller for the popularity history of trends and products.
+ * Ranges are given as ISO-8601 instants; the optional step (an ISO-8601 duration such as PT1H) is the
+ * largest acceptable distance between two points and selects the resolution the history is read at.
+ */
+@RestController
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET})
+public class PopularityHistoryController {
+
+    // Range returned when the caller gives no start.
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(7);
+
+    private final PopularityHistoryService historyService;
+
+    /**
+     * Constructor to initialize the PopularityHistoryService dependency.
+     *
+     * @param historyService Service that provides the popularity history.
+     */
+    @Autowired
+    public PopularityHistoryController(PopularityHistoryService historyService) {
+        this.historyService = historyService;
+    }
+
+    /**
+     * Fetches the popularity history of a trend.
+     *
+     * @param trendId the ID of the trend
+     * @param from    the start of the range, defaults to seven days before its end
+     * @param to      the end of the range, defaults to now
+     * @param step    the largest acceptable distance between two points
+     * @return the history of the trend within the range
+     * @apiEndpoint GET http://localhost:6363/api/history/trends/{trendId}?from=2023-10-01T00:00:00Z&step=PT1H
+     */
+    @GetMapping("/trends/{trendId}")
+    public ResponseEntity<PopularityHistory> getTrendHistory(@PathVariable Long trendId,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                             @RequestParam(required = false) Duration step) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        return new ResponseEntity<>(historyService.getTrendHistory(trendId, start, end, step), HttpStatus.OK);
+    }
+
+    /**
+     * Fetches the popularity history of a product across all of its trends.
+     *
+     * @param productId the ID of the product
+     * @param from      the start of the range, defaults to seven days before its end
+     * @param to        the end of the range, defaults to now
+     * @param step      the largest acceptable distance between two points
+     * @return the history of the product within the range
+     * @apiEndpoint GET http://localhost:6363/api/history/products/{productId}?from=2023-10-01T00:00:00Z&step=P1D
+     */
+    @GetMapping("/products/{productId}")
+    public ResponseEntity<PopularityHistory> getProductHistory(@PathVariable Long productId,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                               @RequestParam(required = false) Duration step) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        return new ResponseEntity<>(historyService.getProductHistory(productId, start, end, step), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,91 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal;
+import com.wileyedge.fashiontrendanalysis.service.PopularityIngestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST Controller for bulk ingestion of popularity signals from upstream systems.
+ * Signals are posted as a JSON array or as newline-delimited JSON, one signal per line. Accepted batches
+ * are answered with 202 and written asynchronously; when the ingestion buffer has no room for a batch
+ * it is rejected as a whole with 429 and should be retried after the Retry-After delay.
+ */
+@RestController
+@RequestMapping("/api/popularity")
+@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.POST})
+public class PopularityIngestionController {
+
+    // Seconds a rejected client is asked to wait before retrying.
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final PopularityIngestionService ingestionService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor to initialize the PopularityIngestionService and ObjectMapper dependencies.
+     *
+     * @param ingestionService Service that buffers and group-commits the signals.
+     * @param objectMapper     Mapper used to read newline-delimited JSON.
+     */
+    @Autowired
+    public PopularityIngestionController(PopularityIngestionService ingestionService, ObjectMapper objectMapper) {
+        this.ingestionService = ingestionService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Ingests a JSON array of popularity signals.
+     *
+     * @param signals the signals to ingest
+     * @return the number of accepted signals with 202, or 429 if the buffer is full
+     * @apiEndpoint POST http://localhost:6363/api/popularity/events
+     */
+    @PostMapping(value = "/events", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Integer> ingest(@RequestBody List<PopularitySignal> signals) {
+        return submit(signals);
+    }
+
+    /**
+     * Ingests newline-delimited JSON popularity signals. Blank lines are ignored.
+     *
+     * @param body one JSON signal per line
+     * @return the number of accepted signals with 202, or 429 if the buffer is full
+     * @apiEndpoint POST http://localhost:6363/api/popularity/events (Content-Type: application/x-ndjson)
+     */
+    @PostMapping(value = "/events", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Integer> ingestNdjson(@RequestBody String body) {
+        List<PopularitySignal> signals = new ArrayList<>();
+        String[] lines = body.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].isBlank()) {
+                continue;
+            }
+            try {
+                signals.add(objectMapper.readValue(lines[i], PopularitySignal.class));
+            } catch (JsonProcessingException e) {
+                throw new CustomUncheckedException("Malformed signal on line " + (i + 1), "INVALID_SIGNAL");
+            }
+        }
+        return submit(signals);
+    }
+
+    private ResponseEntity<Integer> submit(List<PopularitySignal> signals) {
+        if (ingestionService.submit(signals)) {
+            return new ResponseEntity<>(signals.size(), HttpStatus.ACCEPTED);
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.wileyedge.fashiontrendanalysis.controller;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
+import com.wileyedge.fashiontrendanalysis.model.PopularityMomentum;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 import com.wileyedge.fashiontrendanalysis.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +20,7 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/products")
-@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = "X-Next-Cursor", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
 public class ProductController {
 
     private final ProductService productService;
@@ -34,14 +37,52 @@ public class ProductController {
 
 
     /**
-     * Fetches all products.
+     * Fetches one page of products, by ID. The X-Next-Cursor response header carries the cursor of the next page
+     * and is absent on the last page.
      *
-     * @return a list of all products, or an empty list if none exist
-     * @apiEndpoint GET http://localhost:6363/api/products
+     * @param cursor optional cursor of the page to fetch, as returned in X-Next-Cursor
+     * @param limit  optional page size, bounded by pagination.max-size
+     * @return the products of the page, or an empty list if none exist
+     * @apiEndpoint GET http://localhost:6363/api/products?limit=100&cursor={cursor}
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<Product>> getAllProducts(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit) {
+        KeysetPage<Product> page = productService.getProductsPage(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Fetches the products matching all given filters. Each filter accepts several comma-separated values,
+     * any of which matches; omitted filters match every product.
+     *
+     * @param categoryId optional category IDs
+     * @param designerId optional designer IDs
+     * @return a list of the matching products
+     * @apiEndpoint GET http://localhost:6363/api/products/filter?categoryId=1,2&designerId=3
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<List<Product>> filterProducts(@RequestParam(required = false) List<Long> categoryId,
+                                                        @RequestParam(required = false) List<Long> designerId) {
+        return ResponseEntity.ok(productService.filterProducts(categoryId, designerId));
+    }
+
+    /**
+     * Counts the products matching all given filters, with the same parameters as the filter endpoint.
+     *
+     * @param categoryId optional category IDs
+     * @param designerId optional designer IDs
+     * @return the number of matching products
+     * @apiEndpoint GET http://localhost:6363/api/products/filter/count?categoryId=1
+     */
+    @GetMapping("/filter/count")
+    public ResponseEntity<Integer> countProducts(@RequestParam(required = false) List<Long> categoryId,
+                                                 @RequestParam(required = false) List<Long> designerId) {
+        return ResponseEntity.ok(productService.countProducts(categoryId, designerId));
     }
 
     /**
@@ -61,6 +102,18 @@ public class ProductController {
         }
     }
 
+    /**
+     * Retrieves several products by their IDs in one request, instead of one request per product.
+     *
+     * @param ids the comma-separated IDs of the products, at most bulk.max-ids
+     * @return the products keyed by ID, in request order; IDs without a product are left out
+     * @apiEndpoint GET http://localhost:6363/api/products?ids=1,2,3
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Long, Product>> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
     /**
      * Adds a new product.
      *
@@ -108,6 +161,43 @@ public class ProductController {
         }
     }
 
+    /**
+     * Adds several products in one request. Every product is reported individually, so a rejected product does not
+     * prevent the others from being added.
+     *
+     * @param products the products to add
+     * @return the outcome and generated ID of every product, in request order
+     * @apiEndpoint POST http://localhost:6363/api/products/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> addProducts(@RequestBody List<Product> products) {
+        return new ResponseEntity<>(productService.addProducts(products), HttpStatus.OK);
+    }
+
+    /**
+     * Updates several products, identified by the IDs in the request body, in one request.
+     *
+     * @param products the products with updated details
+     * @return the outcome of every product, in request order
+     * @apiEndpoint PUT http://localhost:6363/api/products/batch
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateProducts(@RequestBody List<Product> products) {
+        return new ResponseEntity<>(productService.updateProducts(products), HttpStatus.OK);
+    }
+
+    /**
+     * Deletes several products by the IDs in the request body in one request.
+     *
+     * @param ids the IDs of the products to delete
+     * @return the outcome of every ID, in request order
+     * @apiEndpoint DELETE http://localhost:6363/api/products/batch
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteProducts(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(productService.deleteProducts(ids), HttpStatus.OK);
+    }
+
     /**
      * Fetches products associated with a specific designer.
      *
@@ -222,6 +312,19 @@ public class ProductController {
         return new ResponseEntity<>(scores, HttpStatus.OK);
     }
 
+    /**
+     * Fetches the momentum and hot score of each trend score of a product.
+     *
+     * @param productId The ID of the product.
+     * @return The momentum of the product keyed by trend ID.
+     * @apiEndpoint GET http://localhost:6363/api/products/{productId}/momentum
+     */
+    @GetMapping("/{productId}/momentum")
+    public ResponseEntity<Map<Long, PopularityMomentum>> getProductMomentum(@PathVariable Long productId) {
+        Map<Long, PopularityMomentum> momentum = productService.getProductMomentum(productId);
+        return new ResponseEntity<>(momentum, HttpStatus.OK);
+    }
+
     /**
      * Serves the visualisation page to the client.
      *
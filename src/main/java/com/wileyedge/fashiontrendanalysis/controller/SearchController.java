@@ -0,0 +1,47 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.wileyedge.fashiontrendanalysis.model.SearchHit;
+import com.wileyedge.fashiontrendanalysis.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for full-text search over trends and products.
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET})
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * Constructor to initialize the SearchService dependency.
+     *
+     * @param searchService Service that searches trends and products.
+     */
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Searches the names and descriptions of trends and products by keyword, ranked by relevance.
+     *
+     * @param q     the free-text query
+     * @param type  optional document type: trend or product
+     * @param limit the maximum number of hits, 1 to 100
+     * @return the matching trends and products, most relevant first
+     * @apiEndpoint GET http://localhost:6363/api/search?q=denim jacket&type=product&limit=10
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchHit>> search(@RequestParam String q,
+                                                  @RequestParam(required = false) String type,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        return new ResponseEntity<>(searchService.search(q, type, limit), HttpStatus.OK);
+    }
+}
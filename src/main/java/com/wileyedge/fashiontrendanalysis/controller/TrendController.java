@@ -1,5 +1,8 @@
 package com.wileyedge.fashiontrendanalysis.controller;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
+import com.wileyedge.fashiontrendanalysis.model.SimilarTrend;
 import com.wileyedge.fashiontrendanalysis.model.Trend;
 import com.wileyedge.fashiontrendanalysis.service.TrendService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -16,7 +20,7 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/api/trends")
-@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = "X-Next-Cursor", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
 public class TrendController {
 
     private final TrendService trendService;
@@ -32,17 +36,67 @@ public class TrendController {
     }
 
     /**
-     * Fetches all trends.
+     * Fetches one page of trends. The X-Next-Cursor response header carries the cursor of the next page and is
+     * absent on the last page.
      *
-     * @return a list of all trends
-     * @apiEndpoint GET http://localhost:6363/api/trends
+     * @param sort   optional field to order by, highest first: momentum or hotScore; by ID if omitted
+     * @param cursor optional cursor of the page to fetch, as returned in X-Next-Cursor
+     * @param limit  optional page size, bounded by pagination.max-size
+     * @return the trends of the page
+     * @apiEndpoint GET http://localhost:6363/api/trends?sort=hotScore&limit=100&cursor={cursor}
      */
     @GetMapping
-    public ResponseEntity<List<Trend>> getAllTrends() {
-        List<Trend> trends = trendService.getAllTrends();
+    public ResponseEntity<List<Trend>> getAllTrends(@RequestParam(required = false) String sort,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit) {
+        KeysetPage<Trend> page = trendService.getTrendsPage(cursor, limit, sort);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Fetches the trends matching all given filters. Each filter accepts several comma-separated values,
+     * any of which matches; omitted filters match every trend.
+     *
+     * @param season optional seasons
+     * @param location optional locations
+     * @param categoryId optional category IDs
+     * @param designerId optional designer IDs
+     * @param sort optional field to order by, highest first: momentum or hotScore
+     * @return a list of the matching trends
+     * @apiEndpoint GET http://localhost:6363/api/trends/filter?season=Summer,Fall&location=Paris&categoryId=1
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<List<Trend>> filterTrends(@RequestParam(required = false) List<String> season,
+                                                    @RequestParam(required = false) List<String> location,
+                                                    @RequestParam(required = false) List<Long> categoryId,
+                                                    @RequestParam(required = false) List<Long> designerId,
+                                                    @RequestParam(required = false) String sort) {
+        List<Trend> trends = trendService.sortTrends(trendService.filterTrends(season, location, categoryId, designerId), sort);
         return new ResponseEntity<>(trends, HttpStatus.OK);
     }
 
+    /**
+     * Counts the trends matching all given filters, with the same parameters as the filter endpoint.
+     *
+     * @param season optional seasons
+     * @param location optional locations
+     * @param categoryId optional category IDs
+     * @param designerId optional designer IDs
+     * @return the number of matching trends
+     * @apiEndpoint GET http://localhost:6363/api/trends/filter/count?season=Summer&designerId=3
+     */
+    @GetMapping("/filter/count")
+    public ResponseEntity<Integer> countTrends(@RequestParam(required = false) List<String> season,
+                                               @RequestParam(required = false) List<String> location,
+                                               @RequestParam(required = false) List<Long> categoryId,
+                                               @RequestParam(required = false) List<Long> designerId) {
+        return new ResponseEntity<>(trendService.countTrends(season, location, categoryId, designerId), HttpStatus.OK);
+    }
+
     /**
      * Retrieves a specific trend by its ID.
      *
@@ -58,6 +112,36 @@ public class TrendController {
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+
+    }
+
+    /**
+     * Retrieves several trends by their IDs in one request, instead of one request per trend.
+     *
+     * @param ids the comma-separated IDs of the trends, at most bulk.max-ids
+     * @return the trends keyed by ID, in request order; IDs without a trend are left out
+     * @apiEndpoint GET http://localhost:6363/api/trends?ids=1,2,3
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Long, Trend>> getTrendsByIds(@RequestParam List<Long> ids) {
+        return new ResponseEntity<>(trendService.getTrendsByIds(ids), HttpStatus.OK);
+    }
+
+    /**
+     * Fetches the trends most similar to a trend by categories, location, season, popularity and description.
+     *
+     * @param id the ID of the trend
+     * @param k the maximum number of similar trends, 1 to 100
+     * @return the similar trends with their similarity, most similar first, or 404 if the trend does not exist
+     * @apiEndpoint GET http://localhost:6363/api/trends/{id}/similar?k=5
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarTrend>> getSimilarTrends(@PathVariable Long id, @RequestParam(defaultValue = "10") int k) {
+        List<SimilarTrend> similar = trendService.getSimilarTrends(id, k);
+        if (similar == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(similar, HttpStatus.OK);
     }
 
     /**
@@ -108,16 +192,54 @@ public class TrendController {
         }
     }
 
+    /**
+     * Adds several trends in one request. Every trend is reported individually, so a rejected trend does not
+     * prevent the others from being added.
+     *
+     * @param trends the trends to add
+     * @return the outcome and generated ID of every trend, in request order
+     * @apiEndpoint POST http://localhost:6363/api/trends/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> addTrends(@RequestBody List<Trend> trends) {
+        return new ResponseEntity<>(trendService.addTrends(trends), HttpStatus.OK);
+    }
+
+    /**
+     * Updates several trends, identified by the IDs in the request body, in one request.
+     *
+     * @param trends the trends with updated details
+     * @return the outcome of every trend, in request order
+     * @apiEndpoint PUT http://localhost:6363/api/trends/batch
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateTrends(@RequestBody List<Trend> trends) {
+        return new ResponseEntity<>(trendService.updateTrends(trends), HttpStatus.OK);
+    }
+
+    /**
+     * Deletes several trends by the IDs in the request body in one request.
+     *
+     * @param ids the IDs of the trends to delete
+     * @return the outcome of every ID, in request order
+     * @apiEndpoint DELETE http://localhost:6363/api/trends/batch
+     */
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteTrends(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(trendService.deleteTrends(ids), HttpStatus.OK);
+    }
+
     /**
      * Fetches trends associated with a specific category.
      *
      * @param categoryId the ID of the category
+     * @param sort optional field to order by, highest first: momentum or hotScore
      * @return a list of trends by the specified category
      * @apiEndpoint GET http://localhost:6363/api/trends/category/{categoryId}
      */
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Trend>> getTrendsByCategory(@PathVariable Long categoryId) {
-        List<Trend> trends = trendService.getTrendsByCategory(categoryId);
+    public ResponseEntity<List<Trend>> getTrendsByCategory(@PathVariable Long categoryId, @RequestParam(required = false) String sort) {
+        List<Trend> trends = trendService.sortTrends(trendService.getTrendsByCategory(categoryId), sort);
         return new ResponseEntity<>(trends, HttpStatus.OK);
     }
 
@@ -125,12 +247,13 @@ public class TrendController {
      * Fetches trends designed by a specific designer.
      *
      * @param designerId the ID of the designer
+     * @param sort optional field to order by, highest first: momentum or hotScore
      * @return a list of trends by the specified designer
      * @apiEndpoint GET http://localhost:6363/api/trends/designer/{designerId}
      */
     @GetMapping("/designer/{designerId}")
-    public ResponseEntity<List<Trend>> getTrendsByDesigner(@PathVariable Long designerId) {
-        List<Trend> trends = trendService.getTrendsByDesigner(designerId);
+    public ResponseEntity<List<Trend>> getTrendsByDesigner(@PathVariable Long designerId, @RequestParam(required = false) String sort) {
+        List<Trend> trends = trendService.sortTrends(trendService.getTrendsByDesigner(designerId), sort);
         return new ResponseEntity<>(trends, HttpStatus.OK);
     }
 
@@ -138,12 +261,13 @@ public class TrendController {
      * Fetches trends from a specific location.
      *
      * @param location the location name
+     * @param sort optional field to order by, highest first: momentum or hotScore
      * @return a list of trends from the specified location
      * @apiEndpoint GET http://localhost:6363/api/trends/location/{location}
      */
     @GetMapping("/location/{location}")
-    public ResponseEntity<List<Trend>> getTrendsByLocation(@PathVariable String location) {
-        List<Trend> trends = trendService.getTrendsByLocation(location);
+    public ResponseEntity<List<Trend>> getTrendsByLocation(@PathVariable String location, @RequestParam(required = false) String sort) {
+        List<Trend> trends = trendService.sortTrends(trendService.getTrendsByLocation(location), sort);
         return new ResponseEntity<>(trends, HttpStatus.OK);
     }
 
@@ -151,12 +275,13 @@ public class TrendController {
      * Fetches trends from a specific season.
      *
      * @param season the season name
+     * @param sort optional field to order by, highest first: momentum or hotScore
      * @return a list of trends from the specified season
      * @apiEndpoint GET http://localhost:6363/api/trends/season/{season}
      */
     @GetMapping("/season/{season}")
-    public ResponseEntity<List<Trend>> getTrendsBySeason(@PathVariable String season) {
-        List<Trend> trends = trendService.getTrendsBySeason(season);
+    public ResponseEntity<List<Trend>> getTrendsBySeason(@PathVariable String season, @RequestParam(required = false) String sort) {
+        List<Trend> trends = trendService.sortTrends(trendService.getTrendsBySeason(season), sort);
         return new ResponseEntity<>(trends, HttpStatus.OK);
     }
 
@@ -227,5 +352,17 @@ public class TrendController {
         return new ResponseEntity<>(popularity, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves the popularity scores of several trends in one request, instead of one request per trend.
+     *
+     * @param ids the IDs of the trends, at most bulk.max-ids
+     * @return the popularity score of every trend keyed by ID, in request order; 0 for trends without a score
+     * @apiEndpoint POST http://localhost:6363/api/trends/popularity:batchGet
+     */
+    @PostMapping("/popularity:batchGet")
+    public ResponseEntity<Map<Long, Integer>> getTrendPopularities(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(trendService.getTrendPopularities(ids), HttpStatus.OK);
+    }
+
 }
 
@@ -1,5 +1,6 @@
 package com.wileyedge.fashiontrendanalysis.controller;
 
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import com.wileyedge.fashiontrendanalysis.model.User;
 import com.wileyedge.fashiontrendanalysis.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +13,7 @@ import java.util.List;
 import java.util.Map;
 
 @RestController
-@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = "X-Next-Cursor", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE})
 public class UserController {
 
     @Autowired
@@ -62,15 +63,23 @@ public class UserController {
     }
 
     /**
-     * Retrieve a list of all registered users.
+     * Retrieve one page of registered users, by ID.
      * This endpoint is intended for admin-only access.
-     * @return List of all users.
-     * @apiEndpoint GET http://localhost:6363/api/users
+     * The X-Next-Cursor response header carries the cursor of the next page and is absent on the last page.
+     * @param cursor Optional cursor of the page to fetch, as returned in X-Next-Cursor.
+     * @param limit Optional page size, bounded by pagination.max-size.
+     * @return List of the users of the page.
+     * @apiEndpoint GET http://localhost:6363/api/users?limit=100&cursor={cursor}
      */
     @GetMapping("/api/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        KeysetPage<User> page = userService.getUsersPage(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     /**
@@ -0,0 +1,111 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads the rows of many IDs with a few {@code IN (...)} queries, for the multi-ID fetches of the catalogue DAOs.
+ *
+ * <p>The IDs are de-duplicated and split into chunks of {@code bulk.chunk-size}, each read with one query, so
+ * fetching n entities costs n / chunk-size round trips instead of n. A request may ask for up to
+ * {@code bulk.max-ids} IDs. The results are keyed by ID in request order; IDs without rows are left out.</p>
+ */
+@Component
+class BatchReader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int maxIds;
+
+    /**
+     * Constructs the reader.
+     *
+     * @param jdbcTemplate the JdbcTemplate the queries are executed with
+     * @param chunkSize    the number of IDs bound to one query
+     * @param maxIds       the largest number of IDs accepted in one request
+     */
+    @Autowired
+    BatchReader(JdbcTemplate jdbcTemplate,
+                @Value("${bulk.chunk-size:500}") int chunkSize,
+                @Value("${bulk.max-ids:1000}") int maxIds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Reads the row of every ID.
+     *
+     * @param sql      the SELECT statement, with {@code %s} standing for the ID placeholders of its IN list
+     * @param ids      the IDs to read
+     * @param idColumn the column holding the ID of a row
+     * @param mapper   maps the current row
+     * @return the row of every ID that has one, in request order
+     */
+    <T> Map<Long, T> readById(String sql, Collection<Long> ids, String idColumn, RowMapper<T> mapper) {
+        List<Long> distinct = checkIds(ids);
+        Map<Long, T> found = new HashMap<>();
+        read(sql, distinct, idColumn, mapper, found::put);
+        Map<Long, T> byId = new LinkedHashMap<>();
+        for (Long id : distinct) {
+            T row = found.get(id);
+            if (row != null) {
+                byId.put(id, row);
+            }
+        }
+        return byId;
+    }
+
+    /**
+     * Reads the rows of every ID, for IDs that may have several rows.
+     *
+     * @param sql      the SELECT statement, with {@code %s} standing for the ID placeholders of its IN list
+     * @param ids      the IDs to read
+     * @param idColumn the column holding the ID a row belongs to
+     * @param mapper   maps the current row
+     * @return the rows of every ID, in request order, with an empty list for IDs without rows
+     */
+    <T> Map<Long, List<T>> readGroupedById(String sql, Collection<Long> ids, String idColumn, RowMapper<T> mapper) {
+        List<Long> distinct = checkIds(ids);
+        Map<Long, List<T>> byId = new LinkedHashMap<>();
+        for (Long id : distinct) {
+            byId.put(id, new ArrayList<>());
+        }
+        read(sql, distinct, idColumn, mapper, (id, row) -> byId.get(id).add(row));
+        return byId;
+    }
+
+    private <T> void read(String sql, List<Long> ids, String idColumn, RowMapper<T> mapper, BiConsumer<Long, T> sink) {
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(String.format(sql, placeholders), rs -> {
+                sink.accept(rs.getLong(idColumn), mapper.mapRow(rs, rs.getRow()));
+            }, chunk.toArray());
+        }
+    }
+
+    private List<Long> checkIds(Collection<Long> ids) {
+        List<Long> distinct = ids == null ? new ArrayList<>() : new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(Objects::isNull);
+        if (distinct.isEmpty() || distinct.size() > maxIds) {
+            throw new CustomUncheckedException("Between 1 and " + maxIds + " IDs can be fetched at once", "INVALID_IDS");
+        }
+        return distinct;
+    }
+}
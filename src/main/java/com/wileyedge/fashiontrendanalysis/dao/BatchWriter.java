@@ -0,0 +1,207 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Writes the batch create, update and delete requests of the catalogue DAOs as JDBC batches, one transaction
+ * per chunk of {@code batch.chunk-size} items.
+ *
+ * <p>A chunk is sent as one batch statement; inserts read the generated keys of the whole batch from the same
+ * statement. If the database rejects any item, the chunk is rolled back and its items are retried one by one,
+ * so every item is reported individually and a bad item only costs its own chunk the batching.</p>
+ *
+ * <p>Each committed transaction publishes one DataChangeEvent: with the ID of the row if it wrote a single row,
+ * as the single-row writes do, and without an ID if it wrote several, which listeners treat as a change of the
+ * whole table. A chunk of hundreds of rows thus costs each listener one refresh rather than one per row.</p>
+ */
+@Component
+class BatchWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxItems;
+
+    /**
+     * Constructs the writer.
+     *
+     * @param jdbcTemplate       the JdbcTemplate the batches are executed with
+     * @param transactionManager the transaction manager committing each chunk
+     * @param eventPublisher     the publisher used to announce writes to listeners maintaining in-memory views
+     * @param chunkSize          the number of items committed per transaction
+     * @param maxItems           the largest number of items accepted in one request
+     */
+    @Autowired
+    BatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                ApplicationEventPublisher eventPublisher,
+                @Value("${batch.chunk-size:500}") int chunkSize,
+                @Value("${batch.max-items:10000}") int maxItems) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Inserts the items and reports their generated IDs.
+     *
+     * @param sql       the INSERT statement
+     * @param keyColumn the column of the generated key
+     * @param items     the items to insert
+     * @param setter    binds the parameters of one item
+     * @param table     the table announced in the change events
+     * @return one result per item, in order
+     */
+    <T> List<BatchItemResult> insert(String sql, String keyColumn, List<T> items,
+                                     ParameterizedPreparedStatementSetter<T> setter, DataTable table) {
+        checkSize(items);
+        return inChunks(items, chunk -> jdbcTemplate.execute((ConnectionCallback<List<BatchItemResult>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql, new String[]{keyColumn})) {
+                for (T item : chunk) {
+                    setter.setValues(ps, item);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<BatchItemResult> results = new ArrayList<>();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        results.add(new BatchItemResult(0, keys.getLong(1), BatchItemStatus.CREATED, null));
+                    }
+                }
+                // Drivers return one key per inserted row; report any row without a key as created without an ID.
+                while (results.size() < chunk.size()) {
+                    results.add(new BatchItemResult(0, null, BatchItemStatus.CREATED, null));
+                }
+                return results;
+            }
+        }), item -> null, table);
+    }
+
+    /**
+     * Updates the rows identified by the items.
+     *
+     * @param sql    the UPDATE statement
+     * @param items  the items to update
+     * @param id     extracts the ID of an item
+     * @param setter binds the parameters of one item
+     * @param table  the table announced in the change events
+     * @return one result per item, in order
+     */
+    <T> List<BatchItemResult> update(String sql, List<T> items, Function<T, Long> id,
+                                     ParameterizedPreparedStatementSetter<T> setter, DataTable table) {
+        checkSize(items);
+        for (int i = 0; i < items.size(); i++) {
+            if (id.apply(items.get(i)) == null) {
+                throw new CustomUncheckedException("Item " + i + " of the batch has no ID", "INVALID_BATCH");
+            }
+        }
+        return inChunks(items, chunk -> {
+            int[] counts = jdbcTemplate.batchUpdate(sql, chunk, chunk.size(), setter)[0];
+            return outcomes(counts, chunk.stream().map(id).toList(), BatchItemStatus.UPDATED);
+        }, id, table);
+    }
+
+    /**
+     * Deletes the rows with the given IDs.
+     *
+     * @param sql   the DELETE statement, with the ID as its only parameter
+     * @param ids   the IDs to delete
+     * @param table the table announced in the change events
+     * @return one result per ID, in order
+     */
+    List<BatchItemResult> delete(String sql, List<Long> ids, DataTable table) {
+        checkSize(ids);
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new CustomUncheckedException("The batch contains a null ID", "INVALID_BATCH");
+        }
+        return inChunks(ids, chunk -> {
+            int[] counts = jdbcTemplate.batchUpdate(sql, chunk, chunk.size(), (ps, id) -> ps.setLong(1, id))[0];
+            return outcomes(counts, chunk, BatchItemStatus.DELETED);
+        }, id -> id, table);
+    }
+
+    /**
+     * Runs every chunk in its own transaction, falling back to one transaction per item for a failed chunk,
+     * and renumbers the results by their position in the request.
+     */
+    private <T> List<BatchItemResult> inChunks(List<T> items, Function<List<T>, List<BatchItemResult>> writer,
+                                               Function<T, Long> id, DataTable table) {
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            List<BatchItemResult> chunkResults;
+            try {
+                chunkResults = transactionTemplate.execute(status -> publish(writer.apply(chunk), table));
+            } catch (DataAccessException e) {
+                chunkResults = new ArrayList<>();
+                for (T item : chunk) {
+                    try {
+                        chunkResults.addAll(transactionTemplate.execute(status -> publish(writer.apply(List.of(item)), table)));
+                    } catch (DataAccessException itemFailure) {
+                        chunkResults.add(new BatchItemResult(0, id.apply(item), BatchItemStatus.FAILED,
+                                itemFailure.getMostSpecificCause().getMessage()));
+                    }
+                }
+            }
+            for (BatchItemResult result : chunkResults) {
+                result.setIndex(results.size());
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Publishes one change event for the rows written by a transaction; the listeners run once it commits.
+     */
+    private List<BatchItemResult> publish(List<BatchItemResult> results, DataTable table) {
+        List<Long> written = results.stream()
+                .filter(result -> result.getStatus() != BatchItemStatus.NOT_FOUND && result.getId() != null)
+                .map(BatchItemResult::getId)
+                .toList();
+        if (!written.isEmpty()) {
+            eventPublisher.publishEvent(new DataChangeEvent(table, written.size() == 1 ? written.get(0) : null));
+        }
+        return results;
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > maxItems) {
+            throw new CustomUncheckedException("A batch must contain between 1 and " + maxItems + " items", "INVALID_BATCH");
+        }
+    }
+
+    /**
+     * Drivers that rewrite a batch into one multi-row statement report SUCCESS_NO_INFO (-2) instead of a row count.
+     */
+    private static List<BatchItemResult> outcomes(int[] counts, List<Long> ids, BatchItemStatus written) {
+        List<BatchItemResult> results = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            results.add(new BatchItemResult(0, ids.get(i), counts[i] != 0 ? written : BatchItemStatus.NOT_FOUND, null));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,135 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bitmap index over the attributes of a set of rows. Every row is given a dense position, and every distinct
+ * value of an indexed attribute keeps a bitmap of the positions of the rows having it. A filter is the AND over
+ * attributes of the OR of the bitmaps of the accepted values, so combined predicates cost a few word-wise
+ * operations per 64 rows instead of a scan.
+ *
+ * <p>Positions of removed rows are reused, keeping the bitmaps dense; with dense positions a plain
+ * {@link BitSet} is as small as a run-length compressed bitmap would be. Instances are not thread-safe.</p>
+ *
+ * @param <T> the type of the indexed rows
+ */
+final class BitmapIndex<T> {
+
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final List<T> rows = new ArrayList<>();
+    private final List<Map<String, Object>> rowValues = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Map<Object, BitSet>> bitmaps = new HashMap<>();
+
+    /**
+     * Adds a row, or replaces the row with the same ID.
+     *
+     * @param id     the ID of the row
+     * @param row    the row
+     * @param values the indexed attribute values of the row; null values are not indexed
+     */
+    void put(long id, T row, Map<String, Object> values) {
+        remove(id);
+        int position = live.nextClearBit(0);
+        positions.put(id, position);
+        live.set(position);
+        if (position == rows.size()) {
+            rows.add(row);
+            rowValues.add(values);
+        } else {
+            rows.set(position, row);
+            rowValues.set(position, values);
+        }
+        values.forEach((attribute, value) -> {
+            if (value != null) {
+                bitmaps.computeIfAbsent(attribute, a -> new HashMap<>())
+                        .computeIfAbsent(value, v -> new BitSet())
+                        .set(position);
+            }
+        });
+    }
+
+    /**
+     * Removes a row if present.
+     *
+     * @param id the ID of the row
+     */
+    void remove(long id) {
+        Integer position = positions.remove(id);
+        if (position == null) {
+            return;
+        }
+        rowValues.get(position).forEach((attribute, value) -> {
+            if (value != null) {
+                Map<Object, BitSet> byValue = bitmaps.get(attribute);
+                BitSet bitmap = byValue.get(value);
+                bitmap.clear(position);
+                if (bitmap.isEmpty()) {
+                    byValue.remove(value);
+                }
+            }
+        });
+        live.clear(position);
+        rows.set(position, null);
+        rowValues.set(position, null);
+    }
+
+    /**
+     * Removes every row.
+     */
+    void clear() {
+        positions.clear();
+        rows.clear();
+        rowValues.clear();
+        live.clear();
+        bitmaps.clear();
+    }
+
+    /**
+     * Selects the rows matching every predicate. A predicate accepts a row if the row's value of the attribute
+     * is one of the accepted values; attributes without a predicate, or with an empty one, accept every row.
+     *
+     * @param predicates the accepted values per attribute
+     * @return the positions of the matching rows
+     */
+    BitSet select(Map<String, ? extends Collection<?>> predicates) {
+        BitSet result = (BitSet) live.clone();
+        for (Map.Entry<String, ? extends Collection<?>> predicate : predicates.entrySet()) {
+            if (predicate.getValue() == null || predicate.getValue().isEmpty()) {
+                continue;
+            }
+            Map<Object, BitSet> byValue = bitmaps.getOrDefault(predicate.getKey(), Map.of());
+            BitSet accepted = new BitSet();
+            for (Object value : predicate.getValue()) {
+                BitSet bitmap = byValue.get(value);
+                if (bitmap != null) {
+                    accepted.or(bitmap);
+                }
+            }
+            result.and(accepted);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the rows at the given positions, in position order.
+     *
+     * @param selection positions returned by {@link #select(Map)}
+     * @return the selected rows
+     */
+    List<T> rows(BitSet selection) {
+        List<T> selected = new ArrayList<>(selection.cardinality());
+        for (int position = selection.nextSetBit(0); position >= 0; position = selection.nextSetBit(position + 1)) {
+            selected.add(rows.get(position));
+        }
+        return selected;
+    }
+}
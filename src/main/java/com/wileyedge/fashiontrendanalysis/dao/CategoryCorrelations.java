@@ -0,0 +1,222 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.CategoryCorrelation;
+import com.wileyedge.fashiontrendanalysis.model.CorrelationMethod;
+import com.wileyedge.fashiontrendanalysis.model.CorrelationSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the category × category correlation matrix of the average popularity per season.
+ *
+ * <p>Every category gets a vector of its average score per season, read with one aggregate query. Each pair
+ * of vectors is correlated over the seasons in which both categories were scored. The upper triangle of the
+ * matrix is split into square tiles of {@code analysis.correlation.tile-size} categories that are computed
+ * in parallel, so the work spreads over all cores as the number of categories grows.</p>
+ */
+@Repository
+public class CategoryCorrelations {
+
+    static final String CATEGORY_VECTORS_SQL = "SELECT c.category_id, c.category_name, cp.season, " +
+            "SUM(cp.popularity_score) AS score_sum, COUNT(cp.popularity_score) AS score_count " +
+            "FROM category_popularity cp " +
+            "JOIN category c ON c.category_id = cp.category_id " +
+            "WHERE cp.season IS NOT NULL " +
+            "GROUP BY c.category_id, c.category_name, cp.season";
+
+    static final String TREND_VECTORS_SQL = "SELECT c.category_id, c.category_name, t.season, " +
+            "SUM(tp.popularity_score) AS score_sum, COUNT(tp.popularity_score) AS score_count " +
+            "FROM trend_category tc " +
+            "JOIN category c ON c.category_id = tc.category_id " +
+            "JOIN trend t ON t.trend_id = tc.trend_id " +
+            "JOIN trend_popularity tp ON tp.trend_id = t.trend_id " +
+            "WHERE t.season IS NOT NULL " +
+            "GROUP BY c.category_id, c.category_name, t.season";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tileSize;
+
+    /**
+     * Constructs the calculator.
+     *
+     * @param jdbcTemplate the JdbcTemplate used to read the season vectors
+     * @param tileSize     the number of categories per side of a tile computed by one task
+     */
+    @Autowired
+    public CategoryCorrelations(JdbcTemplate jdbcTemplate, @Value("${analysis.correlation.tile-size:64}") int tileSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tileSize = Math.max(1, tileSize);
+    }
+
+    /**
+     * Gets the tables a matrix built from the given source is computed from.
+     *
+     * @param source the scores the vectors are built from
+     * @return the tables whose writes change the matrix.
+     */
+    public static DataTable[] tables(CorrelationSource source) {
+        return switch (source) {
+            case CATEGORY -> new DataTable[]{DataTable.CATEGORY, DataTable.CATEGORY_POPULARITY};
+            case TREND -> new DataTable[]{DataTable.CATEGORY, DataTable.TREND, DataTable.TREND_CATEGORY, DataTable.TREND_POPULARITY};
+        };
+    }
+
+    /**
+     * Computes the correlation matrix of the categories' average scores per season.
+     *
+     * @param source the scores the vectors are built from
+     * @param method the correlation coefficient
+     * @return the matrix over all categories with at least one score, ordered by category name
+     */
+    public CategoryCorrelation correlate(CorrelationSource source, CorrelationMethod method) {
+        // category_id -> name, and category_id -> season -> {sum, count}; seasons are merged regardless of case.
+        Map<Long, String> names = new LinkedHashMap<>();
+        Map<Long, Map<String, long[]>> totals = new LinkedHashMap<>();
+        TreeSet<String> seasons = new TreeSet<>();
+        jdbcTemplate.query(source == CorrelationSource.CATEGORY ? CATEGORY_VECTORS_SQL : TREND_VECTORS_SQL, rs -> {
+            long categoryId = rs.getLong("category_id");
+            String season = rs.getString("season").toLowerCase(Locale.ROOT);
+            long count = rs.getLong("score_count");
+            if (count == 0) {
+                return;
+            }
+            names.put(categoryId, rs.getString("category_name"));
+            seasons.add(season);
+            long[] total = totals.computeIfAbsent(categoryId, id -> new TreeMap<>()).computeIfAbsent(season, s -> new long[2]);
+            total[0] += rs.getLong("score_sum");
+            total[1] += count;
+        });
+
+        List<Long> categoryIds = new ArrayList<>(names.keySet());
+        categoryIds.sort((a, b) -> names.get(a).compareTo(names.get(b)));
+        List<String> seasonList = new ArrayList<>(seasons);
+
+        double[][] vectors = new double[categoryIds.size()][seasonList.size()];
+        for (int i = 0; i < categoryIds.size(); i++) {
+            Arrays.fill(vectors[i], Double.NaN);
+            Map<String, long[]> bySeason = totals.get(categoryIds.get(i));
+            for (int s = 0; s < seasonList.size(); s++) {
+                long[] total = bySeason.get(seasonList.get(s));
+                if (total != null) {
+                    vectors[i][s] = (double) total[0] / total[1];
+                }
+            }
+        }
+
+        List<String> categoryNames = new ArrayList<>();
+        categoryIds.forEach(id -> categoryNames.add(names.get(id)));
+        return new CategoryCorrelation(method.key(), source.key(), categoryNames, seasonList,
+                matrix(vectors, method, tileSize));
+    }
+
+    /**
+     * Correlates every pair of rows, tile by tile in parallel. Missing values are NaN; each pair is correlated
+     * over the columns present in both rows. Every task writes only the cells of its own tile and their mirror
+     * images, so the tasks share no state.
+     */
+    static Double[][] matrix(double[][] vectors, CorrelationMethod method, int tileSize) {
+        int n = vectors.length;
+        Double[][] coefficients = new Double[n][n];
+        int tiles = (n + tileSize - 1) / tileSize;
+        IntStream.range(0, tiles * tiles)
+                .filter(tile -> tile / tiles <= tile % tiles)
+                .parallel()
+                .forEach(tile -> {
+                    int rowStart = tile / tiles * tileSize;
+                    int columnStart = tile % tiles * tileSize;
+                    for (int i = rowStart; i < Math.min(n, rowStart + tileSize); i++) {
+                        for (int j = Math.max(i, columnStart); j < Math.min(n, columnStart + tileSize); j++) {
+                            Double r = correlation(vectors[i], vectors[j], method);
+                            coefficients[i][j] = r;
+                            coefficients[j][i] = r;
+                        }
+                    }
+                });
+        return coefficients;
+    }
+
+    /**
+     * Correlates two vectors over the positions present in both, or returns null if there are fewer than
+     * two such positions or either side is constant over them.
+     */
+    static Double correlation(double[] x, double[] y, CorrelationMethod method) {
+        int n = 0;
+        double[] a = new double[x.length];
+        double[] b = new double[x.length];
+        for (int s = 0; s < x.length; s++) {
+            if (!Double.isNaN(x[s]) && !Double.isNaN(y[s])) {
+                a[n] = x[s];
+                b[n] = y[s];
+                n++;
+            }
+        }
+        if (n < 2) {
+            return null;
+        }
+        if (method == CorrelationMethod.SPEARMAN) {
+            a = ranks(a, n);
+            b = ranks(b, n);
+        }
+        double meanA = 0;
+        double meanB = 0;
+        for (int k = 0; k < n; k++) {
+            meanA += a[k];
+            meanB += b[k];
+        }
+        meanA /= n;
+        meanB /= n;
+        double covariance = 0;
+        double varianceA = 0;
+        double varianceB = 0;
+        for (int k = 0; k < n; k++) {
+            double da = a[k] - meanA;
+            double db = b[k] - meanB;
+            covariance += da * db;
+            varianceA += da * da;
+            varianceB += db * db;
+        }
+        if (varianceA == 0 || varianceB == 0) {
+            return null;
+        }
+        // Rounding can push |r| of perfectly (anti-)correlated vectors just past 1.
+        return Math.max(-1.0, Math.min(1.0, covariance / Math.sqrt(varianceA * varianceB)));
+    }
+
+    /**
+     * Ranks the first n values from 1, giving tied values the average of their ranks.
+     */
+    private static double[] ranks(double[] values, int n) {
+        Integer[] order = new Integer[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, (p, q) -> Double.compare(values[p], values[q]));
+        double[] ranks = new double[n];
+        int start = 0;
+        while (start < n) {
+            int end = start;
+            while (end + 1 < n && values[order[end + 1]] == values[order[start]]) {
+                end++;
+            }
+            double rank = (start + end) / 2.0 + 1;
+            for (int k = start; k <= end; k++) {
+                ranks[order[k]] = rank;
+            }
+            start = end + 1;
+        }
+        return ranks;
+    }
+}
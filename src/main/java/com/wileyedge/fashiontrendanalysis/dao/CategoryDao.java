@@ -1,5 +1,6 @@
 package com.wileyedge.fashiontrendanalysis.dao;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Category;
 
 import java.util.List;
@@ -14,6 +15,15 @@ public interface CategoryDao {
      */
     List<Category> getAllCategories();
 
+    /**
+     * Retrieves the next page of categories in category_id order.
+     *
+     * @param afterId the category_id the page starts after, or null for the first page
+     * @param limit   the maximum number of categories to return
+     * @return up to limit categories with a greater category_id, by category_id
+     */
+    List<Category> getCategoriesAfter(Long afterId, int limit);
+
     /**
      * Retrieves a specific category by its ID.
      *
@@ -22,6 +32,14 @@ public interface CategoryDao {
      */
     Category getCategoryById(Long categoryId);
 
+    /**
+     * Retrieves the categories with the given IDs in a few queries.
+     *
+     * @param categoryIds the IDs of the categories to retrieve
+     * @return the categories by ID, in request order; IDs without a category are left out
+     */
+    Map<Long, Category> getCategoriesByIds(List<Long> categoryIds);
+
     /**
      * Adds a new category to the database.
      *
@@ -46,6 +64,30 @@ public interface CategoryDao {
      */
     boolean deleteCategory(Long categoryId);
 
+    /**
+     * Inserts several categories in JDBC batches, committing in chunks.
+     *
+     * @param categories the categories to add
+     * @return the outcome and generated ID of every category, in order
+     */
+    List<BatchItemResult> addCategories(List<Category> categories);
+
+    /**
+     * Updates several categories, identified by their IDs, in JDBC batches, committing in chunks.
+     *
+     * @param categories the categories with updated details
+     * @return the outcome of every category, in order
+     */
+    List<BatchItemResult> updateCategories(List<Category> categories);
+
+    /**
+     * Removes several categories by their IDs in JDBC batches, committing in chunks.
+     *
+     * @param categoryIds the IDs of the categories to delete
+     * @return the outcome of every ID, in order
+     */
+    List<BatchItemResult> deleteCategories(List<Long> categoryIds);
+
     /**
      * Retrieves categories associated with a specific trend.
      *
@@ -54,6 +96,14 @@ public interface CategoryDao {
      */
     List<Category> getCategoriesByTrend(Long trendId);
 
+    /**
+     * Retrieves the categories associated with each of the given trends in a few queries.
+     *
+     * @param trendIds the IDs of the trends
+     * @return the categories of every trend by trend ID, in request order, with an empty list for trends without any
+     */
+    Map<Long, List<Category>> getCategoriesByTrends(List<Long> trendIds);
+
     /**
      * Retrieves categories associated with a specific product.
      *
@@ -1,8 +1,13 @@
 package com.wileyedge.fashiontrendanalysis.dao;
 
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
 import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Category;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -23,15 +28,25 @@ import java.util.Map;
 public class CategoryDaoImpl implements CategoryDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BatchWriter batchWriter;
+    private final BatchReader batchReader;
 
     /**
      * Constructor that takes a JdbcTemplate as a parameter.
      *
      * @param jdbcTemplate the JdbcTemplate to be used for JDBC operations
+     * @param eventPublisher the publisher used to announce writes to listeners maintaining in-memory views
+     * @param batchWriter writer executing the batch creates, updates and deletes
+     * @param batchReader reader executing the multi-ID fetches
      */
     @Autowired
-    public CategoryDaoImpl(JdbcTemplate jdbcTemplate) {
+    public CategoryDaoImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, BatchWriter batchWriter,
+                           BatchReader batchReader) {
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchWriter = batchWriter;
+        this.batchReader = batchReader;
     }
 
     /**
@@ -60,6 +75,24 @@ public class CategoryDaoImpl implements CategoryDao {
         return jdbcTemplate.query(sql, categoryRowMapper);
     }
 
+    /**
+     * Retrieves the next page of categories by seeking to the category_id after the previous page, so only the rows of the
+     * page are read, however deep the page.
+     *
+     * @param afterId the category_id the page starts after, or null for the first page
+     * @param limit   the maximum number of categories to return
+     * @return up to limit categories with a greater category_id, by category_id
+     */
+    @Override
+    public List<Category> getCategoriesAfter(Long afterId, int limit) {
+        if (afterId == null) {
+            String sql = "SELECT * FROM category ORDER BY category_id LIMIT ?";
+            return jdbcTemplate.query(sql, categoryRowMapper, limit);
+        }
+        String sql = "SELECT * FROM category WHERE category_id > ? ORDER BY category_id LIMIT ?";
+        return jdbcTemplate.query(sql, categoryRowMapper, afterId, limit);
+    }
+
     /**
      * Retrieves a specific category by its ID.
      *
@@ -72,6 +105,18 @@ public class CategoryDaoImpl implements CategoryDao {
         return jdbcTemplate.queryForObject(sql, new Object[]{categoryId}, categoryRowMapper);
     }
 
+    /**
+     * Retrieves the categories with the given IDs, with chunked IN queries.
+     *
+     * @param categoryIds the IDs of the categories to retrieve
+     * @return the categories by ID, in request order; IDs without a category are left out
+     */
+    @Override
+    public Map<Long, Category> getCategoriesByIds(List<Long> categoryIds) {
+        String sql = "SELECT * FROM category WHERE category_id IN (%s)";
+        return batchReader.readById(sql, categoryIds, "category_id", categoryRowMapper);
+    }
+
     /**
      * Adds a new category to the database.
      *
@@ -91,7 +136,9 @@ public class CategoryDaoImpl implements CategoryDao {
         } catch (DataAccessException e) {
             throw new CustomUncheckedException("Failed to add category", e);
         }
-        return (Long) keyHolder.getKey();
+        Long categoryId = (Long) keyHolder.getKey();
+        publishChange(DataTable.CATEGORY, categoryId);
+        return categoryId;
     }
 
     /**
@@ -105,6 +152,9 @@ public class CategoryDaoImpl implements CategoryDao {
     public boolean updateCategory(Long categoryId, Category category) {
         String sql = "UPDATE category SET category_name = ? WHERE category_id = ?";
         int updated = jdbcTemplate.update(sql, category.getCategoryName(), categoryId);
+        if (updated > 0) {
+            publishChange(DataTable.CATEGORY, categoryId);
+        }
         return updated > 0;
     }
 
@@ -118,9 +168,53 @@ public class CategoryDaoImpl implements CategoryDao {
     public boolean deleteCategory(Long categoryId) {
         String sql = "DELETE FROM category WHERE category_id = ?";
         int deleted = jdbcTemplate.update(sql, categoryId);
+        if (deleted > 0) {
+            publishChange(DataTable.CATEGORY, categoryId);
+        }
         return deleted > 0;
     }
 
+    /**
+     * Inserts the categories as JDBC batches, reading the generated keys from the batch statement itself.
+     *
+     * @param categories the categories to add
+     * @return the outcome and generated ID of every category, in order
+     */
+    @Override
+    public List<BatchItemResult> addCategories(List<Category> categories) {
+        String sql = "INSERT INTO category (category_name) VALUES (?)";
+        return batchWriter.insert(sql, "category_id", categories, (ps, category) -> {
+            ps.setString(1, category.getCategoryName());
+        }, DataTable.CATEGORY);
+    }
+
+    /**
+     * Updates the categories as JDBC batches; categories whose ID does not exist are reported as not found.
+     *
+     * @param categories the categories with updated details, including their IDs
+     * @return the outcome of every category, in order
+     */
+    @Override
+    public List<BatchItemResult> updateCategories(List<Category> categories) {
+        String sql = "UPDATE category SET category_name = ? WHERE category_id = ?";
+        return batchWriter.update(sql, categories, Category::getCategoryId, (ps, category) -> {
+            ps.setString(1, category.getCategoryName());
+            ps.setLong(2, category.getCategoryId());
+        }, DataTable.CATEGORY);
+    }
+
+    /**
+     * Removes the categories with the given IDs as JDBC batches.
+     *
+     * @param categoryIds the IDs of the categories to delete
+     * @return the outcome of every ID, in order
+     */
+    @Override
+    public List<BatchItemResult> deleteCategories(List<Long> categoryIds) {
+        String sql = "DELETE FROM category WHERE category_id = ?";
+        return batchWriter.delete(sql, categoryIds, DataTable.CATEGORY);
+    }
+
 
     /**
      * Retrieves categories associated with a specific trend.
@@ -136,6 +230,20 @@ public class CategoryDaoImpl implements CategoryDao {
         return jdbcTemplate.query(sql, new Object[]{trendId}, categoryRowMapper);
     }
 
+    /**
+     * Retrieves the categories associated with each of the given trends, with chunked IN queries.
+     *
+     * @param trendIds the IDs of the trends
+     * @return the categories of every trend by trend ID, in request order, with an empty list for trends without any
+     */
+    @Override
+    public Map<Long, List<Category>> getCategoriesByTrends(List<Long> trendIds) {
+        String sql = "SELECT c.*, tc.trend_id FROM category c " +
+                "JOIN trend_category tc ON c.category_id = tc.category_id " +
+                "WHERE tc.trend_id IN (%s)";
+        return batchReader.readGroupedById(sql, trendIds, "trend_id", categoryRowMapper);
+    }
+
     /**
      * Retrieves categories associated with a specific product.
      *
@@ -162,7 +270,9 @@ public class CategoryDaoImpl implements CategoryDao {
     @Override
     public void setCategoryPopularityForSeason(Long categoryId, String season, int score) {
         String sql = "INSERT INTO category_popularity (category_id, season, popularity_score) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE popularity_score = ?";
-        jdbcTemplate.update(sql, categoryId, season, score, score);
+        if (jdbcTemplate.update(sql, categoryId, season, score, score) > 0) {
+            eventPublisher.publishEvent(PopularityChangeEvent.forCategory(categoryId, season, score));
+        }
     }
 
     /**
@@ -209,4 +319,10 @@ public class CategoryDaoImpl implements CategoryDao {
         });
     }
 
+    /**
+     * Announce a successful write so that in-memory views derived from the table can refresh.
+     */
+    private void publishChange(DataTable table, Long entityId) {
+        eventPublisher.publishEvent(new DataChangeEvent(table, entityId));
+    }
 }
@@ -1,9 +1,11 @@
 package com.wileyedge.fashiontrendanalysis.dao;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface defining CRUD operations and other functionalities related to the Designer entity.
@@ -17,6 +19,15 @@ public interface DesignerDao {
      */
     List<Designer> getAllDesigners();
 
+    /**
+     * Retrieves the next page of designers in designer_id order.
+     *
+     * @param afterId the designer_id the page starts after, or null for the first page
+     * @param limit   the maximum number of designers to return
+     * @return up to limit designers with a greater designer_id, by designer_id
+     */
+    List<Designer> getDesignersAfter(Long afterId, int limit);
+
     /**
      * Retrieves a specific designer by its ID.
      *
@@ -25,6 +36,14 @@ public interface DesignerDao {
      */
     Designer getDesignerById(Long designerId);
 
+    /**
+     * Fetches the designers with the given IDs in a few queries.
+     *
+     * @param designerIds IDs of the designers to be fetched.
+     * @return Designers by ID, in request order; IDs without a designer are left out.
+     */
+    Map<Long, Designer> getDesignersByIds(List<Long> designerIds);
+
     /**
      * Adds a new designer to the database.
      *
@@ -50,6 +69,30 @@ public interface DesignerDao {
      */
     boolean deleteDesigner(Long designerId);
 
+    /**
+     * Inserts several designers in JDBC batches, committing in chunks.
+     *
+     * @param designers the designers to add
+     * @return the outcome and generated ID of every designer, in order
+     */
+    List<BatchItemResult> addDesigners(List<Designer> designers);
+
+    /**
+     * Updates several designers, identified by their IDs, in JDBC batches, committing in chunks.
+     *
+     * @param designers the designers with updated details
+     * @return the outcome of every designer, in order
+     */
+    List<BatchItemResult> updateDesigners(List<Designer> designers);
+
+    /**
+     * Removes several designers by their IDs in JDBC batches, committing in chunks.
+     *
+     * @param designerIds the IDs of the designers to delete
+     * @return the outcome of every ID, in order
+     */
+    List<BatchItemResult> deleteDesigners(List<Long> designerIds);
+
     /**
      * Retrieves designers based on their location.
      *
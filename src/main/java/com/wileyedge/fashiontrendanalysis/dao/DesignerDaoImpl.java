@@ -1,9 +1,13 @@
 package com.wileyedge.fashiontrendanalysis.dao;
 
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
 import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -13,6 +17,7 @@ import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -23,6 +28,9 @@ import java.util.List;
 public class DesignerDaoImpl implements DesignerDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BatchWriter batchWriter;
+    private final BatchReader batchReader;
     private final RowMapper<Designer> rowMapper;
     private final RowMapper<Product> productRowMapper;
 
@@ -30,10 +38,17 @@ public class DesignerDaoImpl implements DesignerDao {
      * Initializes the JdbcTemplate and RowMappers for Designer and Product entities.
      *
      * @param jdbcTemplate the JdbcTemplate for JDBC operations.
+     * @param eventPublisher the publisher used to announce writes to listeners maintaining in-memory views.
+     * @param batchWriter writer executing the batch creates, updates and deletes.
+     * @param batchReader reader executing the multi-ID fetches.
      */
     @Autowired
-    public DesignerDaoImpl(JdbcTemplate jdbcTemplate) {
+    public DesignerDaoImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, BatchWriter batchWriter,
+                           BatchReader batchReader) {
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchWriter = batchWriter;
+        this.batchReader = batchReader;
 
         // RowMapper for Designer entity
         this.rowMapper = (rs, rowNum) -> {
@@ -66,6 +81,24 @@ public class DesignerDaoImpl implements DesignerDao {
         return jdbcTemplate.query(query, rowMapper);
     }
 
+    /**
+     * Retrieves the next page of designers by seeking to the designer_id after the previous page, so only the rows of the
+     * page are read, however deep the page.
+     *
+     * @param afterId the designer_id the page starts after, or null for the first page
+     * @param limit   the maximum number of designers to return
+     * @return up to limit designers with a greater designer_id, by designer_id
+     */
+    @Override
+    public List<Designer> getDesignersAfter(Long afterId, int limit) {
+        if (afterId == null) {
+            String sql = "SELECT * FROM designer ORDER BY designer_id LIMIT ?";
+            return jdbcTemplate.query(sql, rowMapper, limit);
+        }
+        String sql = "SELECT * FROM designer WHERE designer_id > ? ORDER BY designer_id LIMIT ?";
+        return jdbcTemplate.query(sql, rowMapper, afterId, limit);
+    }
+
     /**
      * Fetches a specific designer using its ID.
      *
@@ -78,6 +111,18 @@ public class DesignerDaoImpl implements DesignerDao {
         return jdbcTemplate.queryForObject(query, rowMapper, designerId);
     }
 
+    /**
+     * Fetches the designers with the given IDs, with chunked IN queries.
+     *
+     * @param designerIds IDs of the designers to be fetched.
+     * @return Designers by ID, in request order; IDs without a designer are left out.
+     */
+    @Override
+    public Map<Long, Designer> getDesignersByIds(List<Long> designerIds) {
+        String query = "SELECT * FROM designer WHERE designer_id IN (%s)";
+        return batchReader.readById(query, designerIds, "designer_id", rowMapper);
+    }
+
     /**
      * Inserts a new designer into the database.
      *
@@ -100,7 +145,9 @@ public class DesignerDaoImpl implements DesignerDao {
         } catch (DataAccessException e) {
             throw new CustomUncheckedException("Failed to add designer", e);
         }
-        return (Long) keyHolder.getKey();
+        Long designerId = (Long) keyHolder.getKey();
+        publishChange(DataTable.DESIGNER, designerId);
+        return designerId;
     }
 
     /**
@@ -113,7 +160,11 @@ public class DesignerDaoImpl implements DesignerDao {
     @Override
     public boolean updateDesigner(Long designerId, Designer designer) {
         String query = "UPDATE designer SET designer_name=?, designer_location=?, trend_count=?, popularity_score=? WHERE designer_id=?";
-        return jdbcTemplate.update(query, designer.getDesignerName(), designer.getDesignerLocation(), designer.getTrendCount(), designer.getPopularityScore(), designerId) > 0;
+        boolean updated = jdbcTemplate.update(query, designer.getDesignerName(), designer.getDesignerLocation(), designer.getTrendCount(), designer.getPopularityScore(), designerId) > 0;
+        if (updated) {
+            publishChange(DataTable.DESIGNER, designerId);
+        }
+        return updated;
     }
 
     /**
@@ -125,7 +176,58 @@ public class DesignerDaoImpl implements DesignerDao {
     @Override
     public boolean deleteDesigner(Long designerId) {
         String query = "DELETE FROM designer WHERE designer_id=?";
-        return jdbcTemplate.update(query, designerId) > 0;
+        boolean deleted = jdbcTemplate.update(query, designerId) > 0;
+        if (deleted) {
+            publishChange(DataTable.DESIGNER, designerId);
+        }
+        return deleted;
+    }
+
+    /**
+     * Inserts the designers as JDBC batches, reading the generated keys from the batch statement itself.
+     *
+     * @param designers the designers to add
+     * @return the outcome and generated ID of every designer, in order
+     */
+    @Override
+    public List<BatchItemResult> addDesigners(List<Designer> designers) {
+        String sql = "INSERT INTO designer (designer_name, designer_location, trend_count, popularity_score) VALUES (?, ?, ?, ?)";
+        return batchWriter.insert(sql, "designer_id", designers, (ps, designer) -> {
+            ps.setString(1, designer.getDesignerName());
+            ps.setString(2, designer.getDesignerLocation());
+            ps.setInt(3, designer.getTrendCount() != null ? designer.getTrendCount() : 0);
+            ps.setInt(4, designer.getPopularityScore() != null ? designer.getPopularityScore() : 0);
+        }, DataTable.DESIGNER);
+    }
+
+    /**
+     * Updates the designers as JDBC batches; designers whose ID does not exist are reported as not found.
+     *
+     * @param designers the designers with updated details, including their IDs
+     * @return the outcome of every designer, in order
+     */
+    @Override
+    public List<BatchItemResult> updateDesigners(List<Designer> designers) {
+        String sql = "UPDATE designer SET designer_name=?, designer_location=?, trend_count=?, popularity_score=? WHERE designer_id=?";
+        return batchWriter.update(sql, designers, Designer::getDesignerId, (ps, designer) -> {
+            ps.setString(1, designer.getDesignerName());
+            ps.setString(2, designer.getDesignerLocation());
+            ps.setInt(3, designer.getTrendCount() != null ? designer.getTrendCount() : 0);
+            ps.setInt(4, designer.getPopularityScore() != null ? designer.getPopularityScore() : 0);
+            ps.setLong(5, designer.getDesignerId());
+        }, DataTable.DESIGNER);
+    }
+
+    /**
+     * Removes the designers with the given IDs as JDBC batches.
+     *
+     * @param designerIds the IDs of the designers to delete
+     * @return the outcome of every ID, in order
+     */
+    @Override
+    public List<BatchItemResult> deleteDesigners(List<Long> designerIds) {
+        String sql = "DELETE FROM designer WHERE designer_id=?";
+        return batchWriter.delete(sql, designerIds, DataTable.DESIGNER);
     }
 
     /**
@@ -176,5 +278,10 @@ public class DesignerDaoImpl implements DesignerDao {
         return jdbcTemplate.query(query, productRowMapper, designerId);
     }
 
-
+    /**
+     * Announce a successful write so that in-memory views derived from the table can refresh.
+     */
+    private void publishChange(DataTable table, Long entityId) {
+        eventPublisher.publishEvent(new DataChangeEvent(table, entityId));
+    }
 }
@@ -0,0 +1,304 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.LocationLevel;
+import com.wileyedge.fashiontrendanalysis.model.LocationRollup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pre-aggregated trend and designer counts and trend popularity for every node of the city → country → region
+ * hierarchy of location_hierarchy.
+ *
+ * <p>Every trend and designer contributes to the node of its city and to the nodes of the enclosing country and
+ * region, so a rollup of any level reads its precomputed nodes only. Cities are matched regardless of case;
+ * a city missing from location_hierarchy rolls up to the "Unknown" country and region. A committed write to a
+ * trend or a designer re-reads that entity and moves its contribution, leaving all other nodes untouched. A
+ * trend score write sets every score row of the trend, so it is applied from the event without a query.</p>
+ */
+@Repository
+public class LocationRollupIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationRollupIndex.class);
+
+    /** The country and region of cities missing from location_hierarchy. */
+    public static final String UNKNOWN = "Unknown";
+
+    static final String HIERARCHY_SQL = "SELECT city, country, region FROM location_hierarchy";
+    static final String TREND_SQL = "SELECT t.trend_id, t.location, AVG(p.popularity_score) AS avg_score " +
+            "FROM trend t LEFT JOIN trend_popularity p ON p.trend_id = t.trend_id";
+    static final String TREND_BY_ID = " WHERE t.trend_id = ?";
+    static final String TREND_GROUP_BY = " GROUP BY t.trend_id, t.location";
+    static final String DESIGNER_SQL = "SELECT designer_id, designer_location FROM designer";
+    static final String DESIGNER_BY_ID = " WHERE designer_id = ?";
+
+    private static final RowMapper<TrendLocation> TREND_MAPPER = (rs, rowNum) -> {
+        // wasNull refers to the column read last, so the score is checked before the other columns are read.
+        double score = rs.getDouble("avg_score");
+        Double scoreOrNull = rs.wasNull() ? null : score;
+        return new TrendLocation(rs.getLong("trend_id"), rs.getString("location"), scoreOrNull);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Rollups share the read lock; loading and refreshing take the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, String[]> hierarchy = new HashMap<>();
+    private final Map<LocationLevel, Map<String, Node>> nodes = new EnumMap<>(LocationLevel.class);
+    private final Map<Long, TrendLocation> trends = new HashMap<>();
+    private final Map<Long, String> designers = new HashMap<>();
+    private boolean loaded;
+
+    /**
+     * The location and average score a trend contributes to its nodes.
+     */
+    record TrendLocation(long trendId, String location, Double score) {
+    }
+
+    /**
+     * The running aggregates of one location.
+     */
+    private static final class Node {
+        private final String name;
+        private final String parent;
+        private int trendCount;
+        private int designerCount;
+        private int scoredTrends;
+        private double scoreSum;
+
+        Node(String name, String parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * Constructs the index.
+     *
+     * @param jdbcTemplate the JdbcTemplate the hierarchy, trends and designers are read with
+     */
+    @Autowired
+    public LocationRollupIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (LocationLevel level : LocationLevel.values()) {
+            nodes.put(level, new HashMap<>());
+        }
+    }
+
+    /**
+     * Builds the rollups once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            ensureLoaded();
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the location rollups at startup, will retry on first use", e);
+        }
+    }
+
+    /**
+     * Moves the contribution of a trend or designer after a committed write to it or to the trend's scores,
+     * single or batched.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        DataTable table = event.getTable();
+        if (table != DataTable.TREND && table != DataTable.TREND_POPULARITY && table != DataTable.DESIGNER) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            List<PopularityChangeEvent> changes = PopularityChangeBatchEvent.changesOf(event);
+            if (!changes.isEmpty()) {
+                for (PopularityChangeEvent change : changes) {
+                    TrendLocation trend = trends.get(change.getEntityId());
+                    if (trend != null) {
+                        removeTrend(trend.trendId());
+                        addTrend(new TrendLocation(trend.trendId(), trend.location(), (double) change.getScore()));
+                    }
+                }
+                return;
+            }
+            if (event.getEntityId() == null) {
+                loaded = false;
+                return;
+            }
+            long id = event.getEntityId();
+            if (table == DataTable.DESIGNER) {
+                removeDesigner(id);
+                List<String> location = jdbcTemplate.query(DESIGNER_SQL + DESIGNER_BY_ID,
+                        (rs, rowNum) -> rs.getString("designer_location"), id);
+                if (!location.isEmpty()) {
+                    addDesigner(id, location.get(0));
+                }
+            } else {
+                removeTrend(id);
+                List<TrendLocation> trend = jdbcTemplate.query(TREND_SQL + TREND_BY_ID + TREND_GROUP_BY, TREND_MAPPER, id);
+                if (!trend.isEmpty()) {
+                    addTrend(trend.get(0));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lists the rollups of one level of the hierarchy.
+     *
+     * @param level  the level to list
+     * @param parent the enclosing country or region to list the children of, regardless of case, or null for all
+     * @return the rollups holding at least one trend or designer, by name
+     */
+    public List<LocationRollup> rollups(LocationLevel level, String parent) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<LocationRollup> rollups = new ArrayList<>();
+            for (Node node : nodes.get(level).values()) {
+                if (node.trendCount == 0 && node.designerCount == 0) {
+                    continue;
+                }
+                if (parent != null && !parent.equalsIgnoreCase(node.parent)) {
+                    continue;
+                }
+                rollups.add(new LocationRollup(level.key(), node.name, node.parent, node.trendCount, node.designerCount,
+                        node.scoredTrends == 0 ? null : node.scoreSum / node.scoredTrends));
+            }
+            rollups.sort(Comparator.comparing(LocationRollup::getName, String.CASE_INSENSITIVE_ORDER));
+            return rollups;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                hierarchy.clear();
+                nodes.values().forEach(Map::clear);
+                trends.clear();
+                designers.clear();
+                ReplicaRoutingDataSource.runOnPrimary(() -> {
+                    jdbcTemplate.query(HIERARCHY_SQL, rs -> {
+                        hierarchy.put(key(rs.getString("city")), new String[]{rs.getString("country"), rs.getString("region")});
+                    });
+                    for (TrendLocation trend : jdbcTemplate.query(TREND_SQL + TREND_GROUP_BY, TREND_MAPPER)) {
+                        addTrend(trend);
+                    }
+                    jdbcTemplate.query(DESIGNER_SQL, rs -> {
+                        addDesigner(rs.getLong("designer_id"), rs.getString("designer_location"));
+                    });
+                });
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addTrend(TrendLocation trend) {
+        if (isBlank(trend.location())) {
+            return;
+        }
+        trends.put(trend.trendId(), trend);
+        for (Node node : path(trend.location())) {
+            node.trendCount++;
+            if (trend.score() != null) {
+                node.scoredTrends++;
+                node.scoreSum += trend.score();
+            }
+        }
+    }
+
+    private void removeTrend(long trendId) {
+        TrendLocation trend = trends.remove(trendId);
+        if (trend == null) {
+            return;
+        }
+        for (Node node : path(trend.location())) {
+            node.trendCount--;
+            if (trend.score() != null) {
+                node.scoredTrends--;
+                // Reset instead of accumulating rounding error once the last scored trend has left.
+                node.scoreSum = node.scoredTrends == 0 ? 0 : node.scoreSum - trend.score();
+            }
+        }
+    }
+
+    private void addDesigner(long designerId, String location) {
+        if (isBlank(location)) {
+            return;
+        }
+        designers.put(designerId, location);
+        for (Node node : path(location)) {
+            node.designerCount++;
+        }
+    }
+
+    private void removeDesigner(long designerId) {
+        String location = designers.remove(designerId);
+        if (location == null) {
+            return;
+        }
+        for (Node node : path(location)) {
+            node.designerCount--;
+        }
+    }
+
+    /**
+     * The city, country and region nodes of a location, created on first use.
+     */
+    private List<Node> path(String location) {
+        String city = location.trim();
+        String[] parents = hierarchy.getOrDefault(key(city), new String[]{UNKNOWN, UNKNOWN});
+        return List.of(
+                nodes.get(LocationLevel.CITY).computeIfAbsent(key(city), k -> new Node(city, parents[0])),
+                nodes.get(LocationLevel.COUNTRY).computeIfAbsent(key(parents[0]), k -> new Node(parents[0], parents[1])),
+                nodes.get(LocationLevel.REGION).computeIfAbsent(key(parents[1]), k -> new Node(parents[1], null)));
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String location) {
+        return location == null || location.isBlank();
+    }
+}
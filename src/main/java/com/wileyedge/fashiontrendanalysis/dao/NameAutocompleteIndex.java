@@ -0,0 +1,240 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.AutocompleteSuggestion;
+import com.wileyedge.fashiontrendanalysis.model.AutocompleteType;
+import com.wileyedge.fashiontrendanalysis.sketch.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix index over the trend, product, designer and category names, ranked by popularity: the average
+ * score of a trend, product or category, and the score column of a designer.
+ *
+ * <p>A committed write to an entity or to its scores re-reads the name and score of that entity only; a batch of
+ * score writes re-reads its entities with one query per {@value #BATCH_CHUNK_SIZE} IDs.</p>
+ */
+@Repository
+public class NameAutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameAutocompleteIndex.class);
+
+    static final int BATCH_CHUNK_SIZE = 500;
+
+    // Each query selects id, name and score; the names of some entities are read by inserting a WHERE before the GROUP BY.
+    static final String TREND_SQL = "SELECT t.trend_id AS id, t.trend_name AS name, AVG(p.popularity_score) AS score " +
+            "FROM trend t LEFT JOIN trend_popularity p ON p.trend_id = t.trend_id%s GROUP BY t.trend_id, t.trend_name";
+    static final String PRODUCT_SQL = "SELECT d.product_id AS id, d.product_name AS name, AVG(p.popularity_score) AS score " +
+            "FROM product d LEFT JOIN product_popularity p ON p.product_id = d.product_id%s GROUP BY d.product_id, d.product_name";
+    static final String DESIGNER_SQL = "SELECT d.designer_id AS id, d.designer_name AS name, d.popularity_score AS score " +
+            "FROM designer d%s";
+    static final String CATEGORY_SQL = "SELECT c.category_id AS id, c.category_name AS name, AVG(p.popularity_score) AS score " +
+            "FROM category c LEFT JOIN category_popularity p ON p.category_id = c.category_id%s GROUP BY c.category_id, c.category_name";
+
+    private static final Map<AutocompleteType, String> QUERIES = Map.of(
+            AutocompleteType.TREND, TREND_SQL,
+            AutocompleteType.PRODUCT, PRODUCT_SQL,
+            AutocompleteType.DESIGNER, DESIGNER_SQL,
+            AutocompleteType.CATEGORY, CATEGORY_SQL);
+
+    private static final Map<AutocompleteType, String> ID_COLUMNS = Map.of(
+            AutocompleteType.TREND, "t.trend_id",
+            AutocompleteType.PRODUCT, "d.product_id",
+            AutocompleteType.DESIGNER, "d.designer_id",
+            AutocompleteType.CATEGORY, "c.category_id");
+
+    // Ranks suggestions of different types against each other the same way PrefixIndex ranks within one type.
+    private static final Comparator<AutocompleteSuggestion> RANKING = Comparator
+            .comparing(AutocompleteSuggestion::getPopularityScore, Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+            .thenComparing(AutocompleteSuggestion::getName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(AutocompleteSuggestion::getType)
+            .thenComparing(AutocompleteSuggestion::getId);
+
+    private static final RowMapper<PrefixIndex.Completion> COMPLETION_MAPPER = (rs, rowNum) -> {
+        // wasNull refers to the column read last, so the score is checked before the other columns are read.
+        double score = rs.getDouble("score");
+        Double scoreOrNull = rs.wasNull() ? null : score;
+        return new PrefixIndex.Completion(rs.getLong("id"), rs.getString("name"), scoreOrNull);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Lookups share the read lock; loading and refreshing take the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<AutocompleteType, PrefixIndex> indexes = new EnumMap<>(AutocompleteType.class);
+    private boolean loaded;
+
+    /**
+     * Constructs the index.
+     *
+     * @param jdbcTemplate the JdbcTemplate the names and scores are read with
+     */
+    @Autowired
+    public NameAutocompleteIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (AutocompleteType type : AutocompleteType.values()) {
+            indexes.put(type, new PrefixIndex());
+        }
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            ensureLoaded();
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the autocomplete index at startup, will retry on first use", e);
+        }
+    }
+
+    /**
+     * Re-reads the name and score of an entity after a committed write to it or to its scores.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        AutocompleteType type = typeOf(event.getTable());
+        if (type == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            if (event instanceof PopularityChangeBatchEvent batch) {
+                refresh(type, batch.getChanges());
+                return;
+            }
+            if (event.getEntityId() == null) {
+                loaded = false;
+                return;
+            }
+            // A missing row means the entity was deleted.
+            List<PrefixIndex.Completion> rows = jdbcTemplate.query(byIdSql(type), COMPLETION_MAPPER, event.getEntityId());
+            if (rows.isEmpty()) {
+                indexes.get(type).remove(event.getEntityId());
+            } else {
+                PrefixIndex.Completion row = rows.get(0);
+                indexes.get(type).put(row.id(), row.name(), row.score());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refresh(AutocompleteType type, List<PopularityChangeEvent> changes) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(changes.stream().map(PopularityChangeEvent::getEntityId).toList()));
+        for (int from = 0; from < ids.size(); from += BATCH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_CHUNK_SIZE, ids.size()));
+            Set<Long> missing = new HashSet<>(chunk);
+            for (PrefixIndex.Completion row : jdbcTemplate.query(byIdsSql(type, chunk.size()), COMPLETION_MAPPER, chunk.toArray())) {
+                indexes.get(type).put(row.id(), row.name(), row.score());
+                missing.remove(row.id());
+            }
+            missing.forEach(indexes.get(type)::remove);
+        }
+    }
+
+    /**
+     * Completes a prefix against the names of one type, or of all types.
+     *
+     * @param prefix the typed prefix, matched against the start of any word of a name regardless of case
+     * @param type   the type of names to complete, or null for all types
+     * @param limit  the maximum number of suggestions
+     * @return the suggestions, most popular first
+     */
+    public List<AutocompleteSuggestion> complete(String prefix, AutocompleteType type, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<AutocompleteSuggestion> suggestions = new ArrayList<>();
+            for (AutocompleteType candidate : type != null ? List.of(type) : List.of(AutocompleteType.values())) {
+                for (PrefixIndex.Completion completion : indexes.get(candidate).complete(prefix, limit)) {
+                    suggestions.add(new AutocompleteSuggestion(candidate.key(), completion.id(), completion.name(), completion.score()));
+                }
+            }
+            suggestions.sort(RANKING);
+            return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                for (AutocompleteType type : AutocompleteType.values()) {
+                    PrefixIndex index = indexes.get(type);
+                    index.clear();
+                    List<PrefixIndex.Completion> rows = ReplicaRoutingDataSource.onPrimary(
+                            () -> jdbcTemplate.query(allSql(type), COMPLETION_MAPPER));
+                    for (PrefixIndex.Completion row : rows) {
+                        index.put(row.id(), row.name(), row.score());
+                    }
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String allSql(AutocompleteType type) {
+        return String.format(QUERIES.get(type), "");
+    }
+
+    static String byIdSql(AutocompleteType type) {
+        return String.format(QUERIES.get(type), " WHERE " + ID_COLUMNS.get(type) + " = ?");
+    }
+
+    static String byIdsSql(AutocompleteType type, int count) {
+        return String.format(QUERIES.get(type), " WHERE " + ID_COLUMNS.get(type) + " IN ("
+                + String.join(", ", Collections.nCopies(count, "?")) + ")");
+    }
+
+    private static AutocompleteType typeOf(DataTable table) {
+        return switch (table) {
+            case TREND, TREND_POPULARITY -> AutocompleteType.TREND;
+            case PRODUCT, PRODUCT_POPULARITY -> AutocompleteType.PRODUCT;
+            case DESIGNER -> AutocompleteType.DESIGNER;
+            case CATEGORY, CATEGORY_POPULARITY -> AutocompleteType.CATEGORY;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,168 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import jakarta.annotation.PreDestroy;
+import com.wileyedge.fashiontrendanalysis.sketch.ScoreStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the average product popularity by splitting product_popularity into product_id ranges and
+ * aggregating the ranges in parallel. Every partition is streamed over its own pooled connection by a
+ * fork-join task into one {@link ScoreStatistics} per product, through {@link RowStreamer} so the driver holds
+ * one fetch of rows rather than the whole partition; the partial summaries are merged pairwise as the tasks
+ * join.
+ *
+ * <p>Enabled by setting {@code analysis.partitions} to a value greater than 1.</p>
+ */
+@Repository
+public class PartitionedProductPopularity {
+
+    static final String RANGE_SQL = "SELECT MIN(product_id) AS min_id, MAX(product_id) AS max_id FROM product_popularity";
+
+    static final String PARTITION_SQL = "SELECT product_id, popularity_score " +
+            "FROM product_popularity " +
+            "WHERE product_id BETWEEN ? AND ? AND popularity_score IS NOT NULL";
+
+    static final String PRODUCT_SQL = "SELECT product_id, product_name FROM product";
+
+    // MySQL returns AVG of an integer column as DECIMAL with div_precision_increment (default 4) decimals.
+    private static final int AVG_SCALE = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RowStreamer rowStreamer;
+    private final int partitions;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs the reader.
+     *
+     * @param jdbcTemplate the JdbcTemplate used to read the product_id range and the product names
+     * @param rowStreamer  the streamer used to read the partitions
+     * @param partitions   the number of product_id ranges to split the table into
+     */
+    @Autowired
+    public PartitionedProductPopularity(JdbcTemplate jdbcTemplate, RowStreamer rowStreamer,
+                                        @Value("${analysis.partitions:1}") int partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowStreamer = rowStreamer;
+        this.partitions = Math.max(1, partitions);
+        this.pool = this.partitions > 1 ? new ForkJoinPool(this.partitions) : null;
+    }
+
+    /**
+     * Indicates whether partitioned aggregation is switched on.
+     *
+     * @return true if more than one partition is configured.
+     */
+    public boolean isEnabled() {
+        return partitions > 1;
+    }
+
+    /**
+     * Average product popularity, keyed by product name. Averages are rounded like MySQL's AVG, so the result
+     * is identical to the serial SQL aggregate.
+     *
+     * @return a map of product name to average score; products without any score are omitted
+     */
+    public Map<String, Double> productPopularity() {
+        Map<String, Object> range = jdbcTemplate.queryForMap(RANGE_SQL);
+        if (range.get("min_id") == null) {
+            return new HashMap<>();
+        }
+        long minId = ((Number) range.get("min_id")).longValue();
+        long maxId = ((Number) range.get("max_id")).longValue();
+
+        Map<Long, ScoreStatistics> totals = pool.invoke(new PartitionTask(minId, maxId, 0, partitions));
+
+        List<Map.Entry<Long, String>> products = jdbcTemplate.query(PRODUCT_SQL,
+                (rs, rowNum) -> Map.entry(rs.getLong("product_id"), rs.getString("product_name")));
+        Map<String, ScoreStatistics> byName = new HashMap<>();
+        for (Map.Entry<Long, String> product : products) {
+            ScoreStatistics total = totals.get(product.getKey());
+            if (total != null) {
+                byName.computeIfAbsent(product.getValue(), name -> new ScoreStatistics()).merge(total);
+            }
+        }
+
+        Map<String, Double> averages = new HashMap<>();
+        for (Map.Entry<String, ScoreStatistics> entry : byName.entrySet()) {
+            ScoreStatistics total = entry.getValue();
+            // Integer scores sum exactly in a double, so this rounds the same exact quotient as MySQL.
+            averages.put(entry.getKey(), BigDecimal.valueOf((long) total.sum())
+                    .divide(BigDecimal.valueOf(total.count()), AVG_SCALE, RoundingMode.HALF_UP)
+                    .doubleValue());
+        }
+        return averages;
+    }
+
+    /**
+     * Shuts the worker pool down with the application context.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Aggregates the partitions [from, to) of the product_id range, splitting in halves until a single
+     * partition remains. Returns the score summary per product_id.
+     */
+    private final class PartitionTask extends RecursiveTask<Map<Long, ScoreStatistics>> {
+        private final long minId;
+        private final long maxId;
+        private final int from;
+        private final int to;
+
+        PartitionTask(long minId, long maxId, int from, int to) {
+            this.minId = minId;
+            this.maxId = maxId;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, ScoreStatistics> compute() {
+            if (to - from == 1) {
+                return readPartition();
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(minId, maxId, from, middle);
+            PartitionTask right = new PartitionTask(minId, maxId, middle, to);
+            left.fork();
+            Map<Long, ScoreStatistics> merged = right.compute();
+            for (Map.Entry<Long, ScoreStatistics> entry : left.join().entrySet()) {
+                merged.computeIfAbsent(entry.getKey(), id -> new ScoreStatistics()).merge(entry.getValue());
+            }
+            return merged;
+        }
+
+        private Map<Long, ScoreStatistics> readPartition() {
+            // Ranges are contiguous, equally wide and cover [minId, maxId] exactly; the last one is cut off at maxId.
+            long width = (maxId - minId) / partitions + 1;
+            long low = minId + width * from;
+            long high = from == partitions - 1 ? maxId : low + width - 1;
+            Map<Long, ScoreStatistics> totals = new HashMap<>();
+            if (low > maxId) {
+                return totals;
+            }
+            // Rows are folded into the summaries as they are read, so a partition is never held in memory.
+            rowStreamer.stream(PARTITION_SQL, rs -> {
+                totals.computeIfAbsent(rs.getLong("product_id"), id -> new ScoreStatistics())
+                        .add(rs.getInt("popularity_score"));
+            }, low, high);
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.AnalysisSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incrementally maintained popularity averages. Running sum/count accumulators are kept per trend,
+ * per product, per (category, season) and per category roll-up; every committed score write adjusts
+ * them by the difference between the old and the new score, so each average is read in constant time
+ * instead of being recomputed from the popularity tables.
+ *
+ * <p>The accumulators are seeded from a fresh read of the tables through {@link PopularityColumnStore#load()},
+ * never from the store's current snapshot, which may not yet include a score write that has already been
+ * folded in here. Writes to the dimension tables (trends, products, categories, designers and the
+ * trend_category bridge) change how scores roll up, so they trigger a reseed on the next read rather than an
+ * incremental update.</p>
+ *
+ * <p>Enabled through the {@code analysis.incremental.enabled} property.</p>
+ */
+@Repository
+public class PopularityAggregates {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityAggregates.class);
+
+    private final PopularityColumnStore columnStore;
+    private final boolean enabled;
+
+    // Score writes share the read lock; a reseed takes the write lock so no delta is applied to a state being replaced.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong dimensionVersion = new AtomicLong();
+    private volatile State state;
+
+    /**
+     * Constructs the aggregates.
+     *
+     * @param columnStore the columnar store used to read the tables the accumulators are seeded from
+     * @param enabled     whether the AnalysisService should answer from the accumulators
+     */
+    @Autowired
+    public PopularityAggregates(PopularityColumnStore columnStore,
+                                @Value("${analysis.incremental.enabled:false}") boolean enabled) {
+        this.columnStore = columnStore;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Indicates whether incremental aggregation is switched on.
+     *
+     * @return true if averages should be read from the accumulators.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Seeds the accumulators once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            current();
+        } catch (DataAccessException e) {
+            logger.warn("Could not seed popularity aggregates at startup, will retry on first use", e);
+        }
+    }
+
+    /**
+     * Applies a committed write. Score writes, single or batched, are folded into the accumulators; any other
+     * tracked write marks the dimension data as changed.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<PopularityChangeEvent> changes = PopularityChangeBatchEvent.changesOf(event);
+        if (changes.isEmpty()) {
+            dimensionVersion.incrementAndGet();
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            State current = state;
+            if (current != null) {
+                changes.forEach(current::apply);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average category popularity for a season, keyed by category name.
+     *
+     * @param season the season
+     * @return category name to average score; categories without a score for the season are omitted
+     */
+    public Map<String, Double> categoryPopularityBySeason(String season) {
+        State current = current();
+        Map<Long, RunningTotal> totals = current.categorySeasonTotals.get(PopularityColumns.seasonKey(season));
+        return averagesByName(current.categoryNames, totals != null ? totals : Collections.emptyMap(), false);
+    }
+
+    /**
+     * Average designer popularity, keyed by designer name.
+     *
+     * @return designer name to average score
+     */
+    public Map<String, Double> designerPopularity() {
+        return new HashMap<>(current().designerPopularity);
+    }
+
+    /**
+     * Average product popularity, keyed by product name.
+     *
+     * @return product name to average score; unscored products are omitted
+     */
+    public Map<String, Double> productPopularity() {
+        State current = current();
+        return averagesByName(current.productNames, current.productTotals, false);
+    }
+
+    /**
+     * Average trend popularity, keyed by trend name.
+     *
+     * @return trend name to average score; unscored trends are omitted
+     */
+    public Map<String, Double> trendPopularity() {
+        State current = current();
+        return averagesByName(current.trendNames, current.trendTotals, false);
+    }
+
+    /**
+     * Average product popularity per category, keyed by category name.
+     *
+     * @return category name to average score, null for categories without scored products
+     */
+    public Map<String, Double> productPopularityByCategory() {
+        State current = current();
+        return averagesByName(current.categoryNames, current.categoryProductTotals, true);
+    }
+
+    /**
+     * Average trend popularity per category, keyed by category name.
+     *
+     * @return category name to average score, null for categories without scored trends
+     */
+    public Map<String, Double> trendPopularityByCategory() {
+        State current = current();
+        return averagesByName(current.categoryNames, current.categoryTrendTotals, true);
+    }
+
+    /**
+     * Average trend popularity for the trends of a season, keyed by trend name.
+     *
+     * @param season the season
+     * @return trend name to average score, null for trends without a score
+     */
+    public Map<String, Double> trendPopularityBySeason(String season) {
+        return trendPopularityBySeason(current(), PopularityColumns.seasonKey(season));
+    }
+
+    /**
+     * Computes every aggregate from one state. The write lock keeps score writes out while the results are
+     * read, so they are mutually consistent, like those of {@link PopularityColumns#snapshot()}.
+     *
+     * @return all aggregates, with the season-dependent ones computed for every season present in the data
+     */
+    public AnalysisSnapshot snapshot() {
+        lock.writeLock().lock();
+        try {
+            State current = current();
+            Map<String, Map<String, Double>> categoryBySeason = new HashMap<>();
+            for (Map.Entry<String, Map<Long, RunningTotal>> entry : current.categorySeasonTotals.entrySet()) {
+                Map<String, Double> categories = averagesByName(current.categoryNames, entry.getValue(), false);
+                if (!categories.isEmpty()) {
+                    categoryBySeason.put(current.seasonNames.get(entry.getKey()), categories);
+                }
+            }
+            Map<String, Map<String, Double>> trendBySeason = new HashMap<>();
+            for (String season : current.trendsBySeason.keySet()) {
+                trendBySeason.put(current.seasonNames.get(season), trendPopularityBySeason(current, season));
+            }
+            Map<String, Integer> productCount = new HashMap<>();
+            for (String name : current.categoryNames.values()) {
+                productCount.put(name, 0);
+            }
+            for (Long categoryId : current.productCategory.values()) {
+                String name = current.categoryNames.get(categoryId);
+                if (name != null) {
+                    productCount.merge(name, 1, Integer::sum);
+                }
+            }
+            return new AnalysisSnapshot(
+                    categoryBySeason,
+                    new HashMap<>(current.designerPopularity),
+                    averagesByName(current.productNames, current.productTotals, false),
+                    averagesByName(current.trendNames, current.trendTotals, false),
+                    averagesByName(current.categoryNames, current.categoryProductTotals, true),
+                    averagesByName(current.categoryNames, current.categoryTrendTotals, true),
+                    trendBySeason,
+                    productCount);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, Double> trendPopularityBySeason(State current, String seasonKey) {
+        List<Long> trendIds = current.trendsBySeason.getOrDefault(seasonKey, Collections.emptyList());
+        Map<Long, String> names = new HashMap<>();
+        for (Long trendId : trendIds) {
+            names.put(trendId, current.trendNames.get(trendId));
+        }
+        return averagesByName(names, current.trendTotals, true);
+    }
+
+    /**
+     * Returns the current state, reseeding it first if a dimension table has changed since it was built.
+     * The reseed reads the tables under the write lock, so a score write committed before the read is part
+     * of it and one committed during the read waits for the lock and is applied to the new state.
+     */
+    private State current() {
+        State current = state;
+        if (current != null && current.dimensionVersion == dimensionVersion.get()) {
+            return current;
+        }
+        lock.writeLock().lock();
+        try {
+            current = state;
+            if (current == null || current.dimensionVersion != dimensionVersion.get()) {
+                long version = dimensionVersion.get();
+                current = new State(columnStore.load(), version);
+                state = current;
+            }
+            return current;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Merges per-entity totals by display name and converts them to averages.
+     */
+    private static Map<String, Double> averagesByName(Map<Long, String> names, Map<Long, RunningTotal> totals, boolean includeEmpty) {
+        Map<String, long[]> merged = new HashMap<>();
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            RunningTotal total = totals.get(entry.getKey());
+            long[] values = total != null ? total.values() : new long[2];
+            if (values[1] > 0 || includeEmpty) {
+                long[] sum = merged.computeIfAbsent(entry.getValue(), name -> new long[2]);
+                sum[0] += values[0];
+                sum[1] += values[1];
+            }
+        }
+        Map<String, Double> averages = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : merged.entrySet()) {
+            long[] sum = entry.getValue();
+            averages.put(entry.getKey(), sum[1] > 0 ? (double) sum[0] / sum[1] : null);
+        }
+        return averages;
+    }
+
+    /**
+     * A running sum and row count. Both values change together under the instance lock.
+     */
+    static final class RunningTotal {
+        private long sum;
+        private long count;
+
+        synchronized void add(long sumDelta, long countDelta) {
+            sum += sumDelta;
+            count += countDelta;
+        }
+
+        /**
+         * Sets every row behind this total to the given score, inserting one row if there was none,
+         * and returns the resulting change as {sumDelta, countDelta}.
+         */
+        synchronized long[] assign(int score) {
+            long oldSum = sum;
+            long oldCount = count;
+            if (count == 0) {
+                count = 1;
+            }
+            sum = count * score;
+            return new long[]{sum - oldSum, count - oldCount};
+        }
+
+        synchronized long[] values() {
+            return new long[]{sum, count};
+        }
+    }
+
+    /**
+     * Key of a product_popularity row.
+     */
+    private record ProductTrendKey(long productId, long trendId) {
+    }
+
+    /**
+     * All accumulators together with the dimension data they were seeded against.
+     */
+    private static final class State {
+        final long dimensionVersion;
+
+        final Map<Long, String> categoryNames = new HashMap<>();
+        final Map<Long, String> trendNames = new HashMap<>();
+        final Map<Long, String> productNames = new HashMap<>();
+        final Map<Long, Long> productCategory = new HashMap<>();
+        final Map<Long, List<Long>> trendCategories = new HashMap<>();
+        final Map<String, List<Long>> trendsBySeason = new HashMap<>();
+        // Season key to the spelling it was first seen with, as the columnar snapshot reports seasons.
+        final Map<String, String> seasonNames = new ConcurrentHashMap<>();
+        final Map<String, Double> designerPopularity;
+
+        final Map<Long, RunningTotal> trendTotals = new ConcurrentHashMap<>();
+        final Map<ProductTrendKey, RunningTotal> productFacts = new ConcurrentHashMap<>();
+        final Map<Long, RunningTotal> productTotals = new ConcurrentHashMap<>();
+        final Map<String, Map<Long, RunningTotal>> categorySeasonTotals = new ConcurrentHashMap<>();
+        final Map<Long, RunningTotal> categoryProductTotals = new ConcurrentHashMap<>();
+        final Map<Long, RunningTotal> categoryTrendTotals = new ConcurrentHashMap<>();
+
+        State(PopularityColumns columns, long dimensionVersion) {
+            this.dimensionVersion = dimensionVersion;
+            this.designerPopularity = columns.designerPopularity();
+            for (String season : columns.seasons) {
+                seasonNames.putIfAbsent(PopularityColumns.seasonKey(season), season);
+            }
+
+            for (int c = 0; c < columns.categoryIds.length; c++) {
+                categoryNames.put(columns.categoryIds[c], columns.categoryNames[c]);
+            }
+            for (int t = 0; t < columns.trendIds.length; t++) {
+                trendNames.put(columns.trendIds[t], columns.trendNames[t]);
+                int season = columns.trendSeason[t];
+                if (season >= 0) {
+                    trendsBySeason.computeIfAbsent(PopularityColumns.seasonKey(columns.seasons[season]), key -> new ArrayList<>())
+                            .add(columns.trendIds[t]);
+                }
+            }
+            for (int p = 0; p < columns.productIds.length; p++) {
+                productNames.put(columns.productIds[p], columns.productNames[p]);
+                if (columns.productCategory[p] >= 0) {
+                    productCategory.put(columns.productIds[p], columns.categoryIds[columns.productCategory[p]]);
+                }
+            }
+            for (int row = 0; row < columns.trendCategoryTrend.length; row++) {
+                trendCategories.computeIfAbsent(columns.trendIds[columns.trendCategoryTrend[row]], key -> new ArrayList<>())
+                        .add(columns.categoryIds[columns.trendCategoryCategory[row]]);
+            }
+
+            for (int row = 0; row < columns.trendPopularityTrend.length; row++) {
+                long trendId = columns.trendIds[columns.trendPopularityTrend[row]];
+                addTrendRows(trendId, columns.trendPopularityScore[row], 1);
+            }
+            for (int row = 0; row < columns.productPopularityProduct.length; row++) {
+                long productId = columns.productIds[columns.productPopularityProduct[row]];
+                ProductTrendKey key = new ProductTrendKey(productId, columns.productPopularityTrendId[row]);
+                productFacts.computeIfAbsent(key, k -> new RunningTotal()).add(columns.productPopularityScore[row], 1);
+                addProductRows(productId, columns.productPopularityScore[row], 1);
+            }
+            for (int row = 0; row < columns.categoryPopularityCategory.length; row++) {
+                String season = PopularityColumns.seasonKey(columns.seasons[columns.categoryPopularitySeason[row]]);
+                long categoryId = columns.categoryIds[columns.categoryPopularityCategory[row]];
+                categorySeasonTotals.computeIfAbsent(season, key -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(categoryId, key -> new RunningTotal())
+                        .add(columns.categoryPopularityScore[row], 1);
+            }
+        }
+
+        /**
+         * Folds a single score write into the accumulators. The fact total computes the delta atomically;
+         * the roll-ups then receive that delta, and since additions commute concurrent writers cannot
+         * lose each other's updates.
+         */
+        void apply(PopularityChangeEvent change) {
+            switch (change.getTable()) {
+                case TREND_POPULARITY -> {
+                    long[] delta = trendTotals.computeIfAbsent(change.getEntityId(), key -> new RunningTotal())
+                            .assign(change.getScore());
+                    for (Long categoryId : trendCategories.getOrDefault(change.getEntityId(), Collections.emptyList())) {
+                        categoryTrendTotals.computeIfAbsent(categoryId, key -> new RunningTotal()).add(delta[0], delta[1]);
+                    }
+                }
+                case PRODUCT_POPULARITY -> {
+                    ProductTrendKey key = new ProductTrendKey(change.getEntityId(), change.getTrendId());
+                    long[] delta = productFacts.computeIfAbsent(key, k -> new RunningTotal()).assign(change.getScore());
+                    addProductRows(change.getEntityId(), delta[0], delta[1]);
+                }
+                case CATEGORY_POPULARITY -> {
+                    String season = PopularityColumns.seasonKey(change.getSeason());
+                    seasonNames.putIfAbsent(season, change.getSeason());
+                    categorySeasonTotals.computeIfAbsent(season, key -> new ConcurrentHashMap<>())
+                            .computeIfAbsent(change.getEntityId(), key -> new RunningTotal())
+                            .assign(change.getScore());
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void addTrendRows(long trendId, long sumDelta, long countDelta) {
+            trendTotals.computeIfAbsent(trendId, key -> new RunningTotal()).add(sumDelta, countDelta);
+            for (Long categoryId : trendCategories.getOrDefault(trendId, Collections.emptyList())) {
+                categoryTrendTotals.computeIfAbsent(categoryId, key -> new RunningTotal()).add(sumDelta, countDelta);
+            }
+        }
+
+        private void addProductRows(long productId, long sumDelta, long countDelta) {
+            productTotals.computeIfAbsent(productId, key -> new RunningTotal()).add(sumDelta, countDelta);
+            Long categoryId = productCategory.get(productId);
+            if (categoryId != null) {
+                categoryProductTotals.computeIfAbsent(categoryId, key -> new RunningTotal()).add(sumDelta, countDelta);
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the popularity fact tables and their dimension columns into an in-process {@link PopularityColumns}
+ * snapshot. The snapshot is built once at startup. Committed score writes are applied to it in place, by
+ * copying the affected fact column; a write to any other tracked table makes it stale, and it is rebuilt
+ * lazily on the first read after that. Readers therefore never observe data older than the last completed write.
+ *
+ * <p>The store is optional and controlled by the {@code analysis.columnar.enabled} property.</p>
+ */
+@Repository
+public class PopularityColumnStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityColumnStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    // Incremented on every tracked write that cannot be applied in place; a snapshot is current while its version matches.
+    private final AtomicLong changeCount = new AtomicLong();
+    private volatile PopularityColumns columns;
+
+    /**
+     * Constructs the store.
+     *
+     * @param jdbcTemplate the JdbcTemplate used to read the source tables
+     * @param enabled      whether the AnalysisService should answer from this store
+     */
+    @Autowired
+    public PopularityColumnStore(JdbcTemplate jdbcTemplate,
+                                 @Value("${analysis.columnar.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Indicates whether the columnar store is switched on.
+     *
+     * @return true if aggregate queries should be answered from the store.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the first snapshot once the application has started. A failure is logged rather than
+     * propagated; the snapshot is then loaded on first use instead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            PopularityColumns loaded = reload();
+            logger.info("Loaded columnar popularity store: {} categories, {} trends, {} products",
+                    loaded.categoryCount(), loaded.trendCount(), loaded.productCount());
+        } catch (DataAccessException e) {
+            logger.warn("Could not load columnar popularity store at startup, will retry on first use", e);
+        }
+    }
+
+    /**
+     * Applies committed score writes to the current snapshot, a whole batch at once, or marks the snapshot as stale when any other
+     * tracked table changes. Inside a transaction the change is only handled once it has committed, so a reload
+     * can never capture a version number ahead of the data it reads.
+     *
+     * <p>Applying a score is idempotent, so a write that a concurrent reload has already read is simply applied
+     * again. A stale snapshot is left alone, as the reload that replaces it reads the score from the table.</p>
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        List<PopularityChangeEvent> changes = PopularityChangeBatchEvent.changesOf(event);
+        if (changes.isEmpty()) {
+            changeCount.incrementAndGet();
+            return;
+        }
+        synchronized (this) {
+            PopularityColumns current = columns;
+            if (current == null || current.version != changeCount.get()) {
+                return;
+            }
+            PopularityColumns updated = current.withScores(changes);
+            if (updated != null) {
+                columns = updated;
+            } else {
+                changeCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot that reflects every write published so far, reloading it if necessary.
+     *
+     * @return the current snapshot.
+     */
+    public PopularityColumns getColumns() {
+        PopularityColumns current = columns;
+        if (current != null && current.version == changeCount.get()) {
+            return current;
+        }
+        synchronized (this) {
+            current = columns;
+            if (current != null && current.version == changeCount.get()) {
+                return current;
+            }
+            return reload();
+        }
+    }
+
+    /**
+     * Reads all source tables and replaces the current snapshot.
+     *
+     * @return the newly loaded snapshot.
+     */
+    public synchronized PopularityColumns reload() {
+        PopularityColumns loaded = load();
+        columns = loaded;
+        return loaded;
+    }
+
+    /**
+     * Reads all source tables into a new snapshot without making it the current one, for consumers that
+     * need a copy read straight from the database. The tables are read from the primary, as the snapshot is
+     * kept until the next write and must not lag behind the writes it has already been told about.
+     *
+     * @return the loaded snapshot.
+     */
+    PopularityColumns load() {
+        return ReplicaRoutingDataSource.onPrimary(this::read);
+    }
+
+    private PopularityColumns read() {
+        // Read the version first: a write racing with the load leaves the snapshot marked stale.
+        long version = changeCount.get();
+
+        LongColumn categoryIds = new LongColumn();
+        List<String> categoryNames = new ArrayList<>();
+        jdbcTemplate.query("SELECT category_id, category_name FROM category", rs -> {
+            categoryIds.add(rs.getLong("category_id"));
+            categoryNames.add(rs.getString("category_name"));
+        });
+        Map<Long, Integer> categoryIndex = denseIndex(categoryIds);
+
+        Map<String, Integer> seasonCodes = new HashMap<>();
+        List<String> seasons = new ArrayList<>();
+
+        LongColumn trendIds = new LongColumn();
+        List<String> trendNames = new ArrayList<>();
+        IntColumn trendSeason = new IntColumn();
+        List<String> trendLocations = new ArrayList<>();
+        IntColumn trendCategory = new IntColumn();
+        jdbcTemplate.query("SELECT trend_id, trend_name, season, location, category_id FROM trend", rs -> {
+            trendIds.add(rs.getLong("trend_id"));
+            trendNames.add(rs.getString("trend_name"));
+            trendSeason.add(encodeSeason(rs.getString("season"), seasonCodes, seasons));
+            trendLocations.add(rs.getString("location"));
+            long categoryId = rs.getLong("category_id");
+            trendCategory.add(rs.wasNull() ? -1 : categoryIndex.getOrDefault(categoryId, -1));
+        });
+        Map<Long, Integer> trendIndex = denseIndex(trendIds);
+
+        LongColumn productIds = new LongColumn();
+        List<String> productNames = new ArrayList<>();
+        IntColumn productCategory = new IntColumn();
+        jdbcTemplate.query("SELECT product_id, product_name, category_id FROM product", rs -> {
+            productIds.add(rs.getLong("product_id"));
+            productNames.add(rs.getString("product_name"));
+            long categoryId = rs.getLong("category_id");
+            productCategory.add(rs.wasNull() ? -1 : categoryIndex.getOrDefault(categoryId, -1));
+        });
+        Map<Long, Integer> productIndex = denseIndex(productIds);
+
+        List<String> designerNames = new ArrayList<>();
+        IntColumn designerScore = new IntColumn();
+        List<Boolean> designerScorePresent = new ArrayList<>();
+        List<String> designerLocations = new ArrayList<>();
+        jdbcTemplate.query("SELECT designer_name, popularity_score, designer_location FROM designer", rs -> {
+            designerNames.add(rs.getString("designer_name"));
+            int score = rs.getInt("popularity_score");
+            designerScorePresent.add(!rs.wasNull());
+            designerScore.add(score);
+            designerLocations.add(rs.getString("designer_location"));
+        });
+
+        IntColumn trendPopularityTrend = new IntColumn();
+        IntColumn trendPopularityScore = new IntColumn();
+        jdbcTemplate.query("SELECT trend_id, popularity_score FROM trend_popularity", rs -> {
+            Integer trend = trendIndex.get(rs.getLong("trend_id"));
+            int score = rs.getInt("popularity_score");
+            if (trend != null && !rs.wasNull()) {
+                trendPopularityTrend.add(trend);
+                trendPopularityScore.add(score);
+            }
+        });
+
+        IntColumn productPopularityProduct = new IntColumn();
+        LongColumn productPopularityTrendId = new LongColumn();
+        IntColumn productPopularityScore = new IntColumn();
+        jdbcTemplate.query("SELECT product_id, trend_id, popularity_score FROM product_popularity", rs -> {
+            Integer product = productIndex.get(rs.getLong("product_id"));
+            long trendId = rs.getLong("trend_id");
+            int score = rs.getInt("popularity_score");
+            if (product != null && !rs.wasNull()) {
+                productPopularityProduct.add(product);
+                productPopularityTrendId.add(trendId);
+                productPopularityScore.add(score);
+            }
+        });
+
+        IntColumn categoryPopularityCategory = new IntColumn();
+        IntColumn categoryPopularitySeason = new IntColumn();
+        IntColumn categoryPopularityScore = new IntColumn();
+        jdbcTemplate.query("SELECT category_id, season, popularity_score FROM category_popularity", rs -> {
+            Integer category = categoryIndex.get(rs.getLong("category_id"));
+            String season = rs.getString("season");
+            int score = rs.getInt("popularity_score");
+            if (category != null && season != null && !rs.wasNull()) {
+                categoryPopularityCategory.add(category);
+                categoryPopularitySeason.add(encodeSeason(season, seasonCodes, seasons));
+                categoryPopularityScore.add(score);
+            }
+        });
+
+        IntColumn trendCategoryTrend = new IntColumn();
+        IntColumn trendCategoryCategory = new IntColumn();
+        jdbcTemplate.query("SELECT trend_id, category_id FROM trend_category", rs -> {
+            Integer trend = trendIndex.get(rs.getLong("trend_id"));
+            Integer category = categoryIndex.get(rs.getLong("category_id"));
+            if (trend != null && category != null) {
+                trendCategoryTrend.add(trend);
+                trendCategoryCategory.add(category);
+            }
+        });
+
+        boolean[] present = new boolean[designerScorePresent.size()];
+        for (int i = 0; i < present.length; i++) {
+            present[i] = designerScorePresent.get(i);
+        }
+
+        return new PopularityColumns(
+                categoryIds.toArray(), categoryNames.toArray(new String[0]),
+                trendIds.toArray(), trendNames.toArray(new String[0]), trendSeason.toArray(),
+                trendLocations.toArray(new String[0]), trendCategory.toArray(),
+                productIds.toArray(), productNames.toArray(new String[0]), productCategory.toArray(),
+                designerNames.toArray(new String[0]), designerScore.toArray(), present, designerLocations.toArray(new String[0]),
+                seasons.toArray(new String[0]),
+                trendPopularityTrend.toArray(), trendPopularityScore.toArray(),
+                productPopularityProduct.toArray(), productPopularityTrendId.toArray(), productPopularityScore.toArray(),
+                categoryPopularityCategory.toArray(), categoryPopularitySeason.toArray(), categoryPopularityScore.toArray(),
+                trendCategoryTrend.toArray(), trendCategoryCategory.toArray(),
+                version);
+    }
+
+    /**
+     * Assigns each ID its position in the column as dense index.
+     */
+    private static Map<Long, Integer> denseIndex(LongColumn ids) {
+        Map<Long, Integer> index = new HashMap<>(ids.size * 2);
+        for (int i = 0; i < ids.size; i++) {
+            index.put(ids.values[i], i);
+        }
+        return index;
+    }
+
+    /**
+     * Dictionary-encodes a season value, adding it to the dictionary on first sight.
+     */
+    private static int encodeSeason(String season, Map<String, Integer> codes, List<String> dictionary) {
+        if (season == null) {
+            return -1;
+        }
+        return codes.computeIfAbsent(PopularityColumns.seasonKey(season), key -> {
+            dictionary.add(season);
+            return dictionary.size() - 1;
+        });
+    }
+
+    /**
+     * Growable primitive int column used while loading.
+     */
+    private static final class IntColumn {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Growable primitive long column used while loading.
+     */
+    private static final class LongColumn {
+        private long[] values = new long[64];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,727 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.AnalysisSnapshot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented snapshot of the popularity fact tables and the dimension columns they join to.
+ * Every entity is addressed by a dense index (0..n-1) assigned at load time, so the aggregate queries of
+ * the AnalysisService reduce to tight loops over primitive arrays instead of a SQL join per request.
+ *
+ * <p>Instances are built by {@link PopularityColumnStore} and never modified afterwards, which makes them
+ * safe to scan from any number of threads. Score writes are applied by {@link #withScores(List)}, which copies
+ * only the fact columns of the written tables and finds the row of every write through an index of the fact
+ * keys.</p>
+ */
+public final class PopularityColumns {
+
+    // Dimension columns, indexed by dense category / trend / product / designer index.
+    final long[] categoryIds;
+    final String[] categoryNames;
+    final long[] trendIds;
+    final String[] trendNames;
+    final int[] trendSeason;
+    final String[] trendLocations;
+    final int[] trendCategory;
+    final long[] productIds;
+    final String[] productNames;
+    final int[] productCategory;
+    final String[] designerNames;
+    final int[] designerScore;
+    final boolean[] designerScorePresent;
+    final String[] designerLocations;
+
+    // Dictionary of season values shared by trend.season and category_popularity.season.
+    final String[] seasons;
+    private final Map<String, Integer> seasonCodes;
+
+    // Dense index of every dimension ID, shared by the snapshots derived through withScores.
+    private final Map<Long, Integer> categoryIndex;
+    private final Map<Long, Integer> trendIndex;
+    private final Map<Long, Integer> productIndex;
+
+    // Fact columns, one entry per row that joins to a known dimension.
+    final int[] trendPopularityTrend;
+    final int[] trendPopularityScore;
+    final int[] productPopularityProduct;
+    final long[] productPopularityTrendId;
+    final int[] productPopularityScore;
+    final int[] categoryPopularityCategory;
+    final int[] categoryPopularitySeason;
+    final int[] categoryPopularityScore;
+    final int[] trendCategoryTrend;
+    final int[] trendCategoryCategory;
+
+    // Number of tracked writes that had been observed when this snapshot was loaded.
+    final long version;
+
+    // Rows of every fact key, built at load time and shared by the snapshots derived through withScores.
+    // The rows of dense trend t are trendRows[trendRowStart[t]] up to trendRows[trendRowStart[t + 1]].
+    private final int[] trendRowStart;
+    private final int[] trendRows;
+    private final Map<RowKey, Integer> productRowIndex;
+    private final Map<RowKey, Integer> categoryRowIndex;
+
+    // Rows appended by withScores since the load, which the shared indexes above do not hold.
+    private final Map<RowKey, Integer> addedProductRows;
+    private final Map<RowKey, Integer> addedCategoryRows;
+
+    PopularityColumns(long[] categoryIds, String[] categoryNames,
+                      long[] trendIds, String[] trendNames, int[] trendSeason, String[] trendLocations, int[] trendCategory,
+                      long[] productIds, String[] productNames, int[] productCategory,
+                      String[] designerNames, int[] designerScore, boolean[] designerScorePresent, String[] designerLocations,
+                      String[] seasons,
+                      int[] trendPopularityTrend, int[] trendPopularityScore,
+                      int[] productPopularityProduct, long[] productPopularityTrendId, int[] productPopularityScore,
+                      int[] categoryPopularityCategory, int[] categoryPopularitySeason, int[] categoryPopularityScore,
+                      int[] trendCategoryTrend, int[] trendCategoryCategory,
+                      long version) {
+        this.categoryIds = categoryIds;
+        this.categoryNames = categoryNames;
+        this.trendIds = trendIds;
+        this.trendNames = trendNames;
+        this.trendSeason = trendSeason;
+        this.trendLocations = trendLocations;
+        this.trendCategory = trendCategory;
+        this.productIds = productIds;
+        this.productNames = productNames;
+        this.productCategory = productCategory;
+        this.designerNames = designerNames;
+        this.designerScore = designerScore;
+        this.designerScorePresent = designerScorePresent;
+        this.designerLocations = designerLocations;
+        this.seasons = seasons;
+        this.trendPopularityTrend = trendPopularityTrend;
+        this.trendPopularityScore = trendPopularityScore;
+        this.productPopularityProduct = productPopularityProduct;
+        this.productPopularityTrendId = productPopularityTrendId;
+        this.productPopularityScore = productPopularityScore;
+        this.categoryPopularityCategory = categoryPopularityCategory;
+        this.categoryPopularitySeason = categoryPopularitySeason;
+        this.categoryPopularityScore = categoryPopularityScore;
+        this.trendCategoryTrend = trendCategoryTrend;
+        this.trendCategoryCategory = trendCategoryCategory;
+        this.version = version;
+
+        this.seasonCodes = new HashMap<>();
+        for (int i = 0; i < seasons.length; i++) {
+            seasonCodes.put(seasonKey(seasons[i]), i);
+        }
+        this.categoryIndex = denseIndex(categoryIds);
+        this.trendIndex = denseIndex(trendIds);
+        this.productIndex = denseIndex(productIds);
+
+        this.trendRowStart = new int[trendIds.length + 1];
+        for (int trend : trendPopularityTrend) {
+            trendRowStart[trend + 1]++;
+        }
+        for (int trend = 0; trend < trendIds.length; trend++) {
+            trendRowStart[trend + 1] += trendRowStart[trend];
+        }
+        this.trendRows = new int[trendPopularityTrend.length];
+        int[] next = Arrays.copyOf(trendRowStart, trendIds.length);
+        for (int row = 0; row < trendPopularityTrend.length; row++) {
+            trendRows[next[trendPopularityTrend[row]]++] = row;
+        }
+        this.productRowIndex = new HashMap<>(productPopularityProduct.length * 2);
+        for (int row = 0; row < productPopularityProduct.length; row++) {
+            productRowIndex.putIfAbsent(new RowKey(productPopularityProduct[row], productPopularityTrendId[row]), row);
+        }
+        this.categoryRowIndex = new HashMap<>(categoryPopularityCategory.length * 2);
+        for (int row = 0; row < categoryPopularityCategory.length; row++) {
+            categoryRowIndex.putIfAbsent(new RowKey(categoryPopularityCategory[row], categoryPopularitySeason[row]), row);
+        }
+        this.addedProductRows = Map.of();
+        this.addedCategoryRows = Map.of();
+    }
+
+    /**
+     * Copies a snapshot with new fact columns, sharing its dimension columns, dictionaries and key indexes.
+     */
+    private PopularityColumns(PopularityColumns base, int[] trendPopularityScore,
+                              int[] productPopularityProduct, long[] productPopularityTrendId, int[] productPopularityScore,
+                              int[] categoryPopularityCategory, int[] categoryPopularitySeason, int[] categoryPopularityScore,
+                              Map<RowKey, Integer> addedProductRows, Map<RowKey, Integer> addedCategoryRows) {
+        this.categoryIds = base.categoryIds;
+        this.categoryNames = base.categoryNames;
+        this.trendIds = base.trendIds;
+        this.trendNames = base.trendNames;
+        this.trendSeason = base.trendSeason;
+        this.trendLocations = base.trendLocations;
+        this.trendCategory = base.trendCategory;
+        this.productIds = base.productIds;
+        this.productNames = base.productNames;
+        this.productCategory = base.productCategory;
+        this.designerNames = base.designerNames;
+        this.designerScore = base.designerScore;
+        this.designerScorePresent = base.designerScorePresent;
+        this.designerLocations = base.designerLocations;
+        this.seasons = base.seasons;
+        this.seasonCodes = base.seasonCodes;
+        this.trendPopularityTrend = base.trendPopularityTrend;
+        this.trendPopularityScore = trendPopularityScore;
+        this.productPopularityProduct = productPopularityProduct;
+        this.productPopularityTrendId = productPopularityTrendId;
+        this.productPopularityScore = productPopularityScore;
+        this.categoryPopularityCategory = categoryPopularityCategory;
+        this.categoryPopularitySeason = categoryPopularitySeason;
+        this.categoryPopularityScore = categoryPopularityScore;
+        this.trendCategoryTrend = base.trendCategoryTrend;
+        this.trendCategoryCategory = base.trendCategoryCategory;
+        this.version = base.version;
+        this.categoryIndex = base.categoryIndex;
+        this.trendIndex = base.trendIndex;
+        this.productIndex = base.productIndex;
+        this.trendRowStart = base.trendRowStart;
+        this.trendRows = base.trendRows;
+        this.productRowIndex = base.productRowIndex;
+        this.categoryRowIndex = base.categoryRowIndex;
+        this.addedProductRows = addedProductRows;
+        this.addedCategoryRows = addedCategoryRows;
+    }
+
+    /**
+     * Applies committed score writes to a copy of this snapshot, with the same effect as the statements
+     * behind them: a trend score replaces the score of every row of the trend, while a product or category
+     * score replaces the row of its key or adds one. Scores of entities the snapshot does not know are
+     * dropped, as a reload would drop them. The row of every write is found through the key indexes, and only
+     * the fact columns of the written tables are copied; the other columns are shared with this snapshot.
+     *
+     * @param changes the score writes, in commit order
+     * @return the updated snapshot, or null if a write uses a season the snapshot has no dictionary code for
+     */
+    PopularityColumns withScores(List<PopularityChangeEvent> changes) {
+        int[] trendScores = trendPopularityScore;
+        int[] productRows = productPopularityProduct;
+        long[] productTrends = productPopularityTrendId;
+        int[] productScores = productPopularityScore;
+        int productSize = productRows.length;
+        Map<RowKey, Integer> addedProducts = addedProductRows;
+        int[] categoryRows = categoryPopularityCategory;
+        int[] categorySeasons = categoryPopularitySeason;
+        int[] categoryScores = categoryPopularityScore;
+        int categorySize = categoryRows.length;
+        Map<RowKey, Integer> addedCategories = addedCategoryRows;
+
+        for (PopularityChangeEvent change : changes) {
+            switch (change.getTable()) {
+                case TREND_POPULARITY -> {
+                    Integer trend = trendIndex.get(change.getEntityId());
+                    if (trend == null) {
+                        continue;
+                    }
+                    if (trendScores == trendPopularityScore) {
+                        trendScores = trendScores.clone();
+                    }
+                    for (int i = trendRowStart[trend]; i < trendRowStart[trend + 1]; i++) {
+                        trendScores[trendRows[i]] = change.getScore();
+                    }
+                }
+                case PRODUCT_POPULARITY -> {
+                    Integer product = productIndex.get(change.getEntityId());
+                    if (product == null || change.getTrendId() == null) {
+                        continue;
+                    }
+                    RowKey key = new RowKey(product, change.getTrendId());
+                    Integer row = productRowIndex.get(key);
+                    if (row == null) {
+                        row = addedProducts.get(key);
+                    }
+                    if (row == null) {
+                        if (productRows == productPopularityProduct) {
+                            // Room for one new row per write, trimmed once all writes are applied.
+                            productRows = Arrays.copyOf(productRows, productSize + changes.size());
+                            productTrends = Arrays.copyOf(productTrends, productSize + changes.size());
+                            productScores = Arrays.copyOf(productScores, productSize + changes.size());
+                            addedProducts = new HashMap<>(addedProducts);
+                        }
+                        row = productSize++;
+                        productRows[row] = product;
+                        productTrends[row] = change.getTrendId();
+                        addedProducts.put(key, row);
+                    } else if (productScores == productPopularityScore) {
+                        productScores = productScores.clone();
+                    }
+                    productScores[row] = change.getScore();
+                }
+                case CATEGORY_POPULARITY -> {
+                    Integer category = categoryIndex.get(change.getEntityId());
+                    if (category == null || change.getSeason() == null) {
+                        continue;
+                    }
+                    int season = seasonCode(change.getSeason());
+                    if (season < 0) {
+                        return null;
+                    }
+                    RowKey key = new RowKey(category, season);
+                    Integer row = categoryRowIndex.get(key);
+                    if (row == null) {
+                        row = addedCategories.get(key);
+                    }
+                    if (row == null) {
+                        if (categoryRows == categoryPopularityCategory) {
+                            categoryRows = Arrays.copyOf(categoryRows, categorySize + changes.size());
+                            categorySeasons = Arrays.copyOf(categorySeasons, categorySize + changes.size());
+                            categoryScores = Arrays.copyOf(categoryScores, categorySize + changes.size());
+                            addedCategories = new HashMap<>(addedCategories);
+                        }
+                        row = categorySize++;
+                        categoryRows[row] = category;
+                        categorySeasons[row] = season;
+                        addedCategories.put(key, row);
+                    } else if (categoryScores == categoryPopularityScore) {
+                        categoryScores = categoryScores.clone();
+                    }
+                    categoryScores[row] = change.getScore();
+                }
+                default -> {
+                }
+            }
+        }
+        return new PopularityColumns(this, trendScores,
+                trim(productRows, productSize), trim(productTrends, productSize), trim(productScores, productSize),
+                trim(categoryRows, categorySize), trim(categorySeasons, categorySize), trim(categoryScores, categorySize),
+                addedProducts, addedCategories);
+    }
+
+    /**
+     * Normalizes a season value for dictionary lookups. Seasons compare case-insensitively,
+     * mirroring the default collation of the MySQL schema.
+     *
+     * @param season the raw season value
+     * @return the key under which the season is stored in the dictionary
+     */
+    static String seasonKey(String season) {
+        return season.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Looks up the dictionary code of a season.
+     *
+     * @param season the season to look up
+     * @return the dense season code, or -1 if no row carries that season
+     */
+    int seasonCode(String season) {
+        if (season == null) {
+            return -1;
+        }
+        Integer code = seasonCodes.get(seasonKey(season));
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Average category popularity for one season, keyed by category name.
+     *
+     * @param season the season to filter category_popularity rows by
+     * @return a map of category name to average score; categories without a score for the season are omitted
+     */
+    public Map<String, Double> categoryPopularityBySeason(String season) {
+        int code = seasonCode(season);
+        long[] sum = new long[categoryIds.length];
+        long[] count = new long[categoryIds.length];
+        if (code >= 0) {
+            for (int row = 0; row < categoryPopularityCategory.length; row++) {
+                if (categoryPopularitySeason[row] == code) {
+                    int category = categoryPopularityCategory[row];
+                    sum[category] += categoryPopularityScore[row];
+                    count[category]++;
+                }
+            }
+        }
+        return averagesByName(categoryNames, sum, count, false);
+    }
+
+    /**
+     * Average designer popularity, keyed by designer name.
+     *
+     * @return a map of designer name to the average of the designer.popularity_score column
+     */
+    public Map<String, Double> designerPopularity() {
+        long[] sum = new long[designerNames.length];
+        long[] count = new long[designerNames.length];
+        for (int designer = 0; designer < designerNames.length; designer++) {
+            if (designerScorePresent[designer]) {
+                sum[designer] = designerScore[designer];
+                count[designer] = 1;
+            }
+        }
+        return averagesByName(designerNames, sum, count, false);
+    }
+
+    /**
+     * Average product popularity across all trends, keyed by product name.
+     *
+     * @return a map of product name to average score; products without any score are omitted
+     */
+    public Map<String, Double> productPopularity() {
+        long[] sum = new long[productIds.length];
+        long[] count = new long[productIds.length];
+        accumulate(productPopularityProduct, productPopularityScore, sum, count);
+        return averagesByName(productNames, sum, count, false);
+    }
+
+    /**
+     * Average trend popularity, keyed by trend name.
+     *
+     * @return a map of trend name to average score; trends without any score are omitted
+     */
+    public Map<String, Double> trendPopularity() {
+        long[] sum = new long[trendIds.length];
+        long[] count = new long[trendIds.length];
+        accumulate(trendPopularityTrend, trendPopularityScore, sum, count);
+        return averagesByName(trendNames, sum, count, false);
+    }
+
+    /**
+     * Average product popularity rolled up to the product's category, keyed by category name.
+     *
+     * @return a map of category name to average score, with a null value for categories without scored products
+     */
+    public Map<String, Double> productPopularityByCategory() {
+        long[] productSum = new long[productIds.length];
+        long[] productCount = new long[productIds.length];
+        accumulate(productPopularityProduct, productPopularityScore, productSum, productCount);
+        return productPopularityByCategory(productSum, productCount);
+    }
+
+    /**
+     * Average trend popularity rolled up through the trend_category bridge, keyed by category name.
+     *
+     * @return a map of category name to average score, with a null value for categories without scored trends
+     */
+    public Map<String, Double> trendPopularityByCategory() {
+        long[] trendSum = new long[trendIds.length];
+        long[] trendCount = new long[trendIds.length];
+        accumulate(trendPopularityTrend, trendPopularityScore, trendSum, trendCount);
+        return trendPopularityByCategory(trendSum, trendCount);
+    }
+
+    /**
+     * Average trend popularity for the trends of one season, keyed by trend name.
+     *
+     * @param season the season to filter trends by
+     * @return a map of trend name to average score, with a null value for trends of the season without a score
+     */
+    public Map<String, Double> trendPopularityBySeason(String season) {
+        int code = seasonCode(season);
+        if (code < 0) {
+            return new HashMap<>();
+        }
+        long[] sum = new long[trendIds.length];
+        long[] count = new long[trendIds.length];
+        accumulate(trendPopularityTrend, trendPopularityScore, sum, count);
+        return trendPopularityBySeason(code, sum, count);
+    }
+
+    /**
+     * Computes every aggregate at once. Each fact column is scanned a single time and all results are derived
+     * from the same immutable snapshot, so they are mutually consistent.
+     *
+     * @return all aggregates, with the season-dependent ones computed for every season present in the data
+     */
+    public AnalysisSnapshot snapshot() {
+        long[] trendSum = new long[trendIds.length];
+        long[] trendCount = new long[trendIds.length];
+        accumulate(trendPopularityTrend, trendPopularityScore, trendSum, trendCount);
+
+        long[] productSum = new long[productIds.length];
+        long[] productCount = new long[productIds.length];
+        accumulate(productPopularityProduct, productPopularityScore, productSum, productCount);
+
+        // One pass over category_popularity fills a season-major (season, category) grid.
+        long[] seasonSum = new long[seasons.length * categoryIds.length];
+        long[] seasonCount = new long[seasons.length * categoryIds.length];
+        for (int row = 0; row < categoryPopularityCategory.length; row++) {
+            int cell = categoryPopularitySeason[row] * categoryIds.length + categoryPopularityCategory[row];
+            seasonSum[cell] += categoryPopularityScore[row];
+            seasonCount[cell]++;
+        }
+
+        Map<String, Map<String, Double>> categoryBySeason = new HashMap<>();
+        boolean[] trendSeasonPresent = new boolean[seasons.length];
+        for (int trend = 0; trend < trendIds.length; trend++) {
+            if (trendSeason[trend] >= 0) {
+                trendSeasonPresent[trendSeason[trend]] = true;
+            }
+        }
+        Map<String, Map<String, Double>> trendBySeason = new HashMap<>();
+        for (int code = 0; code < seasons.length; code++) {
+            int from = code * categoryIds.length;
+            long[] sum = Arrays.copyOfRange(seasonSum, from, from + categoryIds.length);
+            long[] count = Arrays.copyOfRange(seasonCount, from, from + categoryIds.length);
+            Map<String, Double> categories = averagesByName(categoryNames, sum, count, false);
+            if (!categories.isEmpty()) {
+                categoryBySeason.put(seasons[code], categories);
+            }
+            if (trendSeasonPresent[code]) {
+                trendBySeason.put(seasons[code], trendPopularityBySeason(code, trendSum, trendCount));
+            }
+        }
+
+        return new AnalysisSnapshot(
+                categoryBySeason,
+                designerPopularity(),
+                averagesByName(productNames, productSum, productCount, false),
+                averagesByName(trendNames, trendSum, trendCount, false),
+                productPopularityByCategory(productSum, productCount),
+                trendPopularityByCategory(trendSum, trendCount),
+                trendBySeason,
+                productCountByCategory());
+    }
+
+    /**
+     * Number of products per category, keyed by category name.
+     *
+     * @return a map of category name to product count, including categories without products
+     */
+    public Map<String, Integer> productCountByCategory() {
+        int[] count = new int[categoryIds.length];
+        for (int product = 0; product < productIds.length; product++) {
+            if (productCategory[product] >= 0) {
+                count[productCategory[product]]++;
+            }
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (int category = 0; category < categoryIds.length; category++) {
+            counts.merge(categoryNames[category], count[category], Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Average trend popularity of the trends matching all given filters, keyed by trend name.
+     * Season and location compare case-insensitively; the category is the trend's own category_id.
+     *
+     * @param season     the season of the trends, or null for any season
+     * @param location   the location of the trends, or null for any location
+     * @param categoryId the category of the trends, or null for any category
+     * @return a map of trend name to average score; unscored trends are omitted
+     */
+    public Map<String, Double> trendPopularity(String season, String location, Long categoryId) {
+        int code = season != null ? seasonCode(season) : -1;
+        int category = categoryId != null ? categoryIndex.getOrDefault(categoryId, -1) : -1;
+        if ((season != null && code < 0) || (categoryId != null && category < 0)) {
+            return new HashMap<>();
+        }
+        long[] sum = new long[trendIds.length];
+        long[] count = new long[trendIds.length];
+        accumulate(trendPopularityTrend, trendPopularityScore, sum, count);
+        for (int trend = 0; trend < trendIds.length; trend++) {
+            boolean matches = (season == null || trendSeason[trend] == code)
+                    && (location == null || equalsIgnoreCase(location, trendLocations[trend]))
+                    && (categoryId == null || trendCategory[trend] == category);
+            if (!matches) {
+                count[trend] = 0;
+            }
+        }
+        return averagesByName(trendNames, sum, count, false);
+    }
+
+    /**
+     * Average product popularity of the products in a category, keyed by product name.
+     *
+     * @param categoryId the category of the products, or null for any category
+     * @return a map of product name to average score; unscored products are omitted
+     */
+    public Map<String, Double> productPopularity(Long categoryId) {
+        int category = categoryId != null ? categoryIndex.getOrDefault(categoryId, -1) : -1;
+        if (categoryId != null && category < 0) {
+            return new HashMap<>();
+        }
+        long[] sum = new long[productIds.length];
+        long[] count = new long[productIds.length];
+        accumulate(productPopularityProduct, productPopularityScore, sum, count);
+        for (int product = 0; product < productIds.length; product++) {
+            if (categoryId != null && productCategory[product] != category) {
+                count[product] = 0;
+            }
+        }
+        return averagesByName(productNames, sum, count, false);
+    }
+
+    /**
+     * Average designer popularity of the designers at a location, keyed by designer name.
+     *
+     * @param location the location of the designers, or null for any location
+     * @return a map of designer name to average score; designers without a score are omitted
+     */
+    public Map<String, Double> designerPopularity(String location) {
+        long[] sum = new long[designerNames.length];
+        long[] count = new long[designerNames.length];
+        for (int designer = 0; designer < designerNames.length; designer++) {
+            if (designerScorePresent[designer] && (location == null || equalsIgnoreCase(location, designerLocations[designer]))) {
+                sum[designer] = designerScore[designer];
+                count[designer] = 1;
+            }
+        }
+        return averagesByName(designerNames, sum, count, false);
+    }
+
+    /**
+     * Average category popularity, optionally restricted to one season, keyed by category name.
+     *
+     * @param season the season of the category_popularity rows, or null for all seasons
+     * @return a map of category name to average score; categories without a matching score are omitted
+     */
+    public Map<String, Double> categoryPopularity(String season) {
+        if (season != null) {
+            return categoryPopularityBySeason(season);
+        }
+        long[] sum = new long[categoryIds.length];
+        long[] count = new long[categoryIds.length];
+        accumulate(categoryPopularityCategory, categoryPopularityScore, sum, count);
+        return averagesByName(categoryNames, sum, count, false);
+    }
+
+    /**
+     * Number of categories in the snapshot.
+     *
+     * @return the category count.
+     */
+    public int categoryCount() {
+        return categoryIds.length;
+    }
+
+    /**
+     * Number of trends in the snapshot.
+     *
+     * @return the trend count.
+     */
+    public int trendCount() {
+        return trendIds.length;
+    }
+
+    /**
+     * Number of products in the snapshot.
+     *
+     * @return the product count.
+     */
+    public int productCount() {
+        return productIds.length;
+    }
+
+    /**
+     * Rolls per-product totals up to the product's category.
+     */
+    private Map<String, Double> productPopularityByCategory(long[] productSum, long[] productCount) {
+        long[] sum = new long[categoryIds.length];
+        long[] count = new long[categoryIds.length];
+        for (int product = 0; product < productIds.length; product++) {
+            int category = productCategory[product];
+            if (category >= 0) {
+                sum[category] += productSum[product];
+                count[category] += productCount[product];
+            }
+        }
+        return averagesByName(categoryNames, sum, count, true);
+    }
+
+    /**
+     * Rolls per-trend totals up through the trend_category bridge.
+     */
+    private Map<String, Double> trendPopularityByCategory(long[] trendSum, long[] trendCount) {
+        long[] sum = new long[categoryIds.length];
+        long[] count = new long[categoryIds.length];
+        for (int row = 0; row < trendCategoryTrend.length; row++) {
+            int trend = trendCategoryTrend[row];
+            int category = trendCategoryCategory[row];
+            sum[category] += trendSum[trend];
+            count[category] += trendCount[trend];
+        }
+        return averagesByName(categoryNames, sum, count, true);
+    }
+
+    /**
+     * Selects the per-trend totals of the trends whose season has the given code.
+     */
+    private Map<String, Double> trendPopularityBySeason(int code, long[] trendSum, long[] trendCount) {
+        Map<String, long[]> totals = new HashMap<>();
+        for (int trend = 0; trend < trendIds.length; trend++) {
+            if (trendSeason[trend] == code) {
+                long[] total = totals.computeIfAbsent(trendNames[trend], name -> new long[2]);
+                total[0] += trendSum[trend];
+                total[1] += trendCount[trend];
+            }
+        }
+        return toAverages(totals, true);
+    }
+
+    /**
+     * Assigns each ID its position in the column as dense index.
+     */
+    private static Map<Long, Integer> denseIndex(long[] ids) {
+        Map<Long, Integer> index = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            index.put(ids[i], i);
+        }
+        return index;
+    }
+
+    /**
+     * Cuts a fact column grown by withScores down to its rows, returning a column of the right length as it is.
+     */
+    private static int[] trim(int[] column, int size) {
+        return column.length == size ? column : Arrays.copyOf(column, size);
+    }
+
+    private static long[] trim(long[] column, int size) {
+        return column.length == size ? column : Arrays.copyOf(column, size);
+    }
+
+    /**
+     * Compares a filter value with a column value the way the default MySQL collation does.
+     */
+    private static boolean equalsIgnoreCase(String filter, String value) {
+        return value != null && filter.trim().equalsIgnoreCase(value.trim());
+    }
+
+    /**
+     * Adds every fact row's score to the running sum and count of the entity it belongs to.
+     */
+    private static void accumulate(int[] keys, int[] scores, long[] sum, long[] count) {
+        for (int row = 0; row < keys.length; row++) {
+            sum[keys[row]] += scores[row];
+            count[keys[row]]++;
+        }
+    }
+
+    /**
+     * Merges per-entity totals by display name, as the SQL queries GROUP BY name rather than by ID.
+     */
+    private static Map<String, Double> averagesByName(String[] names, long[] sum, long[] count, boolean includeEmpty) {
+        Map<String, long[]> totals = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (count[i] > 0 || includeEmpty) {
+                long[] total = totals.computeIfAbsent(names[i], name -> new long[2]);
+                total[0] += sum[i];
+                total[1] += count[i];
+            }
+        }
+        return toAverages(totals, includeEmpty);
+    }
+
+    private static Map<String, Double> toAverages(Map<String, long[]> totals, boolean includeEmpty) {
+        Map<String, Double> averages = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            long[] total = entry.getValue();
+            if (total[1] > 0) {
+                averages.put(entry.getKey(), (double) total[0] / total[1]);
+            } else if (includeEmpty) {
+                averages.put(entry.getKey(), null);
+            }
+        }
+        return averages;
+    }
+
+    /**
+     * Key of a fact row: the dense index of its entity and its trend ID or season code.
+     */
+    private record RowKey(int entity, long key) {
+    }
+}
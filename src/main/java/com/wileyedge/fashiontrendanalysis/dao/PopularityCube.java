@@ -0,0 +1,276 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.CubeCell;
+import com.wileyedge.fashiontrendanalysis.model.CubeDimension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pre-aggregated cube of trend popularity over category, season, location and designer.
+ *
+ * <p>Every one of the 16 group-bys (cuboids) of the four dimensions is kept as a map from the values of its
+ * dimensions to a (sum, count) total. A query grouping by some dimensions and slicing on others reads the
+ * cuboid of their union and keeps the cells matching the slice, so roll-up, drill-down and slice never join
+ * or scan the trend tables.</p>
+ *
+ * <p>The cube is refreshed incrementally: a trend score write adjusts the totals of the trend's 16 cells
+ * by the difference to its previous scores, and a write to a trend re-reads that one trend. Category and
+ * designer writes can rename the values of a dimension, so they cause a full reload on the next query.</p>
+ */
+@Repository
+public class PopularityCube {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityCube.class);
+
+    private static final CubeDimension[] DIMENSIONS = CubeDimension.values();
+    private static final int CUBOIDS = 1 << DIMENSIONS.length;
+
+    private static final String FACT_SQL = "SELECT t.trend_id, c.category_name, t.season, t.location, d.designer_name, " +
+            "COUNT(tp.popularity_score) AS score_count, SUM(tp.popularity_score) AS score_sum " +
+            "FROM trend t " +
+            "LEFT JOIN category c ON c.category_id = t.category_id " +
+            "LEFT JOIN designer d ON d.designer_id = t.designer_id " +
+            "LEFT JOIN trend_popularity tp ON tp.trend_id = t.trend_id ";
+
+    private static final String FACT_GROUP_BY = " GROUP BY t.trend_id, c.category_name, t.season, t.location, d.designer_name";
+
+    static final String ALL_FACTS_SQL = FACT_SQL + FACT_GROUP_BY;
+
+    static final String TREND_FACT_SQL = FACT_SQL + "WHERE t.trend_id = ?" + FACT_GROUP_BY;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RowMapper<Fact> factMapper = (rs, rowNum) -> new Fact(rs.getLong("trend_id"),
+            new String[]{rs.getString("category_name"), rs.getString("season"), rs.getString("location"), rs.getString("designer_name")},
+            rs.getLong("score_count"), rs.getLong("score_sum"));
+
+    // Queries share the read lock; every change to the cuboids takes the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong dimensionVersion = new AtomicLong();
+    private final Map<Long, Fact> facts = new HashMap<>();
+    private final List<Map<List<String>, long[]>> cuboids = new ArrayList<>();
+    private long loadedVersion = -1;
+
+    /**
+     * Constructs the cube.
+     *
+     * @param jdbcTemplate the JdbcTemplate used to read the trend facts
+     */
+    @Autowired
+    public PopularityCube(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (int mask = 0; mask < CUBOIDS; mask++) {
+            cuboids.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Builds the cube once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            query(Set.of(), Map.of());
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the popularity cube at startup, will retry on first query", e);
+        }
+    }
+
+    /**
+     * Applies a committed write to the cube.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        DataTable table = event.getTable();
+        if (table == DataTable.CATEGORY || table == DataTable.DESIGNER) {
+            dimensionVersion.incrementAndGet();
+            return;
+        }
+        if (table != DataTable.TREND && table != DataTable.TREND_POPULARITY) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loadedVersion < 0) {
+                return;
+            }
+            List<PopularityChangeEvent> changes = PopularityChangeBatchEvent.changesOf(event);
+            if (!changes.isEmpty()) {
+                for (PopularityChangeEvent change : changes) {
+                    Fact previous = facts.get(change.getEntityId());
+                    if (previous != null) {
+                        // The score update sets every popularity row of the trend to the new score.
+                        replace(previous, previous.withSum(previous.count() * change.getScore()));
+                    } else {
+                        refresh(change.getEntityId(), null);
+                    }
+                }
+            } else if (event.getEntityId() != null) {
+                refresh(event.getEntityId(), facts.get(event.getEntityId()));
+            } else {
+                dimensionVersion.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Queries the cube. The grouped dimensions choose the granularity (roll-up to fewer, drill down to more);
+     * the slice keeps only the cells with the given dimension values, compared regardless of case.
+     *
+     * @param groupBy the dimensions to group by; none gives the grand total
+     * @param slice   the fixed value of each sliced dimension
+     * @return one cell per combination of grouped values, highest average first
+     */
+    public List<CubeCell> query(Set<CubeDimension> groupBy, Map<CubeDimension, String> slice) {
+        ensureLoaded();
+        int mask = 0;
+        for (CubeDimension dimension : groupBy) {
+            mask |= 1 << dimension.ordinal();
+        }
+        for (CubeDimension dimension : slice.keySet()) {
+            mask |= 1 << dimension.ordinal();
+        }
+
+        List<CubeCell> cells = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<List<String>, long[]> cell : cuboids.get(mask).entrySet()) {
+                Map<String, String> coordinates = new LinkedHashMap<>();
+                boolean matches = true;
+                int position = 0;
+                for (CubeDimension dimension : DIMENSIONS) {
+                    if ((mask & (1 << dimension.ordinal())) == 0) {
+                        continue;
+                    }
+                    String value = cell.getKey().get(position++);
+                    String sliced = slice.get(dimension);
+                    if (sliced != null && !sliced.equalsIgnoreCase(value)) {
+                        matches = false;
+                        break;
+                    }
+                    if (groupBy.contains(dimension)) {
+                        coordinates.put(dimension.key(), value);
+                    }
+                }
+                long[] total = cell.getValue();
+                if (matches) {
+                    cells.add(new CubeCell(coordinates, (double) total[0] / total[1], total[1]));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        cells.sort(Comparator.comparingDouble(CubeCell::getAverageScore).reversed());
+        return cells;
+    }
+
+    /**
+     * Reloads every fact if the cube has not been built yet or a dimension table changed since.
+     */
+    private void ensureLoaded() {
+        long version = dimensionVersion.get();
+        lock.readLock().lock();
+        try {
+            if (loadedVersion == version) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (loadedVersion == version) {
+                return;
+            }
+            List<Fact> loaded = ReplicaRoutingDataSource.onPrimary(() -> jdbcTemplate.query(ALL_FACTS_SQL, factMapper));
+            facts.clear();
+            cuboids.forEach(Map::clear);
+            for (Fact fact : loaded) {
+                replace(null, fact);
+            }
+            loadedVersion = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swaps the contribution of a trend; either side may be null. Must hold the write lock.
+     */
+    /**
+     * Re-reads the fact of one trend and replaces its previous contribution.
+     */
+    private void refresh(long trendId, Fact previous) {
+        List<Fact> current = jdbcTemplate.query(TREND_FACT_SQL, factMapper, trendId);
+        replace(previous, current.isEmpty() ? null : current.get(0));
+    }
+
+    private void replace(Fact previous, Fact current) {
+        if (previous != null) {
+            facts.remove(previous.trendId());
+            add(previous, -1);
+        }
+        if (current != null) {
+            facts.put(current.trendId(), current);
+            add(current, 1);
+        }
+    }
+
+    private void add(Fact fact, int sign) {
+        if (fact.count() == 0) {
+            return;
+        }
+        for (int mask = 0; mask < CUBOIDS; mask++) {
+            List<String> key = new ArrayList<>(Integer.bitCount(mask));
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                if ((mask & (1 << d)) != 0) {
+                    key.add(fact.coordinates()[d]);
+                }
+            }
+            Map<List<String>, long[]> cuboid = cuboids.get(mask);
+            long[] total = cuboid.computeIfAbsent(key, k -> new long[2]);
+            total[0] += sign * fact.sum();
+            total[1] += sign * fact.count();
+            if (total[1] == 0) {
+                cuboid.remove(key);
+            }
+        }
+    }
+
+    /**
+     * The scores of one trend: its dimension values (in CubeDimension order), number of scores and their sum.
+     */
+    record Fact(long trendId, String[] coordinates, long count, long sum) {
+
+        Fact withSum(long newSum) {
+            return new Fact(trendId, coordinates, count, newSum);
+        }
+    }
+}
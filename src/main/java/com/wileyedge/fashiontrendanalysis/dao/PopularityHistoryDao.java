@@ -0,0 +1,36 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.HistoryResolution;
+import com.wileyedge.fashiontrendanalysis.model.PopularityPoint;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Interface for operations on the append-only popularity history and its roll-ups.
+ */
+public interface PopularityHistoryDao {
+
+    /**
+     * Appends recorded trend and product scores to the history and folds them into the hourly and daily roll-ups,
+     * with one batch statement per table.
+     *
+     * @param changes    the score writes; the trend of a product score is recorded with it
+     * @param recordedAt the time of the writes
+     */
+    void recordScores(List<PopularityChangeEvent> changes, Instant recordedAt);
+
+    /**
+     * Retrieves the points of a series within a time range at the given resolution.
+     *
+     * @param series     the popularity table of the series
+     * @param entityId   the ID of the trend or product
+     * @param resolution the resolution to read at
+     * @param from       the start of the range, inclusive
+     * @param to         the end of the range, exclusive
+     * @return the points in chronological order
+     */
+    List<PopularityPoint> getPoints(DataTable series, Long entityId, HistoryResolution resolution, Instant from, Instant to);
+}
@@ -0,0 +1,108 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.HistoryResolution;
+import com.wileyedge.fashiontrendanalysis.model.PopularityPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the PopularityHistoryDao interface.
+ * Raw scores are appended to popularity_history; each append also upserts the matching hourly and daily
+ * rows of popularity_rollup, so range queries over long periods never have to scan raw points. A batch of
+ * scores costs one batch statement per table, with the scores of a bucket combined into one upsert.
+ */
+@Repository
+public class PopularityHistoryDaoImpl implements PopularityHistoryDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a new PopularityHistoryDaoImpl with the provided JdbcTemplate.
+     *
+     * @param jdbcTemplate the JdbcTemplate to be used for database operations
+     */
+    @Autowired
+    public PopularityHistoryDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Append the scores and update their roll-up buckets.
+     */
+    @Override
+    public void recordScores(List<PopularityChangeEvent> changes, Instant recordedAt) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp recorded = Timestamp.from(recordedAt);
+        String insert = "INSERT INTO popularity_history (series_type, entity_id, trend_id, popularity_score, recorded_at) " +
+                "VALUES (?, ?, ?, ?, ?)";
+        List<Object[]> points = new ArrayList<>();
+        // All scores share the time of the write, so each series has one bucket per resolution: {min, max, sum, count}.
+        Map<List<Object>, long[]> buckets = new LinkedHashMap<>();
+        for (PopularityChangeEvent change : changes) {
+            DataTable series = change.getTable();
+            Long trendId = series == DataTable.PRODUCT_POPULARITY ? change.getTrendId() : null;
+            int score = change.getScore();
+            points.add(new Object[]{series.name(), change.getEntityId(), trendId, score, recorded});
+            for (HistoryResolution resolution : HistoryResolution.ROLLUPS) {
+                List<Object> key = List.of(series.name(), change.getEntityId(), resolution.name(),
+                        Timestamp.from(resolution.bucketStart(recordedAt)));
+                long[] bucket = buckets.computeIfAbsent(key, k -> new long[]{score, score, 0, 0});
+                bucket[0] = Math.min(bucket[0], score);
+                bucket[1] = Math.max(bucket[1], score);
+                bucket[2] += score;
+                bucket[3]++;
+            }
+        }
+        jdbcTemplate.batchUpdate(insert, points);
+
+        String upsert = "INSERT INTO popularity_rollup " +
+                "(series_type, entity_id, resolution, bucket_start, min_score, max_score, score_sum, score_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE min_score = LEAST(min_score, VALUES(min_score)), " +
+                "max_score = GREATEST(max_score, VALUES(max_score)), " +
+                "score_sum = score_sum + VALUES(score_sum), " +
+                "score_count = score_count + VALUES(score_count)";
+        List<Object[]> rows = new ArrayList<>();
+        buckets.forEach((key, bucket) -> rows.add(new Object[]{key.get(0), key.get(1), key.get(2), key.get(3),
+                (int) bucket[0], (int) bucket[1], bucket[2], bucket[3]}));
+        jdbcTemplate.batchUpdate(upsert, rows);
+    }
+
+    /**
+     * Retrieve raw points or roll-up buckets within a range.
+     */
+    @Override
+    public List<PopularityPoint> getPoints(DataTable series, Long entityId, HistoryResolution resolution, Instant from, Instant to) {
+        if (resolution == HistoryResolution.RAW) {
+            String query = "SELECT recorded_at, popularity_score FROM popularity_history " +
+                    "WHERE series_type = ? AND entity_id = ? AND recorded_at >= ? AND recorded_at < ? " +
+                    "ORDER BY recorded_at, history_id";
+            return jdbcTemplate.query(query, (rs, rowNum) -> {
+                int score = rs.getInt("popularity_score");
+                return new PopularityPoint(rs.getTimestamp("recorded_at").toInstant(), score, score, score, 1);
+            }, series.name(), entityId, Timestamp.from(from), Timestamp.from(to));
+        }
+
+        // The bucket containing 'from' is included, so the first point may start slightly before the range.
+        String query = "SELECT bucket_start, min_score, max_score, score_sum, score_count FROM popularity_rollup " +
+                "WHERE series_type = ? AND entity_id = ? AND resolution = ? AND bucket_start >= ? AND bucket_start < ? " +
+                "ORDER BY bucket_start";
+        return jdbcTemplate.query(query, (rs, rowNum) -> {
+            long count = rs.getLong("score_count");
+            return new PopularityPoint(rs.getTimestamp("bucket_start").toInstant(),
+                    rs.getInt("min_score"), rs.getInt("max_score"), (double) rs.getLong("score_sum") / count, count);
+        }, series.name(), entityId, resolution.name(), Timestamp.from(resolution.bucketStart(from)), Timestamp.from(to));
+    }
+}
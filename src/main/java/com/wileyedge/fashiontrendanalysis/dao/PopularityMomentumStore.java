@@ -0,0 +1,296 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.PopularityMomentum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Momentum and hot score per trend and per (product, trend) score, updated in constant time from every
+ * committed score write.
+ *
+ * <p>Momentum is an exponentially weighted moving average of the score velocity. Writes arrive at irregular
+ * intervals, so the weight of a new velocity sample grows with the time it covers:
+ * {@code alpha = 1 - 2^(-dt / momentumHalfLife)}. The hot score adds each increase of the score to the previous
+ * hot score after halving it once per elapsed {@code hotHalfLife}; the first score counts as an increase from
+ * zero, and rewriting or lowering a score adds nothing, so the hot score does not grow with the write rate.
+ * Reads apply the decay since the last write, so a trend that stopped moving cools down without any background
+ * work.</p>
+ *
+ * <p>The trends are also kept ranked by momentum and by hot score, so a listing can seek to its next page
+ * instead of sorting every trend. All series of a ranking decay with the same half-life, so their order only
+ * changes on writes: a trend is ranked by the sign of its value and the logarithm of its magnitude moved back to
+ * a fixed epoch, {@code log2|value| + hoursSinceEpoch(updatedAt) / halfLife}. That position is set when the score
+ * is written and stays valid as the value decays, so cursors taken from it remain valid too.</p>
+ *
+ * <p>At startup the state is rebuilt by replaying the popularity history of the last
+ * {@value #SEED_HALF_LIVES} hot half-lives; older scores would contribute less than 1/16 of their value.</p>
+ */
+@Repository
+public class PopularityMomentumStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityMomentumStore.class);
+
+    static final int SEED_HALF_LIVES = 4;
+
+    static final String HISTORY_SQL = "SELECT series_type, entity_id, trend_id, popularity_score, recorded_at " +
+            "FROM popularity_history " +
+            "WHERE recorded_at >= ? " +
+            "ORDER BY recorded_at, history_id";
+
+    private static final double MILLIS_PER_HOUR = Duration.ofHours(1).toMillis();
+
+    // The instant the rank positions are measured from.
+    private static final Instant RANK_EPOCH = Instant.EPOCH;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double momentumHalfLifeHours;
+    private final double hotHalfLifeHours;
+    private final Duration seedWindow;
+
+    private final Map<Key, State> states = new ConcurrentHashMap<>();
+    // The trends each product has a score for, so its series are found without scanning all states.
+    private final Map<Long, Set<Long>> productTrends = new ConcurrentHashMap<>();
+    // The trends with a recorded score, in the order of every ranking.
+    private final Map<Ranking, NavigableSet<Rank>> rankings = new EnumMap<>(Map.of(
+            Ranking.MOMENTUM, new ConcurrentSkipListSet<>(),
+            Ranking.HOT_SCORE, new ConcurrentSkipListSet<>()));
+
+    /**
+     * Constructs the store.
+     *
+     * @param jdbcTemplate     the JdbcTemplate used to replay the popularity history
+     * @param momentumHalfLife the time after which a velocity sample has lost half of its weight
+     * @param hotHalfLife      the time after which a recorded score counts half towards the hot score
+     */
+    @Autowired
+    public PopularityMomentumStore(JdbcTemplate jdbcTemplate,
+                                   @Value("${analysis.momentum.half-life:PT6H}") Duration momentumHalfLife,
+                                   @Value("${analysis.hot.half-life:P3D}") Duration hotHalfLife) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.momentumHalfLifeHours = momentumHalfLife.toMillis() / MILLIS_PER_HOUR;
+        this.hotHalfLifeHours = hotHalfLife.toMillis() / MILLIS_PER_HOUR;
+        this.seedWindow = hotHalfLife.multipliedBy(SEED_HALF_LIVES);
+    }
+
+    /**
+     * Replays the recent popularity history once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        try {
+            jdbcTemplate.query(HISTORY_SQL, rs -> {
+                DataTable series = DataTable.valueOf(rs.getString("series_type"));
+                long trendId = rs.getLong("trend_id");
+                Long trendIdOrNull = rs.wasNull() ? null : trendId;
+                record(series, rs.getLong("entity_id"), trendIdOrNull,
+                        rs.getInt("popularity_score"), rs.getTimestamp("recorded_at").toInstant());
+            }, Timestamp.from(Instant.now().minus(seedWindow)));
+        } catch (DataAccessException e) {
+            logger.warn("Could not replay popularity history at startup, momentum starts empty", e);
+        }
+    }
+
+    /**
+     * Records committed trend or product score writes, single or batched.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (event.getTable() != DataTable.TREND_POPULARITY && event.getTable() != DataTable.PRODUCT_POPULARITY) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (PopularityChangeEvent change : PopularityChangeBatchEvent.changesOf(event)) {
+            record(change.getTable(), change.getEntityId(), change.getTrendId(), change.getScore(), now);
+        }
+    }
+
+    /**
+     * Folds a score into the state of its series.
+     *
+     * @param series     TREND_POPULARITY or PRODUCT_POPULARITY
+     * @param entityId   the ID of the trend or product
+     * @param trendId    the trend of a product score; ignored for trend scores
+     * @param score      the recorded score
+     * @param recordedAt the time of the write
+     */
+    public void record(DataTable series, long entityId, Long trendId, int score, Instant recordedAt) {
+        Key key = key(series, entityId, trendId);
+        if (series == DataTable.PRODUCT_POPULARITY) {
+            productTrends.computeIfAbsent(entityId, id -> ConcurrentHashMap.newKeySet()).add(key.trendId());
+        }
+        states.compute(key, (k, previous) -> {
+            State next = previous == null
+                    ? new State(score, 0, score, recordedAt)
+                    : previous.next(score, recordedAt, momentumHalfLifeHours, hotHalfLifeHours);
+            if (series == DataTable.TREND_POPULARITY) {
+                for (Ranking ranking : Ranking.values()) {
+                    if (previous != null) {
+                        rankings.get(ranking).remove(rank(ranking, entityId, previous));
+                    }
+                    rankings.get(ranking).add(rank(ranking, entityId, next));
+                }
+            }
+            return next;
+        });
+    }
+
+    /**
+     * Gets the ranks of the trends following a rank, highest momentum or hot score first. Trends without a
+     * recorded score are not ranked.
+     *
+     * @param ranking the order of the trends
+     * @param after   the rank to continue after, or null to start with the highest
+     * @param limit   the largest number of ranks to return
+     * @return the ranks, in ranking order
+     */
+    public List<Rank> rankedTrends(Ranking ranking, Rank after, int limit) {
+        NavigableSet<Rank> ranks = rankings.get(ranking);
+        List<Rank> page = new ArrayList<>(Math.min(limit, 64));
+        for (Rank rank : after == null ? ranks : ranks.tailSet(after, false)) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(rank);
+        }
+        return page;
+    }
+
+    /**
+     * Gets the momentum of a trend.
+     *
+     * @param trendId the ID of the trend
+     * @param now     the time to evaluate the decay at
+     * @return the momentum, or null if no score was recorded for the trend
+     */
+    public PopularityMomentum trendMomentum(long trendId, Instant now) {
+        State state = states.get(key(DataTable.TREND_POPULARITY, trendId, null));
+        return state != null ? state.at(now, momentumHalfLifeHours, hotHalfLifeHours) : null;
+    }
+
+    /**
+     * Gets the momentum of every trend score of a product.
+     *
+     * @param productId the ID of the product
+     * @param now       the time to evaluate the decay at
+     * @return the momentum keyed by trend ID; empty if no score was recorded for the product
+     */
+    public Map<Long, PopularityMomentum> productMomentum(long productId, Instant now) {
+        Map<Long, PopularityMomentum> byTrend = new HashMap<>();
+        for (long trendId : productTrends.getOrDefault(productId, Set.of())) {
+            State state = states.get(new Key(DataTable.PRODUCT_POPULARITY, productId, trendId));
+            if (state != null) {
+                byTrend.put(trendId, state.at(now, momentumHalfLifeHours, hotHalfLifeHours));
+            }
+        }
+        return byTrend;
+    }
+
+    private Rank rank(Ranking ranking, long trendId, State state) {
+        double value = ranking == Ranking.MOMENTUM ? state.momentum() : state.hot();
+        double halfLife = ranking == Ranking.MOMENTUM ? momentumHalfLifeHours : hotHalfLifeHours;
+        int sign = (int) Math.signum(value);
+        double position = sign == 0 ? 0
+                : Math.log(Math.abs(value)) / Math.log(2) + hoursBetween(RANK_EPOCH, state.updatedAt()) / halfLife;
+        return new Rank(sign, position, trendId);
+    }
+
+    private static Key key(DataTable series, long entityId, Long trendId) {
+        return new Key(series, entityId, series == DataTable.PRODUCT_POPULARITY && trendId != null ? trendId : entityId);
+    }
+
+    private static double decay(double hours, double halfLifeHours) {
+        return Math.pow(2, -hours / halfLifeHours);
+    }
+
+    private static double hoursBetween(Instant from, Instant to) {
+        return Math.max(0, Duration.between(from, to).toMillis()) / MILLIS_PER_HOUR;
+    }
+
+    /**
+     * The orders the trends are ranked in.
+     */
+    public enum Ranking {
+        MOMENTUM,
+        HOT_SCORE
+    }
+
+    /**
+     * The place of a trend in a ranking: the sign of its value, the position of its magnitude measured from the
+     * rank epoch, and the trend ID that breaks ties. Ranks order highest value first, and keep their order as the
+     * values decay.
+     *
+     * @param sign     1 for a positive value, 0 for zero, -1 for a negative value
+     * @param position the logarithm of the magnitude, moved back to the rank epoch; 0 for a zero value
+     * @param trendId  the ID of the trend
+     */
+    public record Rank(int sign, double position, long trendId) implements Comparable<Rank> {
+
+        @Override
+        public int compareTo(Rank other) {
+            if (sign != other.sign) {
+                return Integer.compare(other.sign, sign);
+            }
+            // A larger magnitude ranks first among positive values and last among negative ones.
+            int order = Double.compare(other.position, position) * sign;
+            return order != 0 ? order : Long.compare(trendId, other.trendId);
+        }
+    }
+
+    /**
+     * A series: trend scores are keyed by the trend alone, product scores by product and trend.
+     */
+    private record Key(DataTable series, long entityId, long trendId) {
+    }
+
+    /**
+     * The state of one series as of its last write.
+     */
+    private record State(int score, double momentum, double hot, Instant updatedAt) {
+
+        State next(int newScore, Instant at, double momentumHalfLife, double hotHalfLife) {
+            double hours = hoursBetween(updatedAt, at);
+            double nextMomentum = momentum;
+            if (hours > 0) {
+                double alpha = 1 - decay(hours, momentumHalfLife);
+                double velocity = (newScore - score) / hours;
+                nextMomentum = momentum + alpha * (velocity - momentum);
+            }
+            Instant latest = at.isAfter(updatedAt) ? at : updatedAt;
+            double increase = Math.max(0, newScore - score);
+            return new State(newScore, nextMomentum, hot * decay(hours, hotHalfLife) + increase, latest);
+        }
+
+        PopularityMomentum at(Instant now, double momentumHalfLife, double hotHalfLife) {
+            double hours = hoursBetween(updatedAt, now);
+            return new PopularityMomentum(score, momentum * decay(hours, momentumHalfLife),
+                    hot * decay(hours, hotHalfLife), updatedAt);
+        }
+    }
+}
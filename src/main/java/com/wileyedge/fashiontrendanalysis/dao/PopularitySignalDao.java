@@ -0,0 +1,20 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal;
+
+import java.util.List;
+
+/**
+ * Interface for writing batches of ingested popularity signals.
+ */
+public interface PopularitySignalDao {
+
+    /**
+     * Writes a batch of signals in one transaction, with one JDBC batch per popularity table.
+     * Signals for the same key are applied in the order given.
+     *
+     * @param signals the validated signals to write
+     * @return the number of signals that changed a row
+     */
+    int writeBatch(List<PopularitySignal> signals);
+}
@@ -0,0 +1,117 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Implementation of the PopularitySignalDao interface.
+ * Uses the same statements as the single-score writes of TrendDao, ProductDao and CategoryDao. Instead of a
+ * PopularityChangeEvent per written row it publishes one PopularityChangeBatchEvent per table, so listeners
+ * apply a batch with a few statements rather than a few per row.
+ */
+@Repository
+public class PopularitySignalDaoImpl implements PopularitySignalDao {
+
+    static final String TREND_SQL = "UPDATE trend_popularity SET popularity_score = ? WHERE trend_id = ?";
+
+    static final String PRODUCT_SQL = "INSERT INTO product_popularity (product_id, trend_id, popularity_score) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE popularity_score = ?";
+
+    static final String CATEGORY_SQL = "INSERT INTO category_popularity (category_id, season, popularity_score) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE popularity_score = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs a new PopularitySignalDaoImpl with the provided JdbcTemplate and event publisher.
+     *
+     * @param jdbcTemplate   the JdbcTemplate to be used for database operations
+     * @param eventPublisher the publisher used to announce committed score writes
+     */
+    @Autowired
+    public PopularitySignalDaoImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Write the signals grouped by table. The transaction is declared here because batches are written
+     * from the ingestion flusher thread, outside of any service call.
+     */
+    @Override
+    @Transactional
+    public int writeBatch(List<PopularitySignal> signals) {
+        List<PopularitySignal> trends = new ArrayList<>();
+        List<PopularitySignal> products = new ArrayList<>();
+        List<PopularitySignal> categories = new ArrayList<>();
+        for (PopularitySignal signal : signals) {
+            switch (signal.getTarget()) {
+                case TREND -> trends.add(signal);
+                case PRODUCT -> products.add(signal);
+                case CATEGORY -> categories.add(signal);
+            }
+        }
+
+        int written = 0;
+        if (!trends.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(TREND_SQL, trends.stream()
+                    .map(s -> new Object[]{s.getScore(), s.getTrendId()})
+                    .toList());
+            written += publish(DataTable.TREND_POPULARITY, trends, counts,
+                    s -> PopularityChangeEvent.forTrend(s.getTrendId(), s.getScore()));
+        }
+        if (!products.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(PRODUCT_SQL, products.stream()
+                    .map(s -> new Object[]{s.getProductId(), s.getTrendId(), s.getScore(), s.getScore()})
+                    .toList());
+            written += publish(DataTable.PRODUCT_POPULARITY, products, counts,
+                    s -> PopularityChangeEvent.forProduct(s.getProductId(), s.getTrendId(), s.getScore()));
+        }
+        if (!categories.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(CATEGORY_SQL, categories.stream()
+                    .map(s -> new Object[]{s.getCategoryId(), s.getSeason(), s.getScore(), s.getScore()})
+                    .toList());
+            written += publish(DataTable.CATEGORY_POPULARITY, categories, counts,
+                    s -> PopularityChangeEvent.forCategory(s.getCategoryId(), s.getSeason(), s.getScore()));
+        }
+        return written;
+    }
+
+    /**
+     * Publishes one batch event for the signals of a table that changed a row.
+     *
+     * @return the number of signals that changed a row
+     */
+    private int publish(DataTable table, List<PopularitySignal> signals, int[] counts,
+                        Function<PopularitySignal, PopularityChangeEvent> change) {
+        List<PopularityChangeEvent> changes = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (changed(counts[i])) {
+                changes.add(change.apply(signals.get(i)));
+            }
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new PopularityChangeBatchEvent(table, changes));
+        }
+        return changes.size();
+    }
+
+    /**
+     * Drivers that rewrite a batch into one multi-row statement report SUCCESS_NO_INFO (-2) instead of a row count.
+     */
+    private static boolean changed(int count) {
+        return count != 0;
+    }
+}
@@ -0,0 +1,309 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.PopularityDistribution;
+import com.wileyedge.fashiontrendanalysis.sketch.HyperLogLog;
+import com.wileyedge.fashiontrendanalysis.sketch.TDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-key sketches of the current popularity scores: a t-digest for percentiles and a HyperLogLog for
+ * the number of distinct entities scored. Sketches are kept per trend and per category (product scores,
+ * counting distinct products) and per season (category scores, counting distinct categories).
+ *
+ * <p>The sketches are seeded from the popularity tables at startup and every committed score write is added
+ * to them. Only the digest and the distinct counter are kept per key, not the scored rows, so a write that
+ * overwrites a row cannot take the old score out: both scores stay in the digest and its count. This drift is
+ * bounded by reseeding on the next read once more than {@code analysis.sketch.reseed-fraction} of the seeded
+ * rows, and at least {@code analysis.sketch.reseed-writes} rows, have been written since the last seed. Writes
+ * to products, trends and categories may move or delete scored rows, so they cause a reseed on the next read,
+ * as does a seed that failed. Sketches of several keys are merged to answer roll-ups, so no query has to sort
+ * the scores.</p>
+ */
+@Repository
+public class PopularitySketches {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularitySketches.class);
+
+    static final String PRODUCT_SCORES_SQL = "SELECT pp.product_id, pp.trend_id, p.category_id, pp.popularity_score " +
+            "FROM product_popularity pp " +
+            "LEFT JOIN product p ON p.product_id = pp.product_id " +
+            "WHERE pp.popularity_score IS NOT NULL";
+
+    static final String CATEGORY_SCORES_SQL = "SELECT category_id, season, popularity_score " +
+            "FROM category_popularity " +
+            "WHERE popularity_score IS NOT NULL";
+
+    static final String PRODUCT_CATEGORY_SQL = "SELECT category_id FROM product WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double compression;
+    private final int precision;
+    private final long reseedWrites;
+    private final double reseedFraction;
+
+    private final Map<Long, Sketch> byTrend = new ConcurrentHashMap<>();
+    private final Map<Long, Sketch> byCategory = new ConcurrentHashMap<>();
+    private final Map<String, Sketch> bySeason = new ConcurrentHashMap<>();
+    private final Map<Long, Long> productCategories = new ConcurrentHashMap<>();
+
+    // Score writes share the read lock; seeding takes the write lock so no write is both seeded and applied.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Incremented by every dimension write; the sketches are current while the seeded version matches.
+    // The seeded version is -1 until a seed has succeeded, so a failed seed is retried on the next read.
+    private final AtomicLong dimensionVersion = new AtomicLong();
+    private volatile long seededVersion = -1;
+    // Score rows read by the last seed and written since, which bound the share of overwritten scores.
+    private volatile long seededRows;
+    private final AtomicLong writesSinceSeed = new AtomicLong();
+
+    /**
+     * Constructs the sketches.
+     *
+     * @param jdbcTemplate   the JdbcTemplate used to seed the sketches and to look up product categories
+     * @param compression    the t-digest compression; higher values are more accurate and use more memory
+     * @param precision      the number of HyperLogLog index bits
+     * @param reseedWrites   the number of score writes since the last seed that never causes a reseed
+     * @param reseedFraction the share of the seeded rows that may be written before the next read reseeds
+     */
+    @Autowired
+    public PopularitySketches(JdbcTemplate jdbcTemplate,
+                              @Value("${analysis.sketch.compression:100}") double compression,
+                              @Value("${analysis.sketch.precision:12}") int precision,
+                              @Value("${analysis.sketch.reseed-writes:1000}") long reseedWrites,
+                              @Value("${analysis.sketch.reseed-fraction:0.05}") double reseedFraction) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.compression = compression;
+        this.precision = precision;
+        this.reseedWrites = reseedWrites;
+        this.reseedFraction = reseedFraction;
+    }
+
+    /**
+     * Seeds the sketches once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        try {
+            seed();
+        } catch (DataAccessException e) {
+            logger.warn("Could not seed popularity sketches at startup, they are seeded on first use", e);
+        }
+    }
+
+    /**
+     * Replaces the sketches with ones built from the current contents of the popularity tables.
+     */
+    public void seed() {
+        lock.writeLock().lock();
+        try {
+            long version = dimensionVersion.get();
+            seededVersion = -1;
+            byTrend.clear();
+            byCategory.clear();
+            bySeason.clear();
+            productCategories.clear();
+            seededRows = ReplicaRoutingDataSource.onPrimary(this::readScores);
+            writesSinceSeed.set(0);
+            seededVersion = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long readScores() {
+        AtomicLong rows = new AtomicLong();
+        jdbcTemplate.query(PRODUCT_SCORES_SQL, rs -> {
+            rows.incrementAndGet();
+            long productId = rs.getLong("product_id");
+            long trendId = rs.getLong("trend_id");
+            boolean hasTrend = !rs.wasNull();
+            long categoryId = rs.getLong("category_id");
+            boolean hasCategory = !rs.wasNull();
+            int score = rs.getInt("popularity_score");
+            if (hasTrend) {
+                sketch(byTrend, trendId).add(productId, score);
+            }
+            if (hasCategory) {
+                productCategories.put(productId, categoryId);
+                sketch(byCategory, categoryId).add(productId, score);
+            }
+        });
+        jdbcTemplate.query(CATEGORY_SCORES_SQL, rs -> {
+            rows.incrementAndGet();
+            sketch(bySeason, seasonKey(rs.getString("season")))
+                    .add(rs.getLong("category_id"), rs.getInt("popularity_score"));
+        });
+        return rows.get();
+    }
+
+    /**
+     * Adds committed score writes, single or batched, to the sketches of their keys. Product, trend and category writes mark the
+     * sketches for a reseed; product writes also forget the cached category of the product.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        DataTable table = event.getTable();
+        if (table == DataTable.PRODUCT || table == DataTable.TREND || table == DataTable.CATEGORY) {
+            if (table == DataTable.PRODUCT && event.getEntityId() != null) {
+                productCategories.remove(event.getEntityId());
+            } else if (table == DataTable.PRODUCT) {
+                productCategories.clear();
+            }
+            dimensionVersion.incrementAndGet();
+            return;
+        }
+        List<PopularityChangeEvent> changes = PopularityChangeBatchEvent.changesOf(event);
+        if (changes.isEmpty()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            for (PopularityChangeEvent change : changes) {
+                if (change.getTable() == DataTable.PRODUCT_POPULARITY) {
+                    long productId = change.getEntityId();
+                    if (change.getTrendId() != null) {
+                        sketch(byTrend, change.getTrendId()).add(productId, change.getScore());
+                    }
+                    Long categoryId = categoryOf(productId);
+                    if (categoryId != null) {
+                        sketch(byCategory, categoryId).add(productId, change.getScore());
+                    }
+                    writesSinceSeed.incrementAndGet();
+                } else if (change.getTable() == DataTable.CATEGORY_POPULARITY) {
+                    sketch(bySeason, seasonKey(change.getSeason())).add(change.getEntityId(), change.getScore());
+                    writesSinceSeed.incrementAndGet();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distribution of the product scores of the given trends, merged into one.
+     *
+     * @param trendIds the trends to include; all trends if empty
+     * @return the merged distribution, counting distinct products
+     */
+    public PopularityDistribution trendDistribution(Collection<Long> trendIds) {
+        return merge(byTrend, trendIds);
+    }
+
+    /**
+     * Distribution of the product scores of the products in the given categories, merged into one.
+     *
+     * @param categoryIds the categories to include; all categories if empty
+     * @return the merged distribution, counting distinct products
+     */
+    public PopularityDistribution categoryDistribution(Collection<Long> categoryIds) {
+        return merge(byCategory, categoryIds);
+    }
+
+    /**
+     * Distribution of the category scores of the given seasons, merged into one. Seasons are matched
+     * regardless of case.
+     *
+     * @param seasons the seasons to include; all seasons if empty
+     * @return the merged distribution, counting distinct categories
+     */
+    public PopularityDistribution seasonDistribution(Collection<String> seasons) {
+        List<String> keys = new ArrayList<>();
+        for (String season : seasons) {
+            keys.add(seasonKey(season));
+        }
+        return merge(bySeason, keys);
+    }
+
+    private <K> Sketch sketch(Map<K, Sketch> sketches, K key) {
+        return sketches.computeIfAbsent(key, k -> new Sketch(compression, precision));
+    }
+
+    private <K> PopularityDistribution merge(Map<K, Sketch> sketches, Collection<K> keys) {
+        long writes = writesSinceSeed.get();
+        if (seededVersion != dimensionVersion.get() || (writes > reseedWrites && writes > reseedFraction * seededRows)) {
+            seed();
+        }
+        Sketch merged = new Sketch(compression, precision);
+        Collection<Sketch> sources = keys.isEmpty() ? sketches.values() : keys.stream()
+                .map(sketches::get)
+                .filter(sketch -> sketch != null)
+                .toList();
+        for (Sketch source : sources) {
+            source.mergeInto(merged);
+        }
+        return merged.distribution();
+    }
+
+    private Long categoryOf(long productId) {
+        Long cached = productCategories.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        List<Long> rows = jdbcTemplate.queryForList(PRODUCT_CATEGORY_SQL, Long.class, productId);
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return null;
+        }
+        productCategories.put(productId, rows.get(0));
+        return rows.get(0);
+    }
+
+    private static String seasonKey(String season) {
+        return season == null ? "" : season.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The sketches of one key. Writers and mergers synchronize on the instance.
+     */
+    private static final class Sketch {
+        private final TDigest scores;
+        private final HyperLogLog entities;
+
+        Sketch(double compression, int precision) {
+            this.scores = new TDigest(compression);
+            this.entities = new HyperLogLog(precision);
+        }
+
+        synchronized void add(long entityId, int score) {
+            scores.add(score);
+            entities.offer(entityId);
+        }
+
+        synchronized void mergeInto(Sketch target) {
+            target.scores.merge(scores);
+            target.entities.merge(entities);
+        }
+
+        PopularityDistribution distribution() {
+            if (scores.size() == 0) {
+                return new PopularityDistribution(0, 0, null, null, null, null, null);
+            }
+            return new PopularityDistribution(scores.size(), entities.cardinality(), scores.min(),
+                    scores.quantile(0.5), scores.quantile(0.9), scores.quantile(0.99), scores.max());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index of the products by category and designer. Each committed write to a product
+ * re-reads that product only.
+ */
+@Repository
+public class ProductBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBitmapIndex.class);
+
+    static final String CATEGORY = "category_id";
+    static final String DESIGNER = "designer_id";
+
+    private final ProductDao productDao;
+
+    // Filters share the read lock; loading and refreshing take the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitmapIndex<Product> index = new BitmapIndex<>();
+    private boolean loaded;
+
+    /**
+     * Constructs the index.
+     *
+     * @param productDao the DAO the products are read from
+     */
+    @Autowired
+    public ProductBitmapIndex(ProductDao productDao) {
+        this.productDao = productDao;
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            ensureLoaded();
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the product bitmap index at startup, will retry on first use", e);
+        }
+    }
+
+    /**
+     * Re-reads a product after a committed write to it.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (event.getTable() != DataTable.PRODUCT) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            if (event.getEntityId() == null) {
+                loaded = false;
+                return;
+            }
+            try {
+                Product product = productDao.getProductById(event.getEntityId());
+                index.put(product.getProductId(), copy(product), values(product));
+            } catch (EmptyResultDataAccessException e) {
+                index.remove(event.getEntityId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Selects the products matching all given attribute filters; within one attribute any of the values
+     * matches. An empty or null collection does not filter on that attribute.
+     *
+     * @param categoryIds the accepted category IDs
+     * @param designerIds the accepted designer IDs
+     * @return copies of the matching products, safe for the caller to modify
+     */
+    public List<Product> filter(Collection<Long> categoryIds, Collection<Long> designerIds) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<Product> products = new ArrayList<>();
+            for (Product product : index.rows(index.select(predicates(categoryIds, designerIds)))) {
+                products.add(copy(product));
+            }
+            return products;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the products matching all given attribute filters without materializing them.
+     *
+     * @param categoryIds the accepted category IDs
+     * @param designerIds the accepted designer IDs
+     * @return the number of matching products
+     */
+    public int count(Collection<Long> categoryIds, Collection<Long> designerIds) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.select(predicates(categoryIds, designerIds)).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                index.clear();
+                for (Product product : ReplicaRoutingDataSource.onPrimary(productDao::getAllProducts)) {
+                    index.put(product.getProductId(), copy(product), values(product));
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, Collection<?>> predicates(Collection<Long> categoryIds, Collection<Long> designerIds) {
+        Map<String, Collection<?>> predicates = new HashMap<>();
+        predicates.put(CATEGORY, categoryIds);
+        predicates.put(DESIGNER, designerIds);
+        return predicates;
+    }
+
+    private static Map<String, Object> values(Product product) {
+        Map<String, Object> values = new HashMap<>();
+        values.put(CATEGORY, product.getCategoryId());
+        values.put(DESIGNER, product.getDesignerId());
+        return values;
+    }
+
+    private static Product copy(Product product) {
+        return new Product(product.getProductId(), product.getProductName(), product.getCategoryId(),
+                product.getDesignerId(), product.getProductDescription());
+    }
+}
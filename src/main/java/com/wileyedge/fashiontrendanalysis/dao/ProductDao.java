@@ -1,10 +1,12 @@
 package com.wileyedge.fashiontrendanalysis.dao;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ProductDao {
 
@@ -15,6 +17,22 @@ public interface ProductDao {
      */
     List<Product> getAllProducts();
 
+    /**
+     * Retrieves the next page of products in product_id order.
+     *
+     * @param afterId the product_id the page starts after, or null for the first page
+     * @param limit   the maximum number of products to return
+     * @return up to limit products with a greater product_id, by product_id
+     */
+    List<Product> getProductsAfter(Long afterId, int limit);
+
+    /**
+     * Passes every product to the sink in product_id order, reading the table as a stream instead of a list.
+     *
+     * @param sink receives the products one at a time
+     */
+    void streamProducts(Consumer<Product> sink);
+
     /**
      * Retrieves a particular product based on its ID.
      *
@@ -23,6 +41,14 @@ public interface ProductDao {
      */
     Product getProductById(Long productId);
 
+    /**
+     * Retrieves the products with the given IDs in a few queries.
+     *
+     * @param productIds the IDs of the products to retrieve
+     * @return the products by ID, in request order; IDs without a product are left out
+     */
+    Map<Long, Product> getProductsByIds(List<Long> productIds);
+
     /**
      * Adds a new product entry to the database.
      *
@@ -48,6 +74,30 @@ public interface ProductDao {
      */
     boolean deleteProduct(Long productId);
 
+    /**
+     * Inserts several products in JDBC batches, committing in chunks.
+     *
+     * @param products the products to add
+     * @return the outcome and generated ID of every product, in order
+     */
+    List<BatchItemResult> addProducts(List<Product> products);
+
+    /**
+     * Updates several products, identified by their IDs, in JDBC batches, committing in chunks.
+     *
+     * @param products the products with updated details
+     * @return the outcome of every product, in order
+     */
+    List<BatchItemResult> updateProducts(List<Product> products);
+
+    /**
+     * Removes several products by their IDs in JDBC batches, committing in chunks.
+     *
+     * @param productIds the IDs of the products to delete
+     * @return the outcome of every ID, in order
+     */
+    List<BatchItemResult> deleteProducts(List<Long> productIds);
+
     /**
      * Fetches all products associated with a specific designer.
      *
@@ -1,8 +1,13 @@
 package com.wileyedge.fashiontrendanalysis.dao;
 
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.jdbc.core.RowMapper;
@@ -11,21 +16,35 @@ import org.springframework.jdbc.core.RowMapper;
 import java.util.AbstractMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Repository
 public class ProductDaoImpl implements ProductDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BatchWriter batchWriter;
+    private final RowStreamer rowStreamer;
+    private final BatchReader batchReader;
 
     /**
      * Constructor to autowire the JdbcTemplate dependency.
      *
      * @param jdbcTemplate Object to interact with the database.
+     * @param eventPublisher Publisher used to announce writes to listeners maintaining in-memory views.
+     * @param batchWriter Writer executing the batch creates, updates and deletes.
+     * @param rowStreamer Streamer reading the exports row by row.
+     * @param batchReader Reader executing the multi-ID fetches.
      */
     @Autowired
-    public ProductDaoImpl(JdbcTemplate jdbcTemplate) {
+    public ProductDaoImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, BatchWriter batchWriter,
+                          RowStreamer rowStreamer, BatchReader batchReader) {
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchWriter = batchWriter;
+        this.rowStreamer = rowStreamer;
+        this.batchReader = batchReader;
     }
 
     /**
@@ -68,6 +87,35 @@ public class ProductDaoImpl implements ProductDao {
         return jdbcTemplate.query(sql, productRowMapper);
     }
 
+    /**
+     * Retrieves the next page of products by seeking to the product_id after the previous page, so only the rows of the
+     * page are read, however deep the page.
+     *
+     * @param afterId the product_id the page starts after, or null for the first page
+     * @param limit   the maximum number of products to return
+     * @return up to limit products with a greater product_id, by product_id
+     */
+    @Override
+    public List<Product> getProductsAfter(Long afterId, int limit) {
+        if (afterId == null) {
+            String sql = "SELECT * FROM product ORDER BY product_id LIMIT ?";
+            return jdbcTemplate.query(sql, productRowMapper, limit);
+        }
+        String sql = "SELECT * FROM product WHERE product_id > ? ORDER BY product_id LIMIT ?";
+        return jdbcTemplate.query(sql, productRowMapper, afterId, limit);
+    }
+
+    /**
+     * Streams all products in product_id order to the sink without building a list of them.
+     *
+     * @param sink receives the products one at a time
+     */
+    @Override
+    public void streamProducts(Consumer<Product> sink) {
+        String sql = "SELECT * FROM product ORDER BY product_id";
+        rowStreamer.stream(sql, productRowMapper, sink);
+    }
+
     /**
      * Retrieves a specific product by its ID.
      *
@@ -80,6 +128,18 @@ public class ProductDaoImpl implements ProductDao {
         return jdbcTemplate.queryForObject(sql, new Object[]{productId}, productRowMapper);
     }
 
+    /**
+     * Retrieves the products with the given IDs, with chunked IN queries.
+     *
+     * @param productIds the IDs of the products to retrieve
+     * @return the products by ID, in request order; IDs without a product are left out
+     */
+    @Override
+    public Map<Long, Product> getProductsByIds(List<Long> productIds) {
+        String sql = "SELECT * FROM product WHERE product_id IN (%s)";
+        return batchReader.readById(sql, productIds, "product_id", productRowMapper);
+    }
+
     /**
      * Adds a new product to the database.
      *
@@ -91,7 +151,9 @@ public class ProductDaoImpl implements ProductDao {
         String sql = "INSERT INTO product (product_name, category_id, designer_id, product_description) VALUES (?, ?, ?, ?)";
         jdbcTemplate.update(sql, product.getProductName(), product.getCategoryId(), product.getDesignerId(), product.getProductDescription());
         // Assuming auto-increment primary key, retrieve the last inserted ID.
-        return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        Long productId = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        publishChange(DataTable.PRODUCT, productId);
+        return productId;
     }
 
     /**
@@ -105,6 +167,9 @@ public class ProductDaoImpl implements ProductDao {
     public boolean updateProduct(Long productId, Product product) {
         String sql = "UPDATE product SET product_name = ?, category_id = ?, designer_id = ?, product_description = ? WHERE product_id = ?";
         int updated = jdbcTemplate.update(sql, product.getProductName(), product.getCategoryId(), product.getDesignerId(), product.getProductDescription(), productId);
+        if (updated > 0) {
+            publishChange(DataTable.PRODUCT, productId);
+        }
         return updated > 0;
     }
 
@@ -118,9 +183,59 @@ public class ProductDaoImpl implements ProductDao {
     public boolean deleteProduct(Long productId) {
         String sql = "DELETE FROM product WHERE product_id = ?";
         int deleted = jdbcTemplate.update(sql, productId);
+        if (deleted > 0) {
+            publishChange(DataTable.PRODUCT, productId);
+        }
         return deleted > 0;
     }
 
+    /**
+     * Inserts the products as JDBC batches, reading the generated keys from the batch statement itself.
+     *
+     * @param products the products to add
+     * @return the outcome and generated ID of every product, in order
+     */
+    @Override
+    public List<BatchItemResult> addProducts(List<Product> products) {
+        String sql = "INSERT INTO product (product_name, category_id, designer_id, product_description) VALUES (?, ?, ?, ?)";
+        return batchWriter.insert(sql, "product_id", products, (ps, product) -> {
+            ps.setString(1, product.getProductName());
+            ps.setObject(2, product.getCategoryId());
+            ps.setObject(3, product.getDesignerId());
+            ps.setString(4, product.getProductDescription());
+        }, DataTable.PRODUCT);
+    }
+
+    /**
+     * Updates the products as JDBC batches; products whose ID does not exist are reported as not found.
+     *
+     * @param products the products with updated details, including their IDs
+     * @return the outcome of every product, in order
+     */
+    @Override
+    public List<BatchItemResult> updateProducts(List<Product> products) {
+        String sql = "UPDATE product SET product_name = ?, category_id = ?, designer_id = ?, product_description = ? WHERE product_id = ?";
+        return batchWriter.update(sql, products, Product::getProductId, (ps, product) -> {
+            ps.setString(1, product.getProductName());
+            ps.setObject(2, product.getCategoryId());
+            ps.setObject(3, product.getDesignerId());
+            ps.setString(4, product.getProductDescription());
+            ps.setLong(5, product.getProductId());
+        }, DataTable.PRODUCT);
+    }
+
+    /**
+     * Removes the products with the given IDs as JDBC batches.
+     *
+     * @param productIds the IDs of the products to delete
+     * @return the outcome of every ID, in order
+     */
+    @Override
+    public List<BatchItemResult> deleteProducts(List<Long> productIds) {
+        String sql = "DELETE FROM product WHERE product_id = ?";
+        return batchWriter.delete(sql, productIds, DataTable.PRODUCT);
+    }
+
     /**
      * Retrieves products based on a specific designer.
      *
@@ -191,7 +306,9 @@ public class ProductDaoImpl implements ProductDao {
     @Override
     public void setProductPopularityForTrend(Long productId, Long trendId, int score) {
         String sql = "INSERT INTO product_popularity (product_id, trend_id, popularity_score) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE popularity_score = ?";
-        jdbcTemplate.update(sql, productId, trendId, score, score);
+        if (jdbcTemplate.update(sql, productId, trendId, score, score) > 0) {
+            eventPublisher.publishEvent(PopularityChangeEvent.forProduct(productId, trendId, score));
+        }
     }
 
     /**
@@ -240,4 +357,10 @@ public class ProductDaoImpl implements ProductDao {
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
+    /**
+     * Announce a successful write so that in-memory views derived from the table can refresh.
+     */
+    private void publishChange(DataTable table, Long entityId) {
+        eventPublisher.publishEvent(new DataChangeEvent(table, entityId));
+    }
 }
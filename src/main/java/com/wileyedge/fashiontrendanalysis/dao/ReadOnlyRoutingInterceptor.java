@@ -0,0 +1,37 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.PatternMatchUtils;
+
+import java.util.List;
+
+/**
+ * Marks the service methods whose names match one of the read-only patterns, such as {@code get*}, so that
+ * the connections they request are routed to a replica by {@link ReplicaRoutingDataSource}. Every other
+ * service method is marked as writing, which keeps the reads it makes on the primary.
+ */
+public class ReadOnlyRoutingInterceptor implements MethodInterceptor {
+
+    private final String[] readOnlyMethods;
+
+    /**
+     * Constructs the interceptor.
+     *
+     * @param readOnlyMethods the name patterns of the read-only methods, with * as a wildcard
+     */
+    public ReadOnlyRoutingInterceptor(List<String> readOnlyMethods) {
+        this.readOnlyMethods = readOnlyMethods.stream().map(String::trim).toArray(String[]::new);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        boolean readOnly = PatternMatchUtils.simpleMatch(readOnlyMethods, invocation.getMethod().getName());
+        Boolean previous = ReplicaRoutingDataSource.enter(readOnly);
+        try {
+            return invocation.proceed();
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which clients have written recently, so that their reads go to the primary until the replicas
+ * have caught up with the write.
+ *
+ * <p>A client is identified by its HTTP session, or by its address when it has none. A write is recorded when
+ * a DAO announces it on the request thread; writes made in the background, such as the flushes of buffered
+ * popularity signals, are not attributed to a client.</p>
+ */
+public class ReadYourWritesTracker {
+
+    // Expired entries are purged once the map grows beyond this size.
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the tracker.
+     *
+     * @param window how long after a write the client reads from the primary
+     */
+    public ReadYourWritesTracker(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(Duration window, LongSupplier nanoTime) {
+        this.windowNanos = window.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Records a write by the client of the current request.
+     *
+     * @param event the change published by a DAO
+     */
+    @EventListener
+    public void onDataChange(DataChangeEvent event) {
+        String client = currentClient();
+        if (client == null || windowNanos <= 0) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        lastWrites.put(client, now);
+        if (lastWrites.size() > PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(written -> now - written >= windowNanos);
+        }
+    }
+
+    /**
+     * Checks whether the client of the current request has written within the window.
+     *
+     * @return true if its reads have to go to the primary
+     */
+    public boolean hasRecentWrite() {
+        String client = currentClient();
+        if (client == null) {
+            return false;
+        }
+        Long written = lastWrites.get(client);
+        if (written == null) {
+            return false;
+        }
+        if (nanoTime.getAsLong() - written < windowNanos) {
+            return true;
+        }
+        lastWrites.remove(client, written);
+        return false;
+    }
+
+    private static String currentClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        HttpSession session = request.getSession(false);
+        return session != null ? "session:" + session.getId() : "address:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,204 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Data source that hands out connections to the primary database or to one of its read replicas.
+ *
+ * <p>A connection comes from a replica only while the current thread runs a read-only service method, as marked
+ * by {@link ReadOnlyRoutingInterceptor}, and the client has not written within the read-your-writes window of
+ * {@link ReadYourWritesTracker}. Everything else, including writes, transactions started outside a read-only
+ * method and background work, uses the primary. Replicas are taken in turn. A replica that refuses a connection
+ * is skipped for the retry interval and the read goes to the primary instead. This includes a pool that could not
+ * be started, which Hikari reports with an unchecked exception.</p>
+ *
+ * <p>The routing is decided when a connection is requested. A transaction keeps the connection it started with,
+ * so a read-only method called inside a write transaction still reads from the primary.</p>
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // TRUE inside a read-only service method, FALSE inside any other one, unset outside the services.
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final long retryAfterNanos;
+    private final LongSupplier nanoTime;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLongArray unavailableUntil;
+
+    /**
+     * Constructs the data source.
+     *
+     * @param primary    the data source of the primary database
+     * @param replicas   the data sources of the replicas
+     * @param tracker    the writes of the current client
+     * @param retryAfter how long a replica that refused a connection is skipped
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWritesTracker tracker,
+                                    Duration retryAfter) {
+        this(primary, replicas, tracker, retryAfter, System::nanoTime);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWritesTracker tracker,
+                             Duration retryAfter, LongSupplier nanoTime) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.tracker = tracker;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.nanoTime = nanoTime;
+        this.unavailableUntil = new AtomicLongArray(this.replicas.size());
+    }
+
+    /**
+     * Checks whether the current thread runs a read-only service method.
+     *
+     * @return true if the current reads may go to a replica
+     */
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    /**
+     * Runs the work with every connection it requests taken from the primary, for results that must not lag
+     * behind the latest writes, such as those kept in a cache until the next write.
+     *
+     * @param work the work
+     * @param <T>  the type of the result
+     * @return the result of the work
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = enter(false);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs the work with every connection it requests taken from the primary, for work without a result, such as
+     * rebuilding an in-memory index.
+     *
+     * @param work the work
+     */
+    public static void runOnPrimary(Runnable work) {
+        onPrimary(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Marks the current thread as running a read-only or a writing method. A read-only method called from a
+     * writing one stays on the primary, as it may need to see what the caller has just written.
+     *
+     * @return the previous marking, to be passed to {@link #restore(Boolean)}
+     */
+    static Boolean enter(boolean readOnly) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(readOnly && !Boolean.FALSE.equals(previous));
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            READ_ONLY.remove();
+        } else {
+            READ_ONLY.set(previous);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int replica = replicaForRead();
+        if (replica >= 0) {
+            try {
+                return replicas.get(replica).getConnection();
+            } catch (SQLException | RuntimeException e) {
+                unavailable(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        int replica = replicaForRead();
+        if (replica >= 0) {
+            try {
+                return replicas.get(replica).getConnection(username, password);
+            } catch (SQLException | RuntimeException e) {
+                unavailable(replica, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Picks the replica for the current read, in turn and skipping the unavailable ones.
+     *
+     * @return the index of the replica, or -1 if the primary has to be used
+     */
+    private int replicaForRead() {
+        if (replicas.isEmpty() || !isReadOnly() || tracker.hasRecentWrite()) {
+            return -1;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        long now = nanoTime.getAsLong();
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = (start + i) % replicas.size();
+            long until = unavailableUntil.get(replica);
+            if (until == 0 || now - until >= 0) {
+                return replica;
+            }
+        }
+        return -1;
+    }
+
+    private void unavailable(int replica, Exception e) {
+        // 0 marks an available replica, so a deadline that happens to be 0 is moved by a nanosecond.
+        long until = nanoTime.getAsLong() + retryAfterNanos;
+        unavailableUntil.set(replica, until == 0 ? 1 : until);
+        logger.warn("Replica {} refused a connection, reading from the primary for {} ms", replica,
+                retryAfterNanos / 1_000_000, e);
+    }
+
+    /**
+     * Closes the pools of the primary and the replicas.
+     */
+    @Override
+    public void close() {
+        for (DataSource target : replicas) {
+            closeTarget(target);
+        }
+        closeTarget(primary);
+    }
+
+    private static void closeTarget(DataSource target) {
+        if (target instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close a data source", e);
+            }
+        }
+    }
+}
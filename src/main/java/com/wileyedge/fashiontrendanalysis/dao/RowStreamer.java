@@ -0,0 +1,71 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+/**
+ * Streams the rows of a query to a consumer one at a time, for the catalogue exports and the aggregations that
+ * fold a whole table into a summary.
+ *
+ * <p>The statement is forward-only and read-only with a fetch size of {@code export.fetch-size}, so the driver
+ * holds one fetch of rows at a time instead of the whole result; with MySQL this needs {@code useCursorFetch=true}
+ * on the datasource URL. Each row is mapped and handed on before the next one is read, so memory use does not
+ * depend on the size of the table. An exception thrown by the consumer closes the statement and ends the read.</p>
+ */
+@Component
+class RowStreamer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    /**
+     * Constructs the streamer.
+     *
+     * @param jdbcTemplate the JdbcTemplate the queries are executed with
+     * @param fetchSize    the number of rows the driver fetches per round trip
+     */
+    @Autowired
+    RowStreamer(JdbcTemplate jdbcTemplate, @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Runs the query and passes every mapped row to the sink, in result order.
+     *
+     * @param sql    the SELECT statement
+     * @param mapper maps the current row
+     * @param sink   receives the rows
+     * @param args   the values bound to the placeholders of the statement
+     */
+    <T> void stream(String sql, RowMapper<T> mapper, Consumer<? super T> sink, Object... args) {
+        stream(sql, rs -> {
+            sink.accept(mapper.mapRow(rs, rs.getRow()));
+        }, args);
+    }
+
+    /**
+     * Runs the query and hands every row to the handler, in result order.
+     *
+     * @param sql     the SELECT statement
+     * @param handler reads the current row
+     * @param args    the values bound to the placeholders of the statement
+     */
+    void stream(String sql, RowCallbackHandler handler, Object... args) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps;
+        }, handler);
+    }
+}
@@ -0,0 +1,293 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Brings the database schema up to date from the versioned scripts in {@code db/migration} when the application
+ * starts, before anything reads the tables.
+ *
+ * <p>A script is named {@code V<version>__<description>.sql} and is applied once, in version order. Every applied
+ * version is recorded in schema_version with the CRC32 checksum of its script; a script that was edited after it
+ * was applied stops the start-up, as the schema would no longer match it. A database created by
+ * {@code SQL Files/fashiontrend_schema.sql} before the migrations existed is recognised by its trend table and
+ * recorded at version 1 without running the baseline script.</p>
+ *
+ * <p>MySQL commits every DDL statement on its own, so a script failing half-way leaves its earlier statements
+ * applied and is not recorded. It has to be repaired by hand before the application can start. To keep that
+ * from happening over duplicate rows, every {@code CREATE UNIQUE INDEX} of a script is checked before the script
+ * runs, and the migration stops naming the repeated keys, unless the script itself deletes from that table
+ * first to remove them. A failed script also has {@code FOREIGN_KEY_CHECKS} switched back on, so a pooled
+ * connection is not handed out with the checks still suspended.</p>
+ */
+@Component
+public class SchemaMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    static final String CREATE_HISTORY_SQL = "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, " +
+            "description VARCHAR(200) NOT NULL, " +
+            "checksum BIGINT NOT NULL, " +
+            "installed_on DATETIME NOT NULL)";
+
+    static final String APPLIED_SQL = "SELECT version, checksum FROM schema_version";
+
+    static final String RECORD_SQL = "INSERT INTO schema_version (version, description, checksum, installed_on) VALUES (?, ?, ?, ?)";
+
+    // A table of the baseline schema; if it exists in an unversioned database, version 1 is already in place.
+    static final String BASELINE_TABLE = "trend";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final Pattern UNIQUE_INDEX = Pattern.compile(
+            "CREATE\\s+UNIQUE\\s+INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)\\s*\\(([^)]+)\\)", Pattern.CASE_INSENSITIVE);
+
+    // The number of repeated keys named per unique index when a migration is refused.
+    static final int MAX_DUPLICATES_REPORTED = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String location;
+    private final boolean enabled;
+
+    /**
+     * A versioned migration script.
+     *
+     * @param version     the version the script brings the schema to
+     * @param description the description taken from the file name
+     * @param checksum    the CRC32 checksum of the script
+     * @param script      the script
+     */
+    record Migration(int version, String description, long checksum, Resource script) {
+    }
+
+    /**
+     * Constructs the migrator.
+     *
+     * @param jdbcTemplate the JdbcTemplate the scripts are executed with
+     * @param location     the location of the migration scripts
+     * @param enabled      whether the schema is migrated at start-up
+     */
+    @Autowired
+    public SchemaMigrator(JdbcTemplate jdbcTemplate,
+                          @Value("${migration.location:classpath:db/migration}") String location,
+                          @Value("${migration.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.location = location;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Migrates the schema while the application context starts, unless migrations are disabled.
+     */
+    @PostConstruct
+    public void migrateOnStartup() {
+        if (enabled) {
+            migrate();
+        }
+    }
+
+    /**
+     * Applies every migration that has not been applied yet, in version order.
+     *
+     * @return the versions applied by this call, including a recorded baseline
+     * @throws IllegalStateException if an applied script has changed or a script fails
+     */
+    public List<Integer> migrate() {
+        List<Migration> migrations = migrations();
+        jdbcTemplate.execute(CREATE_HISTORY_SQL);
+        Map<Integer, Long> applied = new HashMap<>();
+        jdbcTemplate.query(APPLIED_SQL, rs -> {
+            applied.put(rs.getInt("version"), rs.getLong("checksum"));
+        });
+
+        List<Integer> versions = new ArrayList<>();
+        if (applied.isEmpty() && !migrations.isEmpty() && migrations.get(0).version() == 1 && baselineExists()) {
+            Migration baseline = migrations.get(0);
+            record(baseline);
+            applied.put(baseline.version(), baseline.checksum());
+            versions.add(baseline.version());
+            logger.info("Recorded the existing schema as version {}", baseline.version());
+        }
+
+        for (Migration migration : migrations) {
+            Long checksum = applied.remove(migration.version());
+            if (checksum != null) {
+                if (checksum != migration.checksum()) {
+                    throw new IllegalStateException("Migration " + migration.script().getFilename() +
+                            " was changed after it was applied");
+                }
+                continue;
+            }
+            logger.info("Migrating schema to version {}: {}", migration.version(), migration.description());
+            checkUniqueIndexes(migration);
+            try {
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    try {
+                        ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script(), StandardCharsets.UTF_8));
+                    } catch (RuntimeException e) {
+                        restoreForeignKeyChecks(connection);
+                        throw e;
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Migration " + migration.script().getFilename() + " failed", e);
+            }
+            record(migration);
+            versions.add(migration.version());
+        }
+        for (Integer unknown : applied.keySet()) {
+            logger.warn("Schema version {} is applied but has no migration script", unknown);
+        }
+        return versions;
+    }
+
+    /**
+     * Reads the migration scripts, ordered by version.
+     *
+     * @return the migrations
+     * @throws IllegalStateException if a script name does not follow the convention or two scripts share a version
+     */
+    List<Migration> migrations() {
+        Resource[] scripts;
+        try {
+            scripts = new PathMatchingResourcePatternResolver().getResources(location + "/*.sql");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<Integer, Migration> byVersion = new HashMap<>();
+        for (Resource script : scripts) {
+            Matcher name = SCRIPT_NAME.matcher(script.getFilename());
+            if (!name.matches()) {
+                throw new IllegalStateException("Migration script names must look like V1__description.sql: " + script.getFilename());
+            }
+            Migration migration = new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                    checksum(script), script);
+            if (byVersion.put(migration.version(), migration) != null) {
+                throw new IllegalStateException("Two migration scripts have version " + migration.version());
+            }
+        }
+        List<Migration> migrations = new ArrayList<>(byVersion.values());
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        return migrations;
+    }
+
+    /**
+     * Refuses a migration whose unique indexes would fail on rows that repeat their key, naming those keys.
+     *
+     * @throws IllegalStateException if a table holds repeated keys that the script does not remove itself
+     */
+    void checkUniqueIndexes(Migration migration) {
+        String script = text(migration.script());
+        List<String> duplicates = new ArrayList<>();
+        Matcher index = UNIQUE_INDEX.matcher(script);
+        while (index.find()) {
+            String table = index.group(2);
+            if (Pattern.compile("DELETE\\s+FROM\\s+" + table + "\\b", Pattern.CASE_INSENSITIVE).matcher(script).find()) {
+                continue;
+            }
+            List<String> columns = Arrays.stream(index.group(3).split(",")).map(String::trim).toList();
+            String keys = String.join(", ", columns);
+            String sql = "SELECT " + keys + ", COUNT(*) AS copies FROM " + table +
+                    " WHERE " + String.join(" IS NOT NULL AND ", columns) + " IS NOT NULL" +
+                    " GROUP BY " + keys + " HAVING COUNT(*) > 1 ORDER BY " + keys + " LIMIT " + MAX_DUPLICATES_REPORTED;
+            List<String> repeated;
+            try {
+                repeated = jdbcTemplate.query(sql, (rs, rowNum) -> {
+                    List<String> values = new ArrayList<>();
+                    for (String column : columns) {
+                        values.add(rs.getString(column));
+                    }
+                    return values + " x" + rs.getLong("copies");
+                });
+            } catch (DataAccessException e) {
+                // The table does not exist yet; the script will create it or fail on its own.
+                continue;
+            }
+            if (!repeated.isEmpty()) {
+                duplicates.add(index.group(1) + " on " + table + " (" + keys + "): " + String.join(", ", repeated));
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            throw new IllegalStateException("Migration " + migration.script().getFilename() +
+                    " cannot add its unique indexes until these repeated keys are removed: " + String.join("; ", duplicates));
+        }
+    }
+
+    private static void restoreForeignKeyChecks(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+        } catch (SQLException e) {
+            logger.warn("Could not switch foreign key checks back on after a failed migration", e);
+        }
+    }
+
+    private void record(Migration migration) {
+        jdbcTemplate.update(RECORD_SQL, migration.version(), migration.description(), migration.checksum(),
+                Timestamp.from(Instant.now()));
+    }
+
+    private boolean baselineExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Unquoted names are stored in lower case by MySQL on Linux and in upper case by some other databases.
+            for (String table : new String[]{BASELINE_TABLE, BASELINE_TABLE.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    /**
+     * CRC32 of the script with line endings normalised, so a checkout with CRLF line endings has the same checksum.
+     */
+    private static long checksum(Resource script) {
+        CRC32 crc = new CRC32();
+        crc.update(text(script).getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static String text(Resource script) {
+        try {
+            return script.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.Product;
+import com.wileyedge.fashiontrendanalysis.model.SearchHit;
+import com.wileyedge.fashiontrendanalysis.model.Trend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over trend_name, trend_desc, product_name and product_description, ranked with
+ * Okapi BM25.
+ *
+ * <p>Every term maps to the documents containing it and the term frequency in each. Names are counted twice,
+ * so a match in the name outweighs one in the description. A search reads the posting lists of the query
+ * terms only. A committed write to a trend or product re-reads and re-indexes that one document.</p>
+ */
+@Repository
+public class TextSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextSearchIndex.class);
+
+    /** Document type of trends. */
+    public static final String TREND = "trend";
+
+    /** Document type of products. */
+    public static final String PRODUCT = "product";
+
+    // BM25 term frequency saturation and document length normalization.
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_BOOST = 2;
+
+    private final TrendDao trendDao;
+    private final ProductDao productDao;
+
+    // Searches share the read lock; loading and refreshing take the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<DocumentKey, Integer>> postings = new HashMap<>();
+    private final Map<DocumentKey, Document> documents = new HashMap<>();
+    private long totalLength;
+    private boolean loaded;
+
+    /**
+     * Constructs the index.
+     *
+     * @param trendDao   the DAO the trends are read from
+     * @param productDao the DAO the products are read from
+     */
+    @Autowired
+    public TextSearchIndex(TrendDao trendDao, ProductDao productDao) {
+        this.trendDao = trendDao;
+        this.productDao = productDao;
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            ensureLoaded();
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the text search index at startup, will retry on first use", e);
+        }
+    }
+
+    /**
+     * Re-indexes a trend or product after a committed write to it.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (event.getTable() != DataTable.TREND && event.getTable() != DataTable.PRODUCT) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            if (event.getEntityId() == null) {
+                loaded = false;
+                return;
+            }
+            long id = event.getEntityId();
+            try {
+                if (event.getTable() == DataTable.TREND) {
+                    Trend trend = trendDao.getTrendById(id);
+                    put(new DocumentKey(TREND, id), trend.getTrendName(), trend.getTrendDesc());
+                } else {
+                    Product product = productDao.getProductById(id);
+                    put(new DocumentKey(PRODUCT, id), product.getProductName(), product.getProductDescription());
+                }
+            } catch (EmptyResultDataAccessException e) {
+                remove(new DocumentKey(event.getTable() == DataTable.TREND ? TREND : PRODUCT, id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the trends and products for the terms of a query. A document matches if it contains any term;
+     * documents containing more and rarer terms, more often, rank higher.
+     *
+     * @param query the free-text query
+     * @param type  the document type to search, trend or product, or null for both
+     * @param limit the maximum number of hits
+     * @return the hits, most relevant first
+     */
+    public List<SearchHit> search(String query, String type, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new ArrayList<>();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            Map<DocumentKey, Double> scores = new HashMap<>();
+            for (String term : new LinkedHashSet<>(TextTokenizer.tokenize(query))) {
+                Map<DocumentKey, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<DocumentKey, Integer> entry : posting.entrySet()) {
+                    DocumentKey key = entry.getKey();
+                    if (type != null && !type.equals(key.type())) {
+                        continue;
+                    }
+                    int tf = entry.getValue();
+                    double norm = K1 * (1 - B + B * documents.get(key).length() / averageLength);
+                    scores.merge(key, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>();
+            scores.forEach((key, score) -> hits.add(new SearchHit(key.type(), key.id(), documents.get(key).name(), score)));
+            hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                    .thenComparing(SearchHit::getType)
+                    .thenComparing(SearchHit::getId));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                postings.clear();
+                documents.clear();
+                totalLength = 0;
+                for (Trend trend : ReplicaRoutingDataSource.onPrimary(trendDao::getAllTrends)) {
+                    put(new DocumentKey(TREND, trend.getTrendId()), trend.getTrendName(), trend.getTrendDesc());
+                }
+                for (Product product : ReplicaRoutingDataSource.onPrimary(productDao::getAllProducts)) {
+                    put(new DocumentKey(PRODUCT, product.getProductId()), product.getProductName(), product.getProductDescription());
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(DocumentKey key, String name, String description) {
+        remove(key);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextTokenizer.tokenize(name)) {
+            frequencies.merge(term, NAME_BOOST, Integer::sum);
+        }
+        for (String term : TextTokenizer.tokenize(description)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(key, tf));
+        documents.put(key, new Document(name, length, frequencies.keySet().toArray(new String[0])));
+        totalLength += length;
+    }
+
+    private void remove(DocumentKey key) {
+        Document document = documents.remove(key);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<DocumentKey, Integer> posting = postings.get(term);
+            posting.remove(key);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length();
+    }
+
+    private record DocumentKey(String type, long id) {
+    }
+
+    /**
+     * The name and length of an indexed document, and its distinct terms so it can be removed again.
+     */
+    private record Document(String name, int length, String[] terms) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.Trend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index of the trends by season, location, category and designer. Seasons and locations are
+ * matched regardless of case, like the single-predicate queries of TrendDao. Each committed write to a trend
+ * re-reads that trend only.
+ */
+@Repository
+public class TrendBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendBitmapIndex.class);
+
+    static final String SEASON = "season";
+    static final String LOCATION = "location";
+    static final String CATEGORY = "category_id";
+    static final String DESIGNER = "designer_id";
+
+    private final TrendDao trendDao;
+
+    // Filters share the read lock; loading and refreshing take the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitmapIndex<Trend> index = new BitmapIndex<>();
+    private boolean loaded;
+
+    /**
+     * Constructs the index.
+     *
+     * @param trendDao the DAO the trends are read from
+     */
+    @Autowired
+    public TrendBitmapIndex(TrendDao trendDao) {
+        this.trendDao = trendDao;
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            ensureLoaded();
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the trend bitmap index at startup, will retry on first use", e);
+        }
+    }
+
+    /**
+     * Re-reads a trend after a committed write to it.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (event.getTable() != DataTable.TREND) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            if (event.getEntityId() == null) {
+                loaded = false;
+                return;
+            }
+            try {
+                Trend trend = trendDao.getTrendById(event.getEntityId());
+                index.put(trend.getTrendId(), copy(trend), values(trend));
+            } catch (EmptyResultDataAccessException e) {
+                index.remove(event.getEntityId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Selects the trends matching all given attribute filters; within one attribute any of the values matches.
+     * An empty or null collection does not filter on that attribute.
+     *
+     * @param seasons     the accepted seasons
+     * @param locations   the accepted locations
+     * @param categoryIds the accepted category IDs
+     * @param designerIds the accepted designer IDs
+     * @return copies of the matching trends, safe for the caller to modify
+     */
+    public List<Trend> filter(Collection<String> seasons, Collection<String> locations,
+                              Collection<Long> categoryIds, Collection<Long> designerIds) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<Trend> trends = new ArrayList<>();
+            for (Trend trend : index.rows(index.select(predicates(seasons, locations, categoryIds, designerIds)))) {
+                trends.add(copy(trend));
+            }
+            return trends;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the trends matching all given attribute filters without materializing them.
+     *
+     * @param seasons     the accepted seasons
+     * @param locations   the accepted locations
+     * @param categoryIds the accepted category IDs
+     * @param designerIds the accepted designer IDs
+     * @return the number of matching trends
+     */
+    public int count(Collection<String> seasons, Collection<String> locations,
+                     Collection<Long> categoryIds, Collection<Long> designerIds) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return index.select(predicates(seasons, locations, categoryIds, designerIds)).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                index.clear();
+                for (Trend trend : ReplicaRoutingDataSource.onPrimary(trendDao::getAllTrends)) {
+                    index.put(trend.getTrendId(), copy(trend), values(trend));
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, Collection<?>> predicates(Collection<String> seasons, Collection<String> locations,
+                                                         Collection<Long> categoryIds, Collection<Long> designerIds) {
+        Map<String, Collection<?>> predicates = new HashMap<>();
+        predicates.put(SEASON, lowerCase(seasons));
+        predicates.put(LOCATION, lowerCase(locations));
+        predicates.put(CATEGORY, categoryIds);
+        predicates.put(DESIGNER, designerIds);
+        return predicates;
+    }
+
+    private static Map<String, Object> values(Trend trend) {
+        Map<String, Object> values = new HashMap<>();
+        values.put(SEASON, trend.getSeason() != null ? trend.getSeason().toLowerCase(Locale.ROOT) : null);
+        values.put(LOCATION, trend.getLocation() != null ? trend.getLocation().toLowerCase(Locale.ROOT) : null);
+        values.put(CATEGORY, trend.getCategoryId());
+        values.put(DESIGNER, trend.getDesignerId());
+        return values;
+    }
+
+    private static List<String> lowerCase(Collection<String> values) {
+        return values == null ? null : values.stream().map(v -> v.toLowerCase(Locale.ROOT)).toList();
+    }
+
+    private static Trend copy(Trend trend) {
+        return new Trend(trend.getTrendId(), trend.getTrendName(), trend.getTrendDesc(), trend.getCategoryId(),
+                trend.getDesignerId(), trend.getLocation(), trend.getSeason(), trend.getPopularityScore());
+    }
+}
@@ -1,8 +1,12 @@
 package com.wileyedge.fashiontrendanalysis.dao;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Trend;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Interface for operations related to the Trend entity in the database.
@@ -16,6 +20,30 @@ public interface TrendDao {
      */
     List<Trend> getAllTrends();
 
+    /**
+     * Retrieves the next page of trends in trend_id order.
+     *
+     * @param afterId the trend_id the page starts after, or null for the first page
+     * @param limit   the maximum number of trends to return
+     * @return up to limit trends with a greater trend_id, by trend_id
+     */
+    List<Trend> getTrendsAfter(Long afterId, int limit);
+
+    /**
+     * Passes every trend to the sink in trend_id order, reading the table as a stream instead of a list.
+     *
+     * @param sink receives the trends one at a time
+     */
+    void streamTrends(Consumer<Trend> sink);
+
+    /**
+     * Passes every recorded trend popularity score to the sink, reading the table as a stream instead of a list.
+     *
+     * @param season the season of the trends to read, or null for all trends
+     * @param sink   receives the scores one at a time
+     */
+    void streamTrendScores(String season, IntConsumer sink);
+
     /**
      * Retrieves a specific trend by its ID.
      *
@@ -24,6 +52,14 @@ public interface TrendDao {
      */
     Trend getTrendById(Long trendId);
 
+    /**
+     * Retrieves the trends with the given IDs in a few queries.
+     *
+     * @param trendIds the IDs of the trends
+     * @return the trends by ID, in request order; IDs without a trend are left out
+     */
+    Map<Long, Trend> getTrendsByIds(List<Long> trendIds);
+
     /**
      * Adds a new trend to the database.
      *
@@ -49,6 +85,30 @@ public interface TrendDao {
      */
     boolean deleteTrend(Long trendId);
 
+    /**
+     * Inserts several trends in JDBC batches, committing in chunks.
+     *
+     * @param trends the trends to add
+     * @return the outcome and generated ID of every trend, in order
+     */
+    List<BatchItemResult> addTrends(List<Trend> trends);
+
+    /**
+     * Updates several trends, identified by their IDs, in JDBC batches, committing in chunks.
+     *
+     * @param trends the trends with updated details
+     * @return the outcome of every trend, in order
+     */
+    List<BatchItemResult> updateTrends(List<Trend> trends);
+
+    /**
+     * Removes several trends by their IDs in JDBC batches, committing in chunks.
+     *
+     * @param trendIds the IDs of the trends to delete
+     * @return the outcome of every ID, in order
+     */
+    List<BatchItemResult> deleteTrends(List<Long> trendIds);
+
     /**
      * Associates a trend with a specific category.
      *
@@ -115,4 +175,12 @@ public interface TrendDao {
      * @return the popularity score of the trend
      */
     int getTrendPopularity(Long trendId);
+
+    /**
+     * Retrieves the popularity scores of the given trends in a few queries.
+     *
+     * @param trendIds the IDs of the trends
+     * @return the popularity score of every trend by ID, in request order; 0 for trends without a score
+     */
+    Map<Long, Integer> getTrendPopularities(List<Long> trendIds);
 }
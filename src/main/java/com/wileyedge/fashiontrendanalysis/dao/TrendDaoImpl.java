@@ -1,13 +1,22 @@
 package com.wileyedge.fashiontrendanalysis.dao;
 
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Trend;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Concrete implementation of the TrendDao interface.
@@ -17,16 +26,29 @@ import java.util.List;
 public class TrendDaoImpl implements TrendDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BatchWriter batchWriter;
+    private final RowStreamer rowStreamer;
+    private final BatchReader batchReader;
     private final RowMapper<Trend> rowMapper;
 
     /**
      * Constructor to initialize the JdbcTemplate and the RowMapper.
      *
-     * @param jdbcTemplate JdbcTemplate instance used for database interactions.
+     * @param jdbcTemplate   JdbcTemplate instance used for database interactions.
+     * @param eventPublisher Publisher used to announce writes to listeners maintaining in-memory views.
+     * @param batchWriter Writer executing the batch creates, updates and deletes.
+     * @param rowStreamer Streamer reading the exports row by row.
+     * @param batchReader Reader executing the multi-ID fetches.
      */
     @Autowired
-    public TrendDaoImpl(JdbcTemplate jdbcTemplate) {
+    public TrendDaoImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, BatchWriter batchWriter,
+                        RowStreamer rowStreamer, BatchReader batchReader) {
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchWriter = batchWriter;
+        this.rowStreamer = rowStreamer;
+        this.batchReader = batchReader;
         this.rowMapper = (rs, rowNum) -> {
             Trend trend = new Trend();
             trend.setTrendId(rs.getLong("trend_id"));
@@ -49,6 +71,57 @@ public class TrendDaoImpl implements TrendDao {
         return jdbcTemplate.query(query, rowMapper);
     }
 
+    /**
+     * Retrieves the next page of trends by seeking to the trend_id after the previous page, so only the rows of the
+     * page are read, however deep the page.
+     *
+     * @param afterId the trend_id the page starts after, or null for the first page
+     * @param limit   the maximum number of trends to return
+     * @return up to limit trends with a greater trend_id, by trend_id
+     */
+    @Override
+    public List<Trend> getTrendsAfter(Long afterId, int limit) {
+        if (afterId == null) {
+            String sql = "SELECT * FROM trend ORDER BY trend_id LIMIT ?";
+            return jdbcTemplate.query(sql, rowMapper, limit);
+        }
+        String sql = "SELECT * FROM trend WHERE trend_id > ? ORDER BY trend_id LIMIT ?";
+        return jdbcTemplate.query(sql, rowMapper, afterId, limit);
+    }
+
+    /**
+     * Streams all trends in trend_id order to the sink without building a list of them.
+     *
+     * @param sink receives the trends one at a time
+     */
+    @Override
+    public void streamTrends(Consumer<Trend> sink) {
+        String sql = "SELECT * FROM trend ORDER BY trend_id";
+        rowStreamer.stream(sql, rowMapper, sink);
+    }
+
+    /**
+     * Streams the non-null trend popularity scores, of one season or of all trends, to the sink.
+     *
+     * @param season the season of the trends to read, or null for all trends
+     * @param sink   receives the scores one at a time
+     */
+    @Override
+    public void streamTrendScores(String season, IntConsumer sink) {
+        String sql = "SELECT tp.popularity_score " +
+                "FROM trend_popularity tp " +
+                "JOIN trend t ON t.trend_id = tp.trend_id " +
+                "WHERE tp.popularity_score IS NOT NULL";
+        Object[] args = {};
+        if (season != null) {
+            sql += " AND t.season = ?";
+            args = new Object[]{season};
+        }
+        rowStreamer.stream(sql, rs -> {
+            sink.accept(rs.getInt("popularity_score"));
+        }, args);
+    }
+
     /**
      * Retrieve a specific trend based on its ID.
      */
@@ -58,6 +131,15 @@ public class TrendDaoImpl implements TrendDao {
         return jdbcTemplate.queryForObject(query, new Object[]{trendId}, rowMapper);
     }
 
+    /**
+     * Retrieve the trends with the given IDs, with chunked IN queries.
+     */
+    @Override
+    public Map<Long, Trend> getTrendsByIds(List<Long> trendIds) {
+        String query = "SELECT * FROM trend WHERE trend_id IN (%s)";
+        return batchReader.readById(query, trendIds, "trend_id", rowMapper);
+    }
+
     /**
      * Insert a new trend into the database.
      */
@@ -65,7 +147,9 @@ public class TrendDaoImpl implements TrendDao {
     public Long addTrend(Trend trend) {
         String query = "INSERT INTO trend (trend_name, trend_desc, category_id, designer_id, location, season) VALUES (?, ?, ?, ?, ?, ?)";
         jdbcTemplate.update(query, trend.getTrendName(), trend.getTrendDesc(), trend.getCategoryId(), trend.getDesignerId(), trend.getLocation(), trend.getSeason());
-        return jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        Long trendId = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+        publishChange(DataTable.TREND, trendId);
+        return trendId;
     }
 
     /**
@@ -75,6 +159,9 @@ public class TrendDaoImpl implements TrendDao {
     public boolean updateTrend(Long trendId, Trend trend) {
         String query = "UPDATE trend SET trend_name=?, trend_desc=?, category_id=?, designer_id=?, location=?, season=? WHERE trend_id=?";
         int updated =  jdbcTemplate.update(query, trend.getTrendName(), trend.getTrendDesc(), trend.getCategoryId(), trend.getDesignerId(), trend.getLocation(), trend.getSeason(), trendId);
+        if (updated > 0) {
+            publishChange(DataTable.TREND, trendId);
+        }
         return updated > 0;
     }
 
@@ -84,7 +171,62 @@ public class TrendDaoImpl implements TrendDao {
     @Override
     public boolean deleteTrend(Long trendId) {
         String query = "DELETE FROM trend WHERE trend_id=?";
-        return jdbcTemplate.update(query, trendId) > 0;
+        boolean deleted = jdbcTemplate.update(query, trendId) > 0;
+        if (deleted) {
+            publishChange(DataTable.TREND, trendId);
+        }
+        return deleted;
+    }
+
+    /**
+     * Inserts the trends as JDBC batches, reading the generated keys from the batch statement itself.
+     *
+     * @param trends the trends to add
+     * @return the outcome and generated ID of every trend, in order
+     */
+    @Override
+    public List<BatchItemResult> addTrends(List<Trend> trends) {
+        String sql = "INSERT INTO trend (trend_name, trend_desc, category_id, designer_id, location, season) VALUES (?, ?, ?, ?, ?, ?)";
+        return batchWriter.insert(sql, "trend_id", trends, (ps, trend) -> {
+            ps.setString(1, trend.getTrendName());
+            ps.setString(2, trend.getTrendDesc());
+            ps.setObject(3, trend.getCategoryId());
+            ps.setObject(4, trend.getDesignerId());
+            ps.setString(5, trend.getLocation());
+            ps.setString(6, trend.getSeason());
+        }, DataTable.TREND);
+    }
+
+    /**
+     * Updates the trends as JDBC batches; trends whose ID does not exist are reported as not found.
+     *
+     * @param trends the trends with updated details, including their IDs
+     * @return the outcome of every trend, in order
+     */
+    @Override
+    public List<BatchItemResult> updateTrends(List<Trend> trends) {
+        String sql = "UPDATE trend SET trend_name=?, trend_desc=?, category_id=?, designer_id=?, location=?, season=? WHERE trend_id=?";
+        return batchWriter.update(sql, trends, Trend::getTrendId, (ps, trend) -> {
+            ps.setString(1, trend.getTrendName());
+            ps.setString(2, trend.getTrendDesc());
+            ps.setObject(3, trend.getCategoryId());
+            ps.setObject(4, trend.getDesignerId());
+            ps.setString(5, trend.getLocation());
+            ps.setString(6, trend.getSeason());
+            ps.setLong(7, trend.getTrendId());
+        }, DataTable.TREND);
+    }
+
+    /**
+     * Removes the trends with the given IDs as JDBC batches.
+     *
+     * @param trendIds the IDs of the trends to delete
+     * @return the outcome of every ID, in order
+     */
+    @Override
+    public List<BatchItemResult> deleteTrends(List<Long> trendIds) {
+        String sql = "DELETE FROM trend WHERE trend_id=?";
+        return batchWriter.delete(sql, trendIds, DataTable.TREND);
     }
 
     /**
@@ -129,7 +271,11 @@ public class TrendDaoImpl implements TrendDao {
     @Override
     public boolean associateTrendWithCategory(Long trendId, Long categoryId) {
         String query = "INSERT INTO trend_category (trend_id, category_id) VALUES (?, ?)";
-        return jdbcTemplate.update(query, trendId, categoryId) > 0;
+        boolean associated = jdbcTemplate.update(query, trendId, categoryId) > 0;
+        if (associated) {
+            publishChange(DataTable.TREND_CATEGORY, trendId);
+        }
+        return associated;
     }
 
     /**
@@ -138,7 +284,11 @@ public class TrendDaoImpl implements TrendDao {
     @Override
     public boolean dissociateTrendFromCategory(Long trendId, Long categoryId) {
         String query = "DELETE FROM trend_category WHERE trend_id=? AND category_id=?";
-        return jdbcTemplate.update(query, trendId, categoryId) > 0;
+        boolean dissociated = jdbcTemplate.update(query, trendId, categoryId) > 0;
+        if (dissociated) {
+            publishChange(DataTable.TREND_CATEGORY, trendId);
+        }
+        return dissociated;
     }
 
     /**
@@ -148,6 +298,9 @@ public class TrendDaoImpl implements TrendDao {
     public boolean setTrendPopularity(Long trendId, int score) {
         String query = "UPDATE trend_popularity SET popularity_score = ? WHERE trend_id = ?";
         int updated = jdbcTemplate.update(query, score, trendId);
+        if (updated > 0) {
+            eventPublisher.publishEvent(PopularityChangeEvent.forTrend(trendId, score));
+        }
         return updated > 0;
     }
 
@@ -165,4 +318,29 @@ public class TrendDaoImpl implements TrendDao {
             return 0;
         }
     }
+
+    /**
+     * Retrieve the popularity scores of the given trends, with chunked IN queries.
+     */
+    @Override
+    public Map<Long, Integer> getTrendPopularities(List<Long> trendIds) {
+        String query = "SELECT trend_id, popularity_score FROM trend_popularity WHERE trend_id IN (%s)";
+        Map<Long, Integer> scores = batchReader.readById(query, trendIds, "trend_id",
+                (rs, rowNum) -> rs.getInt("popularity_score"));
+        // Like getTrendPopularity, a trend without a score is reported with a score of 0.
+        Map<Long, Integer> popularities = new LinkedHashMap<>();
+        for (Long trendId : trendIds) {
+            if (trendId != null) {
+                popularities.put(trendId, scores.getOrDefault(trendId, 0));
+            }
+        }
+        return popularities;
+    }
+
+    /**
+     * Announce a successful write so that in-memory views derived from the table can refresh.
+     */
+    private void publishChange(DataTable table, Long entityId) {
+        eventPublisher.publishEvent(new DataChangeEvent(table, entityId));
+    }
 }
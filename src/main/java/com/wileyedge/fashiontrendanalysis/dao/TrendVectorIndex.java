@@ -0,0 +1,332 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.SimilarTrend;
+import com.wileyedge.fashiontrendanalysis.sketch.SimHashIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Feature vectors of all trends, indexed for nearest-neighbour lookups.
+ *
+ * <p>A trend's vector joins five blocks, each normalized to unit length and then weighted: its categories
+ * (trend.category_id and trend_category), its location, its season, the band of its average popularity score
+ * (with half weight on the neighbouring bands) and the TF-IDF weights of the terms of its description. Cosine
+ * similarity of two vectors is thus a weighted mix of the similarity of each block.</p>
+ *
+ * <p>Lookups go through a {@link SimHashIndex}, and only the candidates it returns are ranked by exact cosine
+ * similarity. A write to a trend or its categories re-reads and re-indexes that one trend; the document
+ * frequencies are updated with it, while the TF-IDF weights of the other trends keep the frequencies they were
+ * indexed with until the next full load. A score write sets every score row of the trend, so it re-indexes the
+ * trend from its kept features and the score of the event, without a query.</p>
+ */
+@Repository
+public class TrendVectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendVectorIndex.class);
+
+    private static final double CATEGORY_WEIGHT = 1.0;
+    private static final double LOCATION_WEIGHT = 0.6;
+    private static final double SEASON_WEIGHT = 0.6;
+    private static final double POPULARITY_WEIGHT = 0.4;
+    private static final double TERM_WEIGHT = 1.0;
+    private static final int POPULARITY_BAND_WIDTH = 20;
+
+    static final String TREND_SQL = "SELECT trend_id, trend_name, trend_desc, category_id, location, season FROM trend";
+    static final String CATEGORY_SQL = "SELECT trend_id, category_id FROM trend_category";
+    static final String SCORE_SQL = "SELECT trend_id, AVG(popularity_score) AS avg_score FROM trend_popularity";
+
+    private static final String BY_TREND = " WHERE trend_id = ?";
+    private static final String SCORE_GROUP_BY = " GROUP BY trend_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RowMapper<Source> sourceMapper = (rs, rowNum) -> new Source(rs.getLong("trend_id"),
+            rs.getString("trend_name"), rs.getString("trend_desc"), rs.getObject("category_id", Long.class),
+            rs.getString("location"), rs.getString("season"), new HashSet<>(), null);
+
+    // Lookups share the read lock; loading and refreshing take the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SimHashIndex lsh;
+    private final Map<Long, Source> sources = new HashMap<>();
+    private final Map<Long, Map<String, Double>> vectors = new HashMap<>();
+    private final Map<String, Integer> documentFrequencies = new HashMap<>();
+    private boolean loaded;
+
+    /**
+     * Constructs the index.
+     *
+     * @param jdbcTemplate the JdbcTemplate used to read the trend features
+     * @param tables       the number of LSH hash tables
+     * @param bits         the signature bits per LSH table
+     */
+    @Autowired
+    public TrendVectorIndex(JdbcTemplate jdbcTemplate,
+                            @Value("${analysis.similar.lsh-tables:8}") int tables,
+                            @Value("${analysis.similar.lsh-bits:8}") int bits) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lsh = new SimHashIndex(tables, bits, 0x5eedL);
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            ensureLoaded();
+        } catch (DataAccessException e) {
+            logger.warn("Could not build the trend vector index at startup, will retry on first use", e);
+        }
+    }
+
+    /**
+     * Re-indexes a trend after a committed write to it, its categories or its score; a batch of score writes
+     * re-indexes all of its trends.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        DataTable table = event.getTable();
+        if (table != DataTable.TREND && table != DataTable.TREND_CATEGORY && table != DataTable.TREND_POPULARITY) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            List<PopularityChangeEvent> changes = PopularityChangeBatchEvent.changesOf(event);
+            if (!changes.isEmpty()) {
+                for (PopularityChangeEvent change : changes) {
+                    Source source = sources.get(change.getEntityId());
+                    if (source != null) {
+                        removeTrend(source.id());
+                        addTrend(source.withScore((double) change.getScore()));
+                    }
+                }
+                return;
+            }
+            if (event.getEntityId() == null) {
+                loaded = false;
+                return;
+            }
+            long trendId = event.getEntityId();
+            List<Source> trend = jdbcTemplate.query(TREND_SQL + BY_TREND, sourceMapper, trendId);
+            removeTrend(trendId);
+            if (!trend.isEmpty()) {
+                Source source = trend.get(0);
+                jdbcTemplate.query(CATEGORY_SQL + BY_TREND, (rs, rowNum) -> rs.getLong("category_id"), trendId)
+                        .forEach(source.categories::add);
+                List<Double> score = jdbcTemplate.query(SCORE_SQL + BY_TREND + SCORE_GROUP_BY,
+                        (rs, rowNum) -> rs.getObject("avg_score", Double.class), trendId);
+                addTrend(score.isEmpty() ? source : source.withScore(score.get(0)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the trends most similar to a given trend.
+     *
+     * @param trendId the ID of the trend
+     * @param k       the maximum number of trends to return
+     * @return the similar trends, most similar first; null if the trend does not exist
+     */
+    public List<SimilarTrend> similar(long trendId, int k) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<String, Double> vector = vectors.get(trendId);
+            if (vector == null) {
+                return null;
+            }
+            List<SimilarTrend> similar = new ArrayList<>();
+            for (long candidate : lsh.candidates(vector, k + 1)) {
+                if (candidate != trendId) {
+                    similar.add(new SimilarTrend(candidate, sources.get(candidate).name(),
+                            dot(vector, vectors.get(candidate))));
+                }
+            }
+            similar.sort(Comparator.comparingDouble(SimilarTrend::getSimilarity).reversed()
+                    .thenComparing(SimilarTrend::getTrendId));
+            return similar.size() > k ? new ArrayList<>(similar.subList(0, k)) : similar;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                ReplicaRoutingDataSource.runOnPrimary(this::load);
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load() {
+        sources.clear();
+        vectors.clear();
+        documentFrequencies.clear();
+        lsh.clear();
+
+        Map<Long, Source> all = new HashMap<>();
+        for (Source source : jdbcTemplate.query(TREND_SQL, sourceMapper)) {
+            all.put(source.id(), source);
+        }
+        jdbcTemplate.query(CATEGORY_SQL, (rs, rowNum) -> new long[]{rs.getLong("trend_id"), rs.getLong("category_id")})
+                .forEach(link -> {
+                    Source source = all.get(link[0]);
+                    if (source != null) {
+                        source.categories.add(link[1]);
+                    }
+                });
+        jdbcTemplate.query(SCORE_SQL + SCORE_GROUP_BY, (rs, rowNum) -> Map.entry(rs.getLong("trend_id"), rs.getDouble("avg_score")))
+                .forEach(score -> all.computeIfPresent(score.getKey(), (id, source) -> source.withScore(score.getValue())));
+
+        // Document frequencies first, so every trend is weighted with the IDF of the complete catalogue.
+        sources.putAll(all);
+        all.values().forEach(source -> countTerms(source, 1));
+        all.values().forEach(source -> {
+            Map<String, Double> vector = vector(source);
+            vectors.put(source.id(), vector);
+            lsh.put(source.id(), vector);
+        });
+    }
+
+    private void addTrend(Source source) {
+        countTerms(source, 1);
+        sources.put(source.id(), source);
+        Map<String, Double> vector = vector(source);
+        vectors.put(source.id(), vector);
+        lsh.put(source.id(), vector);
+    }
+
+    private void removeTrend(long trendId) {
+        Source source = sources.remove(trendId);
+        if (source != null) {
+            countTerms(source, -1);
+            vectors.remove(trendId);
+            lsh.remove(trendId);
+        }
+    }
+
+    private void countTerms(Source source, int delta) {
+        for (String term : new HashSet<>(TextTokenizer.tokenize(source.description()))) {
+            documentFrequencies.merge(term, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    /**
+     * Builds the unit-length feature vector of a trend.
+     */
+    Map<String, Double> vector(Source source) {
+        Map<String, Double> vector = new HashMap<>();
+
+        Set<Long> categories = new HashSet<>(source.categories());
+        if (source.categoryId() != null) {
+            categories.add(source.categoryId());
+        }
+        Map<String, Double> categoryBlock = new HashMap<>();
+        categories.forEach(id -> categoryBlock.put("category:" + id, 1.0));
+        addBlock(vector, categoryBlock, CATEGORY_WEIGHT);
+
+        if (source.location() != null) {
+            addBlock(vector, Map.of("location:" + source.location().toLowerCase(Locale.ROOT), 1.0), LOCATION_WEIGHT);
+        }
+        if (source.season() != null) {
+            addBlock(vector, Map.of("season:" + source.season().toLowerCase(Locale.ROOT), 1.0), SEASON_WEIGHT);
+        }
+
+        if (source.score() != null) {
+            int band = (int) Math.floor(source.score() / POPULARITY_BAND_WIDTH);
+            addBlock(vector, Map.of("popularity:" + band, 1.0, "popularity:" + (band - 1), 0.5,
+                    "popularity:" + (band + 1), 0.5), POPULARITY_WEIGHT);
+        }
+
+        Map<String, Double> termBlock = new HashMap<>();
+        for (String term : TextTokenizer.tokenize(source.description())) {
+            termBlock.merge("term:" + term, 1.0, Double::sum);
+        }
+        int documents = Math.max(1, sources.size());
+        termBlock.replaceAll((feature, tf) -> {
+            int df = documentFrequencies.getOrDefault(feature.substring("term:".length()), 1);
+            return tf * Math.log(1.0 + (double) documents / df);
+        });
+        addBlock(vector, termBlock, TERM_WEIGHT);
+
+        double norm = Math.sqrt(vector.values().stream().mapToDouble(v -> v * v).sum());
+        if (norm > 0) {
+            vector.replaceAll((feature, value) -> value / norm);
+        }
+        return vector;
+    }
+
+    private static void addBlock(Map<String, Double> vector, Map<String, Double> block, double weight) {
+        double norm = Math.sqrt(block.values().stream().mapToDouble(v -> v * v).sum());
+        if (norm > 0) {
+            block.forEach((feature, value) -> vector.put(feature, weight * value / norm));
+        }
+    }
+
+    private static double dot(Map<String, Double> a, Map<String, Double> b) {
+        Map<String, Double> smaller = a.size() <= b.size() ? a : b;
+        Map<String, Double> larger = smaller == a ? b : a;
+        double dot = 0;
+        for (Map.Entry<String, Double> component : smaller.entrySet()) {
+            Double other = larger.get(component.getKey());
+            if (other != null) {
+                dot += component.getValue() * other;
+            }
+        }
+        return dot;
+    }
+
+    /**
+     * The raw features of a trend, kept so it can be re-vectorized without reading it again.
+     */
+    record Source(long id, String name, String description, Long categoryId, String location, String season,
+                  Set<Long> categories, Double score) {
+
+        Source withScore(Double score) {
+            return new Source(id, name, description, categoryId, location, season, categories, score);
+        }
+    }
+}
@@ -66,5 +66,14 @@ public interface UserDao {
      * @return a list containing all User objects in the database, or an empty list if no users are found
      */
     List<User> findAll();
+
+    /**
+     * Retrieves the next page of users in user_id order.
+     *
+     * @param afterId the user_id the page starts after, or null for the first page
+     * @param limit   the maximum number of users to return
+     * @return up to limit users with a greater user_id, by user_id
+     */
+    List<User> findAfter(Long afterId, int limit);
 }
 
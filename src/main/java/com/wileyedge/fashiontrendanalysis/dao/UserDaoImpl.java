@@ -129,4 +129,22 @@ public class UserDaoImpl implements UserDao {
         String sql = "SELECT * FROM fashion_user";
         return jdbcTemplate.query(sql, userRowMapper);
     }
+
+    /**
+     * Retrieves the next page of users by seeking to the user_id after the previous page, so only the rows of the
+     * page are read, however deep the page.
+     *
+     * @param afterId the user_id the page starts after, or null for the first page
+     * @param limit   the maximum number of users to return
+     * @return up to limit users with a greater user_id, by user_id
+     */
+    @Override
+    public List<User> findAfter(Long afterId, int limit) {
+        if (afterId == null) {
+            String sql = "SELECT * FROM fashion_user ORDER BY user_id LIMIT ?";
+            return jdbcTemplate.query(sql, userRowMapper, limit);
+        }
+        String sql = "SELECT * FROM fashion_user WHERE user_id > ? ORDER BY user_id LIMIT ?";
+        return jdbcTemplate.query(sql, userRowMapper, afterId, limit);
+    }
 }
@@ -0,0 +1,50 @@
+package com.wileyedge.fashiontrendanalysis.event;
+
+/**
+ * Application event published by the DAOs after a successful write to one of the tracked tables, so that
+ * in-memory views can be kept in step with the database without polling.
+ *
+ * <p>Most listeners are transactional event listeners: inside a transaction they run once it has committed,
+ * and are skipped if it rolls back; outside a transaction they run immediately on the writing thread. Only
+ * listeners that must take part in the write itself, such as the popularity history, use a plain
+ * event listener and run synchronously when the event is published.</p>
+ */
+public class DataChangeEvent {
+
+    private final DataTable table;
+    private final Long entityId;
+
+    /**
+     * Constructs a new event for a write to the given table.
+     *
+     * @param table    the table that was written to
+     * @param entityId the ID of the primary entity affected by the write, or null if not applicable
+     */
+    public DataChangeEvent(DataTable table, Long entityId) {
+        this.table = table;
+        this.entityId = entityId;
+    }
+
+    /**
+     * Gets the table that was written to.
+     *
+     * @return the affected table.
+     */
+    public DataTable getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the ID of the primary entity affected by the write.
+     *
+     * @return the entity ID, or null if the write was not tied to a single entity.
+     */
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    @Override
+    public String toString() {
+        return "DataChangeEvent{table=" + table + ", entityId=" + entityId + "}";
+    }
+}
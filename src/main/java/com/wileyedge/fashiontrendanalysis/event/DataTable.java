@@ -0,0 +1,16 @@
+package com.wileyedge.fashiontrendanalysis.event;
+
+/**
+ * Enumerates the database tables whose writes are announced through {@link DataChangeEvent}.
+ * In-memory structures derived from these tables use the constant to decide whether a change concerns them.
+ */
+public enum DataTable {
+    CATEGORY,
+    DESIGNER,
+    TREND,
+    PRODUCT,
+    TREND_CATEGORY,
+    CATEGORY_POPULARITY,
+    PRODUCT_POPULARITY,
+    TREND_POPULARITY
+}
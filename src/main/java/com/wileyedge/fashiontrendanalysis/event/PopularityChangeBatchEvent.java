@@ -0,0 +1,55 @@
+package com.wileyedge.fashiontrendanalysis.event;
+
+import java.util.List;
+
+/**
+ * Published once for a batch of score writes to one popularity table, in place of a {@link PopularityChangeEvent}
+ * per write, so listeners can apply the whole batch with a few statements. The event carries no entity ID:
+ * a listener that only handles single entities treats it as a change of the whole table.
+ */
+public class PopularityChangeBatchEvent extends DataChangeEvent {
+
+    private final List<PopularityChangeEvent> changes;
+
+    /**
+     * Constructs a new event for a batch of score writes.
+     *
+     * @param table   the popularity table that was written to
+     * @param changes the score writes, in the order they were applied
+     */
+    public PopularityChangeBatchEvent(DataTable table, List<PopularityChangeEvent> changes) {
+        super(table, null);
+        this.changes = List.copyOf(changes);
+    }
+
+    /**
+     * Gets the score writes of the batch.
+     *
+     * @return the score writes, in the order they were applied.
+     */
+    public List<PopularityChangeEvent> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the score writes announced by an event: all writes of a batch, the one write of a single score event,
+     * or none for any other event.
+     *
+     * @param event the change published by a DAO
+     * @return the score writes, in the order they were applied.
+     */
+    public static List<PopularityChangeEvent> changesOf(DataChangeEvent event) {
+        if (event instanceof PopularityChangeBatchEvent batch) {
+            return batch.changes;
+        }
+        if (event instanceof PopularityChangeEvent change) {
+            return List.of(change);
+        }
+        return List.of();
+    }
+
+    @Override
+    public String toString() {
+        return "PopularityChangeBatchEvent{table=" + getTable() + ", changes=" + changes.size() + "}";
+    }
+}
@@ -0,0 +1,83 @@
+package com.wileyedge.fashiontrendanalysis.event;
+
+/**
+ * Published after a popularity score has been written. Besides the affected table and entity it carries
+ * the full key of the score row and the new score, so listeners can apply the change incrementally
+ * instead of re-reading the table.
+ */
+public class PopularityChangeEvent extends DataChangeEvent {
+
+    private final Long trendId;
+    private final String season;
+    private final int score;
+
+    private PopularityChangeEvent(DataTable table, Long entityId, Long trendId, String season, int score) {
+        super(table, entityId);
+        this.trendId = trendId;
+        this.season = season;
+        this.score = score;
+    }
+
+    /**
+     * Creates an event for a write to trend_popularity.
+     *
+     * @param trendId the ID of the trend
+     * @param score   the new popularity score
+     * @return the event.
+     */
+    public static PopularityChangeEvent forTrend(Long trendId, int score) {
+        return new PopularityChangeEvent(DataTable.TREND_POPULARITY, trendId, trendId, null, score);
+    }
+
+    /**
+     * Creates an event for a write to product_popularity.
+     *
+     * @param productId the ID of the product
+     * @param trendId   the ID of the trend the score applies to
+     * @param score     the new popularity score
+     * @return the event.
+     */
+    public static PopularityChangeEvent forProduct(Long productId, Long trendId, int score) {
+        return new PopularityChangeEvent(DataTable.PRODUCT_POPULARITY, productId, trendId, null, score);
+    }
+
+    /**
+     * Creates an event for a write to category_popularity.
+     *
+     * @param categoryId the ID of the category
+     * @param season     the season the score applies to
+     * @param score      the new popularity score
+     * @return the event.
+     */
+    public static PopularityChangeEvent forCategory(Long categoryId, String season, int score) {
+        return new PopularityChangeEvent(DataTable.CATEGORY_POPULARITY, categoryId, null, season, score);
+    }
+
+    /**
+     * Gets the trend the score belongs to. For product scores this is the trend of the
+     * (product, trend) key; for category scores it is null.
+     *
+     * @return the trend ID.
+     */
+    public Long getTrendId() {
+        return trendId;
+    }
+
+    /**
+     * Gets the season of a category score.
+     *
+     * @return the season, or null for trend and product scores.
+     */
+    public String getSeason() {
+        return season;
+    }
+
+    /**
+     * Gets the score that was written.
+     *
+     * @return the new popularity score.
+     */
+    public int getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,58 @@
+package com.wileyedge.fashiontrendanalysis.event;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps a version counter per tracked table, incremented after every committed write announced through
+ * {@link DataChangeEvent}. Combining the counters of the tables a result is computed from gives a validator
+ * that changes whenever the result may have changed, without reading the database.
+ *
+ * <p>The counters live in memory, so every validator also carries the epoch at which this instance was
+ * created; validators handed out before a restart therefore never match.</p>
+ */
+@Component
+public class TableVersions {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLongArray versions = new AtomicLongArray(DataTable.values().length);
+
+    /**
+     * Bumps the version of the table that was written to. Inside a transaction this happens only once the
+     * write has committed, so a validator can never be ahead of the data it describes.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        versions.incrementAndGet(event.getTable().ordinal());
+    }
+
+    /**
+     * Gets the current version of a table.
+     *
+     * @param table the table
+     * @return the number of committed writes to the table since startup.
+     */
+    public long version(DataTable table) {
+        return versions.get(table.ordinal());
+    }
+
+    /**
+     * Builds a strong entity tag from the current versions of the given tables. Callers must obtain the tag
+     * before computing the response it labels, so a concurrent write can only make the tag older than the
+     * body, never newer.
+     *
+     * @param tables the tables the response is computed from
+     * @return the quoted entity tag.
+     */
+    public String etag(DataTable... tables) {
+        StringBuilder tag = new StringBuilder("\"").append(Long.toHexString(epoch));
+        for (DataTable table : tables) {
+            tag.append('-').append(Long.toHexString(version(table)));
+        }
+        return tag.append('"').toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+import java.util.Map;
+
+/**
+ * Represents all popularity aggregates of the analysis dashboards, computed together from one consistent
+ * view of the data. The season-dependent aggregates are keyed by season first and then by name.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class AnalysisSnapshot {
+
+    /** Average category popularity per season, keyed by season and category name. */
+    private Map<String, Map<String, Double>> categoryPopularityBySeason;
+
+    /** Average designer popularity, keyed by designer name. */
+    private Map<String, Double> designerPopularity;
+
+    /** Average product popularity, keyed by product name. */
+    private Map<String, Double> productPopularity;
+
+    /** Average trend popularity, keyed by trend name. */
+    private Map<String, Double> trendPopularity;
+
+    /** Average product popularity per category, keyed by category name. */
+    private Map<String, Double> productPopularityByCategory;
+
+    /** Average trend popularity per category, keyed by category name. */
+    private Map<String, Double> trendPopularityByCategory;
+
+    /** Average trend popularity for the trends of each season, keyed by season and trend name. */
+    private Map<String, Map<String, Double>> trendPopularityBySeason;
+
+    /** Number of products per category, keyed by category name. */
+    private Map<String, Integer> productCountByCategory;
+}
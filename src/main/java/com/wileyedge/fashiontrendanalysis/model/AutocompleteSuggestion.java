@@ -0,0 +1,33 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents a trend, product, designer or category name completing a typed prefix.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class AutocompleteSuggestion {
+
+    /** The kind of entity: trend, product, designer or category. */
+    private String type;
+
+    /** The ID of the entity. */
+    private Long id;
+
+    /** The name of the entity. */
+    private String name;
+
+    /** The popularity score the suggestions are ranked by; null if the entity has no score. */
+    private Double popularityScore;
+}
@@ -0,0 +1,37 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import java.util.Locale;
+
+/**
+ * The kinds of names the autocomplete endpoint completes.
+ */
+public enum AutocompleteType {
+    /** Trend names, ranked by average trend popularity. */
+    TREND,
+    /** Product names, ranked by average product popularity. */
+    PRODUCT,
+    /** Designer names, ranked by the designer popularity score. */
+    DESIGNER,
+    /** Category names, ranked by average category popularity over all seasons. */
+    CATEGORY;
+
+    /**
+     * Looks a type up by its name, regardless of case.
+     *
+     * @param name the type name, e.g. "product"
+     * @return the type
+     * @throws IllegalArgumentException if no type has that name
+     */
+    public static AutocompleteType fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * The name of the type as used in requests and responses.
+     *
+     * @return the lower-case name
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
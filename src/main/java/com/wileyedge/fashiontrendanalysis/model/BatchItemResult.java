@@ -0,0 +1,33 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents the outcome of one item of a batch request, in the order of the request.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class BatchItemResult {
+
+    /** The position of the item in the request, starting at 0. */
+    private int index;
+
+    /** The ID of the entity: generated for created items, as requested otherwise; null if the insert failed. */
+    private Long id;
+
+    /** The outcome of the item. */
+    private BatchItemStatus status;
+
+    /** The reason the database rejected the item; null unless the status is FAILED. */
+    private String message;
+}
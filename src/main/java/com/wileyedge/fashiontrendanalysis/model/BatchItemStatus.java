@@ -0,0 +1,17 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+/**
+ * The outcome of one item of a batch create, update or delete.
+ */
+public enum BatchItemStatus {
+    /** The item was inserted; its generated ID is reported. */
+    CREATED,
+    /** The row with the item's ID was updated. */
+    UPDATED,
+    /** The row with the item's ID was deleted. */
+    DELETED,
+    /** No row has the item's ID; nothing was written. */
+    NOT_FOUND,
+    /** The database rejected the item; nothing was written for it. */
+    FAILED
+}
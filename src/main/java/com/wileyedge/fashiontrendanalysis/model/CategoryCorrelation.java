@@ -0,0 +1,40 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * Represents the category × category correlation matrix of the average popularity per season. Entry [i][j]
+ * correlates the seasonal vectors of categories i and j over the seasons in which both were scored; it is
+ * null when fewer than two such seasons exist or one of the categories did not vary over them.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CategoryCorrelation {
+
+    /** The correlation coefficient: pearson or spearman. */
+    private String method;
+
+    /** The scores the vectors were built from: category or trend. */
+    private String source;
+
+    /** Names of the categories, in the order of the matrix rows and columns. */
+    private List<String> categories;
+
+    /** The seasons the vectors range over, in lower case. */
+    private List<String> seasons;
+
+    /** The symmetric correlation matrix. */
+    private Double[][] coefficients;
+}
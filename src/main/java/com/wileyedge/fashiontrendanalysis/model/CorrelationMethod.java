@@ -0,0 +1,33 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import java.util.Locale;
+
+/**
+ * The correlation coefficients of the category co-movement matrix.
+ */
+public enum CorrelationMethod {
+    /** Linear correlation of the scores. */
+    PEARSON,
+    /** Correlation of the ranks of the scores, robust to outliers and monotonic but non-linear relations. */
+    SPEARMAN;
+
+    /**
+     * Looks a method up by its name, regardless of case.
+     *
+     * @param name the method name, e.g. "spearman"
+     * @return the method
+     * @throws IllegalArgumentException if no method has that name
+     */
+    public static CorrelationMethod fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the name used for this method in requests and responses.
+     *
+     * @return the lower-case method name.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
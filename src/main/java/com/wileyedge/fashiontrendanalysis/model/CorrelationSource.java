@@ -0,0 +1,33 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import java.util.Locale;
+
+/**
+ * The scores the per-season vector of a category is built from for the co-movement matrix.
+ */
+public enum CorrelationSource {
+    /** The category scores recorded per season in category_popularity. */
+    CATEGORY,
+    /** The scores of the trends associated with the category through trend_category, by trend season. */
+    TREND;
+
+    /**
+     * Looks a source up by its name, regardless of case.
+     *
+     * @param name the source name, e.g. "trend"
+     * @return the source
+     * @throws IllegalArgumentException if no source has that name
+     */
+    public static CorrelationSource fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the name used for this source in requests and responses.
+     *
+     * @return the lower-case source name.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
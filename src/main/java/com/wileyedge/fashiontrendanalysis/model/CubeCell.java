@@ -0,0 +1,33 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+import java.util.Map;
+
+/**
+ * Represents one cell of a trend popularity cube query: the values of the grouped dimensions and the
+ * average of the trend popularity scores that fall into the cell.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class CubeCell {
+
+    /** Value of each grouped dimension, keyed by dimension name; a value is null for trends without it. */
+    private Map<String, String> coordinates;
+
+    /** Average trend popularity score of the cell. */
+    private double averageScore;
+
+    /** Number of scores in the cell. */
+    private long count;
+}
@@ -0,0 +1,34 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import java.util.Locale;
+
+/**
+ * The dimensions of the trend popularity cube. Each trend contributes its popularity scores to the cell of
+ * its category, season, location and designer.
+ */
+public enum CubeDimension {
+    CATEGORY,
+    SEASON,
+    LOCATION,
+    DESIGNER;
+
+    /**
+     * Looks a dimension up by its name, regardless of case.
+     *
+     * @param name the dimension name, e.g. "designer"
+     * @return the dimension
+     * @throws IllegalArgumentException if no dimension has that name
+     */
+    public static CubeDimension fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Gets the name used for this dimension in requests and responses.
+     *
+     * @return the lower-case dimension name.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
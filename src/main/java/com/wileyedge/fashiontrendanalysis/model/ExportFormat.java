@@ -0,0 +1,50 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import java.util.Locale;
+
+/**
+ * The formats the catalogue exports can be streamed in.
+ */
+public enum ExportFormat {
+    /** Newline-delimited JSON, one object per line. */
+    NDJSON("application/x-ndjson"),
+    /** Comma-separated values with a header line, quoted as in RFC 4180. */
+    CSV("text/csv"),
+    /** A single JSON array. */
+    JSON("application/json");
+
+    private final String mediaType;
+
+    ExportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Looks a format up by its name, regardless of case.
+     *
+     * @param name the format name, e.g. "csv"
+     * @return the format
+     * @throws IllegalArgumentException if no format has that name
+     */
+    public static ExportFormat fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * The name of the format as used in requests and file extensions.
+     *
+     * @return the lower-case name
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The media type of a response in this format.
+     *
+     * @return the media type, e.g. "text/csv"
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,60 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Resolutions at which popularity history is stored. RAW holds every recorded score; HOUR and DAY hold
+ * min/max/sum/count roll-ups over UTC-aligned buckets, maintained as the scores are recorded.
+ */
+public enum HistoryResolution {
+    RAW(null),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    /** The roll-up resolutions, finest first. */
+    public static final List<HistoryResolution> ROLLUPS = List.of(HOUR, DAY);
+
+    private final ChronoUnit unit;
+
+    HistoryResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Gets the width of one bucket.
+     *
+     * @return the bucket width, or zero for raw points.
+     */
+    public Duration getBucketWidth() {
+        return unit != null ? unit.getDuration() : Duration.ZERO;
+    }
+
+    /**
+     * Gets the start of the bucket an instant falls into.
+     *
+     * @param instant the instant
+     * @return the bucket start, or the instant itself for raw points.
+     */
+    public Instant bucketStart(Instant instant) {
+        return unit != null ? instant.truncatedTo(unit) : instant;
+    }
+
+    /**
+     * Picks the coarsest resolution whose buckets are no wider than the requested step.
+     *
+     * @param step the largest acceptable distance between two points
+     * @return the coarsest resolution that satisfies the step.
+     */
+    public static HistoryResolution coarsestFor(Duration step) {
+        HistoryResolution[] resolutions = values();
+        for (int i = resolutions.length - 1; i > 0; i--) {
+            if (resolutions[i].getBucketWidth().compareTo(step) <= 0) {
+                return resolutions[i];
+            }
+        }
+        return RAW;
+    }
+}
@@ -0,0 +1,29 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * Represents one page of a keyset-paginated listing and the cursor continuing after it.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class KeysetPage<T> {
+
+    /** The items of the page, in listing order. */
+    private List<T> items;
+
+    /** The opaque cursor of the next page; null if this is the last page. */
+    private String nextCursor;
+}
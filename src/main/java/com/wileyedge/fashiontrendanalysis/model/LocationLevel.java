@@ -0,0 +1,35 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import java.util.Locale;
+
+/**
+ * The levels of the location hierarchy the trends and designers are rolled up along.
+ */
+public enum LocationLevel {
+    /** The free-text city recorded on a trend or designer. */
+    CITY,
+    /** The country of a city, from location_hierarchy. */
+    COUNTRY,
+    /** The world region of a country, from location_hierarchy. */
+    REGION;
+
+    /**
+     * Looks a level up by its name, regardless of case.
+     *
+     * @param name the level name, e.g. "region"
+     * @return the level
+     * @throws IllegalArgumentException if no level has that name
+     */
+    public static LocationLevel fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * The name of the level as used in requests and responses.
+     *
+     * @return the lower-case name
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,39 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents the trends and designers of one city, country or region, aggregated over the locations below it.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class LocationRollup {
+
+    /** The level of the location: city, country or region. */
+    private String level;
+
+    /** The name of the city, country or region. */
+    private String name;
+
+    /** The name of the enclosing country or region; null for a region. */
+    private String parent;
+
+    /** The number of trends located here. */
+    private int trendCount;
+
+    /** The number of designers located here. */
+    private int designerCount;
+
+    /** The average of the average popularity scores of the scored trends located here; null if none is scored. */
+    private Double averagePopularity;
+}
@@ -0,0 +1,44 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents the distribution of the popularity scores recorded for one or more keys (trends, categories
+ * or seasons). Percentiles and the distinct count are estimates read from mergeable sketches; the score
+ * fields are null when no score has been recorded.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class PopularityDistribution {
+
+    /** Number of scores recorded. */
+    private long count;
+
+    /** Estimated number of distinct entities (products or categories) that were scored. */
+    private long distinctCount;
+
+    /** Lowest recorded score. */
+    private Double min;
+
+    /** Estimated median score. */
+    private Double p50;
+
+    /** Estimated 90th percentile score. */
+    private Double p90;
+
+    /** Estimated 99th percentile score. */
+    private Double p99;
+
+    /** Highest recorded score. */
+    private Double max;
+}
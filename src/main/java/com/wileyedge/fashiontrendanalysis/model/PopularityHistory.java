@@ -0,0 +1,43 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Represents the popularity history of one trend or product over a time range,
+ * together with the resolution the points were read at.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class PopularityHistory {
+
+    /** ID of the trend or product. */
+    private Long entityId;
+
+    /** Start of the requested range, inclusive. */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant from;
+
+    /** End of the requested range, exclusive. */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant to;
+
+    /** Resolution of the points. */
+    private HistoryResolution resolution;
+
+    /** Points in chronological order. */
+    private List<PopularityPoint> points;
+}
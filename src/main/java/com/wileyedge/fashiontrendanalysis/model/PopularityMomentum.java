@@ -0,0 +1,40 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+
+/**
+ * Represents how a popularity score is moving, evaluated at a point in time.
+ * Momentum is the exponentially weighted velocity of the score in points per hour; the hot score is the sum
+ * of all increases of the score, each decayed by its age, with the first recorded score counting as an increase
+ * from zero. Both decay towards zero while no new score is recorded.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class PopularityMomentum {
+
+    /** The most recently recorded score. */
+    private int lastScore;
+
+    /** Exponentially weighted velocity of the score, in points per hour. */
+    private double momentum;
+
+    /** Time-decayed sum of the recorded scores. */
+    private double hotScore;
+
+    /** When the most recent score was recorded. */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+
+/**
+ * Represents one point of a popularity time series: either a single recorded score or the roll-up
+ * of all scores recorded within one bucket.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class PopularityPoint {
+
+    /** Time the score was recorded, or the start of the bucket for roll-ups. */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant timestamp;
+
+    /** Lowest score in the bucket. */
+    private int minScore;
+
+    /** Highest score in the bucket. */
+    private int maxScore;
+
+    /** Average score in the bucket. */
+    private double averageScore;
+
+    /** Number of scores in the bucket. */
+    private long count;
+}
@@ -0,0 +1,37 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents one popularity score pushed by an upstream system. The target selects the popularity table
+ * the score is written to and which of the keys are required:
+ * TREND needs trendId, PRODUCT needs productId and trendId, CATEGORY needs categoryId and season.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class PopularitySignal {
+
+    /**
+     * The popularity table a signal is written to.
+     */
+    public enum Target {
+        TREND, PRODUCT, CATEGORY
+    }
+
+    private Target target;
+    private Long trendId;
+    private Long productId;
+    private Long categoryId;
+    private String season;
+    private Integer score;
+}
@@ -0,0 +1,46 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents the exact summary statistics of a set of popularity scores. The score fields are null when no
+ * score has been recorded.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class PopularityStatistics {
+
+    /** Number of scores. */
+    private long count;
+
+    /** Arithmetic mean of the scores. */
+    private Double mean;
+
+    /** Population variance of the scores. */
+    private Double variance;
+
+    /** Population standard deviation of the scores. */
+    private Double standardDeviation;
+
+    /** Lowest score. */
+    private Double min;
+
+    /** Highest score. */
+    private Double max;
+
+    /** Width of a histogram bucket. */
+    private int bucketWidth;
+
+    /** Score counts per bucket; bucket i covers [i * bucketWidth, (i + 1) * bucketWidth), the last one includes 100. */
+    private long[] histogram;
+}
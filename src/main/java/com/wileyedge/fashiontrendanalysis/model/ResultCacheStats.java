@@ -0,0 +1,39 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents the counters of the analysis result cache since startup.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ResultCacheStats {
+
+    /** Number of lookups answered from the cache. */
+    private long hits;
+
+    /** Number of lookups that had to compute the result. */
+    private long misses;
+
+    /** Number of entries dropped to stay within the capacity. */
+    private long evictions;
+
+    /** Number of entries dropped because a table they were computed from was written to. */
+    private long invalidations;
+
+    /** Number of entries currently cached. */
+    private int size;
+
+    /** Maximum number of entries; 0 when the cache is disabled. */
+    private int capacity;
+}
@@ -0,0 +1,33 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents a trend or product matching a full-text search, with its BM25 relevance score.
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class SearchHit {
+
+    /** The kind of document: trend or product. */
+    private String type;
+
+    /** The ID of the trend or product. */
+    private Long id;
+
+    /** The name of the trend or product. */
+    private String name;
+
+    /** BM25 relevance to the query; higher is more relevant. */
+    private double score;
+}
@@ -0,0 +1,31 @@
+package com.wileyedge.fashiontrendanalysis.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Represents a trend recommended as similar to another one, with the cosine similarity of their feature
+ * vectors (categories, location, season, popularity band and description terms).
+ * The class uses Lombok annotations for boilerplate code reduction.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class SimilarTrend {
+
+    /** The ID of the similar trend. */
+    private Long trendId;
+
+    /** The name of the similar trend. */
+    private String trendName;
+
+    /** Cosine similarity to the requested trend, between 0 and 1. */
+    private double similarity;
+}
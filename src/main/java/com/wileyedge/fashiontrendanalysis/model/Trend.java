@@ -1,6 +1,9 @@
 package com.wileyedge.fashiontrendanalysis.model;
 
+import com.wileyedge.fashiontrendanalysis.sketch.ScoreStatistics;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Represents a fashion trend with various attributes such as name, description, category, designer, etc.
@@ -14,6 +17,8 @@ public class Trend {
     private String location;
     private String season;
     private Integer popularityScore;
+    private Double momentum;
+    private Double hotScore;
 
     /**
      * Default constructor for Trend.
@@ -216,6 +221,43 @@ public class Trend {
         this.popularityScore = popularityScore;
     }
 
+    /**
+     * Gets the momentum of this trend: the exponentially weighted velocity of its popularity score,
+     * in points per hour.
+     *
+     * @return the momentum, or null if no score has been recorded.
+     */
+    public Double getMomentum() {
+        return momentum;
+    }
+
+    /**
+     * Sets the momentum of this trend.
+     *
+     * @param momentum The momentum to set for this trend.
+     */
+    public void setMomentum(Double momentum) {
+        this.momentum = momentum;
+    }
+
+    /**
+     * Gets the hot score of this trend: the sum of the increases of its popularity score, each decayed by its age.
+     *
+     * @return the hot score, or null if no score has been recorded.
+     */
+    public Double getHotScore() {
+        return hotScore;
+    }
+
+    /**
+     * Sets the hot score of this trend.
+     *
+     * @param hotScore The hot score to set for this trend.
+     */
+    public void setHotScore(Double hotScore) {
+        this.hotScore = hotScore;
+    }
+
     /**
      * Calculates the popularity score for this trend based on various factors.
      * This method can be further enhanced to include factors like likes, comments, etc.
@@ -238,13 +280,18 @@ public class Trend {
         if (trends == null || trends.isEmpty()) {
             return 0.0; // Return 0 if there are no trends to calculate the average.
         }
+        return calculatePopularityStatistics(trends.stream()).mean();
+    }
 
-        double totalScore = 0.0;
-        for (Trend trend : trends) {
-            totalScore += trend.calculatePopularityScore();
-        }
-
-        return totalScore / trends.size();
+    /**
+     * Summarizes the popularity scores of a stream of trends in one pass, without collecting the trends.
+     * A parallel stream is summarized per thread and the partial summaries are merged.
+     *
+     * @param trends The trends to summarize.
+     * @return The count, mean, variance, extremes and histogram of the popularity scores.
+     */
+    public static ScoreStatistics calculatePopularityStatistics(Stream<Trend> trends) {
+        return ScoreStatistics.of(trends.mapToDouble(Trend::calculatePopularityScore));
     }
 
 }
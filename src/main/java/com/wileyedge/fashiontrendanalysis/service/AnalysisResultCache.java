@@ -0,0 +1,156 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.dao.ReplicaRoutingDataSource;
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.TableVersions;
+import com.wileyedge.fashiontrendanalysis.model.ResultCacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, least-recently-used cache of analysis results, keyed by query and arguments. There is no expiry:
+ * every entry remembers the versions of the tables it was computed from, and is dropped as soon as a committed
+ * write to one of them is announced. The versions are taken before the result is computed, so a result that
+ * raced with a write is discarded on its next lookup even if it was stored after the invalidation.
+ *
+ * <p>Enabled by setting {@code analysis.cache.capacity} to a value greater than 0.</p>
+ */
+@Component
+public class AnalysisResultCache {
+
+    private final TableVersions tableVersions;
+    private final int capacity;
+
+    private final Map<List<Object>, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Constructs the cache.
+     *
+     * @param tableVersions the per-table write counters the entries are validated against
+     * @param capacity      the maximum number of entries; 0 disables caching
+     */
+    @Autowired
+    public AnalysisResultCache(TableVersions tableVersions, @Value("${analysis.cache.capacity:0}") int capacity) {
+        this.tableVersions = tableVersions;
+        this.capacity = Math.max(0, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                if (size() > AnalysisResultCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result of a query, or computes and caches it. The computation runs outside the
+     * cache's lock, so concurrent misses on the same key may compute the result more than once.
+     *
+     * @param query    the name of the query
+     * @param argument the argument of the query, part of the key
+     * @param result   computes the result on a miss
+     * @param tables   the tables the result is computed from
+     * @param <T>      the type of the result
+     * @return the cached or freshly computed result; callers must not modify it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String query, Object argument, Supplier<T> result, DataTable... tables) {
+        if (capacity == 0) {
+            return result.get();
+        }
+        List<Object> key = Arrays.asList(query, argument);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isCurrent(tableVersions)) {
+                hits++;
+                return (T) entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                invalidations++;
+            }
+            misses++;
+        }
+        long[] versions = versions(tables);
+        // A result read from a lagging replica would be kept until the next write, so misses read the primary.
+        T value = ReplicaRoutingDataSource.onPrimary(result);
+        synchronized (this) {
+            entries.put(key, new Entry(value, tables, versions));
+        }
+        return value;
+    }
+
+    /**
+     * Drops the entries computed from the table that was written to, once the write has committed.
+     *
+     * @param event the change published by a DAO
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDataChange(DataChangeEvent event) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().dependsOn(event.getTable())) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Gets the counters of the cache.
+     *
+     * @return the hits, misses, evictions and invalidations since startup, and the current size.
+     */
+    public synchronized ResultCacheStats getStats() {
+        return new ResultCacheStats(hits, misses, evictions, invalidations, entries.size(), capacity);
+    }
+
+    private long[] versions(DataTable[] tables) {
+        long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = tableVersions.version(tables[i]);
+        }
+        return versions;
+    }
+
+    /**
+     * A cached result together with the versions of its tables when it was computed.
+     */
+    private record Entry(Object value, DataTable[] tables, long[] versions) {
+
+        boolean isCurrent(TableVersions tableVersions) {
+            for (int i = 0; i < tables.length; i++) {
+                if (tableVersions.version(tables[i]) != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean dependsOn(DataTable table) {
+            for (DataTable dependency : tables) {
+                if (dependency == table) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,5 +1,12 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.model.AnalysisSnapshot;
+import com.wileyedge.fashiontrendanalysis.model.CategoryCorrelation;
+import com.wileyedge.fashiontrendanalysis.model.CubeCell;
+import com.wileyedge.fashiontrendanalysis.model.PopularityDistribution;
+import com.wileyedge.fashiontrendanalysis.model.PopularityStatistics;
+import com.wileyedge.fashiontrendanalysis.model.ResultCacheStats;
+
 import java.util.List;
 import java.util.Map;
 
@@ -55,4 +62,112 @@ public interface AnalysisService {
      * @return A map where the key is the trend name and the value is the calculated popularity score.
      */
     Map<String, Double> calculateTrendPopularityBySeason(String season);
+
+    /**
+     * Calculates all popularity aggregates, together with the product count per category, from one consistent view of the data.
+     *
+     * @return A snapshot containing every aggregate; the season-dependent aggregates are computed for every season.
+     */
+    AnalysisSnapshot getSnapshot();
+
+    /**
+     * Selects the most popular trends, optionally filtered.
+     *
+     * @param k          The number of trends to return.
+     * @param season     The season of the trends, or null for any season.
+     * @param location   The location of the trends, or null for any location.
+     * @param categoryId The category of the trends, or null for any category.
+     * @return A map of trend name to average popularity score, ordered from the most popular trend down.
+     */
+    Map<String, Double> getTopTrends(int k, String season, String location, Long categoryId);
+
+    /**
+     * Selects the most popular products, optionally filtered by category.
+     *
+     * @param k          The number of products to return.
+     * @param categoryId The category of the products, or null for any category.
+     * @return A map of product name to average popularity score, ordered from the most popular product down.
+     */
+    Map<String, Double> getTopProducts(int k, Long categoryId);
+
+    /**
+     * Selects the most popular designers, optionally filtered by location.
+     *
+     * @param k        The number of designers to return.
+     * @param location The location of the designers, or null for any location.
+     * @return A map of designer name to popularity score, ordered from the most popular designer down.
+     */
+    Map<String, Double> getTopDesigners(int k, String location);
+
+    /**
+     * Selects the most popular categories, optionally for one season.
+     *
+     * @param k      The number of categories to return.
+     * @param season The season of the category scores, or null for all seasons.
+     * @return A map of category name to average popularity score, ordered from the most popular category down.
+     */
+    Map<String, Double> getTopCategories(int k, String season);
+
+    /**
+     * Estimates the distribution of the current product scores of the given trends, merged into one.
+     *
+     * @param trendIds The trends to include; all trends if empty.
+     * @return The percentiles of the scores and the approximate number of distinct products scored.
+     */
+    PopularityDistribution getTrendDistribution(List<Long> trendIds);
+
+    /**
+     * Estimates the distribution of the current product scores of the products of the given categories, merged into one.
+     *
+     * @param categoryIds The categories to include; all categories if empty.
+     * @return The percentiles of the scores and the approximate number of distinct products scored.
+     */
+    PopularityDistribution getCategoryDistribution(List<Long> categoryIds);
+
+    /**
+     * Estimates the distribution of the current category scores of the given seasons, merged into one.
+     *
+     * @param seasons The seasons to include; all seasons if empty.
+     * @return The percentiles of the scores and the approximate number of distinct categories scored.
+     */
+    PopularityDistribution getSeasonDistribution(List<String> seasons);
+
+    /**
+     * Summarizes the trend scores, optionally of one season's trends only, in a single streaming pass.
+     *
+     * @param season The season to restrict to, or null for all trends.
+     * @return The exact count, mean, variance, extremes and histogram of the scores.
+     */
+    PopularityStatistics getTrendStatistics(String season);
+
+    /**
+     * Queries the trend popularity cube: groups by any of the category, season, location and designer
+     * dimensions and optionally slices on fixed values of them.
+     *
+     * @param groupBy  The names of the dimensions to group by; empty for the grand total.
+     * @param category The category name to slice on, or null.
+     * @param season   The season to slice on, or null.
+     * @param location The location to slice on, or null.
+     * @param designer The designer name to slice on, or null.
+     * @return One cell per combination of grouped values with its average trend popularity, highest first.
+     */
+    List<CubeCell> queryCube(List<String> groupBy, String category, String season, String location, String designer);
+
+    /**
+     * Computes the category × category correlation matrix of the average popularity per season, showing
+     * which categories rise and fall together.
+     *
+     * @param method The correlation coefficient: pearson or spearman.
+     * @param source The scores to build the season vectors from: category (category_popularity) or trend
+     *               (the scores of the category's trends).
+     * @return The correlation matrix, ordered by category name.
+     */
+    CategoryCorrelation getCategoryCorrelation(String method, String source);
+
+    /**
+     * Gets the counters of the result cache in front of the per-season aggregates and correlation matrices.
+     *
+     * @return The hits, misses, evictions and invalidations since startup, and the current size.
+     */
+    ResultCacheStats getCacheStats();
 }
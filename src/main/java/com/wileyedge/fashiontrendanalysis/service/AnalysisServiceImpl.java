@@ -1,41 +1,122 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.dao.CategoryCorrelations;
+import com.wileyedge.fashiontrendanalysis.dao.PartitionedProductPopularity;
+import com.wileyedge.fashiontrendanalysis.dao.PopularityAggregates;
+import com.wileyedge.fashiontrendanalysis.dao.PopularityColumnStore;
+import com.wileyedge.fashiontrendanalysis.dao.PopularityCube;
+import com.wileyedge.fashiontrendanalysis.dao.PopularitySketches;
+import com.wileyedge.fashiontrendanalysis.dao.ProductDao;
+import com.wileyedge.fashiontrendanalysis.dao.TrendDao;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.AnalysisSnapshot;
+import com.wileyedge.fashiontrendanalysis.model.CategoryCorrelation;
+import com.wileyedge.fashiontrendanalysis.model.CorrelationMethod;
+import com.wileyedge.fashiontrendanalysis.model.CorrelationSource;
+import com.wileyedge.fashiontrendanalysis.model.CubeCell;
+import com.wileyedge.fashiontrendanalysis.model.CubeDimension;
+import com.wileyedge.fashiontrendanalysis.model.PopularityDistribution;
+import com.wileyedge.fashiontrendanalysis.model.PopularityStatistics;
+import com.wileyedge.fashiontrendanalysis.model.ResultCacheStats;
+import com.wileyedge.fashiontrendanalysis.sketch.ScoreStatistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of the AnalysisService interface.
  * Provides methods to calculate various popularity metrics in the domain of fashion trends.
+ * When incremental aggregation is enabled, every metric is read from the running totals kept by
+ * {@link PopularityAggregates}; otherwise, when the columnar store is enabled, it is answered from its
+ * in-memory snapshot. Without either, each metric is a SQL aggregate query.
+ * Score distributions are always estimated from the sketches kept by {@link PopularitySketches}, and
+ * multi-dimensional trend popularity is read from the pre-aggregated {@link PopularityCube}.
  */
 @Service
 public class AnalysisServiceImpl implements AnalysisService {
 
+    // Upper bound for k in the top-k queries.
+    static final int MAX_K = 1000;
+
     private final JdbcTemplate jdbcTemplate;
+    private final PopularityColumnStore columnStore;
+    private final PopularityAggregates aggregates;
+    private final ProductDao productDao;
+    private final TrendDao trendDao;
+    private final PartitionedProductPopularity partitionedProductPopularity;
+    private final PopularitySketches sketches;
+    private final PopularityCube cube;
+    private final AnalysisResultCache resultCache;
+    private final CategoryCorrelations correlations;
 
     /**
-     * Constructor to autowire and initialize the JdbcTemplate.
+     * Constructor to autowire and initialize the JdbcTemplate, the columnar store, the running aggregates,
+     * the ProductDao, the TrendDao, the partitioned product popularity reader, the popularity sketches, the popularity cube,
+     * the result cache and the category correlation calculator.
      *
-     * @param jdbcTemplate The JdbcTemplate to be used for database operations.
+     * @param jdbcTemplate                 The JdbcTemplate to be used for database operations.
+     * @param columnStore                  The in-memory columnar copy of the popularity tables.
+     * @param aggregates                   The incrementally maintained popularity averages.
+     * @param productDao                   The DAO providing the product count per category.
+     * @param trendDao                     The DAO streaming the trend scores for the exact statistics.
+     * @param partitionedProductPopularity The parallel reader for product popularity.
+     * @param sketches                     The per-key percentile and distinct-count sketches.
+     * @param cube                         The pre-aggregated trend popularity cube.
+     * @param resultCache                  The write-invalidated cache of the analysis results.
+     * @param correlations                 The parallel category correlation calculator.
      */
     @Autowired
-    public AnalysisServiceImpl(JdbcTemplate jdbcTemplate) {
+    public AnalysisServiceImpl(JdbcTemplate jdbcTemplate, PopularityColumnStore columnStore, PopularityAggregates aggregates,
+                               ProductDao productDao, TrendDao trendDao, PartitionedProductPopularity partitionedProductPopularity,
+                               PopularitySketches sketches, PopularityCube cube, AnalysisResultCache resultCache,
+                               CategoryCorrelations correlations) {
         this.jdbcTemplate = jdbcTemplate;
+        this.columnStore = columnStore;
+        this.aggregates = aggregates;
+        this.productDao = productDao;
+        this.trendDao = trendDao;
+        this.partitionedProductPopularity = partitionedProductPopularity;
+        this.sketches = sketches;
+        this.cube = cube;
+        this.resultCache = resultCache;
+        this.correlations = correlations;
     }
 
     /**
-     * Calculates the average popularity score of categories for a given season.
+     * Calculates the average popularity score of categories for a given season. Results are cached per season
+     * until a category or category score is written.
      *
      * @param season The season for which the popularity should be calculated.
      * @return A map containing category names as keys and their average popularity scores as values.
      */
     @Override
     public Map<String, Double> calculateCategoryPopularityBySeason(String season) {
+        return resultCache.get("categoryPopularityBySeason", season,
+                () -> Collections.unmodifiableMap(computeCategoryPopularityBySeason(season)),
+                DataTable.CATEGORY, DataTable.CATEGORY_POPULARITY);
+    }
+
+    private Map<String, Double> computeCategoryPopularityBySeason(String season) {
+        if (aggregates.isEnabled()) {
+            return aggregates.categoryPopularityBySeason(season);
+        }
+        if (columnStore.isEnabled()) {
+            return columnStore.getColumns().categoryPopularityBySeason(season);
+        }
         String sql = "SELECT c.category_name, AVG(cp.popularity_score) AS avg_score " +
                 "FROM category c " +
                 "LEFT JOIN category_popularity cp ON c.category_id = cp.category_id " +
@@ -44,6 +125,7 @@ public class AnalysisServiceImpl implements AnalysisService {
         List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, season);
 
         return rows.stream()
+                .filter(row -> row.get("avg_score") != null)
                 .collect(Collectors.toMap(
                         row -> (String) row.get("category_name"),
                         row -> ((Number) row.get("avg_score")).doubleValue()
@@ -57,12 +139,19 @@ public class AnalysisServiceImpl implements AnalysisService {
      */
     @Override
     public Map<String, Double> calculateDesignerPopularity() {
+        if (aggregates.isEnabled()) {
+            return aggregates.designerPopularity();
+        }
+        if (columnStore.isEnabled()) {
+            return columnStore.getColumns().designerPopularity();
+        }
         String sql = "SELECT d.designer_name, AVG(d.popularity_score) AS avg_score " +
                 "FROM designer d " +
                 "GROUP BY d.designer_name";
         List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql);
 
         return rows.stream()
+                .filter(row -> row.get("avg_score") != null)
                 .collect(Collectors.toMap(
                         row -> (String) row.get("designer_name"),
                         row -> ((Number) row.get("avg_score")).doubleValue()
@@ -71,11 +160,28 @@ public class AnalysisServiceImpl implements AnalysisService {
 
     /**
      * Calculates the average popularity score of products.
+     * With more than one partition configured, product_popularity is aggregated in parallel product_id ranges.
      *
      * @return A map containing product names as keys and their average popularity scores as values.
      */
     @Override
     public Map<String, Double> calculateProductPopularity() {
+        if (aggregates.isEnabled()) {
+            return aggregates.productPopularity();
+        }
+        if (columnStore.isEnabled()) {
+            return columnStore.getColumns().productPopularity();
+        }
+        if (partitionedProductPopularity.isEnabled()) {
+            return partitionedProductPopularity.productPopularity();
+        }
+        return serialProductPopularity();
+    }
+
+    /**
+     * Aggregates product_popularity with a single query on the current connection.
+     */
+    private Map<String, Double> serialProductPopularity() {
         String sql = "SELECT p.product_name, AVG(pp.popularity_score) AS avg_score " +
                 "FROM product p " +
                 "LEFT JOIN product_popularity pp ON p.product_id = pp.product_id " +
@@ -83,6 +189,7 @@ public class AnalysisServiceImpl implements AnalysisService {
         List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql);
 
         return rows.stream()
+                .filter(row -> row.get("avg_score") != null)
                 .collect(Collectors.toMap(
                         row -> (String) row.get("product_name"),
                         row -> ((Number) row.get("avg_score")).doubleValue()
@@ -96,6 +203,12 @@ public class AnalysisServiceImpl implements AnalysisService {
      */
     @Override
     public Map<String, Double> calculateTrendPopularity() {
+        if (aggregates.isEnabled()) {
+            return aggregates.trendPopularity();
+        }
+        if (columnStore.isEnabled()) {
+            return columnStore.getColumns().trendPopularity();
+        }
         String sql = "SELECT t.trend_name, AVG(tp.popularity_score) AS avg_score " +
                 "FROM trend t " +
                 "LEFT JOIN trend_popularity tp ON t.trend_id = tp.trend_id " +
@@ -103,6 +216,7 @@ public class AnalysisServiceImpl implements AnalysisService {
         List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql);
 
         return rows.stream()
+                .filter(row -> row.get("avg_score") != null)
                 .collect(Collectors.toMap(
                         row -> (String) row.get("trend_name"),
                         row -> ((Number) row.get("avg_score")).doubleValue()
@@ -116,6 +230,12 @@ public class AnalysisServiceImpl implements AnalysisService {
      */
     @Override
     public Map<String, Double> calculateProductPopularityByCategory() {
+        if (aggregates.isEnabled()) {
+            return aggregates.productPopularityByCategory();
+        }
+        if (columnStore.isEnabled()) {
+            return columnStore.getColumns().productPopularityByCategory();
+        }
         String sql = "SELECT c.category_name, AVG(pp.popularity_score) AS avg_score " +
                 "FROM category c " +
                 "LEFT JOIN product p ON c.category_id = p.category_id " +
@@ -128,7 +248,7 @@ public class AnalysisServiceImpl implements AnalysisService {
         Map<String, Double> productPopularityByCategoryMap = new HashMap<>();
         for (Map<String, Object> row : rows) {
             String categoryName = (String) row.get("category_name");
-            Double avgScore = (Double) row.get("avg_score");
+            Double avgScore = toDouble(row.get("avg_score"));
             productPopularityByCategoryMap.put(categoryName, avgScore);
         }
 
@@ -142,6 +262,12 @@ public class AnalysisServiceImpl implements AnalysisService {
      */
     @Override
     public Map<String, Double> calculateTrendPopularityByCategory() {
+        if (aggregates.isEnabled()) {
+            return aggregates.trendPopularityByCategory();
+        }
+        if (columnStore.isEnabled()) {
+            return columnStore.getColumns().trendPopularityByCategory();
+        }
         String sql = "SELECT c.category_name, AVG(tp.popularity_score) AS avg_score " +
                 "FROM category c " +
                 "LEFT JOIN trend_category tc ON c.category_id = tc.category_id " +
@@ -154,7 +280,7 @@ public class AnalysisServiceImpl implements AnalysisService {
         Map<String, Double> trendPopularityByCategoryMap = new HashMap<>();
         for (Map<String, Object> row : rows) {
             String categoryName = (String) row.get("category_name");
-            Double avgScore = (Double) row.get("avg_score");
+            Double avgScore = toDouble(row.get("avg_score"));
             trendPopularityByCategoryMap.put(categoryName, avgScore);
         }
 
@@ -162,13 +288,26 @@ public class AnalysisServiceImpl implements AnalysisService {
     }
 
     /**
-     * Calculates the average popularity score of trends for a given season.
+     * Calculates the average popularity score of trends for a given season. Results are cached per season
+     * until a trend or trend score is written.
      *
      * @param season The season for which the trend popularity should be calculated.
      * @return A map containing trend names as keys and their average popularity scores for the given season as values.
      */
     @Override
     public Map<String, Double> calculateTrendPopularityBySeason(String season) {
+        return resultCache.get("trendPopularityBySeason", season,
+                () -> Collections.unmodifiableMap(computeTrendPopularityBySeason(season)),
+                DataTable.TREND, DataTable.TREND_POPULARITY);
+    }
+
+    private Map<String, Double> computeTrendPopularityBySeason(String season) {
+        if (aggregates.isEnabled()) {
+            return aggregates.trendPopularityBySeason(season);
+        }
+        if (columnStore.isEnabled()) {
+            return columnStore.getColumns().trendPopularityBySeason(season);
+        }
         String sql = "SELECT t.trend_name, AVG(tp.popularity_score) AS avg_score " +
                 "FROM trend t " +
                 "LEFT JOIN trend_popularity tp ON t.trend_id = tp.trend_id " +
@@ -181,11 +320,336 @@ public class AnalysisServiceImpl implements AnalysisService {
         Map<String, Double> trendPopularityBySeasonMap = new HashMap<>();
         for (Map<String, Object> row : rows) {
             String trendName = (String) row.get("trend_name");
-            Double avgScore = (Double) row.get("avg_score");
+            Double avgScore = toDouble(row.get("avg_score"));
             trendPopularityBySeasonMap.put(trendName, avgScore);
         }
 
         return trendPopularityBySeasonMap;
     }
 
+    /**
+     * Calculates all aggregates in one go. With incremental aggregation enabled they are read from one state of
+     * the running totals; with the columnar store enabled they are derived from a single columnar snapshot,
+     * scanning each fact table once. Otherwise the SQL aggregates run inside one read-only REPEATABLE READ
+     * transaction, so every query sees the same database snapshot. Product popularity is then always
+     * aggregated serially, as the partitioned reader would use connections outside the transaction.
+     *
+     * @return A snapshot containing every aggregate and the product count per category.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public AnalysisSnapshot getSnapshot() {
+        if (aggregates.isEnabled()) {
+            return aggregates.snapshot();
+        }
+        if (columnStore.isEnabled()) {
+            return columnStore.getColumns().snapshot();
+        }
+        String categorySql = "SELECT cp.season, c.category_name, AVG(cp.popularity_score) AS avg_score " +
+                "FROM category c " +
+                "JOIN category_popularity cp ON c.category_id = cp.category_id " +
+                "GROUP BY cp.season, c.category_name";
+        String trendSql = "SELECT t.season, t.trend_name, AVG(tp.popularity_score) AS avg_score " +
+                "FROM trend t " +
+                "LEFT JOIN trend_popularity tp ON t.trend_id = tp.trend_id " +
+                "WHERE t.season IS NOT NULL " +
+                "GROUP BY t.season, t.trend_name";
+
+        return new AnalysisSnapshot(
+                groupBySeason(jdbcTemplate.queryForList(categorySql), "category_name", false),
+                calculateDesignerPopularity(),
+                serialProductPopularity(),
+                calculateTrendPopularity(),
+                calculateProductPopularityByCategory(),
+                calculateTrendPopularityByCategory(),
+                groupBySeason(jdbcTemplate.queryForList(trendSql), "trend_name", true),
+                productDao.getProductCountByCategory());
+    }
+
+    /**
+     * Selects the most popular trends. With the columnar store enabled a bounded heap selects from the snapshot;
+     * otherwise the filters and the limit are pushed down into the SQL query.
+     *
+     * @param k          The number of trends to return.
+     * @param season     The season of the trends, or null for any season.
+     * @param location   The location of the trends, or null for any location.
+     * @param categoryId The category of the trends, or null for any category.
+     * @return A map of trend name to average popularity score, ordered from the most popular trend down.
+     */
+    @Override
+    public Map<String, Double> getTopTrends(int k, String season, String location, Long categoryId) {
+        validateK(k);
+        if (columnStore.isEnabled()) {
+            return TopK.select(columnStore.getColumns().trendPopularity(season, location, categoryId), k);
+        }
+        StringBuilder sql = new StringBuilder("SELECT t.trend_name AS name, AVG(tp.popularity_score) AS avg_score " +
+                "FROM trend t " +
+                "JOIN trend_popularity tp ON t.trend_id = tp.trend_id " +
+                "WHERE tp.popularity_score IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+        if (season != null) {
+            sql.append(" AND t.season = ?");
+            args.add(season);
+        }
+        if (location != null) {
+            sql.append(" AND t.location = ?");
+            args.add(location);
+        }
+        if (categoryId != null) {
+            sql.append(" AND t.category_id = ?");
+            args.add(categoryId);
+        }
+        return queryTopK(sql, "t.trend_name", args, k);
+    }
+
+    /**
+     * Selects the most popular products, optionally filtered by category.
+     *
+     * @param k          The number of products to return.
+     * @param categoryId The category of the products, or null for any category.
+     * @return A map of product name to average popularity score, ordered from the most popular product down.
+     */
+    @Override
+    public Map<String, Double> getTopProducts(int k, Long categoryId) {
+        validateK(k);
+        if (columnStore.isEnabled()) {
+            return TopK.select(columnStore.getColumns().productPopularity(categoryId), k);
+        }
+        StringBuilder sql = new StringBuilder("SELECT p.product_name AS name, AVG(pp.popularity_score) AS avg_score " +
+                "FROM product p " +
+                "JOIN product_popularity pp ON p.product_id = pp.product_id " +
+                "WHERE pp.popularity_score IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+        if (categoryId != null) {
+            sql.append(" AND p.category_id = ?");
+            args.add(categoryId);
+        }
+        return queryTopK(sql, "p.product_name", args, k);
+    }
+
+    /**
+     * Selects the most popular designers, optionally filtered by location.
+     *
+     * @param k        The number of designers to return.
+     * @param location The location of the designers, or null for any location.
+     * @return A map of designer name to popularity score, ordered from the most popular designer down.
+     */
+    @Override
+    public Map<String, Double> getTopDesigners(int k, String location) {
+        validateK(k);
+        if (columnStore.isEnabled()) {
+            return TopK.select(columnStore.getColumns().designerPopularity(location), k);
+        }
+        StringBuilder sql = new StringBuilder("SELECT d.designer_name AS name, AVG(d.popularity_score) AS avg_score " +
+                "FROM designer d " +
+                "WHERE d.popularity_score IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+        if (location != null) {
+            sql.append(" AND d.designer_location = ?");
+            args.add(location);
+        }
+        return queryTopK(sql, "d.designer_name", args, k);
+    }
+
+    /**
+     * Selects the most popular categories, optionally for one season.
+     *
+     * @param k      The number of categories to return.
+     * @param season The season of the category scores, or null for all seasons.
+     * @return A map of category name to average popularity score, ordered from the most popular category down.
+     */
+    @Override
+    public Map<String, Double> getTopCategories(int k, String season) {
+        validateK(k);
+        if (columnStore.isEnabled()) {
+            return TopK.select(columnStore.getColumns().categoryPopularity(season), k);
+        }
+        StringBuilder sql = new StringBuilder("SELECT c.category_name AS name, AVG(cp.popularity_score) AS avg_score " +
+                "FROM category c " +
+                "JOIN category_popularity cp ON c.category_id = cp.category_id " +
+                "WHERE cp.popularity_score IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+        if (season != null) {
+            sql.append(" AND cp.season = ?");
+            args.add(season);
+        }
+        return queryTopK(sql, "c.category_name", args, k);
+    }
+
+    /**
+     * Estimates the distribution of the product scores recorded for the given trends, merged into one.
+     *
+     * @param trendIds The trends to include; all trends if empty.
+     * @return The percentiles of the scores and the approximate number of distinct products scored.
+     */
+    @Override
+    public PopularityDistribution getTrendDistribution(List<Long> trendIds) {
+        return sketches.trendDistribution(trendIds);
+    }
+
+    /**
+     * Estimates the distribution of the product scores recorded for the products of the given categories, merged into one.
+     *
+     * @param categoryIds The categories to include; all categories if empty.
+     * @return The percentiles of the scores and the approximate number of distinct products scored.
+     */
+    @Override
+    public PopularityDistribution getCategoryDistribution(List<Long> categoryIds) {
+        return sketches.categoryDistribution(categoryIds);
+    }
+
+    /**
+     * Estimates the distribution of the category scores recorded for the given seasons, merged into one.
+     *
+     * @param seasons The seasons to include; all seasons if empty.
+     * @return The percentiles of the scores and the approximate number of distinct categories scored.
+     */
+    @Override
+    public PopularityDistribution getSeasonDistribution(List<String> seasons) {
+        return sketches.seasonDistribution(seasons);
+    }
+
+    /**
+     * Summarizes the trend scores, optionally of one season's trends only. The scores are streamed from the
+     * database into a single accumulator one fetch at a time, so the result set is never held in memory.
+     *
+     * @param season The season to restrict to, or null for all trends.
+     * @return The exact count, mean, variance, extremes and histogram of the scores.
+     */
+    @Override
+    public PopularityStatistics getTrendStatistics(String season) {
+        ScoreStatistics statistics = new ScoreStatistics();
+        trendDao.streamTrendScores(season, statistics::add);
+        return toStatistics(statistics);
+    }
+
+    /**
+     * Queries the trend popularity cube.
+     *
+     * @param groupBy  The names of the dimensions to group by; empty for the grand total.
+     * @param category The category name to slice on, or null.
+     * @param season   The season to slice on, or null.
+     * @param location The location to slice on, or null.
+     * @param designer The designer name to slice on, or null.
+     * @return One cell per combination of grouped values with its average trend popularity, highest first.
+     */
+    @Override
+    public List<CubeCell> queryCube(List<String> groupBy, String category, String season, String location, String designer) {
+        Set<CubeDimension> dimensions = EnumSet.noneOf(CubeDimension.class);
+        for (String name : groupBy) {
+            try {
+                dimensions.add(CubeDimension.fromName(name));
+            } catch (IllegalArgumentException e) {
+                throw new CustomUncheckedException("Unknown cube dimension: " + name, "INVALID_DIMENSION");
+            }
+        }
+        Map<CubeDimension, String> slice = new EnumMap<>(CubeDimension.class);
+        putIfPresent(slice, CubeDimension.CATEGORY, category);
+        putIfPresent(slice, CubeDimension.SEASON, season);
+        putIfPresent(slice, CubeDimension.LOCATION, location);
+        putIfPresent(slice, CubeDimension.DESIGNER, designer);
+        return cube.query(dimensions, slice);
+    }
+
+    /**
+     * Computes the category × category correlation matrix of the average popularity per season. The matrix
+     * is cached until a table it is computed from is written.
+     *
+     * @param method The correlation coefficient: pearson or spearman.
+     * @param source The scores to build the season vectors from: category or trend.
+     * @return The correlation matrix, ordered by category name.
+     */
+    @Override
+    public CategoryCorrelation getCategoryCorrelation(String method, String source) {
+        CorrelationMethod correlationMethod;
+        CorrelationSource correlationSource;
+        try {
+            correlationMethod = CorrelationMethod.fromName(method);
+            correlationSource = CorrelationSource.fromName(source);
+        } catch (IllegalArgumentException e) {
+            throw new CustomUncheckedException("Unknown correlation method or source: " + method + ", " + source, "INVALID_CORRELATION");
+        }
+        return resultCache.get("categoryCorrelation", List.of(correlationMethod, correlationSource),
+                () -> correlations.correlate(correlationSource, correlationMethod),
+                CategoryCorrelations.tables(correlationSource));
+    }
+
+    /**
+     * Gets the counters of the result cache.
+     *
+     * @return The hits, misses, evictions and invalidations since startup, and the current size.
+     */
+    @Override
+    public ResultCacheStats getCacheStats() {
+        return resultCache.getStats();
+    }
+
+    private static PopularityStatistics toStatistics(ScoreStatistics statistics) {
+        if (statistics.count() == 0) {
+            return new PopularityStatistics(0, null, null, null, null, null,
+                    ScoreStatistics.BUCKET_WIDTH, statistics.histogram());
+        }
+        return new PopularityStatistics(statistics.count(), statistics.mean(), statistics.variance(),
+                statistics.standardDeviation(), statistics.min(), statistics.max(),
+                ScoreStatistics.BUCKET_WIDTH, statistics.histogram());
+    }
+
+    private static void putIfPresent(Map<CubeDimension, String> slice, CubeDimension dimension, String value) {
+        if (value != null) {
+            slice.put(dimension, value);
+        }
+    }
+
+    /**
+     * Completes a top-k query with its grouping, ranking and LIMIT, and reads the ranked rows in order.
+     * Ties are broken by name, matching {@link TopK}.
+     */
+    private Map<String, Double> queryTopK(StringBuilder sql, String nameColumn, List<Object> args, int k) {
+        sql.append(" GROUP BY ").append(nameColumn)
+                .append(" ORDER BY avg_score DESC, ").append(nameColumn)
+                .append(" LIMIT ?");
+        args.add(k);
+        Map<String, Double> ranked = new LinkedHashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            ranked.put(rs.getString("name"), rs.getDouble("avg_score"));
+        }, args.toArray());
+        return ranked;
+    }
+
+    private static void validateK(int k) {
+        if (k < 1 || k > MAX_K) {
+            throw new CustomUncheckedException("k must be between 1 and " + MAX_K, "INVALID_K");
+        }
+    }
+
+    /**
+     * Groups (season, name, avg_score) rows into one map per season.
+     *
+     * @param rows         the query result
+     * @param nameColumn   the column holding the name to key each average by
+     * @param includeEmpty whether names without any score are kept with a null average
+     * @return season to name to average score
+     */
+    private static Map<String, Map<String, Double>> groupBySeason(List<Map<String, Object>> rows, String nameColumn, boolean includeEmpty) {
+        Map<String, Map<String, Double>> bySeason = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Double avgScore = toDouble(row.get("avg_score"));
+            if (avgScore != null || includeEmpty) {
+                bySeason.computeIfAbsent((String) row.get("season"), season -> new HashMap<>())
+                        .put((String) row.get(nameColumn), avgScore);
+            }
+        }
+        return bySeason;
+    }
+
+    /**
+     * Converts an AVG column to a Double. MySQL returns DECIMAL for averages of integer columns,
+     * so the value cannot simply be cast.
+     *
+     * @param value the raw column value
+     * @return the value as a Double, or null if the group had no scores
+     */
+    private static Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
 }
@@ -0,0 +1,18 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.model.AutocompleteSuggestion;
+
+import java.util.List;
+
+public interface AutocompleteService {
+
+    /**
+     * Completes a typed prefix against the trend, product, designer and category names.
+     *
+     * @param prefix The typed prefix, matched against the start of any word of a name.
+     * @param type   "trend", "product", "designer" or "category" to complete one kind of name only, or null for all.
+     * @param limit  The maximum number of suggestions, between 1 and 50.
+     * @return The suggestions, most popular first.
+     */
+    List<AutocompleteSuggestion> complete(String prefix, String type, int limit);
+}
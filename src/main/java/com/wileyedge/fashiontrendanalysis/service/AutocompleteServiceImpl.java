@@ -0,0 +1,60 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.dao.NameAutocompleteIndex;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.AutocompleteSuggestion;
+import com.wileyedge.fashiontrendanalysis.model.AutocompleteType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementation of the AutocompleteService interface.
+ * Prefixes are completed from the in-memory name index, so no keystroke reaches the database.
+ */
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+
+    // Upper bound for the number of suggestions.
+    static final int MAX_LIMIT = 50;
+
+    private final NameAutocompleteIndex autocompleteIndex;
+
+    /**
+     * Constructs a new AutocompleteServiceImpl instance and injects the associated NameAutocompleteIndex.
+     *
+     * @param autocompleteIndex Prefix index over the trend, product, designer and category names.
+     */
+    @Autowired
+    public AutocompleteServiceImpl(NameAutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    /**
+     * Completes a typed prefix against the trend, product, designer and category names, ranked by popularity.
+     *
+     * @param prefix The typed prefix, matched against the start of any word of a name.
+     * @param type   "trend", "product", "designer" or "category" to complete one kind of name only, or null for all.
+     * @param limit  The maximum number of suggestions, between 1 and 50.
+     * @return The suggestions, most popular first.
+     */
+    @Override
+    public List<AutocompleteSuggestion> complete(String prefix, String type, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new CustomUncheckedException("The prefix must not be empty", "INVALID_PREFIX");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new CustomUncheckedException("limit must be between 1 and " + MAX_LIMIT, "INVALID_LIMIT");
+        }
+        AutocompleteType autocompleteType = null;
+        if (type != null) {
+            try {
+                autocompleteType = AutocompleteType.fromName(type);
+            } catch (IllegalArgumentException e) {
+                throw new CustomUncheckedException("Unknown autocomplete type: " + type, "INVALID_TYPE");
+            }
+        }
+        return autocompleteIndex.complete(prefix.strip(), autocompleteType, limit);
+    }
+}
@@ -1,6 +1,8 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Category;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +18,15 @@ public interface CategoryService {
      */
     List<Category> getAllCategories();
 
+    /**
+     * Retrieves one page of categories, in ID order.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of categories and the cursor of the next page
+     */
+    KeysetPage<Category> getCategoriesPage(String cursor, Integer limit);
+
     /**
      * Retrieves a specific category by its ID.
      *
@@ -24,6 +35,14 @@ public interface CategoryService {
      */
     Category getCategoryById(Long categoryId);
 
+    /**
+     * Retrieves several categories by their IDs at once.
+     *
+     * @param categoryIds the IDs of the desired categories
+     * @return the categories by ID, in request order; IDs without a category are left out
+     */
+    Map<Long, Category> getCategoriesByIds(List<Long> categoryIds);
+
     /**
      * Adds a new category to the system.
      *
@@ -49,6 +68,30 @@ public interface CategoryService {
      */
     boolean deleteCategory(Long categoryId);
 
+    /**
+     * Adds several categories in one request.
+     *
+     * @param categories The categories to add.
+     * @return The outcome and generated ID of every category, in order.
+     */
+    List<BatchItemResult> addCategories(List<Category> categories);
+
+    /**
+     * Updates several categories, identified by their IDs, in one request.
+     *
+     * @param categories The categories with updated details.
+     * @return The outcome of every category, in order.
+     */
+    List<BatchItemResult> updateCategories(List<Category> categories);
+
+    /**
+     * Removes several categories by their IDs in one request.
+     *
+     * @param categoryIds The IDs of the categories to delete.
+     * @return The outcome of every ID, in order.
+     */
+    List<BatchItemResult> deleteCategories(List<Long> categoryIds);
+
     /**
      * Retrieves categories associated with a specific trend.
      *
@@ -57,6 +100,14 @@ public interface CategoryService {
      */
     List<Category> getCategoriesByTrend(Long trendId);
 
+    /**
+     * Retrieves the categories associated with each of several trends at once.
+     *
+     * @param trendIds the IDs of the trends to find categories for
+     * @return the categories of every trend by trend ID, in request order, with an empty list for trends without any
+     */
+    Map<Long, List<Category>> getCategoriesByTrends(List<Long> trendIds);
+
     /**
      * Retrieves categories associated with a specific product.
      *
@@ -1,7 +1,9 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
 import com.wileyedge.fashiontrendanalysis.dao.CategoryDao;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Category;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import com.wileyedge.fashiontrendanalysis.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,15 +22,18 @@ import java.util.Map;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryDao categoryDao;
+    private final KeysetPager keysetPager;
 
     /**
-     * Constructs a new CategoryServiceImpl with the specified CategoryDao.
+     * Constructs a new CategoryServiceImpl with the specified CategoryDao and KeysetPager.
      *
      * @param categoryDao the DAO responsible for Category entity operations.
+     * @param keysetPager the pager cutting the category listing into pages.
      */
     @Autowired
-    public CategoryServiceImpl(CategoryDao categoryDao) {
+    public CategoryServiceImpl(CategoryDao categoryDao, KeysetPager keysetPager) {
         this.categoryDao = categoryDao;
+        this.keysetPager = keysetPager;
     }
 
     /**
@@ -41,6 +46,18 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryDao.getAllCategories();
     }
 
+    /**
+     * Retrieves one page of categories, seeking past the ID recorded in the cursor.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of categories and the cursor of the next page
+     */
+    @Override
+    public KeysetPage<Category> getCategoriesPage(String cursor, Integer limit) {
+        return keysetPager.page("categories", cursor, limit, categoryDao::getCategoriesAfter, Category::getCategoryId);
+    }
+
     /**
      * Retrieves a category based on its unique identifier.
      *
@@ -52,6 +69,17 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryDao.getCategoryById(categoryId);
     }
 
+    /**
+     * Retrieves several categories at once with a few IN queries.
+     *
+     * @param categoryIds the unique identifiers of the desired categories.
+     * @return the categories by ID, in request order; IDs without a category are left out.
+     */
+    @Override
+    public Map<Long, Category> getCategoriesByIds(List<Long> categoryIds) {
+        return categoryDao.getCategoriesByIds(categoryIds);
+    }
+
     /**
      * Adds a new category to the database.
      *
@@ -86,6 +114,39 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryDao.deleteCategory(categoryId);
     }
 
+    /**
+     * Adds several categories in JDBC batches, committed in chunks.
+     *
+     * @param categories The categories to add.
+     * @return The outcome and generated ID of every category, in order.
+     */
+    @Override
+    public List<BatchItemResult> addCategories(List<Category> categories) {
+        return categoryDao.addCategories(categories);
+    }
+
+    /**
+     * Updates several categories in JDBC batches, committed in chunks.
+     *
+     * @param categories The categories with updated details, including their IDs.
+     * @return The outcome of every category, in order.
+     */
+    @Override
+    public List<BatchItemResult> updateCategories(List<Category> categories) {
+        return categoryDao.updateCategories(categories);
+    }
+
+    /**
+     * Removes several categories in JDBC batches, committed in chunks.
+     *
+     * @param categoryIds The IDs of the categories to delete.
+     * @return The outcome of every ID, in order.
+     */
+    @Override
+    public List<BatchItemResult> deleteCategories(List<Long> categoryIds) {
+        return categoryDao.deleteCategories(categoryIds);
+    }
+
     /**
      * Retrieves a list of categories associated with a specific trend.
      *
@@ -97,6 +158,17 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryDao.getCategoriesByTrend(trendId);
     }
 
+    /**
+     * Retrieves the categories associated with each of several trends at once with a few IN queries.
+     *
+     * @param trendIds the unique identifiers of the trends.
+     * @return the categories of every trend by trend ID, in request order, with an empty list for trends without any.
+     */
+    @Override
+    public Map<Long, List<Category>> getCategoriesByTrends(List<Long> trendIds) {
+        return categoryDao.getCategoriesByTrends(trendIds);
+    }
+
     /**
      * Retrieves a list of categories associated with a specific product.
      *
@@ -1,9 +1,12 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Defines the service operations for managing designers in the application.
@@ -17,6 +20,15 @@ public interface DesignerService {
      */
     List<Designer> getAllDesigners();
 
+    /**
+     * Retrieves one page of designers, in ID order.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of designers and the cursor of the next page
+     */
+    KeysetPage<Designer> getDesignersPage(String cursor, Integer limit);
+
     /**
      * Retrieves a specific designer by its ID.
      *
@@ -25,6 +37,14 @@ public interface DesignerService {
      */
     Designer getDesignerById(Long designerId);
 
+    /**
+     * Retrieves several designers by their IDs at once.
+     *
+     * @param designerIds the IDs of the desired designers.
+     * @return the designers by ID, in request order; IDs without a designer are left out.
+     */
+    Map<Long, Designer> getDesignersByIds(List<Long> designerIds);
+
     /**
      * Adds a new designer to the system.
      *
@@ -50,6 +70,30 @@ public interface DesignerService {
      */
     boolean deleteDesigner(Long designerId);
 
+    /**
+     * Adds several designers in one request.
+     *
+     * @param designers The designers to add.
+     * @return The outcome and generated ID of every designer, in order.
+     */
+    List<BatchItemResult> addDesigners(List<Designer> designers);
+
+    /**
+     * Updates several designers, identified by their IDs, in one request.
+     *
+     * @param designers The designers with updated details.
+     * @return The outcome of every designer, in order.
+     */
+    List<BatchItemResult> updateDesigners(List<Designer> designers);
+
+    /**
+     * Removes several designers by their IDs in one request.
+     *
+     * @param designerIds The IDs of the designers to delete.
+     * @return The outcome of every ID, in order.
+     */
+    List<BatchItemResult> deleteDesigners(List<Long> designerIds);
+
     /**
      * Retrieves designers based on their location.
      *
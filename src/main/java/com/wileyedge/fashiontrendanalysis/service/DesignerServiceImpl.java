@@ -1,12 +1,15 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
 import com.wileyedge.fashiontrendanalysis.dao.DesignerDao;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Provides the implementation of the DesignerService interface,
@@ -18,15 +21,18 @@ import java.util.List;
 public class DesignerServiceImpl implements DesignerService {
 
     private final DesignerDao designerDao;
+    private final KeysetPager keysetPager;
 
     /**
-     * Constructs a new DesignerServiceImpl with the specified DesignerDao.
+     * Constructs a new DesignerServiceImpl with the specified DesignerDao and KeysetPager.
      *
      * @param designerDao the DAO responsible for Designer entity operations.
+     * @param keysetPager the pager cutting the designer listing into pages.
      */
     @Autowired
-    public DesignerServiceImpl(DesignerDao designerDao) {
+    public DesignerServiceImpl(DesignerDao designerDao, KeysetPager keysetPager) {
         this.designerDao = designerDao;
+        this.keysetPager = keysetPager;
     }
 
     /**
@@ -39,6 +45,18 @@ public class DesignerServiceImpl implements DesignerService {
         return designerDao.getAllDesigners();
     }
 
+    /**
+     * Retrieves one page of designers, seeking past the ID recorded in the cursor.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of designers and the cursor of the next page
+     */
+    @Override
+    public KeysetPage<Designer> getDesignersPage(String cursor, Integer limit) {
+        return keysetPager.page("designers", cursor, limit, designerDao::getDesignersAfter, Designer::getDesignerId);
+    }
+
     /**
      * Retrieves a specific designer based on its unique identifier.
      *
@@ -50,6 +68,17 @@ public class DesignerServiceImpl implements DesignerService {
         return designerDao.getDesignerById(designerId);
     }
 
+    /**
+     * Retrieves several designers at once with a few IN queries.
+     *
+     * @param designerIds the unique identifiers of the desired designers.
+     * @return the designers by ID, in request order; IDs without a designer are left out.
+     */
+    @Override
+    public Map<Long, Designer> getDesignersByIds(List<Long> designerIds) {
+        return designerDao.getDesignersByIds(designerIds);
+    }
+
     /**
      * Adds a new designer to the database.
      *
@@ -84,6 +113,39 @@ public class DesignerServiceImpl implements DesignerService {
         return designerDao.deleteDesigner(designerId);
     }
 
+    /**
+     * Adds several designers in JDBC batches, committed in chunks.
+     *
+     * @param designers The designers to add.
+     * @return The outcome and generated ID of every designer, in order.
+     */
+    @Override
+    public List<BatchItemResult> addDesigners(List<Designer> designers) {
+        return designerDao.addDesigners(designers);
+    }
+
+    /**
+     * Updates several designers in JDBC batches, committed in chunks.
+     *
+     * @param designers The designers with updated details, including their IDs.
+     * @return The outcome of every designer, in order.
+     */
+    @Override
+    public List<BatchItemResult> updateDesigners(List<Designer> designers) {
+        return designerDao.updateDesigners(designers);
+    }
+
+    /**
+     * Removes several designers in JDBC batches, committed in chunks.
+     *
+     * @param designerIds The IDs of the designers to delete.
+     * @return The outcome of every ID, in order.
+     */
+    @Override
+    public List<BatchItemResult> deleteDesigners(List<Long> designerIds) {
+        return designerDao.deleteDesigners(designerIds);
+    }
+
     /**
      * Retrieves a list of designers based on their location.
      *
@@ -0,0 +1,126 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Cuts listings into keyset-paginated pages with opaque continuation cursors.
+ *
+ * <p>A cursor records the sort key of the last item of a page, so the next page is read with
+ * {@code WHERE key > ? ORDER BY key LIMIT ?} and costs the same on page 1000 as on page 1, unlike an OFFSET.
+ * One extra row is read to decide whether there is a next page. Cursors are base64url-encoded and name the
+ * listing they belong to, so a cursor of one listing is rejected by another. Listings that are not read from a
+ * single table, such as the trends ranked by momentum, cut their pages themselves with the cursor helpers.</p>
+ */
+@Component
+public class KeysetPager {
+
+    private static final String SEPARATOR = "|";
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    /**
+     * Constructs the pager.
+     *
+     * @param defaultSize the page size used when a request does not ask for one
+     * @param maxSize     the largest page size a request may ask for
+     */
+    @Autowired
+    public KeysetPager(@Value("${pagination.default-size:100}") int defaultSize,
+                       @Value("${pagination.max-size:1000}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Reads one page of a listing ordered by a numeric ID.
+     *
+     * @param listing the name of the listing the cursors belong to
+     * @param cursor  the cursor of the page to read, or null for the first page
+     * @param limit   the requested page size, or null for the default
+     * @param fetch   reads up to the given number of items with an ID greater than the given one (null: from the start), by ID
+     * @param id      extracts the ID of an item
+     * @return the page and the cursor of the next one
+     */
+    public <T> KeysetPage<T> page(String listing, String cursor, Integer limit,
+                                  BiFunction<Long, Integer, List<T>> fetch, Function<T, Long> id) {
+        int size = size(limit);
+        Long afterId = null;
+        if (cursor != null) {
+            List<String> key = decode(listing, cursor, 1);
+            try {
+                afterId = Long.valueOf(key.get(0));
+            } catch (NumberFormatException e) {
+                throw invalidCursor();
+            }
+        }
+        List<T> items = fetch.apply(afterId, size + 1);
+        if (items.size() <= size) {
+            return new KeysetPage<>(items, null);
+        }
+        List<T> page = new ArrayList<>(items.subList(0, size));
+        return new KeysetPage<>(page, encode(listing, String.valueOf(id.apply(page.get(size - 1)))));
+    }
+
+    /**
+     * Checks the page size a request asks for.
+     *
+     * @param limit the requested page size, or null for the default
+     * @return the page size
+     */
+    int size(Integer limit) {
+        if (limit == null) {
+            return defaultSize;
+        }
+        if (limit < 1 || limit > maxSize) {
+            throw new CustomUncheckedException("limit must be between 1 and " + maxSize, "INVALID_LIMIT");
+        }
+        return limit;
+    }
+
+    /**
+     * Encodes the key of the last item of a page into the cursor of the next one.
+     *
+     * @param listing the name of the listing the cursor belongs to
+     * @param key     the key parts
+     * @return the cursor
+     */
+    static String encode(String listing, String... key) {
+        String plain = listing + SEPARATOR + String.join(SEPARATOR, key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor of the given listing into its key parts.
+     *
+     * @param parts the expected number of key parts, or -1 for any
+     */
+    static List<String> decode(String listing, String cursor, int parts) {
+        String plain;
+        try {
+            plain = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        List<String> fields = List.of(plain.split("\\" + SEPARATOR, -1));
+        if (fields.size() < 2 || !fields.get(0).equals(listing) || (parts >= 0 && fields.size() != parts + 1)) {
+            throw invalidCursor();
+        }
+        return fields.subList(1, fields.size());
+    }
+
+    static CustomUncheckedException invalidCursor() {
+        return new CustomUncheckedException("The cursor is not valid for this listing", "INVALID_CURSOR");
+    }
+}
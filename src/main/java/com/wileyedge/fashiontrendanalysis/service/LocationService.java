@@ -0,0 +1,17 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.model.LocationRollup;
+
+import java.util.List;
+
+public interface LocationService {
+
+    /**
+     * Lists the trend and designer rollups of one level of the city → country → region hierarchy.
+     *
+     * @param level  "city", "country" or "region".
+     * @param parent The enclosing country or region to list the children of, or null for all.
+     * @return The rollups holding at least one trend or designer, by name.
+     */
+    List<LocationRollup> getLocationRollups(String level, String parent);
+}
@@ -0,0 +1,48 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.dao.LocationRollupIndex;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.LocationLevel;
+import com.wileyedge.fashiontrendanalysis.model.LocationRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementation of the LocationService interface.
+ * Rollups are read from the pre-aggregated nodes of the location hierarchy rather than by scanning the trends.
+ */
+@Service
+public class LocationServiceImpl implements LocationService {
+
+    private final LocationRollupIndex rollupIndex;
+
+    /**
+     * Constructs a new LocationServiceImpl instance and injects the associated LocationRollupIndex.
+     *
+     * @param rollupIndex Pre-aggregated trend and designer rollups per city, country and region.
+     */
+    @Autowired
+    public LocationServiceImpl(LocationRollupIndex rollupIndex) {
+        this.rollupIndex = rollupIndex;
+    }
+
+    /**
+     * Lists the trend and designer rollups of one level of the city → country → region hierarchy.
+     *
+     * @param level  "city", "country" or "region".
+     * @param parent The enclosing country or region to list the children of, or null for all.
+     * @return The rollups holding at least one trend or designer, by name.
+     */
+    @Override
+    public List<LocationRollup> getLocationRollups(String level, String parent) {
+        LocationLevel locationLevel;
+        try {
+            locationLevel = LocationLevel.fromName(level);
+        } catch (IllegalArgumentException e) {
+            throw new CustomUncheckedException("Unknown location level: " + level, "INVALID_LEVEL");
+        }
+        return rollupIndex.rollups(locationLevel, parent);
+    }
+}
@@ -0,0 +1,31 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.model.PopularityHistory;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public interface PopularityHistoryService {
+
+    /**
+     * Retrieves the popularity history of a trend.
+     *
+     * @param trendId The ID of the trend.
+     * @param from    The start of the range, inclusive.
+     * @param to      The end of the range, exclusive.
+     * @param step    The largest acceptable distance between two points, or null to derive one from the range.
+     * @return The history at the coarsest resolution that satisfies the step.
+     */
+    PopularityHistory getTrendHistory(Long trendId, Instant from, Instant to, Duration step);
+
+    /**
+     * Retrieves the popularity history of a product across all of its trends.
+     *
+     * @param productId The ID of the product.
+     * @param from      The start of the range, inclusive.
+     * @param to        The end of the range, exclusive.
+     * @param step      The largest acceptable distance between two points, or null to derive one from the range.
+     * @return The history at the coarsest resolution that satisfies the step.
+     */
+    PopularityHistory getProductHistory(Long productId, Instant from, Instant to, Duration step);
+}
@@ -0,0 +1,93 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.dao.PopularityHistoryDao;
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.HistoryResolution;
+import com.wileyedge.fashiontrendanalysis.model.PopularityHistory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Implementation of the PopularityHistoryService interface.
+ * Records every trend and product score write as a history point and answers range queries from the
+ * coarsest stored resolution that still satisfies the requested step.
+ */
+@Service
+public class PopularityHistoryServiceImpl implements PopularityHistoryService {
+
+    // Number of points a range is divided into when the caller does not ask for a specific step.
+    static final int DEFAULT_POINTS = 200;
+
+    private final PopularityHistoryDao historyDao;
+
+    /**
+     * Constructs a new PopularityHistoryServiceImpl instance and injects the associated PopularityHistoryDao.
+     *
+     * @param historyDao DAO responsible for the popularity history tables.
+     */
+    @Autowired
+    public PopularityHistoryServiceImpl(PopularityHistoryDao historyDao) {
+        this.historyDao = historyDao;
+    }
+
+    /**
+     * Records a score write, or all writes of a batch at once. The listener runs synchronously on the writing
+     * thread, so inside a transaction the history points are committed or rolled back together with the scores.
+     *
+     * @param event The score write or batch of score writes published by a DAO.
+     */
+    @EventListener(classes = {PopularityChangeEvent.class, PopularityChangeBatchEvent.class})
+    public void onPopularityChange(DataChangeEvent event) {
+        if (event.getTable() == DataTable.TREND_POPULARITY || event.getTable() == DataTable.PRODUCT_POPULARITY) {
+            List<PopularityChangeEvent> changes = PopularityChangeBatchEvent.changesOf(event);
+            historyDao.recordScores(changes, Instant.now());
+        }
+    }
+
+    /**
+     * Retrieves the popularity history of a trend.
+     *
+     * @param trendId The ID of the trend.
+     * @param from    The start of the range, inclusive.
+     * @param to      The end of the range, exclusive.
+     * @param step    The largest acceptable distance between two points, or null to derive one from the range.
+     * @return The history at the coarsest resolution that satisfies the step.
+     */
+    @Override
+    public PopularityHistory getTrendHistory(Long trendId, Instant from, Instant to, Duration step) {
+        return getHistory(DataTable.TREND_POPULARITY, trendId, from, to, step);
+    }
+
+    /**
+     * Retrieves the popularity history of a product across all of its trends.
+     *
+     * @param productId The ID of the product.
+     * @param from      The start of the range, inclusive.
+     * @param to        The end of the range, exclusive.
+     * @param step      The largest acceptable distance between two points, or null to derive one from the range.
+     * @return The history at the coarsest resolution that satisfies the step.
+     */
+    @Override
+    public PopularityHistory getProductHistory(Long productId, Instant from, Instant to, Duration step) {
+        return getHistory(DataTable.PRODUCT_POPULARITY, productId, from, to, step);
+    }
+
+    private PopularityHistory getHistory(DataTable series, Long entityId, Instant from, Instant to, Duration step) {
+        if (!from.isBefore(to)) {
+            throw new CustomUncheckedException("The start of the range must be before its end", "INVALID_RANGE");
+        }
+        Duration effectiveStep = step != null ? step : Duration.between(from, to).dividedBy(DEFAULT_POINTS);
+        HistoryResolution resolution = HistoryResolution.coarsestFor(effectiveStep);
+        return new PopularityHistory(entityId, from, to, resolution,
+                historyDao.getPoints(series, entityId, resolution, from, to));
+    }
+}
@@ -0,0 +1,24 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal;
+
+import java.util.List;
+
+public interface PopularityIngestionService {
+
+    /**
+     * Validates a batch of popularity signals and places all of them on the ingestion buffer, from which they
+     * are written asynchronously in group commits.
+     *
+     * @param signals The signals to ingest.
+     * @return True if the batch was accepted; false if the buffer has no room for the whole batch, in which case none of it is queued.
+     */
+    boolean submit(List<PopularitySignal> signals);
+
+    /**
+     * Gets the number of signals waiting to be written.
+     *
+     * @return The current fill level of the ingestion buffer.
+     */
+    int getPending();
+}
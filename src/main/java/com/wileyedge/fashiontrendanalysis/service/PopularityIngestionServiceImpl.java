@@ -0,0 +1,200 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.dao.PopularitySignalDao;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of the PopularityIngestionService interface.
+ * Accepted signals are placed on a bounded buffer and written by a single flusher thread. The flusher
+ * collects signals until either the batch size is reached or the linger time since the first signal of the
+ * batch has passed, and then writes the whole batch as one transaction, so a burst of single-score pushes
+ * costs one commit per batch instead of one per score.
+ *
+ * <p>Signals are acknowledged once buffered. If a batch fails to write, for example because one signal refers
+ * to a row that does not exist, it is rolled back and its signals are retried one transaction each, so only
+ * the signals that fail on their own are logged and dropped.</p>
+ */
+@Service
+public class PopularityIngestionServiceImpl implements PopularityIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityIngestionServiceImpl.class);
+
+    private final PopularitySignalDao signalDao;
+    private final int capacity;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<PopularitySignal> buffer;
+
+    // Serializes producers, so a batch is queued completely or not at all; the flusher only ever frees room.
+    private final Lock admission = new ReentrantLock();
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * Constructor to autowire and initialize the PopularitySignalDao and the buffer settings.
+     *
+     * @param signalDao The DAO writing the batches.
+     * @param capacity  The maximum number of signals waiting to be written.
+     * @param batchSize The maximum number of signals written in one transaction.
+     * @param lingerMs  The longest time a signal waits for its batch to fill up.
+     */
+    @Autowired
+    public PopularityIngestionServiceImpl(PopularitySignalDao signalDao,
+                                          @Value("${ingest.buffer.capacity:65536}") int capacity,
+                                          @Value("${ingest.batch.size:1000}") int batchSize,
+                                          @Value("${ingest.linger.ms:20}") long lingerMs) {
+        this.signalDao = signalDao;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Starts the flusher thread.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "popularity-ingest-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops accepting signals and writes what is still buffered.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Validates a batch of popularity signals and places all of them on the ingestion buffer.
+     *
+     * @param signals The signals to ingest.
+     * @return True if the batch was accepted; false if the buffer has no room for the whole batch.
+     */
+    @Override
+    public boolean submit(List<PopularitySignal> signals) {
+        if (signals.size() > capacity) {
+            throw new CustomUncheckedException("A batch may contain at most " + capacity + " signals", "BATCH_TOO_LARGE");
+        }
+        for (PopularitySignal signal : signals) {
+            validate(signal);
+        }
+        admission.lock();
+        try {
+            if (!running || buffer.remainingCapacity() < signals.size()) {
+                return false;
+            }
+            buffer.addAll(signals);
+            return true;
+        } finally {
+            admission.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of signals waiting to be written.
+     *
+     * @return The current fill level of the ingestion buffer.
+     */
+    @Override
+    public int getPending() {
+        return buffer.size();
+    }
+
+    /**
+     * Takes batches off the buffer until the service is stopped and the buffer is empty.
+     */
+    private void flushLoop() {
+        List<PopularitySignal> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Fills the batch until it is full or the linger time since its first signal has passed.
+     */
+    private void collect(List<PopularitySignal> batch) throws InterruptedException {
+        PopularitySignal first = buffer.poll(lingerNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PopularitySignal next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PopularitySignal> batch) {
+        try {
+            int written = signalDao.writeBatch(batch);
+            logger.debug("Group commit of {} signals, {} rows changed", batch.size(), written);
+        } catch (DataAccessException e) {
+            logger.warn("Batch of {} popularity signals could not be written, retrying them one by one", batch.size(), e);
+            for (PopularitySignal signal : batch) {
+                try {
+                    signalDao.writeBatch(List.of(signal));
+                } catch (DataAccessException signalFailure) {
+                    logger.error("Dropping popularity signal that could not be written: {}", signal, signalFailure);
+                }
+            }
+        }
+    }
+
+    private static void validate(PopularitySignal signal) {
+        if (signal == null || signal.getTarget() == null || signal.getScore() == null) {
+            throw new CustomUncheckedException("Every signal needs a target and a score: " + signal, "INVALID_SIGNAL");
+        }
+        boolean complete = switch (signal.getTarget()) {
+            case TREND -> signal.getTrendId() != null;
+            case PRODUCT -> signal.getProductId() != null && signal.getTrendId() != null;
+            case CATEGORY -> signal.getCategoryId() != null && signal.getSeason() != null;
+        };
+        if (!complete) {
+            throw new CustomUncheckedException("Signal is missing a key for its target: " + signal, "INVALID_SIGNAL");
+        }
+    }
+}
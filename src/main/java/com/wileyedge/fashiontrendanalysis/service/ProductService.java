@@ -1,9 +1,14 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
+import com.wileyedge.fashiontrendanalysis.model.PopularityMomentum;
 import com.wileyedge.fashiontrendanalysis.model.Product;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * This interface outlines the service operations for managing products in the system.
@@ -19,6 +24,22 @@ public interface ProductService {
      */
     List<Product> getAllProducts();
 
+    /**
+     * Retrieves one page of products, in ID order.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of products and the cursor of the next page
+     */
+    KeysetPage<Product> getProductsPage(String cursor, Integer limit);
+
+    /**
+     * Passes every product to the sink in ID order, without holding all of them in memory.
+     *
+     * @param sink receives the products one at a time
+     */
+    void exportProducts(Consumer<Product> sink);
+
     /**
      * Retrieves a specific product identified by its unique ID.
      *
@@ -27,6 +48,14 @@ public interface ProductService {
      */
     Product getProductById(Long productId);
 
+    /**
+     * Retrieves several products identified by their unique IDs at once.
+     *
+     * @param productIds the unique identifiers of the target products.
+     * @return the products by ID, in request order; IDs without a product are left out.
+     */
+    Map<Long, Product> getProductsByIds(List<Long> productIds);
+
     /**
      * Persists a new product entity into the database.
      *
@@ -52,6 +81,30 @@ public interface ProductService {
      */
     boolean deleteProduct(Long productId);
 
+    /**
+     * Adds several products in one request.
+     *
+     * @param products The products to add.
+     * @return The outcome and generated ID of every product, in order.
+     */
+    List<BatchItemResult> addProducts(List<Product> products);
+
+    /**
+     * Updates several products, identified by their IDs, in one request.
+     *
+     * @param products The products with updated details.
+     * @return The outcome of every product, in order.
+     */
+    List<BatchItemResult> updateProducts(List<Product> products);
+
+    /**
+     * Removes several products by their IDs in one request.
+     *
+     * @param productIds The IDs of the products to delete.
+     * @return The outcome of every ID, in order.
+     */
+    List<BatchItemResult> deleteProducts(List<Long> productIds);
+
     /**
      * Retrieves products that are associated with a specific designer.
      *
@@ -125,4 +178,30 @@ public interface ProductService {
      */
     Map<String, Integer> getProductCountByCategory();
 
+    /**
+     * Retrieves the momentum and hot score of each trend score of a product.
+     *
+     * @param productId the unique identifier of the product.
+     * @return the momentum keyed by trend ID; an empty map if no score has been recorded for the product.
+     */
+    Map<Long, PopularityMomentum> getProductMomentum(Long productId);
+
+    /**
+     * Retrieves the products matching every given attribute filter. Within one attribute any of the values
+     * matches; a null or empty collection does not filter on that attribute.
+     *
+     * @param categoryIds the accepted category IDs.
+     * @param designerIds the accepted designer IDs.
+     * @return a list of the matching products; an empty list if none are found.
+     */
+    List<Product> filterProducts(Collection<Long> categoryIds, Collection<Long> designerIds);
+
+    /**
+     * Counts the products matching every given attribute filter, with the same semantics as filterProducts.
+     *
+     * @param categoryIds the accepted category IDs.
+     * @param designerIds the accepted designer IDs.
+     * @return the number of matching products.
+     */
+    int countProducts(Collection<Long> categoryIds, Collection<Long> designerIds);
 }
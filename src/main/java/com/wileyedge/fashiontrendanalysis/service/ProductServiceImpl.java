@@ -1,14 +1,22 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.dao.PopularityMomentumStore;
+import com.wileyedge.fashiontrendanalysis.dao.ProductBitmapIndex;
 import com.wileyedge.fashiontrendanalysis.dao.ProductDao;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
 import com.wileyedge.fashiontrendanalysis.model.Designer;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
+import com.wileyedge.fashiontrendanalysis.model.PopularityMomentum;
 import com.wileyedge.fashiontrendanalysis.model.Product;
 import com.wileyedge.fashiontrendanalysis.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the ProductService interface.
@@ -18,15 +26,26 @@ import java.util.Map;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductDao productDao;
+    private final PopularityMomentumStore momentumStore;
+    private final ProductBitmapIndex bitmapIndex;
+    private final KeysetPager keysetPager;
 
     /**
-     * Constructs a new ProductServiceImpl instance and injects the associated ProductDao.
+     * Constructs a new ProductServiceImpl instance and injects the associated ProductDao, PopularityMomentumStore,
+     * ProductBitmapIndex and KeysetPager.
      *
-     * @param productDao DAO responsible for Product entity CRUD operations.
+     * @param productDao    DAO responsible for Product entity CRUD operations.
+     * @param momentumStore Store of the momentum and hot score of every product score.
+     * @param bitmapIndex   Attribute index answering the multi-predicate filters.
+     * @param keysetPager   Pager cutting the product listing into pages.
      */
     @Autowired
-    public ProductServiceImpl(ProductDao productDao) {
+    public ProductServiceImpl(ProductDao productDao, PopularityMomentumStore momentumStore, ProductBitmapIndex bitmapIndex,
+                              KeysetPager keysetPager) {
         this.productDao = productDao;
+        this.momentumStore = momentumStore;
+        this.bitmapIndex = bitmapIndex;
+        this.keysetPager = keysetPager;
     }
 
     /**
@@ -39,6 +58,28 @@ public class ProductServiceImpl implements ProductService {
         return productDao.getAllProducts();
     }
 
+    /**
+     * Retrieves one page of products, seeking past the ID recorded in the cursor.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of products and the cursor of the next page
+     */
+    @Override
+    public KeysetPage<Product> getProductsPage(String cursor, Integer limit) {
+        return keysetPager.page("products", cursor, limit, productDao::getProductsAfter, Product::getProductId);
+    }
+
+    /**
+     * Streams every product from the database to the sink in ID order.
+     *
+     * @param sink receives the products one at a time
+     */
+    @Override
+    public void exportProducts(Consumer<Product> sink) {
+        productDao.streamProducts(sink);
+    }
+
     /**
      * Retrieves a product from the database based on its unique identifier.
      *
@@ -50,6 +91,17 @@ public class ProductServiceImpl implements ProductService {
         return productDao.getProductById(productId);
     }
 
+    /**
+     * Retrieves several products at once with a few IN queries.
+     *
+     * @param productIds The unique identifiers of the desired products.
+     * @return The products by ID, in request order; IDs without a product are left out.
+     */
+    @Override
+    public Map<Long, Product> getProductsByIds(List<Long> productIds) {
+        return productDao.getProductsByIds(productIds);
+    }
+
     /**
      * Adds a new product to the database.
      *
@@ -84,6 +136,39 @@ public class ProductServiceImpl implements ProductService {
         return productDao.deleteProduct(productId);
     }
 
+    /**
+     * Adds several products in JDBC batches, committed in chunks.
+     *
+     * @param products The products to add.
+     * @return The outcome and generated ID of every product, in order.
+     */
+    @Override
+    public List<BatchItemResult> addProducts(List<Product> products) {
+        return productDao.addProducts(products);
+    }
+
+    /**
+     * Updates several products in JDBC batches, committed in chunks.
+     *
+     * @param products The products with updated details, including their IDs.
+     * @return The outcome of every product, in order.
+     */
+    @Override
+    public List<BatchItemResult> updateProducts(List<Product> products) {
+        return productDao.updateProducts(products);
+    }
+
+    /**
+     * Removes several products in JDBC batches, committed in chunks.
+     *
+     * @param productIds The IDs of the products to delete.
+     * @return The outcome of every ID, in order.
+     */
+    @Override
+    public List<BatchItemResult> deleteProducts(List<Long> productIds) {
+        return productDao.deleteProducts(productIds);
+    }
+
     /**
      * Fetches products associated with a specific designer.
      *
@@ -187,4 +272,39 @@ public class ProductServiceImpl implements ProductService {
     public Map<String, Integer> getProductCountByCategory() {
         return productDao.getProductCountByCategory();
     }
+
+    /**
+     * Retrieves the momentum and hot score of each trend score of a product, evaluated now.
+     *
+     * @param productId The unique identifier of the product.
+     * @return The momentum keyed by trend ID; an empty map if no score has been recorded for the product.
+     */
+    @Override
+    public Map<Long, PopularityMomentum> getProductMomentum(Long productId) {
+        return momentumStore.productMomentum(productId, Instant.now());
+    }
+
+    /**
+     * Retrieves the products matching every given attribute filter from the bitmap index.
+     *
+     * @param categoryIds The accepted category IDs.
+     * @param designerIds The accepted designer IDs.
+     * @return A list of the matching products.
+     */
+    @Override
+    public List<Product> filterProducts(Collection<Long> categoryIds, Collection<Long> designerIds) {
+        return bitmapIndex.filter(categoryIds, designerIds);
+    }
+
+    /**
+     * Counts the products matching every given attribute filter without loading them.
+     *
+     * @param categoryIds The accepted category IDs.
+     * @param designerIds The accepted designer IDs.
+     * @return The number of matching products.
+     */
+    @Override
+    public int countProducts(Collection<Long> categoryIds, Collection<Long> designerIds) {
+        return bitmapIndex.count(categoryIds, designerIds);
+    }
 }
@@ -0,0 +1,18 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.model.SearchHit;
+
+import java.util.List;
+
+public interface SearchService {
+
+    /**
+     * Searches the names and descriptions of trends and products.
+     *
+     * @param query The free-text query.
+     * @param type  "trend" or "product" to search one kind of document only, or null for both.
+     * @param limit The maximum number of hits, between 1 and 100.
+     * @return The hits, most relevant first.
+     */
+    List<SearchHit> search(String query, String type, int limit);
+}
@@ -0,0 +1,56 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.dao.TextSearchIndex;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.SearchHit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementation of the SearchService interface.
+ * Queries are answered from the in-memory inverted index of trends and products.
+ */
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    // Upper bound for the number of hits.
+    static final int MAX_LIMIT = 100;
+
+    private final TextSearchIndex searchIndex;
+
+    /**
+     * Constructs a new SearchServiceImpl instance and injects the associated TextSearchIndex.
+     *
+     * @param searchIndex Inverted index over the trend and product names and descriptions.
+     */
+    @Autowired
+    public SearchServiceImpl(TextSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Searches the names and descriptions of trends and products, ranked by BM25.
+     *
+     * @param query The free-text query.
+     * @param type  "trend" or "product" to search one kind of document only, or null for both.
+     * @param limit The maximum number of hits, between 1 and 100.
+     * @return The hits, most relevant first.
+     */
+    @Override
+    public List<SearchHit> search(String query, String type, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new CustomUncheckedException("The search query must not be empty", "INVALID_QUERY");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new CustomUncheckedException("limit must be between 1 and " + MAX_LIMIT, "INVALID_LIMIT");
+        }
+        String documentType = type != null ? type.toLowerCase(Locale.ROOT) : null;
+        if (documentType != null && !documentType.equals(TextSearchIndex.TREND) && !documentType.equals(TextSearchIndex.PRODUCT)) {
+            throw new CustomUncheckedException("type must be trend or product: " + type, "INVALID_TYPE");
+        }
+        return searchIndex.search(query, documentType, limit);
+    }
+}
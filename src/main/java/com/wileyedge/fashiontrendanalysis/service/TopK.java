@@ -0,0 +1,53 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded-heap top-k selection over name/score maps.
+ * A min-heap holding at most k entries is kept while scanning, so selection takes O(n log k) time and O(k)
+ * memory instead of sorting all n entries.
+ */
+public final class TopK {
+
+    // Highest score first; ties are broken by name so results are stable across calls.
+    static final Comparator<Map.Entry<String, Double>> RANKING =
+            Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private TopK() {
+    }
+
+    /**
+     * Selects the k highest scores.
+     *
+     * @param scores the scores to select from; entries with a null score are skipped
+     * @param k      the number of entries to keep
+     * @return the selected entries, ordered from the highest score down
+     */
+    public static Map<String, Double> select(Map<String, Double> scores, int k) {
+        // The heap's head is the weakest entry kept so far, i.e. the last one in ranking order.
+        PriorityQueue<Map.Entry<String, Double>> heap = new PriorityQueue<>(k + 1, RANKING.reversed());
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (RANKING.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Map.Entry<String, Double>> selected = new ArrayList<>(heap);
+        selected.sort(RANKING);
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : selected) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
@@ -1,8 +1,14 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
+import com.wileyedge.fashiontrendanalysis.model.SimilarTrend;
 import com.wileyedge.fashiontrendanalysis.model.Trend;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface TrendService {
 
@@ -13,6 +19,24 @@ public interface TrendService {
      */
     List<Trend> getAllTrends();
 
+    /**
+     * Retrieves one page of trends, in ID order or ordered by momentum or hot score.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @param sortBy "momentum" or "hotScore", highest first, or null for ID order
+     * @return the page of trends and the cursor of the next page
+     */
+    KeysetPage<Trend> getTrendsPage(String cursor, Integer limit, String sortBy);
+
+    /**
+     * Passes every trend, with its momentum and hot score, to the sink in ID order, without holding all of them
+     * in memory.
+     *
+     * @param sink receives the trends one at a time
+     */
+    void exportTrends(Consumer<Trend> sink);
+
     /**
      * Fetches a specific trend based on its unique identifier.
      *
@@ -21,6 +45,14 @@ public interface TrendService {
      */
     Trend getTrendById(Long trendId);
 
+    /**
+     * Fetches several trends by their identifiers at once, with their momentum and hot score.
+     *
+     * @param trendIds The unique identifiers of the desired trends.
+     * @return The trends by ID, in request order; IDs without a trend are left out.
+     */
+    Map<Long, Trend> getTrendsByIds(List<Long> trendIds);
+
     /**
      * Adds a new trend to the database.
      *
@@ -46,6 +78,30 @@ public interface TrendService {
      */
     boolean deleteTrend(Long trendId);
 
+    /**
+     * Adds several trends in one request.
+     *
+     * @param trends The trends to add.
+     * @return The outcome and generated ID of every trend, in order.
+     */
+    List<BatchItemResult> addTrends(List<Trend> trends);
+
+    /**
+     * Updates several trends, identified by their IDs, in one request.
+     *
+     * @param trends The trends with updated details.
+     * @return The outcome of every trend, in order.
+     */
+    List<BatchItemResult> updateTrends(List<Trend> trends);
+
+    /**
+     * Removes several trends by their IDs in one request.
+     *
+     * @param trendIds The IDs of the trends to delete.
+     * @return The outcome of every ID, in order.
+     */
+    List<BatchItemResult> deleteTrends(List<Long> trendIds);
+
     /**
      * Associates a trend with a specific category in the database.
      *
@@ -112,5 +168,56 @@ public interface TrendService {
      * @return The popularity score of the provided trend.
      */
     int getTrendPopularity(Long trendId);
-}
 
+    /**
+     * Fetches the popularity scores of several trends at once.
+     *
+     * @param trendIds The unique identifiers of the trends.
+     * @return The popularity score of every trend by ID, in request order; 0 for trends without a score.
+     */
+    Map<Long, Integer> getTrendPopularities(List<Long> trendIds);
+
+    /**
+     * Orders trends by momentum or hot score, highest first. Trends without a recorded score come last.
+     *
+     * @param trends The trends to order; they are sorted in place.
+     * @param sortBy "momentum" or "hotScore", or null to keep the given order.
+     * @return The same list, ordered.
+     */
+    List<Trend> sortTrends(List<Trend> trends, String sortBy);
+
+    /**
+     * Retrieves the trends matching every given attribute filter. Within one attribute any of the values
+     * matches; a null or empty collection does not filter on that attribute.
+     *
+     * @param seasons The accepted seasons, matched regardless of case.
+     * @param locations The accepted locations, matched regardless of case.
+     * @param categoryIds The accepted category IDs.
+     * @param designerIds The accepted designer IDs.
+     * @return A list of the matching trends.
+     */
+    List<Trend> filterTrends(Collection<String> seasons, Collection<String> locations,
+                             Collection<Long> categoryIds, Collection<Long> designerIds);
+
+    /**
+     * Counts the trends matching every given attribute filter, with the same semantics as filterTrends.
+     *
+     * @param seasons The accepted seasons, matched regardless of case.
+     * @param locations The accepted locations, matched regardless of case.
+     * @param categoryIds The accepted category IDs.
+     * @param designerIds The accepted designer IDs.
+     * @return The number of matching trends.
+     */
+    int countTrends(Collection<String> seasons, Collection<String> locations,
+                    Collection<Long> categoryIds, Collection<Long> designerIds);
+
+    /**
+     * Finds the trends most similar to a given trend by categories, location, season, popularity and
+     * description.
+     *
+     * @param trendId The unique identifier of the trend.
+     * @param k The maximum number of similar trends, between 1 and 100.
+     * @return The similar trends, most similar first, or null if the trend does not exist.
+     */
+    List<SimilarTrend> getSimilarTrends(Long trendId, int k);
+}
@@ -1,29 +1,68 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.dao.PopularityMomentumStore;
+import com.wileyedge.fashiontrendanalysis.dao.TrendBitmapIndex;
 import com.wileyedge.fashiontrendanalysis.dao.TrendDao;
+import com.wileyedge.fashiontrendanalysis.dao.TrendVectorIndex;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
+import com.wileyedge.fashiontrendanalysis.model.PopularityMomentum;
+import com.wileyedge.fashiontrendanalysis.model.SimilarTrend;
 import com.wileyedge.fashiontrendanalysis.model.Trend;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 @Service
 /**
  * Implementation of the TrendService interface.
  * This class provides concrete implementations for managing trends in the application.
+ * Trends returned by the read methods carry their current momentum and hot score.
  */
 public class TrendServiceImpl implements TrendService {
 
+    // Upper bound for the number of similar trends.
+    static final int MAX_SIMILAR = 100;
+
+    // Trends read per round while collecting a page in momentum or hot score order.
+    static final int PAGE_CHUNK = 500;
+
+    // Rounds of reads after which such a page is returned, short if need be.
+    static final int MAX_PAGE_ROUNDS = 10;
+
     private final TrendDao trendDao;
+    private final PopularityMomentumStore momentumStore;
+    private final TrendBitmapIndex bitmapIndex;
+    private final TrendVectorIndex vectorIndex;
+    private final KeysetPager keysetPager;
 
     /**
-     * Constructs a new TrendServiceImpl instance and injects the associated TrendDao.
+     * Constructs a new TrendServiceImpl instance and injects the associated TrendDao, PopularityMomentumStore,
+     * TrendBitmapIndex, TrendVectorIndex and KeysetPager.
      *
-     * @param trendDao DAO responsible for Trend entity CRUD operations.
+     * @param trendDao      DAO responsible for Trend entity CRUD operations.
+     * @param momentumStore Store of the momentum and hot score of every trend.
+     * @param bitmapIndex   Attribute index answering the multi-predicate filters.
+     * @param vectorIndex   Nearest-neighbour index of the trend feature vectors.
+     * @param keysetPager   Pager cutting the trend listings into pages.
      */
     @Autowired
-    public TrendServiceImpl(TrendDao trendDao) {
+    public TrendServiceImpl(TrendDao trendDao, PopularityMomentumStore momentumStore, TrendBitmapIndex bitmapIndex,
+                            TrendVectorIndex vectorIndex, KeysetPager keysetPager) {
         this.trendDao = trendDao;
+        this.momentumStore = momentumStore;
+        this.bitmapIndex = bitmapIndex;
+        this.vectorIndex = vectorIndex;
+        this.keysetPager = keysetPager;
     }
 
     /**
@@ -33,7 +72,134 @@ public class TrendServiceImpl implements TrendService {
      */
     @Override
     public List<Trend> getAllTrends() {
-        return trendDao.getAllTrends();
+        return withMomentum(trendDao.getAllTrends());
+    }
+
+    /**
+     * Retrieves one page of trends. In ID order the page is read by seeking past the ID in the cursor. In momentum
+     * or hot score order the scored trends are read by seeking into the ranking of the PopularityMomentumStore,
+     * whose positions do not change as the scores decay, and the trends without a score follow in ID order.
+     * Pages hold at most {@value #MAX_PAGE_ROUNDS} rounds of reads; a page that runs out of rounds, for example
+     * while skipping the scored trends among the unscored ones, is returned short with a cursor to continue.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @param sortBy "momentum" or "hotScore", highest first, or null for ID order
+     * @return the page of trends and the cursor of the next page
+     */
+    @Override
+    public KeysetPage<Trend> getTrendsPage(String cursor, Integer limit, String sortBy) {
+        if (sortBy == null) {
+            KeysetPage<Trend> page = keysetPager.page("trends", cursor, limit, trendDao::getTrendsAfter, Trend::getTrendId);
+            withMomentum(page.getItems());
+            return page;
+        }
+        PopularityMomentumStore.Ranking ranking = ranking(sortBy);
+        String listing = "trends:" + sortBy;
+        int size = keysetPager.size(limit);
+        Instant now = Instant.now();
+
+        // The cursor continues either in the ranking ("rank", sign, position, ID) or among the unscored trends ("none", ID).
+        PopularityMomentumStore.Rank afterRank = null;
+        Long afterId = null;
+        boolean inRanking = true;
+        if (cursor != null) {
+            List<String> key = KeysetPager.decode(listing, cursor, -1);
+            try {
+                if (key.size() == 4 && "rank".equals(key.get(0))) {
+                    afterRank = new PopularityMomentumStore.Rank(Integer.parseInt(key.get(1)),
+                            Double.parseDouble(key.get(2)), Long.parseLong(key.get(3)));
+                } else if (key.size() == 2 && "none".equals(key.get(0))) {
+                    afterId = Long.valueOf(key.get(1));
+                    inRanking = false;
+                } else {
+                    throw KeysetPager.invalidCursor();
+                }
+            } catch (NumberFormatException e) {
+                throw KeysetPager.invalidCursor();
+            }
+        }
+
+        // One trend more than the page size is collected to tell whether there is a next page.
+        List<Trend> items = new ArrayList<>();
+        List<String[]> keys = new ArrayList<>();
+        int rounds = 0;
+        while (inRanking && items.size() <= size && rounds++ < MAX_PAGE_ROUNDS) {
+            List<PopularityMomentumStore.Rank> ranks = momentumStore.rankedTrends(ranking, afterRank,
+                    Math.min(size + 1 - items.size(), PAGE_CHUNK));
+            if (ranks.isEmpty()) {
+                inRanking = false;
+                break;
+            }
+            // Trends deleted since their last score are left out.
+            Map<Long, Trend> trends = trendDao.getTrendsByIds(ranks.stream().map(PopularityMomentumStore.Rank::trendId).toList());
+            for (PopularityMomentumStore.Rank rank : ranks) {
+                Trend trend = trends.get(rank.trendId());
+                if (trend != null) {
+                    items.add(trend);
+                    keys.add(rankKey(rank));
+                }
+            }
+            afterRank = ranks.get(ranks.size() - 1);
+        }
+        boolean exhausted = false;
+        while (!inRanking && !exhausted && items.size() <= size && rounds++ < MAX_PAGE_ROUNDS) {
+            List<Trend> trends = trendDao.getTrendsAfter(afterId, PAGE_CHUNK);
+            for (Trend trend : trends) {
+                if (items.size() > size) {
+                    break;
+                }
+                if (momentumStore.trendMomentum(trend.getTrendId(), now) == null) {
+                    items.add(trend);
+                    keys.add(new String[]{"none", String.valueOf(trend.getTrendId())});
+                }
+                afterId = trend.getTrendId();
+            }
+            exhausted = trends.size() < PAGE_CHUNK;
+        }
+
+        String next;
+        if (items.size() > size) {
+            items = new ArrayList<>(items.subList(0, size));
+            next = KeysetPager.encode(listing, keys.get(size - 1));
+        } else if (exhausted) {
+            next = null;
+        } else if (inRanking) {
+            next = afterRank != null ? KeysetPager.encode(listing, rankKey(afterRank)) : null;
+        } else {
+            next = KeysetPager.encode(listing, "none", String.valueOf(afterId));
+        }
+        for (Trend trend : items) {
+            setMomentum(trend, now);
+        }
+        return new KeysetPage<>(items, next);
+    }
+
+    private static String[] rankKey(PopularityMomentumStore.Rank rank) {
+        return new String[]{"rank", String.valueOf(rank.sign()), String.valueOf(rank.position()), String.valueOf(rank.trendId())};
+    }
+
+    private static PopularityMomentumStore.Ranking ranking(String sortBy) {
+        return switch (sortBy) {
+            case "momentum" -> PopularityMomentumStore.Ranking.MOMENTUM;
+            case "hotScore" -> PopularityMomentumStore.Ranking.HOT_SCORE;
+            default -> throw new CustomUncheckedException("Trends can be sorted by momentum or hotScore: " + sortBy, "INVALID_SORT");
+        };
+    }
+
+    /**
+     * Streams every trend from the database to the sink in ID order, setting the momentum and hot score of each
+     * as it passes. All trends are evaluated at the instant the export starts.
+     *
+     * @param sink receives the trends one at a time
+     */
+    @Override
+    public void exportTrends(Consumer<Trend> sink) {
+        Instant now = Instant.now();
+        trendDao.streamTrends(trend -> {
+            setMomentum(trend, now);
+            sink.accept(trend);
+        });
     }
 
     /**
@@ -44,7 +210,24 @@ public class TrendServiceImpl implements TrendService {
      */
     @Override
     public Trend getTrendById(Long trendId) {
-        return trendDao.getTrendById(trendId);
+        Trend trend = trendDao.getTrendById(trendId);
+        if (trend != null) {
+            withMomentum(List.of(trend));
+        }
+        return trend;
+    }
+
+    /**
+     * Retrieves several trends at once with a few IN queries, with their momentum and hot score.
+     *
+     * @param trendIds The unique identifiers of the desired trends.
+     * @return The trends by ID, in request order; IDs without a trend are left out.
+     */
+    @Override
+    public Map<Long, Trend> getTrendsByIds(List<Long> trendIds) {
+        Map<Long, Trend> trends = trendDao.getTrendsByIds(trendIds);
+        withMomentum(List.copyOf(trends.values()));
+        return trends;
     }
 
     /**
@@ -81,6 +264,39 @@ public class TrendServiceImpl implements TrendService {
         return trendDao.deleteTrend(trendId);
     }
 
+    /**
+     * Adds several trends in JDBC batches, committed in chunks.
+     *
+     * @param trends The trends to add.
+     * @return The outcome and generated ID of every trend, in order.
+     */
+    @Override
+    public List<BatchItemResult> addTrends(List<Trend> trends) {
+        return trendDao.addTrends(trends);
+    }
+
+    /**
+     * Updates several trends in JDBC batches, committed in chunks.
+     *
+     * @param trends The trends with updated details, including their IDs.
+     * @return The outcome of every trend, in order.
+     */
+    @Override
+    public List<BatchItemResult> updateTrends(List<Trend> trends) {
+        return trendDao.updateTrends(trends);
+    }
+
+    /**
+     * Removes several trends in JDBC batches, committed in chunks.
+     *
+     * @param trendIds The IDs of the trends to delete.
+     * @return The outcome of every ID, in order.
+     */
+    @Override
+    public List<BatchItemResult> deleteTrends(List<Long> trendIds) {
+        return trendDao.deleteTrends(trendIds);
+    }
+
     /**
      * Fetches trends associated with a specific category.
      *
@@ -89,7 +305,7 @@ public class TrendServiceImpl implements TrendService {
      */
     @Override
     public List<Trend> getTrendsByCategory(Long categoryId) {
-        return trendDao.getTrendsByCategory(categoryId);
+        return withMomentum(trendDao.getTrendsByCategory(categoryId));
     }
 
     /**
@@ -100,7 +316,7 @@ public class TrendServiceImpl implements TrendService {
      */
     @Override
     public List<Trend> getTrendsByDesigner(Long designerId) {
-        return trendDao.getTrendsByDesigner(designerId);
+        return withMomentum(trendDao.getTrendsByDesigner(designerId));
     }
 
     /**
@@ -111,7 +327,7 @@ public class TrendServiceImpl implements TrendService {
      */
     @Override
     public List<Trend> getTrendsByLocation(String location) {
-        return trendDao.getTrendsByLocation(location);
+        return withMomentum(trendDao.getTrendsByLocation(location));
     }
 
     /**
@@ -122,7 +338,7 @@ public class TrendServiceImpl implements TrendService {
      */
     @Override
     public List<Trend> getTrendsBySeason(String season) {
-        return trendDao.getTrendsBySeason(season);
+        return withMomentum(trendDao.getTrendsBySeason(season));
     }
 
     /**
@@ -173,6 +389,108 @@ public class TrendServiceImpl implements TrendService {
         return trendDao.getTrendPopularity(trendId);
     }
 
-}
+    /**
+     * Fetches the popularity scores of several trends at once with a few IN queries.
+     *
+     * @param trendIds The unique identifiers of the trends.
+     * @return The popularity score of every trend by ID, in request order; 0 for trends without a score.
+     */
+    @Override
+    public Map<Long, Integer> getTrendPopularities(List<Long> trendIds) {
+        return trendDao.getTrendPopularities(trendIds);
+    }
+
+    /**
+     * Orders trends by momentum or hot score, highest first. Trends without a recorded score come last; ties are
+     * broken by ID.
+     *
+     * @param trends The trends to order; they are sorted in place.
+     * @param sortBy "momentum" or "hotScore", or null to keep the given order.
+     * @return The same list, ordered.
+     */
+    @Override
+    public List<Trend> sortTrends(List<Trend> trends, String sortBy) {
+        if (sortBy == null) {
+            return trends;
+        }
+        trends.sort(rankOrder(sortField(sortBy)));
+        return trends;
+    }
 
+    private static Function<Trend, Double> sortField(String sortBy) {
+        return switch (sortBy) {
+            case "momentum" -> Trend::getMomentum;
+            case "hotScore" -> Trend::getHotScore;
+            default -> throw new CustomUncheckedException("Trends can be sorted by momentum or hotScore: " + sortBy, "INVALID_SORT");
+        };
+    }
 
+    private static Comparator<Trend> rankOrder(Function<Trend, Double> field) {
+        return Comparator.comparing(field, Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+                .thenComparing(Trend::getTrendId, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Retrieves the trends matching every given attribute filter from the bitmap index.
+     *
+     * @param seasons The accepted seasons, matched regardless of case.
+     * @param locations The accepted locations, matched regardless of case.
+     * @param categoryIds The accepted category IDs.
+     * @param designerIds The accepted designer IDs.
+     * @return A list of the matching trends.
+     */
+    @Override
+    public List<Trend> filterTrends(Collection<String> seasons, Collection<String> locations,
+                                    Collection<Long> categoryIds, Collection<Long> designerIds) {
+        return withMomentum(bitmapIndex.filter(seasons, locations, categoryIds, designerIds));
+    }
+
+    /**
+     * Counts the trends matching every given attribute filter without loading them.
+     *
+     * @param seasons The accepted seasons, matched regardless of case.
+     * @param locations The accepted locations, matched regardless of case.
+     * @param categoryIds The accepted category IDs.
+     * @param designerIds The accepted designer IDs.
+     * @return The number of matching trends.
+     */
+    @Override
+    public int countTrends(Collection<String> seasons, Collection<String> locations,
+                           Collection<Long> categoryIds, Collection<Long> designerIds) {
+        return bitmapIndex.count(seasons, locations, categoryIds, designerIds);
+    }
+
+    /**
+     * Finds the trends most similar to a given trend from the precomputed vector index.
+     *
+     * @param trendId The unique identifier of the trend.
+     * @param k The maximum number of similar trends, between 1 and 100.
+     * @return The similar trends, most similar first, or null if the trend does not exist.
+     */
+    @Override
+    public List<SimilarTrend> getSimilarTrends(Long trendId, int k) {
+        if (k < 1 || k > MAX_SIMILAR) {
+            throw new CustomUncheckedException("k must be between 1 and " + MAX_SIMILAR, "INVALID_K");
+        }
+        return vectorIndex.similar(trendId, k);
+    }
+
+    /**
+     * Sets the momentum and hot score of each trend, all evaluated at the same instant.
+     */
+    private List<Trend> withMomentum(List<Trend> trends) {
+        Instant now = Instant.now();
+        for (Trend trend : trends) {
+            setMomentum(trend, now);
+        }
+        return trends;
+    }
+
+    private void setMomentum(Trend trend, Instant now) {
+        PopularityMomentum momentum = trend.getTrendId() != null ? momentumStore.trendMomentum(trend.getTrendId(), now) : null;
+        if (momentum != null) {
+            trend.setMomentum(momentum.getMomentum());
+            trend.setHotScore(momentum.getHotScore());
+        }
+    }
+}
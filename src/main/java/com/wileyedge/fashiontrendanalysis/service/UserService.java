@@ -1,5 +1,6 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import com.wileyedge.fashiontrendanalysis.model.User;
 
 import java.util.List;
@@ -70,6 +71,15 @@ public interface UserService {
      */
     List<User> getAllUsers();
 
+    /**
+     * Retrieves one page of users, in ID order.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of users and the cursor of the next page
+     */
+    KeysetPage<User> getUsersPage(String cursor, Integer limit);
+
     /**
      * Fetches a specific user based on their unique identifier.
      *
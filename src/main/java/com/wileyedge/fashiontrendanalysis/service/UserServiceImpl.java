@@ -1,6 +1,7 @@
 package com.wileyedge.fashiontrendanalysis.service;
 
 import com.wileyedge.fashiontrendanalysis.dao.UserDao;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
 import com.wileyedge.fashiontrendanalysis.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -18,6 +19,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private KeysetPager keysetPager;
+
     private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     /**
@@ -115,6 +119,18 @@ public class UserServiceImpl implements UserService {
         return userDao.findAll();
     }
 
+    /**
+     * Retrieves one page of users, seeking past the ID recorded in the cursor.
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit  the page size, or null for the default
+     * @return the page of users and the cursor of the next page
+     */
+    @Override
+    public KeysetPage<User> getUsersPage(String cursor, Integer limit) {
+        return keysetPager.page("users", cursor, limit, userDao::findAfter, User::getUserId);
+    }
+
     /**
      * Fetches a specific user based on their unique identifier.
      *
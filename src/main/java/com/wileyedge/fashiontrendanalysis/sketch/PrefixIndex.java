@@ -0,0 +1,203 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Sorted-array prefix index for type-ahead completion of names, ranked by a score.
+ *
+ * <p>Every name is indexed under the case-folded suffixes starting at each of its words, so "chic" completes
+ * "Parisian Chic". The keys are held in one sorted array with a parallel array of IDs; the keys starting with a
+ * prefix form a contiguous range found by two binary searches, and the best entries of the range are kept in a
+ * bounded heap. A lookup therefore costs O(log n + m log k) for m matching keys. Inserting and removing shift
+ * the arrays, which is cheap for the few thousand names of a catalogue and keeps the index compact.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+public final class PrefixIndex {
+
+    /** Completions rank by score, highest first and unscored last, then by name and ID. */
+    private static final Comparator<Completion> RANKING = Comparator
+            .comparing(Completion::score, Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+            .thenComparing(Completion::name, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(Completion::id);
+
+    private String[] keys = new String[16];
+    private long[] ids = new long[16];
+    private int size;
+
+    private final Map<Long, Completion> entries = new HashMap<>();
+
+    /**
+     * A name matching a prefix.
+     *
+     * @param id    the ID of the named entity
+     * @param name  the name as indexed
+     * @param score the ranking score, or null if the entity has none
+     */
+    public record Completion(long id, String name, Double score) {
+    }
+
+    /**
+     * Adds a name, or replaces the name and score indexed for the same ID.
+     *
+     * @param id    the ID of the named entity
+     * @param name  the name
+     * @param score the ranking score, or null if the entity has none
+     */
+    public void put(long id, String name, Double score) {
+        remove(id);
+        if (name == null) {
+            return;
+        }
+        entries.put(id, new Completion(id, name, score));
+        for (String key : keys(name)) {
+            insert(key, id);
+        }
+    }
+
+    /**
+     * Removes a name if present.
+     *
+     * @param id the ID of the named entity
+     */
+    public void remove(long id) {
+        Completion entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : keys(entry.name())) {
+            int position = find(key, id);
+            if (position >= 0) {
+                System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+                System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+                keys[--size] = null;
+            }
+        }
+    }
+
+    /**
+     * Removes all names.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        size = 0;
+        entries.clear();
+    }
+
+    /**
+     * @return the number of indexed names.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Finds the highest-ranked names having a word that starts with a prefix, regardless of case.
+     *
+     * @param prefix the typed prefix
+     * @param limit  the maximum number of completions
+     * @return the completions, best first
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        String folded = prefix.toLowerCase(Locale.ROOT);
+        int from = lowerBound(folded);
+        int to = lowerBound(folded + Character.MAX_VALUE);
+        // The heap keeps the worst of the best completions on top, so it can be evicted in O(log k).
+        PriorityQueue<Completion> best = new PriorityQueue<>(RANKING.reversed());
+        Set<Long> seen = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            if (!seen.add(ids[i])) {
+                continue;
+            }
+            best.offer(entries.get(ids[i]));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Completion> completions = new ArrayList<>(best);
+        completions.sort(RANKING);
+        return completions;
+    }
+
+    private void insert(String key, long id) {
+        int position = find(key, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        keys[position] = key;
+        ids[position] = id;
+        size++;
+    }
+
+    /**
+     * Binary search for the (key, id) pair, ordered by key and then by ID.
+     *
+     * @return the position of the pair, or (-(insertion point) - 1) if it is absent
+     */
+    private int find(String key, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = keys[middle].compareTo(key);
+            if (order == 0) {
+                order = Long.compare(ids[middle], id);
+            }
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @return the position of the first key not less than the given key.
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The case-folded suffixes of a name starting at each of its words.
+     */
+    private static Set<String> keys(String name) {
+        String folded = name.toLowerCase(Locale.ROOT);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < folded.length(); i++) {
+            if (Character.isLetterOrDigit(folded.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(folded.charAt(i - 1)))) {
+                keys.add(folded.substring(i));
+            }
+        }
+        return keys;
+    }
+}
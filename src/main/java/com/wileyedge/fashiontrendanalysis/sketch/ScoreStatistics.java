@@ -0,0 +1,160 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import java.util.stream.DoubleStream;
+
+/**
+ * Streaming summary of popularity scores: count, sum, mean, variance, min, max and a fixed-width histogram,
+ * updated in one pass and in constant memory.
+ *
+ * <p>The variance is maintained with Welford's online algorithm, and two summaries are combined with the
+ * pairwise update of Chan et al., so partial summaries computed by different threads or over different
+ * partitions merge into exactly the summary of all their values. The histogram has {@value #BUCKETS} buckets
+ * of width {@value #BUCKET_WIDTH} covering the score range 0 to 100; scores outside the range are counted in
+ * the first or last bucket.</p>
+ *
+ * <p>Instances are not thread-safe; give each thread its own summary and merge them.</p>
+ */
+public final class ScoreStatistics {
+
+    /** Number of histogram buckets. */
+    public static final int BUCKETS = 10;
+
+    /** Width of a histogram bucket. */
+    public static final int BUCKET_WIDTH = 10;
+
+    private long count;
+    private double sum;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final long[] histogram = new long[BUCKETS];
+
+    /**
+     * Summarizes a stream of scores. Parallel streams are summarized per thread and merged.
+     *
+     * @param scores the scores
+     * @return the summary of all scores
+     */
+    public static ScoreStatistics of(DoubleStream scores) {
+        return scores.collect(ScoreStatistics::new, ScoreStatistics::add, ScoreStatistics::merge);
+    }
+
+    /**
+     * Adds a single score.
+     *
+     * @param value the score
+     */
+    public void add(double value) {
+        count++;
+        sum += value;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        histogram[bucket(value)]++;
+    }
+
+    /**
+     * Adds all scores summarized by another summary. The other summary is not modified.
+     *
+     * @param other the summary to merge into this one
+     */
+    public void merge(ScoreStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] += other.histogram[i];
+        }
+    }
+
+    /**
+     * Gets the number of scores.
+     *
+     * @return the number of scores added.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the scores. Integer scores are summed exactly up to 2^53.
+     *
+     * @return the sum, or 0 if empty.
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * Gets the arithmetic mean, computed as sum / count so integer scores average exactly like a SQL AVG.
+     *
+     * @return the mean, or NaN if empty.
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Gets the population variance.
+     *
+     * @return the variance, or NaN if empty.
+     */
+    public double variance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * Gets the population standard deviation.
+     *
+     * @return the standard deviation, or NaN if empty.
+     */
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * Gets the smallest score.
+     *
+     * @return the minimum, or NaN if empty.
+     */
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * Gets the largest score.
+     *
+     * @return the maximum, or NaN if empty.
+     */
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Gets the histogram. Bucket i counts the scores in [i * BUCKET_WIDTH, (i + 1) * BUCKET_WIDTH); the last
+     * bucket also counts the scores of 100 and above, the first those below 0.
+     *
+     * @return a copy of the bucket counts.
+     */
+    public long[] histogram() {
+        return histogram.clone();
+    }
+
+    private static int bucket(double value) {
+        if (!(value >= 0)) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.floor(value / BUCKET_WIDTH));
+    }
+}
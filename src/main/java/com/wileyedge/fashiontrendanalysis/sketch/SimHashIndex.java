@@ -0,0 +1,167 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Random-projection locality-sensitive hash index for approximate cosine nearest-neighbour search over sparse
+ * vectors keyed by feature name.
+ *
+ * <p>Every table hashes a vector to a signature of sign bits, one per random hyperplane; vectors at a small
+ * angle agree on most bits, so they tend to share a bucket. The hyperplanes are never stored: the component
+ * of a hyperplane for a feature is a pseudo-random ±1 derived from the hash of the feature name, so any
+ * feature can be projected without a dictionary. A lookup probes the query's bucket in every table and, while
+ * too few candidates are found, the buckets that differ in one and then two bits (multi-probe), so its cost
+ * depends on the bucket sizes rather than on the number of indexed vectors.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+public final class SimHashIndex {
+
+    // Buckets at up to this many flipped bits are probed when the exact buckets hold too few candidates.
+    private static final int MAX_PROBE_DISTANCE = 2;
+
+    private final int tables;
+    private final int bits;
+    private final long seed;
+
+    private final List<Map<Integer, Set<Long>>> buckets = new ArrayList<>();
+    private final Map<Long, int[]> signatures = new HashMap<>();
+
+    /**
+     * Creates an empty index.
+     *
+     * @param tables the number of hash tables; more tables raise recall
+     * @param bits   the signature bits per table, 1 to 30; more bits make buckets smaller and more selective
+     * @param seed   the seed of the random hyperplanes
+     */
+    public SimHashIndex(int tables, int bits, long seed) {
+        if (tables < 1 || bits < 1 || bits > 30) {
+            throw new IllegalArgumentException("Need at least one table and 1 to 30 bits: " + tables + ", " + bits);
+        }
+        this.tables = tables;
+        this.bits = bits;
+        this.seed = seed;
+        for (int t = 0; t < tables; t++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds a vector, or replaces the vector with the same ID.
+     *
+     * @param id     the ID of the vector
+     * @param vector the non-zero components by feature name
+     */
+    public void put(long id, Map<String, Double> vector) {
+        remove(id);
+        int[] signature = signature(vector);
+        signatures.put(id, signature);
+        for (int t = 0; t < tables; t++) {
+            buckets.get(t).computeIfAbsent(signature[t], s -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Removes a vector if present.
+     *
+     * @param id the ID of the vector
+     */
+    public void remove(long id) {
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int t = 0; t < tables; t++) {
+            Set<Long> bucket = buckets.get(t).get(signature[t]);
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.get(t).remove(signature[t]);
+            }
+        }
+    }
+
+    /**
+     * Removes all vectors.
+     */
+    public void clear() {
+        signatures.clear();
+        buckets.forEach(Map::clear);
+    }
+
+    /**
+     * Finds the IDs of vectors likely to be close to the given one. Probing stops after the first probe
+     * distance at which at least {@code wanted} candidates have been collected, or after two flipped bits.
+     *
+     * @param vector the query vector
+     * @param wanted the number of candidates to aim for
+     * @return the candidate IDs, closest buckets first; may be fewer than wanted and include the query's own ID
+     */
+    public Set<Long> candidates(Map<String, Double> vector, int wanted) {
+        int[] signature = signature(vector);
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (int distance = 0; distance <= Math.min(MAX_PROBE_DISTANCE, bits); distance++) {
+            for (int t = 0; t < tables; t++) {
+                probe(buckets.get(t), signature[t], distance, 0, candidates);
+            }
+            if (candidates.size() >= wanted) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Collects the buckets whose signatures differ from the given one in exactly {@code distance} of the bits
+     * at positions from {@code fromBit} on.
+     */
+    private void probe(Map<Integer, Set<Long>> table, int signature, int distance, int fromBit, Set<Long> candidates) {
+        if (distance == 0) {
+            Set<Long> bucket = table.get(signature);
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+            return;
+        }
+        for (int bit = fromBit; bit < bits; bit++) {
+            probe(table, signature ^ (1 << bit), distance - 1, bit + 1, candidates);
+        }
+    }
+
+    private int[] signature(Map<String, Double> vector) {
+        double[] projections = new double[tables * bits];
+        for (Map.Entry<String, Double> component : vector.entrySet()) {
+            long featureHash = mix(component.getKey().hashCode() ^ seed);
+            double weight = component.getValue();
+            for (int plane = 0; plane < projections.length; plane++) {
+                // One pseudo-random sign per (feature, hyperplane) pair.
+                projections[plane] += (mix(featureHash + plane) & 1L) == 0 ? weight : -weight;
+            }
+        }
+        int[] signature = new int[tables];
+        for (int t = 0; t < tables; t++) {
+            int value = 0;
+            for (int b = 0; b < bits; b++) {
+                if (projections[t * bits + b] > 0) {
+                    value |= 1 << b;
+                }
+            }
+            signature[t] = value;
+        }
+        return signature;
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads every input bit over the whole output.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,197 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for approximate quantiles over a stream of values.
+ *
+ * <p>Values are buffered and periodically merged into a sorted list of weighted centroids. Centroids near
+ * the tails are kept small and those near the median may grow large (bounded by the arcsine scale function),
+ * so extreme quantiles stay accurate while memory remains proportional to the compression parameter rather
+ * than to the number of values. Two digests can be merged, which makes roll-ups over many keys cheap.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ */
+public final class TDigest {
+
+    private final double compression;
+
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int centroidCount;
+
+    private final double[] bufferMeans;
+    private final double[] bufferWeights;
+    private int bufferSize;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates an empty digest.
+     *
+     * @param compression the accuracy/size trade-off; the digest keeps on the order of this many centroids
+     */
+    public TDigest(double compression) {
+        this.compression = compression;
+        int bufferCapacity = (int) Math.ceil(compression) * 5;
+        this.bufferMeans = new double[bufferCapacity];
+        this.bufferWeights = new double[bufferCapacity];
+    }
+
+    /**
+     * Adds a single value.
+     *
+     * @param value the value
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds all values summarized by another digest. The other digest is not modified.
+     *
+     * @param other the digest to merge into this one
+     */
+    public void merge(TDigest other) {
+        for (int i = 0; i < other.centroidCount; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        for (int i = 0; i < other.bufferSize; i++) {
+            add(other.bufferMeans[i], other.bufferWeights[i]);
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Gets the number of values added so far.
+     *
+     * @return the total weight of the digest.
+     */
+    public long size() {
+        return Math.round(totalWeight);
+    }
+
+    /**
+     * Gets the smallest value added.
+     *
+     * @return the minimum, or NaN if the digest is empty.
+     */
+    public double min() {
+        return totalWeight > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * Gets the largest value added.
+     *
+     * @return the maximum, or NaN if the digest is empty.
+     */
+    public double max() {
+        return totalWeight > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Estimates a quantile.
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the estimated value at that quantile, or NaN if the digest is empty.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        compress();
+        if (centroidCount == 0) {
+            return Double.NaN;
+        }
+        if (centroidCount == 1) {
+            return means[0];
+        }
+
+        double index = q * totalWeight;
+        // Left tail: interpolate between the minimum and the centre of the first centroid.
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < centroidCount - 1; i++) {
+            double gap = (weights[i] + weights[i + 1]) / 2;
+            if (cumulative + gap > index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - cumulative) / gap;
+            }
+            cumulative += gap;
+        }
+        // Right tail: interpolate between the centre of the last centroid and the maximum.
+        int last = centroidCount - 1;
+        double tail = weights[last] / 2;
+        return Math.min(max, means[last] + (max - means[last]) * (index - cumulative) / tail);
+    }
+
+    private void add(double mean, double weight) {
+        if (bufferSize == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[bufferSize] = mean;
+        bufferWeights[bufferSize] = weight;
+        bufferSize++;
+        totalWeight += weight;
+        min = Math.min(min, mean);
+        max = Math.max(max, mean);
+    }
+
+    /**
+     * Merges the buffer into the centroids: all centroids are sorted by mean and adjacent ones are combined
+     * as long as the combined centroid spans at most one unit of the scale function.
+     */
+    private void compress() {
+        if (bufferSize == 0) {
+            return;
+        }
+        int n = centroidCount + bufferSize;
+        double[][] all = new double[n][];
+        for (int i = 0; i < centroidCount; i++) {
+            all[i] = new double[]{means[i], weights[i]};
+        }
+        for (int i = 0; i < bufferSize; i++) {
+            all[centroidCount + i] = new double[]{bufferMeans[i], bufferWeights[i]};
+        }
+        Arrays.sort(all, (a, b) -> Double.compare(a[0], b[0]));
+
+        double[] newMeans = new double[n];
+        double[] newWeights = new double[n];
+        int count = 0;
+        double weightBefore = 0;
+        double currentMean = all[0][0];
+        double currentWeight = all[0][1];
+        for (int i = 1; i < n; i++) {
+            double proposed = currentWeight + all[i][1];
+            double qLeft = weightBefore / totalWeight;
+            double qRight = (weightBefore + proposed) / totalWeight;
+            if (scale(qRight) - scale(qLeft) <= 1) {
+                currentMean += (all[i][0] - currentMean) * all[i][1] / proposed;
+                currentWeight = proposed;
+            } else {
+                newMeans[count] = currentMean;
+                newWeights[count] = currentWeight;
+                count++;
+                weightBefore += currentWeight;
+                currentMean = all[i][0];
+                currentWeight = all[i][1];
+            }
+        }
+        newMeans[count] = currentMean;
+        newWeights[count] = currentWeight;
+        count++;
+
+        means = Arrays.copyOf(newMeans, count);
+        weights = Arrays.copyOf(newWeights, count);
+        centroidCount = count;
+        bufferSize = 0;
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, q) - 1);
+    }
+}
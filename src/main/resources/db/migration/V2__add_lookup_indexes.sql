@@ -0,0 +1,44 @@
+-- Secondary indexes for the columns the DAOs filter and join on, so none of their lookups scans a table.
+
+-- Trends by season, location, category and designer
+CREATE INDEX idx_trend_season ON trend (season);
+CREATE INDEX idx_trend_location ON trend (location);
+CREATE INDEX idx_trend_category ON trend (category_id);
+CREATE INDEX idx_trend_designer ON trend (designer_id);
+
+-- Designers by location
+CREATE INDEX idx_designer_location ON designer (designer_location);
+
+-- Products by category and designer
+CREATE INDEX idx_product_category ON product (category_id);
+CREATE INDEX idx_product_designer ON product (designer_id);
+
+-- A trend is linked to a category at most once; the key also serves the lookups by trend_id.
+-- Repeated links are removed first, keeping the oldest.
+DELETE FROM trend_category
+WHERE trend_id IS NOT NULL AND category_id IS NOT NULL
+  AND trend_category_id NOT IN (SELECT keep_id FROM (
+      SELECT MIN(trend_category_id) AS keep_id FROM trend_category GROUP BY trend_id, category_id) AS keep);
+CREATE UNIQUE INDEX uq_trend_category ON trend_category (trend_id, category_id);
+
+-- One score per category and season and per product and trend; these keys are what the
+-- INSERT ... ON DUPLICATE KEY UPDATE score writes upsert on. Repeated scores are removed first,
+-- keeping the latest, which is the one a write would have replaced.
+DELETE FROM category_popularity
+WHERE category_id IS NOT NULL AND season IS NOT NULL
+  AND category_popularity_id NOT IN (SELECT keep_id FROM (
+      SELECT MAX(category_popularity_id) AS keep_id FROM category_popularity GROUP BY category_id, season) AS keep);
+DELETE FROM product_popularity
+WHERE product_id IS NOT NULL AND trend_id IS NOT NULL
+  AND product_popularity_id NOT IN (SELECT keep_id FROM (
+      SELECT MAX(product_popularity_id) AS keep_id FROM product_popularity GROUP BY product_id, trend_id) AS keep);
+CREATE UNIQUE INDEX uq_category_popularity ON category_popularity (category_id, season);
+CREATE UNIQUE INDEX uq_product_popularity ON product_popularity (product_id, trend_id);
+
+-- Trend scores by trend
+CREATE INDEX idx_trend_popularity_trend ON trend_popularity (trend_id);
+
+-- Users sign in by username and register with an email address; both must be unique. Accounts are not
+-- merged automatically: the migrator stops before this script and names any repeated username or email.
+CREATE UNIQUE INDEX uq_fashion_user_username ON fashion_user (username);
+CREATE UNIQUE INDEX uq_fashion_user_email ON fashion_user (email);
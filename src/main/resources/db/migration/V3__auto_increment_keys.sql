@@ -0,0 +1,18 @@
+-- Generate the primary keys of the catalogue and popularity tables. The DAOs insert rows without an ID
+-- and read the generated key back. Foreign key checks are suspended because MySQL refuses to change a
+-- column that a foreign key references, even when only AUTO_INCREMENT is added.
+
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE category MODIFY category_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE designer MODIFY designer_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE trend MODIFY trend_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE product MODIFY product_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE fashion_user MODIFY user_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE trend_category MODIFY trend_category_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE designer_product MODIFY designer_product_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE category_popularity MODIFY category_popularity_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE product_popularity MODIFY product_popularity_id INT NOT NULL AUTO_INCREMENT;
+ALTER TABLE trend_popularity MODIFY trend_popularity_id INT NOT NULL AUTO_INCREMENT;
+
+SET FOREIGN_KEY_CHECKS = 1;
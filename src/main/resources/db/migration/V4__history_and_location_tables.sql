@@ -0,0 +1,48 @@
+-- Tables of the popularity history and the location roll-ups. IF NOT EXISTS, because databases set up from an
+-- earlier version of the baseline already have them.
+
+-- Append-only log of every trend and product score write
+CREATE TABLE IF NOT EXISTS popularity_history (
+    history_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    series_type VARCHAR(32) NOT NULL,
+    entity_id INT NOT NULL,
+    trend_id INT,
+    popularity_score INT NOT NULL,
+    recorded_at DATETIME(3) NOT NULL,
+    INDEX idx_popularity_history_series (series_type, entity_id, recorded_at)
+);
+
+-- Hourly and daily min/max/sum/count per history series
+CREATE TABLE IF NOT EXISTS popularity_rollup (
+    series_type VARCHAR(32) NOT NULL,
+    entity_id INT NOT NULL,
+    resolution VARCHAR(8) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    min_score INT NOT NULL,
+    max_score INT NOT NULL,
+    score_sum BIGINT NOT NULL,
+    score_count INT NOT NULL,
+    PRIMARY KEY (series_type, entity_id, resolution, bucket_start)
+);
+
+-- Maps the free-text city of trends and designers to its country and region
+CREATE TABLE IF NOT EXISTS location_hierarchy (
+    city VARCHAR(255) PRIMARY KEY,
+    country VARCHAR(255) NOT NULL,
+    region VARCHAR(255) NOT NULL
+);
+
+-- The cities of the sample data; cities already mapped keep their mapping
+INSERT IGNORE INTO location_hierarchy (city, country, region) VALUES
+('Paris', 'France', 'Europe'),
+('Milan', 'Italy', 'Europe'),
+('London', 'United Kingdom', 'Europe'),
+('Barcelona', 'Spain', 'Europe'),
+('Berlin', 'Germany', 'Europe'),
+('New York', 'United States', 'North America'),
+('Los Angeles', 'United States', 'North America'),
+('Rio de Janeiro', 'Brazil', 'South America'),
+('Tokyo', 'Japan', 'Asia'),
+('Seoul', 'South Korea', 'Asia'),
+('Shanghai', 'China', 'Asia'),
+('Sydney', 'Australia', 'Oceania');
@@ -0,0 +1,79 @@
+package com.wileyedge.fashiontrendanalysis;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for WebConfig.
+ * It checks that the asynchronous requests get the configured timeout and a bounded executor.
+ */
+public class WebConfigTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Test that the timeout and the executor are applied to the asynchronous request settings.
+     */
+    @Test
+    public void testConfigureAsyncSupport() {
+        executor = WebConfig.mvcAsyncExecutor(2, 3);
+        executor.initialize();
+        RecordingConfigurer configurer = new RecordingConfigurer();
+
+        new WebConfig(executor, Duration.ofHours(1)).configureAsyncSupport(configurer);
+
+        assertEquals(Duration.ofHours(1).toMillis(), configurer.timeout());
+        assertSame(executor, configurer.executor());
+    }
+
+    /**
+     * Test that the executor runs at most its threads plus its queue and rejects the next body.
+     */
+    @Test
+    public void testExecutorIsBounded() {
+        executor = WebConfig.mvcAsyncExecutor(1, 1);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute(blocked);
+        executor.execute(blocked);
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(blocked));
+        release.countDown();
+    }
+
+    /**
+     * Exposes the settings applied to the configurer.
+     */
+    private static class RecordingConfigurer extends AsyncSupportConfigurer {
+
+        Long timeout() {
+            return getTimeout();
+        }
+
+        AsyncTaskExecutor executor() {
+            return getTaskExecutor();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.wileyedge.fashiontrendanalysis.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wileyedge.fashiontrendanalysis.model.ExportFormat;
+import com.wileyedge.fashiontrendanalysis.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ExportRowWriter.
+ * It checks the layout of each export format and the quoting of CSV fields.
+ */
+public class ExportRowWriterTest {
+
+    private final List<Product> products = List.of(
+            new Product(1L, "Shirt", 1L, 2L, "Cotton shirt"),
+            new Product(2L, "Pants, \"slim\"", 2L, null, "Jeans\nblue"));
+
+    private String export(ExportFormat format, List<Product> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportRowWriter writer = new ExportRowWriter(format, new ObjectMapper(), out)) {
+            rows.forEach(writer);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Test that NDJSON has one object per line and JSON is one array.
+     */
+    @Test
+    public void testJsonFormats() throws IOException {
+        String ndjson = export(ExportFormat.NDJSON, products);
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(ndjson.endsWith("\n"));
+        assertEquals("{\"productId\":1,\"productName\":\"Shirt\",\"categoryId\":1,\"designerId\":2,\"productDescription\":\"Cotton shirt\"}", lines[0]);
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.writeValueAsString(products), export(ExportFormat.JSON, products));
+        assertEquals("[]", export(ExportFormat.JSON, List.of()));
+    }
+
+    /**
+     * Test that CSV starts with a header and quotes fields containing separators, quotes or line breaks.
+     */
+    @Test
+    public void testCsv() throws IOException {
+        assertEquals("productId,productName,categoryId,designerId,productDescription\n"
+                        + "1,Shirt,1,2,Cotton shirt\n"
+                        + "2,\"Pants, \"\"slim\"\"\",2,,\"Jeans\nblue\"\n",
+                export(ExportFormat.CSV, products));
+    }
+}
@@ -0,0 +1,88 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BatchReader.
+ * It reads from an in-memory H2 database with a chunk size of 2, so most requests span several queries.
+ */
+public class BatchReaderTest {
+
+    private static final RowMapper<String> NAME = (rs, rowNum) -> rs.getString("name");
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private BatchReader batchReader;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:reader;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE item (item_id BIGINT PRIMARY KEY, name VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE tag (item_id BIGINT, name VARCHAR(20))");
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO item VALUES (?, ?)", id, "item" + id);
+        }
+        jdbcTemplate.update("INSERT INTO tag VALUES (1, 'a'), (1, 'b'), (4, 'c')");
+        batchReader = new BatchReader(jdbcTemplate, 2, 5);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    /**
+     * Test that the rows are keyed by ID in request order, leaving out missing IDs, duplicates and nulls.
+     */
+    @Test
+    public void testReadById() {
+        Map<Long, String> items = batchReader.readById("SELECT * FROM item WHERE item_id IN (%s)",
+                Arrays.asList(5L, 9L, 1L, 3L, null, 5L, 2L), "item_id", NAME);
+
+        assertEquals(List.of(5L, 1L, 3L, 2L), new ArrayList<>(items.keySet()));
+        assertEquals("item3", items.get(3L));
+    }
+
+    /**
+     * Test that every requested ID gets its rows, or an empty list.
+     */
+    @Test
+    public void testReadGroupedById() {
+        Map<Long, List<String>> tags = batchReader.readGroupedById("SELECT * FROM tag WHERE item_id IN (%s)",
+                List.of(4L, 2L, 1L), "item_id", NAME);
+
+        assertEquals(List.of(4L, 2L, 1L), new ArrayList<>(tags.keySet()));
+        assertEquals(List.of("c"), tags.get(4L));
+        assertEquals(List.of(), tags.get(2L));
+        assertEquals(List.of("a", "b"), tags.get(1L).stream().sorted().toList());
+    }
+
+    /**
+     * Test that requests without IDs or with more IDs than allowed are rejected.
+     */
+    @Test
+    public void testInvalidIds() {
+        String sql = "SELECT * FROM item WHERE item_id IN (%s)";
+        assertThrows(CustomUncheckedException.class, () -> batchReader.readById(sql, List.of(), "item_id", NAME));
+        assertThrows(CustomUncheckedException.class, () -> batchReader.readById(sql, null, "item_id", NAME));
+        assertThrows(CustomUncheckedException.class, () -> batchReader.readById(sql, Collections.singletonList(null), "item_id", NAME));
+        assertThrows(CustomUncheckedException.class,
+                () -> batchReader.readById(sql, List.of(1L, 2L, 3L, 4L, 5L, 6L), "item_id", NAME));
+    }
+}
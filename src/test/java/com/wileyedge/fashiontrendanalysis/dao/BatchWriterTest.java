@@ -0,0 +1,151 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemResult;
+import com.wileyedge.fashiontrendanalysis.model.BatchItemStatus;
+import com.wileyedge.fashiontrendanalysis.model.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for BatchWriter.
+ * It checks the per-item results of batch inserts, updates and deletes, the change event of each chunk and the
+ * fallback for a rejected chunk.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BatchWriterTest {
+
+    private static final String SQL = "DELETE FROM category WHERE category_id = ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BatchWriter batchWriter;
+
+    @BeforeEach
+    public void setup() {
+        batchWriter = new BatchWriter(jdbcTemplate, transactionManager, eventPublisher, 2, 5);
+    }
+
+    /**
+     * Test that an insert reports the generated keys of the batch statement in request order.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInsertReadsGeneratedKeys() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ResultSet keys = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString(), any(String[].class))).thenReturn(ps);
+        when(ps.getGeneratedKeys()).thenReturn(keys);
+        when(keys.next()).thenReturn(true, false, true, false);
+        when(keys.getLong(1)).thenReturn(11L, 12L);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> ((ConnectionCallback<?>) invocation.getArgument(0)).doInConnection(connection));
+
+        List<BatchItemResult> results = batchWriter.insert("INSERT INTO category (category_name) VALUES (?)", "category_id",
+                List.of(new Category(null, "Knitwear"), new Category(null, "Swimwear"), new Category(null, "Lingerie")),
+                (statement, category) -> statement.setString(1, category.getCategoryName()), DataTable.CATEGORY);
+
+        assertEquals(3, results.size());
+        assertEquals(new BatchItemResult(0, 11L, BatchItemStatus.CREATED, null), results.get(0));
+        assertEquals(new BatchItemResult(2, 12L, BatchItemStatus.CREATED, null), results.get(2));
+        verify(ps, times(3)).addBatch();
+        verify(ps, times(2)).executeBatch();
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    /**
+     * Test that rows without a match are reported as not found and announce no change.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdateReportsNotFound() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}}, new int[][]{{-2}});
+
+        List<BatchItemResult> results = batchWriter.update("UPDATE category SET category_name = ? WHERE category_id = ?",
+                List.of(new Category(1L, "Tops"), new Category(2L, "Bottoms"), new Category(3L, "Hats")),
+                Category::getCategoryId, (ps, category) -> { }, DataTable.CATEGORY);
+
+        assertEquals(List.of(BatchItemStatus.UPDATED, BatchItemStatus.NOT_FOUND, BatchItemStatus.UPDATED),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        verify(eventPublisher).publishEvent(argThat((DataChangeEvent e) -> e.getEntityId() == 1L));
+        verify(eventPublisher, never()).publishEvent(argThat((DataChangeEvent e) -> e.getEntityId() == 2L));
+    }
+
+    /**
+     * Test that a chunk writing several rows publishes one event without an ID, and a single row its own ID.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOneEventPerChunk() {
+        when(jdbcTemplate.batchUpdate(eq(SQL), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 1}}, new int[][]{{1}});
+
+        batchWriter.delete(SQL, List.of(1L, 2L, 3L), DataTable.CATEGORY);
+
+        verify(eventPublisher).publishEvent(argThat((DataChangeEvent e) -> e.getEntityId() == null));
+        verify(eventPublisher).publishEvent(argThat((DataChangeEvent e) -> Long.valueOf(3L).equals(e.getEntityId())));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    /**
+     * Test that a rejected chunk is rolled back and retried item by item, isolating the rejected item.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRejectedChunkIsRetriedPerItem() {
+        when(jdbcTemplate.batchUpdate(eq(SQL), eq(List.of(1L, 2L)), eq(2), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("chunk", new RuntimeException("foreign key")));
+        when(jdbcTemplate.batchUpdate(eq(SQL), eq(List.of(1L)), eq(1), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1}});
+        when(jdbcTemplate.batchUpdate(eq(SQL), eq(List.of(2L)), eq(1), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("item", new RuntimeException("foreign key")));
+
+        List<BatchItemResult> results = batchWriter.delete(SQL, List.of(1L, 2L), DataTable.CATEGORY);
+
+        assertEquals(new BatchItemResult(0, 1L, BatchItemStatus.DELETED, null), results.get(0));
+        assertEquals(new BatchItemResult(1, 2L, BatchItemStatus.FAILED, "foreign key"), results.get(1));
+        verify(transactionManager, times(2)).rollback(any());
+        verify(eventPublisher, times(1)).publishEvent(any(DataChangeEvent.class));
+    }
+
+    /**
+     * Test that empty and oversized batches and items without an ID are rejected before any statement runs.
+     */
+    @Test
+    public void testInvalidBatches() {
+        assertThrows(CustomUncheckedException.class, () -> batchWriter.delete(SQL, List.of(), DataTable.CATEGORY));
+        assertThrows(CustomUncheckedException.class, () -> batchWriter.delete(SQL, List.of(1L, 2L, 3L, 4L, 5L, 6L), DataTable.CATEGORY));
+        assertThrows(CustomUncheckedException.class, () -> batchWriter.update(SQL, List.of(new Category(null, "Tops")),
+                Category::getCategoryId, (ps, category) -> { }, DataTable.CATEGORY));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
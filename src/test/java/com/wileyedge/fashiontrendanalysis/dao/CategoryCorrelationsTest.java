@@ -0,0 +1,59 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.model.CorrelationMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CategoryCorrelations.
+ * It checks the coefficients on known vectors and that the tiled computation matches the pairwise one.
+ */
+public class CategoryCorrelationsTest {
+
+    private static final double NA = Double.NaN;
+
+    /**
+     * Test Pearson and Spearman coefficients, including seasons missing on one side.
+     */
+    @Test
+    public void testCoefficients() {
+        double[] outerwear = {10, 20, 30, 40};
+        double[] footwear = {15, 25, 35, NA};
+        double[] swimwear = {80, 40, 20, 10};
+
+        assertEquals(1.0, CategoryCorrelations.correlation(outerwear, footwear, CorrelationMethod.PEARSON), 1e-12);
+        assertEquals(-1.0, CategoryCorrelations.correlation(outerwear, swimwear, CorrelationMethod.SPEARMAN), 1e-12);
+        assertTrue(CategoryCorrelations.correlation(outerwear, swimwear, CorrelationMethod.PEARSON) > -1.0);
+        assertNull(CategoryCorrelations.correlation(new double[]{1, NA}, new double[]{NA, 2}, CorrelationMethod.PEARSON));
+        assertNull(CategoryCorrelations.correlation(new double[]{5, 5, 5}, outerwear, CorrelationMethod.PEARSON));
+        // Ties get their average rank: ranks {1.5, 1.5, 3} against {1, 2, 3}.
+        assertEquals(Math.sqrt(3) / 2, CategoryCorrelations.correlation(new double[]{7, 7, 9}, new double[]{1, 2, 3},
+                CorrelationMethod.SPEARMAN), 1e-12);
+    }
+
+    /**
+     * Test that the tiled, parallel matrix is symmetric and equal to correlating every pair directly.
+     */
+    @Test
+    public void testTiledMatrix() {
+        Random random = new Random(42);
+        double[][] vectors = new double[23][4];
+        for (double[] vector : vectors) {
+            for (int s = 0; s < vector.length; s++) {
+                vector[s] = random.nextInt(10) == 0 ? NA : random.nextInt(100);
+            }
+        }
+
+        Double[][] matrix = CategoryCorrelations.matrix(vectors, CorrelationMethod.SPEARMAN, 5);
+
+        for (int i = 0; i < vectors.length; i++) {
+            for (int j = 0; j < vectors.length; j++) {
+                assertEquals(CategoryCorrelations.correlation(vectors[i], vectors[j], CorrelationMethod.SPEARMAN), matrix[i][j]);
+                assertEquals(matrix[i][j], matrix[j][i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.LocationLevel;
+import com.wileyedge.fashiontrendanalysis.model.LocationRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for LocationRollupIndex.
+ * It checks the aggregates of every level of the hierarchy and that writes move a single contribution.
+ */
+@ExtendWith(MockitoExtension.class)
+public class LocationRollupIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LocationRollupIndex index;
+
+    /**
+     * Seeds three cities of two regions, four trends and two designers.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (String[] row : new String[][]{{"Paris", "France", "Europe"}, {"Milan", "Italy", "Europe"}, {"Tokyo", "Japan", "Asia"}}) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("city")).thenReturn(row[0]);
+                when(rs.getString("country")).thenReturn(row[1]);
+                when(rs.getString("region")).thenReturn(row[2]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(eq(LocationRollupIndex.HIERARCHY_SQL), any(RowCallbackHandler.class));
+        when(jdbcTemplate.query(eq(LocationRollupIndex.TREND_SQL + LocationRollupIndex.TREND_GROUP_BY), any(RowMapper.class))).thenReturn(List.of(
+                new LocationRollupIndex.TrendLocation(1L, "Paris", 80.0),
+                new LocationRollupIndex.TrendLocation(2L, "paris", 60.0),
+                new LocationRollupIndex.TrendLocation(3L, "Milan", null),
+                new LocationRollupIndex.TrendLocation(4L, "Tokyo", 90.0)));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("designer_id")).thenReturn(7L);
+            when(rs.getString("designer_location")).thenReturn("Lagos");
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(eq(LocationRollupIndex.DESIGNER_SQL), any(RowCallbackHandler.class));
+        index = new LocationRollupIndex(jdbcTemplate);
+        index.loadOnStartup();
+    }
+
+    /**
+     * Test that cities roll up into countries and regions, regardless of case, and unknown cities into "Unknown".
+     */
+    @Test
+    public void testRollups() {
+        assertEquals(List.of(
+                new LocationRollup("region", "Asia", null, 1, 0, 90.0),
+                new LocationRollup("region", "Europe", null, 3, 0, 70.0),
+                new LocationRollup("region", "Unknown", null, 0, 1, null)), index.rollups(LocationLevel.REGION, null));
+        assertEquals(List.of("France", "Italy"), index.rollups(LocationLevel.COUNTRY, "europe").stream().map(LocationRollup::getName).toList());
+        assertEquals(new LocationRollup("city", "Paris", "France", 2, 0, 70.0), index.rollups(LocationLevel.CITY, "France").get(0));
+    }
+
+    /**
+     * Test that a moved trend, a new score and a deleted trend update their nodes without a reload,
+     * the score without a query.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIncrementalUpdates() {
+        String byId = LocationRollupIndex.TREND_SQL + LocationRollupIndex.TREND_BY_ID + LocationRollupIndex.TREND_GROUP_BY;
+        when(jdbcTemplate.query(eq(byId), any(RowMapper.class), eq(1L)))
+                .thenReturn(List.of(new LocationRollupIndex.TrendLocation(1L, "Tokyo", 80.0)));
+        when(jdbcTemplate.query(eq(byId), any(RowMapper.class), eq(2L))).thenReturn(List.of());
+
+        index.onDataChange(new DataChangeEvent(DataTable.TREND, 1L));
+        index.onDataChange(PopularityChangeEvent.forTrend(3L, 50));
+        index.onDataChange(new DataChangeEvent(DataTable.TREND, 2L));
+
+        assertEquals(List.of(
+                new LocationRollup("region", "Asia", null, 2, 0, 85.0),
+                new LocationRollup("region", "Europe", null, 1, 0, 50.0),
+                new LocationRollup("region", "Unknown", null, 0, 1, null)), index.rollups(LocationLevel.REGION, null));
+        assertEquals(List.of("Lagos", "Milan", "Tokyo"), index.rollups(LocationLevel.CITY, null).stream().map(LocationRollup::getName).toList());
+        verify(jdbcTemplate, times(1)).query(eq(LocationRollupIndex.HIERARCHY_SQL), any(RowCallbackHandler.class));
+        verify(jdbcTemplate, never()).query(eq(byId), any(RowMapper.class), eq(3L));
+    }
+}
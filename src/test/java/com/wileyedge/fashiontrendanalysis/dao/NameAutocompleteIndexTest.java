@@ -0,0 +1,105 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.AutocompleteSuggestion;
+import com.wileyedge.fashiontrendanalysis.model.AutocompleteType;
+import com.wileyedge.fashiontrendanalysis.sketch.PrefixIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for NameAutocompleteIndex.
+ * It checks that suggestions of all types are ranked by popularity and that writes refresh a single name.
+ */
+@ExtendWith(MockitoExtension.class)
+public class NameAutocompleteIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private NameAutocompleteIndex index;
+
+    /**
+     * Seeds the index with a few names of every type.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        when(jdbcTemplate.query(eq(NameAutocompleteIndex.allSql(AutocompleteType.TREND)), any(RowMapper.class))).thenReturn(List.of(
+                new PrefixIndex.Completion(1L, "Parisian Chic", 80.0),
+                new PrefixIndex.Completion(2L, "Tokyo Fashion", 90.0)));
+        when(jdbcTemplate.query(eq(NameAutocompleteIndex.allSql(AutocompleteType.PRODUCT)), any(RowMapper.class))).thenReturn(List.of(
+                new PrefixIndex.Completion(10L, "Party Dress", null)));
+        when(jdbcTemplate.query(eq(NameAutocompleteIndex.allSql(AutocompleteType.DESIGNER)), any(RowMapper.class))).thenReturn(List.of(
+                new PrefixIndex.Completion(20L, "Pierre Cardin", 85.0)));
+        when(jdbcTemplate.query(eq(NameAutocompleteIndex.allSql(AutocompleteType.CATEGORY)), any(RowMapper.class))).thenReturn(List.of(
+                new PrefixIndex.Completion(30L, "Tops", 40.0)));
+        index = new NameAutocompleteIndex(jdbcTemplate);
+        index.loadOnStartup();
+    }
+
+    /**
+     * Test that the types are merged by popularity and the type filter is applied.
+     */
+    @Test
+    public void testComplete() {
+        List<AutocompleteSuggestion> all = index.complete("p", null, 10);
+        assertEquals(List.of("designer", "trend", "product"), all.stream().map(AutocompleteSuggestion::getType).toList());
+        assertEquals(new AutocompleteSuggestion("designer", 20L, "Pierre Cardin", 85.0), all.get(0));
+
+        assertEquals(List.of(1L), index.complete("p", AutocompleteType.TREND, 10).stream().map(AutocompleteSuggestion::getId).toList());
+        assertEquals(2, index.complete("p", null, 2).size());
+    }
+
+    /**
+     * Test that a score write re-ranks its trend and a delete removes the product, without a reload.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testIncrementalUpdates() {
+        String trendSql = NameAutocompleteIndex.byIdSql(AutocompleteType.TREND);
+        when(jdbcTemplate.query(eq(trendSql), any(RowMapper.class), eq(1L)))
+                .thenReturn(List.of(new PrefixIndex.Completion(1L, "Parisian Chic", 95.0)));
+        when(jdbcTemplate.query(eq(NameAutocompleteIndex.byIdSql(AutocompleteType.PRODUCT)), any(RowMapper.class), eq(10L)))
+                .thenReturn(List.of());
+
+        index.onDataChange(PopularityChangeEvent.forTrend(1L, 100));
+        index.onDataChange(new DataChangeEvent(DataTable.PRODUCT, 10L));
+        index.onDataChange(new DataChangeEvent(DataTable.TREND_CATEGORY, 1L));
+
+        assertEquals(List.of(1L, 20L), index.complete("p", null, 10).stream().map(AutocompleteSuggestion::getId).toList());
+        assertTrue(trendSql.contains("WHERE t.trend_id = ? GROUP BY"));
+        verify(jdbcTemplate, times(1)).query(eq(NameAutocompleteIndex.allSql(AutocompleteType.TREND)), any(RowMapper.class));
+    }
+
+    /**
+     * Test that a batch of score writes re-reads its trends with one query and drops the ones that are gone.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchUpdates() {
+        String trendsSql = NameAutocompleteIndex.byIdsSql(AutocompleteType.TREND, 2);
+        when(jdbcTemplate.query(eq(trendsSql), any(RowMapper.class), eq(1L), eq(2L)))
+                .thenReturn(List.of(new PrefixIndex.Completion(1L, "Parisian Chic", 95.0)));
+
+        index.onDataChange(new PopularityChangeBatchEvent(DataTable.TREND_POPULARITY, List.of(
+                PopularityChangeEvent.forTrend(1L, 100), PopularityChangeEvent.forTrend(2L, 10), PopularityChangeEvent.forTrend(1L, 90))));
+
+        assertTrue(trendsSql.contains("WHERE t.trend_id IN (?, ?) GROUP BY"));
+        assertEquals(List.of(1L), index.complete("", AutocompleteType.TREND, 10).stream().map(AutocompleteSuggestion::getId).toList());
+    }
+}
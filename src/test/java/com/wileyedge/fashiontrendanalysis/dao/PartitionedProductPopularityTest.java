@@ -0,0 +1,110 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PartitionedProductPopularity.
+ * It checks how the product_id range is partitioned and how partial results are merged.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PartitionedProductPopularityTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RowStreamer rowStreamer;
+
+    private PartitionedProductPopularity reader;
+
+    @AfterEach
+    public void tearDown() {
+        if (reader != null) {
+            reader.shutdown();
+        }
+    }
+
+    /**
+     * Test that the ranges cover the whole product_id span and that partials are merged by product name,
+     * with averages rounded like MySQL's AVG.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPartitionedAverages() throws Exception {
+        reader = new PartitionedProductPopularity(jdbcTemplate, rowStreamer, 3);
+        Map<String, Object> range = new HashMap<>();
+        range.put("min_id", 1L);
+        range.put("max_id", 10L);
+        when(jdbcTemplate.queryForMap(PartitionedProductPopularity.RANGE_SQL)).thenReturn(range);
+        stubPartition(1L, 4L, new int[]{1, 70}, new int[]{1, 80}, new int[]{4, 1});
+        stubPartition(5L, 8L, new int[]{5, 2}, new int[]{5, 2});
+        stubPartition(9L, 10L, new int[]{10, 90});
+        when(jdbcTemplate.query(eq(PartitionedProductPopularity.PRODUCT_SQL), any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry(1L, "Casual Shirt"), Map.entry(4L, "Scarf"), Map.entry(5L, "Scarf"),
+                        Map.entry(10L, "Winter Coat"), Map.entry(11L, "Unscored Boot")));
+
+        Map<String, Double> result = reader.productPopularity();
+
+        assertEquals(3, result.size());
+        assertEquals(75.0, result.get("Casual Shirt"));
+        assertEquals(1.6667, result.get("Scarf"));
+        assertEquals(90.0, result.get("Winter Coat"));
+    }
+
+    /**
+     * Test that an empty fact table yields an empty result without reading any partition.
+     */
+    @Test
+    public void testEmptyTable() {
+        reader = new PartitionedProductPopularity(jdbcTemplate, rowStreamer, 4);
+        Map<String, Object> range = new HashMap<>();
+        range.put("min_id", null);
+        range.put("max_id", null);
+        when(jdbcTemplate.queryForMap(PartitionedProductPopularity.RANGE_SQL)).thenReturn(range);
+
+        assertTrue(reader.productPopularity().isEmpty());
+        verifyNoInteractions(rowStreamer);
+    }
+
+    /**
+     * Test that a single partition leaves the mode disabled.
+     */
+    @Test
+    public void testDisabledWithOnePartition() {
+        reader = new PartitionedProductPopularity(jdbcTemplate, rowStreamer, 1);
+
+        assertFalse(reader.isEnabled());
+    }
+
+    /**
+     * Streams the given (product_id, popularity_score) rows to the callback reading the range [low, high].
+     */
+    private void stubPartition(long low, long high, int[]... rows) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("product_id")).thenReturn((long) row[0]);
+                when(rs.getInt("popularity_score")).thenReturn(row[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(rowStreamer).stream(eq(PartitionedProductPopularity.PARTITION_SQL), any(RowCallbackHandler.class), eq(low), eq(high));
+    }
+}
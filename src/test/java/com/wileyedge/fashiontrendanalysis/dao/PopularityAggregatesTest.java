@@ -0,0 +1,134 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PopularityAggregates.
+ * It checks that score writes are folded into the running averages without reloading the tables.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PopularityAggregatesTest {
+
+    @Mock
+    private PopularityColumnStore columnStore;
+
+    private PopularityColumns columns;
+    private PopularityAggregates aggregates;
+
+    /**
+     * Seeds the aggregates from the same snapshot used by PopularityColumnsTest.
+     */
+    @BeforeEach
+    public void setup() {
+        columns = new PopularityColumns(
+                new long[]{1L, 2L}, new String[]{"Tops", "Outerwear"},
+                new long[]{10L, 11L, 12L}, new String[]{"Parisian Chic", "Tokyo Fashion", "Rio Beachwear"}, new int[]{0, 0, 1},
+                new String[]{"Paris", "Tokyo", "Rio de Janeiro"}, new int[]{0, 1, 1},
+                new long[]{100L, 101L}, new String[]{"Casual Shirt", "Winter Coat"}, new int[]{0, 1},
+                new String[]{"Designer A", "Designer B"}, new int[]{80, 0}, new boolean[]{true, false},
+                new String[]{"New York", "Paris"},
+                new String[]{"Fall", "Summer"},
+                new int[]{0, 1, 1}, new int[]{100, 60, 80},
+                new int[]{0, 0, 1}, new long[]{10L, 11L, 10L}, new int[]{50, 70, 90},
+                new int[]{0, 1, 0}, new int[]{0, 0, 1}, new int[]{40, 80, 20},
+                new int[]{0, 1, 2}, new int[]{0, 1, 1},
+                0L);
+        when(columnStore.load()).thenReturn(columns);
+        aggregates = new PopularityAggregates(columnStore, true);
+    }
+
+    /**
+     * Test that the seeded averages match the columnar scans.
+     */
+    @Test
+    public void testSeededAverages() {
+        assertEquals(Map.of("Parisian Chic", 100.0, "Tokyo Fashion", 70.0), aggregates.trendPopularity());
+        assertEquals(Map.of("Casual Shirt", 60.0, "Winter Coat", 90.0), aggregates.productPopularity());
+        assertEquals(Map.of("Tops", 40.0, "Outerwear", 80.0), aggregates.categoryPopularityBySeason("Fall"));
+        assertEquals(Map.of("Designer A", 80.0), aggregates.designerPopularity());
+        assertNull(aggregates.trendPopularityBySeason("Summer").get("Rio Beachwear"));
+    }
+
+    /**
+     * Test that the snapshot of the accumulators equals the one scanned from the columns, also after a score
+     * write for a season spelled differently.
+     */
+    @Test
+    public void testSnapshot() {
+        assertEquals(columns.snapshot(), aggregates.snapshot());
+
+        aggregates.onDataChange(PopularityChangeEvent.forCategory(2L, "SUMMER", 60));
+
+        assertEquals(Map.of("Tops", 20.0, "Outerwear", 60.0),
+                aggregates.snapshot().getCategoryPopularityBySeason().get("Summer"));
+    }
+
+    /**
+     * Test that a trend score write updates the trend and its category roll-up.
+     */
+    @Test
+    public void testTrendScoreWrite() {
+        aggregates.trendPopularity();
+
+        aggregates.onDataChange(PopularityChangeEvent.forTrend(11L, 90));
+
+        assertEquals(90.0, aggregates.trendPopularity().get("Tokyo Fashion"));
+        assertEquals(90.0, aggregates.trendPopularityByCategory().get("Outerwear"));
+        assertEquals(100.0, aggregates.trendPopularityByCategory().get("Tops"));
+        verify(columnStore, times(1)).load();
+    }
+
+    /**
+     * Test that a product score write only replaces the row of its (product, trend) key.
+     */
+    @Test
+    public void testProductScoreWrite() {
+        aggregates.productPopularity();
+
+        aggregates.onDataChange(PopularityChangeEvent.forProduct(100L, 11L, 30));
+
+        assertEquals(40.0, aggregates.productPopularity().get("Casual Shirt"));
+        assertEquals(40.0, aggregates.productPopularityByCategory().get("Tops"));
+        assertEquals(90.0, aggregates.productPopularityByCategory().get("Outerwear"));
+    }
+
+    /**
+     * Test that a category score write is applied to its season only, regardless of case.
+     */
+    @Test
+    public void testCategoryScoreWrite() {
+        aggregates.categoryPopularityBySeason("Fall");
+
+        aggregates.onDataChange(PopularityChangeEvent.forCategory(2L, "FALL", 60));
+
+        assertEquals(60.0, aggregates.categoryPopularityBySeason("fall").get("Outerwear"));
+        assertEquals(20.0, aggregates.categoryPopularityBySeason("Summer").get("Tops"));
+    }
+
+    /**
+     * Test that a write to a dimension table causes the accumulators to be reseeded from the tables,
+     * not from the store's current snapshot.
+     */
+    @Test
+    public void testDimensionWriteReseeds() {
+        aggregates.trendPopularity();
+
+        aggregates.onDataChange(new DataChangeEvent(DataTable.TREND, 12L));
+        aggregates.trendPopularity();
+
+        verify(columnStore, times(2)).load();
+        verify(columnStore, never()).getColumns();
+    }
+}
@@ -0,0 +1,183 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.AnalysisSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PopularityColumns.
+ * It checks that the columnar scans produce the same averages as the SQL aggregates they replace.
+ */
+public class PopularityColumnsTest {
+
+    private PopularityColumns columns;
+
+    /**
+     * Builds a small snapshot: two categories, three trends and two products.
+     */
+    @BeforeEach
+    public void setup() {
+        columns = new PopularityColumns(
+                new long[]{1L, 2L}, new String[]{"Tops", "Outerwear"},
+                new long[]{10L, 11L, 12L}, new String[]{"Parisian Chic", "Tokyo Fashion", "Rio Beachwear"}, new int[]{0, 0, 1},
+                new String[]{"Paris", "Tokyo", "Rio de Janeiro"}, new int[]{0, 1, 1},
+                new long[]{100L, 101L}, new String[]{"Casual Shirt", "Winter Coat"}, new int[]{0, 1},
+                new String[]{"Designer A", "Designer B"}, new int[]{80, 0}, new boolean[]{true, false},
+                new String[]{"New York", "Paris"},
+                new String[]{"Fall", "Summer"},
+                new int[]{0, 1, 1}, new int[]{100, 60, 80},
+                new int[]{0, 0, 1}, new long[]{10L, 11L, 10L}, new int[]{50, 70, 90},
+                new int[]{0, 1, 0}, new int[]{0, 0, 1}, new int[]{40, 80, 20},
+                new int[]{0, 1, 2}, new int[]{0, 1, 1},
+                0L);
+    }
+
+    /**
+     * Test that category popularity only considers rows of the requested season, case-insensitively.
+     */
+    @Test
+    public void testCategoryPopularityBySeason() {
+        Map<String, Double> result = columns.categoryPopularityBySeason("fall");
+
+        assertEquals(2, result.size());
+        assertEquals(40.0, result.get("Tops"));
+        assertEquals(80.0, result.get("Outerwear"));
+        assertTrue(columns.categoryPopularityBySeason("Winter").isEmpty());
+    }
+
+    /**
+     * Test that designers without a popularity score are left out.
+     */
+    @Test
+    public void testDesignerPopularity() {
+        Map<String, Double> result = columns.designerPopularity();
+
+        assertEquals(1, result.size());
+        assertEquals(80.0, result.get("Designer A"));
+    }
+
+    /**
+     * Test that trend and product averages are computed per entity and omit unscored entities.
+     */
+    @Test
+    public void testTrendAndProductPopularity() {
+        Map<String, Double> trends = columns.trendPopularity();
+        assertEquals(100.0, trends.get("Parisian Chic"));
+        assertEquals(70.0, trends.get("Tokyo Fashion"));
+        assertFalse(trends.containsKey("Rio Beachwear"));
+
+        Map<String, Double> products = columns.productPopularity();
+        assertEquals(60.0, products.get("Casual Shirt"));
+        assertEquals(90.0, products.get("Winter Coat"));
+    }
+
+    /**
+     * Test the category roll-ups, including the null value reported for a category without scores.
+     */
+    @Test
+    public void testPopularityByCategory() {
+        Map<String, Double> products = columns.productPopularityByCategory();
+        assertEquals(60.0, products.get("Tops"));
+        assertEquals(90.0, products.get("Outerwear"));
+
+        Map<String, Double> trends = columns.trendPopularityByCategory();
+        assertEquals(100.0, trends.get("Tops"));
+        assertEquals(70.0, trends.get("Outerwear"));
+    }
+
+    /**
+     * Test that trends of a season are reported even when they have no score yet.
+     */
+    @Test
+    public void testTrendPopularityBySeason() {
+        Map<String, Double> result = columns.trendPopularityBySeason("Summer");
+
+        assertEquals(1, result.size());
+        assertTrue(result.containsKey("Rio Beachwear"));
+        assertNull(result.get("Rio Beachwear"));
+    }
+
+    /**
+     * Test that the snapshot agrees with the individual scans and covers every season.
+     */
+    @Test
+    public void testSnapshot() {
+        AnalysisSnapshot snapshot = columns.snapshot();
+
+        assertEquals(columns.categoryPopularityBySeason("Fall"), snapshot.getCategoryPopularityBySeason().get("Fall"));
+        assertEquals(Map.of("Tops", 20.0), snapshot.getCategoryPopularityBySeason().get("Summer"));
+        assertEquals(columns.trendPopularityBySeason("Fall"), snapshot.getTrendPopularityBySeason().get("Fall"));
+        assertNull(snapshot.getTrendPopularityBySeason().get("Summer").get("Rio Beachwear"));
+        assertEquals(columns.trendPopularity(), snapshot.getTrendPopularity());
+        assertEquals(columns.productPopularity(), snapshot.getProductPopularity());
+        assertEquals(columns.productPopularityByCategory(), snapshot.getProductPopularityByCategory());
+        assertEquals(columns.trendPopularityByCategory(), snapshot.getTrendPopularityByCategory());
+        assertEquals(columns.designerPopularity(), snapshot.getDesignerPopularity());
+        assertEquals(Map.of("Tops", 1, "Outerwear", 1), snapshot.getProductCountByCategory());
+    }
+
+    /**
+     * Test the filtered scans used by the top-k queries.
+     */
+    @Test
+    public void testFilteredPopularity() {
+        assertEquals(Map.of("Parisian Chic", 100.0, "Tokyo Fashion", 70.0), columns.trendPopularity("FALL", null, null));
+        assertEquals(Map.of("Tokyo Fashion", 70.0), columns.trendPopularity(null, "tokyo", 2L));
+        assertTrue(columns.trendPopularity("Winter", null, null).isEmpty());
+        assertEquals(Map.of("Winter Coat", 90.0), columns.productPopularity(2L));
+        assertTrue(columns.designerPopularity("Paris").isEmpty());
+        assertEquals(Map.of("Tops", 30.0, "Outerwear", 80.0), columns.categoryPopularity(null));
+    }
+
+    /**
+     * Test that score writes are applied to a copy, replacing existing rows and adding new ones.
+     */
+    @Test
+    public void testWithScores() {
+        PopularityColumns updated = columns.withScores(List.of(
+                PopularityChangeEvent.forTrend(11L, 90),
+                PopularityChangeEvent.forProduct(100L, 11L, 30),
+                PopularityChangeEvent.forProduct(101L, 11L, 70),
+                PopularityChangeEvent.forCategory(2L, "summer", 60),
+                PopularityChangeEvent.forTrend(99L, 10)));
+
+        assertEquals(Map.of("Parisian Chic", 100.0, "Tokyo Fashion", 90.0), updated.trendPopularity());
+        assertEquals(Map.of("Casual Shirt", 40.0, "Winter Coat", 80.0), updated.productPopularity());
+        assertEquals(Map.of("Tops", 20.0, "Outerwear", 60.0), updated.categoryPopularityBySeason("Summer"));
+        assertEquals(Map.of("Parisian Chic", 100.0, "Tokyo Fashion", 70.0), columns.trendPopularity());
+        assertEquals(3, columns.productPopularityScore.length);
+
+        assertNull(columns.withScores(List.of(PopularityChangeEvent.forCategory(1L, "Winter", 10))));
+    }
+
+    /**
+     * Test that only the columns of the written table are copied, and that a key added by one batch is
+     * updated in place by the next.
+     */
+    @Test
+    public void testWithScoresCopiesWrittenColumns() {
+        PopularityColumns trendOnly = columns.withScores(List.of(PopularityChangeEvent.forTrend(10L, 50)));
+        assertNotSame(columns.trendPopularityScore, trendOnly.trendPopularityScore);
+        assertSame(columns.productPopularityScore, trendOnly.productPopularityScore);
+        assertSame(columns.categoryPopularityScore, trendOnly.categoryPopularityScore);
+
+        PopularityColumns overwritten = columns.withScores(List.of(PopularityChangeEvent.forProduct(100L, 10L, 10)));
+        assertSame(columns.productPopularityProduct, overwritten.productPopularityProduct);
+        assertEquals(3, overwritten.productPopularityScore.length);
+
+        PopularityColumns added = columns.withScores(List.of(
+                PopularityChangeEvent.forProduct(101L, 11L, 70),
+                PopularityChangeEvent.forProduct(101L, 11L, 50)));
+        PopularityColumns again = added.withScores(List.of(PopularityChangeEvent.forProduct(101L, 11L, 30)));
+        assertEquals(4, added.productPopularityScore.length);
+        assertEquals(4, again.productPopularityScore.length);
+        assertSame(added.productPopularityProduct, again.productPopularityProduct);
+        assertEquals(Map.of("Casual Shirt", 60.0, "Winter Coat", 60.0), again.productPopularity());
+    }
+}
@@ -0,0 +1,113 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.dao.PopularityCube.Fact;
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.CubeCell;
+import com.wileyedge.fashiontrendanalysis.model.CubeDimension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PopularityCube.
+ * It checks roll-up, drill-down and slice queries and the incremental refresh after writes.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PopularityCubeTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PopularityCube cube;
+
+    /**
+     * Loads three trends: two Outerwear trends in Paris in Fall by different designers and one Tops trend.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        List<Fact> facts = new ArrayList<>(List.of(
+                new Fact(1L, new String[]{"Outerwear", "Fall", "Paris", "Designer A"}, 1, 80),
+                new Fact(2L, new String[]{"Outerwear", "Fall", "Paris", "Designer B"}, 2, 120),
+                new Fact(3L, new String[]{"Tops", "Summer", "Rio de Janeiro", null}, 1, 90)));
+        when(jdbcTemplate.query(eq(PopularityCube.ALL_FACTS_SQL), any(RowMapper.class))).thenReturn(facts);
+        cube = new PopularityCube(jdbcTemplate);
+    }
+
+    /**
+     * Test the grand total, a roll-up to one dimension and a slice drilled down to designers.
+     */
+    @Test
+    public void testQueries() {
+        List<CubeCell> total = cube.query(Set.of(), Map.of());
+        assertEquals(1, total.size());
+        assertEquals(72.5, total.get(0).getAverageScore());
+        assertEquals(4, total.get(0).getCount());
+
+        List<CubeCell> byCategory = cube.query(Set.of(CubeDimension.CATEGORY), Map.of());
+        assertEquals(Map.of("category", "Tops"), byCategory.get(0).getCoordinates());
+        assertEquals(90.0, byCategory.get(0).getAverageScore());
+        assertEquals(200.0 / 3, byCategory.get(1).getAverageScore());
+
+        List<CubeCell> byDesigner = cube.query(Set.of(CubeDimension.DESIGNER),
+                Map.of(CubeDimension.CATEGORY, "outerwear", CubeDimension.LOCATION, "Paris", CubeDimension.SEASON, "FALL"));
+        assertEquals(2, byDesigner.size());
+        assertEquals(Map.of("designer", "Designer A"), byDesigner.get(0).getCoordinates());
+        assertEquals(60.0, byDesigner.get(1).getAverageScore());
+
+        verify(jdbcTemplate, times(1)).query(eq(PopularityCube.ALL_FACTS_SQL), any(RowMapper.class));
+    }
+
+    /**
+     * Test that a score write replaces the scores of its trend without reloading the cube.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScoreWrite() {
+        cube.query(Set.of(), Map.of());
+
+        cube.onDataChange(PopularityChangeEvent.forTrend(2L, 20));
+
+        List<CubeCell> byDesigner = cube.query(Set.of(CubeDimension.DESIGNER), Map.of(CubeDimension.CATEGORY, "Outerwear"));
+        assertEquals(80.0, byDesigner.get(0).getAverageScore());
+        assertEquals(20.0, byDesigner.get(1).getAverageScore());
+        assertEquals(2, byDesigner.get(1).getCount());
+        verify(jdbcTemplate, times(1)).query(eq(PopularityCube.ALL_FACTS_SQL), any(RowMapper.class));
+    }
+
+    /**
+     * Test that a trend write re-reads that trend only and a designer write reloads the whole cube.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTrendAndDimensionWrites() {
+        cube.query(Set.of(), Map.of());
+        when(jdbcTemplate.query(eq(PopularityCube.TREND_FACT_SQL), any(RowMapper.class), eq(3L))).thenReturn(
+                List.of(new Fact(3L, new String[]{"Tops", "Summer", "Paris", null}, 1, 90)));
+
+        cube.onDataChange(new DataChangeEvent(DataTable.TREND, 3L));
+
+        List<CubeCell> byLocation = cube.query(Set.of(CubeDimension.LOCATION), Map.of());
+        assertEquals(1, byLocation.size());
+        assertEquals(4, byLocation.get(0).getCount());
+
+        cube.onDataChange(new DataChangeEvent(DataTable.DESIGNER, 1L));
+        cube.query(Set.of(), Map.of());
+        verify(jdbcTemplate, times(2)).query(eq(PopularityCube.ALL_FACTS_SQL), any(RowMapper.class));
+    }
+}
@@ -0,0 +1,90 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.HistoryResolution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the PopularityHistoryDaoImpl.
+ * It tests recording scores into the history and reading them back at different resolutions.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PopularityHistoryDaoImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PopularityHistoryDaoImpl historyDao;
+
+    /**
+     * Test that recording scores appends their raw points with one batch and merges the scores of a series into
+     * one hourly and one daily bucket.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordScores() {
+        Instant recordedAt = Instant.parse("2023-10-01T10:15:30Z");
+
+        historyDao.recordScores(List.of(PopularityChangeEvent.forProduct(9L, 3L, 80),
+                PopularityChangeEvent.forProduct(7L, 3L, 40), PopularityChangeEvent.forProduct(9L, 3L, 60)), recordedAt);
+
+        ArgumentCaptor<List<Object[]>> points = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO popularity_history"), points.capture());
+        assertEquals(3, points.getValue().size());
+        assertArrayEquals(new Object[]{"PRODUCT_POPULARITY", 9L, 3L, 80, Timestamp.from(recordedAt)}, points.getValue().get(0));
+        ArgumentCaptor<List<Object[]>> buckets = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO popularity_rollup"), buckets.capture());
+        assertEquals(4, buckets.getValue().size());
+        assertArrayEquals(new Object[]{"PRODUCT_POPULARITY", 9L, "HOUR", Timestamp.from(Instant.parse("2023-10-01T10:00:00Z")),
+                60, 80, 140L, 2L}, buckets.getValue().get(0));
+        assertEquals("DAY", buckets.getValue().get(1)[2]);
+        assertEquals(Timestamp.from(Instant.parse("2023-10-01T00:00:00Z")), buckets.getValue().get(1)[3]);
+        assertEquals(7L, buckets.getValue().get(2)[1]);
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    /**
+     * Test that raw points are read from the history table and roll-ups from the roll-up table.
+     */
+    @Test
+    public void testGetPointsByResolution() {
+        Instant from = Instant.parse("2023-10-01T10:30:00Z");
+        Instant to = Instant.parse("2023-10-02T00:00:00Z");
+
+        historyDao.getPoints(DataTable.TREND_POPULARITY, 1L, HistoryResolution.RAW, from, to);
+        historyDao.getPoints(DataTable.TREND_POPULARITY, 1L, HistoryResolution.HOUR, from, to);
+
+        verify(jdbcTemplate).query(contains("FROM popularity_history"), any(RowMapper.class),
+                eq("TREND_POPULARITY"), eq(1L), eq(Timestamp.from(from)), eq(Timestamp.from(to)));
+        verify(jdbcTemplate).query(contains("FROM popularity_rollup"), any(RowMapper.class),
+                eq("TREND_POPULARITY"), eq(1L), eq("HOUR"), eq(Timestamp.from(Instant.parse("2023-10-01T10:00:00Z"))), eq(Timestamp.from(to)));
+    }
+
+    /**
+     * Test that the coarsest resolution not wider than the requested step is chosen.
+     */
+    @Test
+    public void testCoarsestResolution() {
+        assertEquals(HistoryResolution.RAW, HistoryResolution.coarsestFor(Duration.ofMinutes(10)));
+        assertEquals(HistoryResolution.HOUR, HistoryResolution.coarsestFor(Duration.ofHours(6)));
+        assertEquals(HistoryResolution.DAY, HistoryResolution.coarsestFor(Duration.ofDays(3)));
+    }
+}
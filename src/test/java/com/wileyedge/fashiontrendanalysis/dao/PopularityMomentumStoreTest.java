@@ -0,0 +1,129 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.PopularityMomentum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PopularityMomentumStore.
+ * It checks the momentum and hot score after a sequence of writes and their decay while no score is written.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PopularityMomentumStoreTest {
+
+    private static final Instant T0 = Instant.parse("2023-10-01T00:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PopularityMomentumStore store;
+
+    @BeforeEach
+    public void setup() {
+        store = new PopularityMomentumStore(jdbcTemplate, Duration.ofHours(1), Duration.ofHours(24));
+    }
+
+    /**
+     * Test that a rising score gives positive momentum and that both values halve after their half-life.
+     */
+    @Test
+    public void testTrendMomentum() {
+        store.record(DataTable.TREND_POPULARITY, 1L, null, 50, T0);
+        store.record(DataTable.TREND_POPULARITY, 1L, null, 70, T0.plus(Duration.ofHours(1)));
+
+        PopularityMomentum current = store.trendMomentum(1L, T0.plus(Duration.ofHours(1)));
+        // alpha = 1 - 2^-1 = 0.5 of a velocity of 20 points per hour
+        assertEquals(10.0, current.getMomentum(), 1e-9);
+        double hot = 50 * Math.pow(2, -1.0 / 24) + 20;
+        assertEquals(hot, current.getHotScore(), 1e-9);
+        assertEquals(70, current.getLastScore());
+
+        PopularityMomentum later = store.trendMomentum(1L, T0.plus(Duration.ofHours(25)));
+        assertEquals(hot / 2, later.getHotScore(), 1e-9);
+        assertTrue(later.getMomentum() < 1e-6);
+    }
+
+    /**
+     * Test that rewriting or lowering a score only decays the hot score.
+     */
+    @Test
+    public void testHotScoreIgnoresRepeatsAndDrops() {
+        store.record(DataTable.TREND_POPULARITY, 4L, null, 60, T0);
+        for (int hour = 1; hour <= 10; hour++) {
+            store.record(DataTable.TREND_POPULARITY, 4L, null, 60, T0.plus(Duration.ofHours(hour)));
+        }
+        store.record(DataTable.TREND_POPULARITY, 4L, null, 40, T0.plus(Duration.ofHours(12)));
+
+        assertEquals(60 * Math.pow(2, -12.0 / 24), store.trendMomentum(4L, T0.plus(Duration.ofHours(12))).getHotScore(), 1e-9);
+    }
+
+    /**
+     * Test that a falling score gives negative momentum and that a trend without scores has none.
+     */
+    @Test
+    public void testFallingAndUnknown() {
+        store.record(DataTable.TREND_POPULARITY, 2L, null, 90, T0);
+        store.record(DataTable.TREND_POPULARITY, 2L, null, 30, T0.plus(Duration.ofHours(2)));
+
+        assertTrue(store.trendMomentum(2L, T0.plus(Duration.ofHours(2))).getMomentum() < 0);
+        assertNull(store.trendMomentum(3L, T0));
+    }
+
+    /**
+     * Test that product scores are tracked separately per trend.
+     */
+    @Test
+    public void testProductMomentumPerTrend() {
+        store.record(DataTable.PRODUCT_POPULARITY, 5L, 1L, 40, T0);
+        store.record(DataTable.PRODUCT_POPULARITY, 5L, 2L, 80, T0);
+        store.record(DataTable.PRODUCT_POPULARITY, 5L, 1L, 60, T0.plus(Duration.ofHours(1)));
+
+        Map<Long, PopularityMomentum> byTrend = store.productMomentum(5L, T0.plus(Duration.ofHours(1)));
+
+        assertEquals(2, byTrend.size());
+        assertEquals(10.0, byTrend.get(1L).getMomentum(), 1e-9);
+        assertEquals(0.0, byTrend.get(2L).getMomentum());
+        assertNull(store.trendMomentum(5L, T0));
+    }
+
+    /**
+     * Test that the rankings follow the decayed values, seek past a rank, and move a trend when it is rewritten.
+     */
+    @Test
+    public void testRankings() {
+        store.record(DataTable.TREND_POPULARITY, 1L, null, 100, T0);
+        store.record(DataTable.TREND_POPULARITY, 2L, null, 60, T0.plus(Duration.ofHours(24)));
+        store.record(DataTable.TREND_POPULARITY, 3L, null, 40, T0.plus(Duration.ofHours(24)));
+        store.record(DataTable.TREND_POPULARITY, 4L, null, 90, T0);
+        store.record(DataTable.TREND_POPULARITY, 4L, null, 30, T0.plus(Duration.ofHours(1)));
+        store.record(DataTable.TREND_POPULARITY, 5L, null, 10, T0);
+        store.record(DataTable.TREND_POPULARITY, 5L, null, 20, T0.plus(Duration.ofHours(1)));
+
+        // At T0 + 24h the hot scores are 60, 50 (100 halved), 45 (90 halved), 40 and 10.
+        List<PopularityMomentumStore.Rank> hot = store.rankedTrends(PopularityMomentumStore.Ranking.HOT_SCORE, null, 10);
+        assertEquals(List.of(2L, 1L, 4L, 3L, 5L), trendIds(hot));
+        assertEquals(List.of(4L, 3L), trendIds(store.rankedTrends(PopularityMomentumStore.Ranking.HOT_SCORE, hot.get(1), 2)));
+        assertEquals(List.of(5L, 1L, 2L, 3L, 4L),
+                trendIds(store.rankedTrends(PopularityMomentumStore.Ranking.MOMENTUM, null, 10)));
+
+        store.record(DataTable.TREND_POPULARITY, 3L, null, 200, T0.plus(Duration.ofHours(48)));
+        assertEquals(List.of(3L, 2L, 1L, 4L, 5L),
+                trendIds(store.rankedTrends(PopularityMomentumStore.Ranking.HOT_SCORE, null, 10)));
+    }
+
+    private static List<Long> trendIds(List<PopularityMomentumStore.Rank> ranks) {
+        return ranks.stream().map(PopularityMomentumStore.Rank::trendId).toList();
+    }
+}
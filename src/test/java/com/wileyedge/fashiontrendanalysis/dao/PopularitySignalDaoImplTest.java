@@ -0,0 +1,69 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeBatchEvent;
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal;
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal.Target;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the PopularitySignalDaoImpl.
+ * It tests that a mixed batch is written with one JDBC batch per table and announced with one event per table.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PopularitySignalDaoImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PopularitySignalDaoImpl signalDao;
+
+    /**
+     * Test that signals are grouped by table, keep their order and publish one event per table with its changed rows.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testWriteBatch() {
+        when(jdbcTemplate.batchUpdate(eq(PopularitySignalDaoImpl.TREND_SQL), anyList())).thenReturn(new int[]{1, 0});
+        when(jdbcTemplate.batchUpdate(eq(PopularitySignalDaoImpl.PRODUCT_SQL), anyList())).thenReturn(new int[]{-2, -2});
+
+        int written = signalDao.writeBatch(List.of(
+                new PopularitySignal(Target.TREND, 1L, null, null, null, 70),
+                new PopularitySignal(Target.PRODUCT, 1L, 5L, null, null, 40),
+                new PopularitySignal(Target.TREND, 99L, null, null, null, 10),
+                new PopularitySignal(Target.PRODUCT, 1L, 5L, null, null, 45)));
+
+        assertEquals(3, written);
+        ArgumentCaptor<List<Object[]>> products = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(PopularitySignalDaoImpl.PRODUCT_SQL), products.capture());
+        assertArrayEquals(new Object[]{5L, 1L, 40, 40}, products.getValue().get(0));
+        assertArrayEquals(new Object[]{5L, 1L, 45, 45}, products.getValue().get(1));
+        verify(jdbcTemplate, never()).batchUpdate(eq(PopularitySignalDaoImpl.CATEGORY_SQL), anyList());
+
+        ArgumentCaptor<PopularityChangeBatchEvent> events = ArgumentCaptor.forClass(PopularityChangeBatchEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        PopularityChangeBatchEvent trendEvent = events.getAllValues().get(0);
+        assertEquals(DataTable.TREND_POPULARITY, trendEvent.getTable());
+        assertNull(trendEvent.getEntityId());
+        assertEquals(1, trendEvent.getChanges().size());
+        assertEquals(1L, trendEvent.getChanges().get(0).getEntityId());
+        assertEquals(List.of(40, 45), events.getAllValues().get(1).getChanges().stream().map(c -> c.getScore()).toList());
+    }
+}
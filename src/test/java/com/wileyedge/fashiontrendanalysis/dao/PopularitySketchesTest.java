@@ -0,0 +1,146 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.PopularityChangeEvent;
+import com.wileyedge.fashiontrendanalysis.model.PopularityDistribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PopularitySketches.
+ * It checks that score writes reach the sketches of their keys, that sketches of several keys are merged, and
+ * when the sketches are reseeded from the mocked, empty tables.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PopularitySketchesTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PopularitySketches sketches;
+
+    @BeforeEach
+    public void setup() {
+        sketches = new PopularitySketches(jdbcTemplate, 100, 12, 1000, 0.05);
+        sketches.seed();
+    }
+
+    /**
+     * Test that product score writes are recorded per trend and per category, resolving each category once.
+     */
+    @Test
+    public void testProductScoreWrites() {
+        for (long productId = 1; productId <= 100; productId++) {
+            when(jdbcTemplate.queryForList(PopularitySketches.PRODUCT_CATEGORY_SQL, Long.class, productId)).thenReturn(List.of(1L));
+            sketches.onDataChange(PopularityChangeEvent.forProduct(productId, 10L, (int) productId));
+        }
+        when(jdbcTemplate.queryForList(PopularitySketches.PRODUCT_CATEGORY_SQL, Long.class, 101L)).thenReturn(List.of(2L));
+        sketches.onDataChange(PopularityChangeEvent.forProduct(101L, 11L, 80));
+        sketches.onDataChange(PopularityChangeEvent.forProduct(101L, 12L, 60));
+
+        PopularityDistribution trend = sketches.trendDistribution(List.of(10L));
+        assertEquals(100, trend.getCount());
+        assertEquals(100, trend.getDistinctCount(), 5);
+        assertEquals(1.0, trend.getMin());
+        assertEquals(100.0, trend.getMax());
+        assertEquals(50.0, trend.getP50(), 1.0);
+        assertEquals(90.0, trend.getP90(), 1.0);
+
+        PopularityDistribution category = sketches.categoryDistribution(List.of(2L));
+        assertEquals(2, category.getCount());
+        assertEquals(1, category.getDistinctCount());
+        verify(jdbcTemplate, times(1)).queryForList(PopularitySketches.PRODUCT_CATEGORY_SQL, Long.class, 101L);
+    }
+
+    /**
+     * Test that overwritten scores stay in the sketches until more rows than allowed were written, after which
+     * the next read reseeds them.
+     */
+    @Test
+    public void testOverwritesReseed() {
+        PopularitySketches small = new PopularitySketches(jdbcTemplate, 100, 12, 10, 0.05);
+        small.seed();
+        for (int score = 1; score <= 10; score++) {
+            small.onDataChange(PopularityChangeEvent.forCategory(1L, "Fall", score));
+        }
+        PopularityDistribution drifted = small.seasonDistribution(List.of("Fall"));
+        assertEquals(10, drifted.getCount());
+        assertEquals(1, drifted.getDistinctCount());
+        verify(jdbcTemplate, times(2)).query(eq(PopularitySketches.CATEGORY_SCORES_SQL), any(RowCallbackHandler.class));
+
+        small.onDataChange(PopularityChangeEvent.forCategory(1L, "Fall", 70));
+        assertEquals(0, small.seasonDistribution(List.of("Fall")).getCount());
+        verify(jdbcTemplate, times(3)).query(eq(PopularitySketches.CATEGORY_SCORES_SQL), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Test that a seed that failed at startup is retried by the first read.
+     */
+    @Test
+    public void testFailedSeedRetried() {
+        PopularitySketches unseeded = new PopularitySketches(jdbcTemplate, 100, 12, 1000, 0.05);
+        doThrow(new DataAccessResourceFailureException("down")).doNothing()
+                .when(jdbcTemplate).query(eq(PopularitySketches.PRODUCT_SCORES_SQL), any(RowCallbackHandler.class));
+
+        unseeded.seedOnStartup();
+        unseeded.trendDistribution(List.of(10L));
+        unseeded.trendDistribution(List.of(10L));
+
+        // The seed of setup, the failed seed at startup and the retry of the first read.
+        verify(jdbcTemplate, times(3)).query(eq(PopularitySketches.PRODUCT_SCORES_SQL), any(RowCallbackHandler.class));
+    }
+
+    /**
+     * Test that the roll-up over all keys merges their sketches.
+     */
+    @Test
+    public void testRollUp() {
+        sketches.onDataChange(PopularityChangeEvent.forCategory(1L, "Fall", 40));
+        sketches.onDataChange(PopularityChangeEvent.forCategory(2L, "FALL", 80));
+        sketches.onDataChange(PopularityChangeEvent.forCategory(1L, "Summer", 20));
+
+        PopularityDistribution fall = sketches.seasonDistribution(List.of("fall"));
+        assertEquals(2, fall.getCount());
+        assertEquals(2, fall.getDistinctCount());
+
+        PopularityDistribution all = sketches.seasonDistribution(List.of());
+        assertEquals(3, all.getCount());
+        assertEquals(2, all.getDistinctCount());
+        assertEquals(20.0, all.getMin());
+        assertEquals(80.0, all.getMax());
+    }
+
+    /**
+     * Test that an unknown key yields an empty distribution, and that a product write forgets the cached
+     * category and reseeds the sketches on the next read.
+     */
+    @Test
+    public void testEmptyAndProductWrite() {
+        PopularityDistribution empty = sketches.trendDistribution(List.of(99L));
+        assertEquals(0, empty.getCount());
+        assertNull(empty.getP50());
+        verify(jdbcTemplate, times(1)).query(eq(PopularitySketches.PRODUCT_SCORES_SQL), any(RowCallbackHandler.class));
+
+        when(jdbcTemplate.queryForList(PopularitySketches.PRODUCT_CATEGORY_SQL, Long.class, 100L)).thenReturn(List.of(1L));
+        sketches.onDataChange(PopularityChangeEvent.forProduct(100L, 10L, 50));
+        sketches.onDataChange(new DataChangeEvent(DataTable.PRODUCT, 100L));
+        sketches.onDataChange(PopularityChangeEvent.forProduct(100L, 10L, 60));
+
+        verify(jdbcTemplate, times(2)).queryForList(PopularitySketches.PRODUCT_CATEGORY_SQL, Long.class, 100L);
+        sketches.trendDistribution(List.of(10L));
+        sketches.trendDistribution(List.of(10L));
+        verify(jdbcTemplate, times(2)).query(eq(PopularitySketches.PRODUCT_SCORES_SQL), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,273 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.Category;
+import com.wileyedge.fashiontrendanalysis.model.Designer;
+import com.wileyedge.fashiontrendanalysis.model.HistoryResolution;
+import com.wileyedge.fashiontrendanalysis.model.Product;
+import com.wileyedge.fashiontrendanalysis.model.Trend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression suite for the DAO lookups.
+ * It migrates an in-memory H2 database in MySQL mode, calls every DAO method that filters rows, records the
+ * statements they execute with their parameters, and asserts that EXPLAIN reads no filtered table with a full scan.
+ * A lookup losing its index, or a new query without one, fails here.
+ */
+public class QueryPlanTest {
+
+    /**
+     * An executed statement and the parameters bound to it.
+     */
+    private record Executed(String sql, Map<Integer, Object> parameters) {
+    }
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static BatchReader batchReader;
+    private static final List<Executed> executed = new ArrayList<>();
+
+    @BeforeAll
+    public static void migrate() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+        new SchemaMigrator(new JdbcTemplate(dataSource), "classpath:db/migration", true).migrate();
+        // MySQL's FIELD() has no H2 counterpart; it only orders rows and does not affect the plan.
+        new JdbcTemplate(dataSource).execute("CREATE ALIAS field FOR \"" + QueryPlanTest.class.getName() + ".field\"");
+        jdbcTemplate = new JdbcTemplate(recording(dataSource));
+        batchReader = new BatchReader(jdbcTemplate, 500, 1000);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    /**
+     * Test that the lookups of the trend DAO use an index.
+     */
+    @Test
+    public void testTrendDao() {
+        TrendDaoImpl dao = new TrendDaoImpl(jdbcTemplate, event -> { }, null, null, batchReader);
+        assertIndexed(
+                () -> dao.getTrendById(1L),
+                () -> dao.getTrendsByIds(List.of(1L, 2L)),
+                () -> dao.getTrendsAfter(1L, 10),
+                () -> dao.getTrendsByCategory(1L),
+                () -> dao.getTrendsByDesigner(1L),
+                () -> dao.getTrendsByLocation("Paris"),
+                () -> dao.getTrendsBySeason("Fall"),
+                () -> dao.getTrendPopularity(1L),
+                () -> dao.getTrendPopularities(List.of(1L, 2L)),
+                () -> dao.setTrendPopularity(1L, 50),
+                () -> dao.updateTrend(1L, new Trend()),
+                () -> dao.dissociateTrendFromCategory(1L, 1L),
+                () -> dao.deleteTrend(1L));
+    }
+
+    /**
+     * Test that the lookups of the product DAO use an index. The designer association queries are left out, as
+     * they read tables that are not part of the schema.
+     */
+    @Test
+    public void testProductDao() {
+        ProductDaoImpl dao = new ProductDaoImpl(jdbcTemplate, event -> { }, null, null, batchReader);
+        assertIndexed(
+                () -> dao.getProductById(1L),
+                () -> dao.getProductsByIds(List.of(1L, 2L)),
+                () -> dao.getProductsAfter(1L, 10),
+                () -> dao.getProductsByCategory(1L),
+                () -> dao.getProductsByDesigner(1L),
+                () -> dao.getProductPopularityForTrend(1L, 1L),
+                () -> dao.getAllProductPopularities(1L),
+                () -> dao.updateProduct(1L, new Product()),
+                () -> dao.deleteProduct(1L));
+    }
+
+    /**
+     * Test that the lookups of the designer DAO use an index.
+     */
+    @Test
+    public void testDesignerDao() {
+        DesignerDaoImpl dao = new DesignerDaoImpl(jdbcTemplate, event -> { }, null, batchReader);
+        assertIndexed(
+                () -> dao.getDesignerById(1L),
+                () -> dao.getDesignersByIds(List.of(1L, 2L)),
+                () -> dao.getDesignersAfter(1L, 10),
+                () -> dao.getDesignersByLocation("Paris"),
+                () -> dao.getDesignerTrendCount(1L),
+                () -> dao.getDesignerPopularityScore(1L),
+                () -> dao.updateDesigner(1L, new Designer()),
+                () -> dao.deleteDesigner(1L));
+    }
+
+    /**
+     * Test that the lookups of the category DAO use an index.
+     */
+    @Test
+    public void testCategoryDao() {
+        CategoryDaoImpl dao = new CategoryDaoImpl(jdbcTemplate, event -> { }, null, batchReader);
+        assertIndexed(
+                () -> dao.getCategoryById(1L),
+                () -> dao.getCategoriesByIds(List.of(1L, 2L)),
+                () -> dao.getCategoriesAfter(1L, 10),
+                () -> dao.getCategoriesByTrend(1L),
+                () -> dao.getCategoriesByTrends(List.of(1L, 2L)),
+                () -> dao.getCategoriesByProduct(1L),
+                () -> dao.getCategoryPopularityForSeason(1L, "Fall"),
+                () -> dao.getAllCategoryPopularities(1L),
+                () -> dao.getCategoryPopularityOverview(1L),
+                () -> dao.updateCategory(1L, new Category()),
+                () -> dao.deleteCategory(1L));
+    }
+
+    /**
+     * Test that the lookups of the user DAO use an index.
+     */
+    @Test
+    public void testUserDao() {
+        UserDaoImpl dao = new UserDaoImpl();
+        ReflectionTestUtils.setField(dao, "jdbcTemplate", jdbcTemplate);
+        assertIndexed(
+                () -> dao.findByUsername("user1"),
+                () -> dao.findByEmail("user1@example.com"),
+                () -> dao.findById(1L),
+                () -> dao.findAfter(1L, 10),
+                () -> dao.deleteUser(1L));
+    }
+
+    /**
+     * Test that the popularity history reads use the series index.
+     */
+    @Test
+    public void testPopularityHistoryDao() {
+        PopularityHistoryDaoImpl dao = new PopularityHistoryDaoImpl(jdbcTemplate);
+        Instant to = Instant.now();
+        Instant from = to.minusSeconds(3600);
+        assertIndexed(
+                () -> dao.getPoints(DataTable.TREND, 1L, HistoryResolution.RAW, from, to),
+                () -> dao.getPoints(DataTable.TREND, 1L, HistoryResolution.HOUR, from, to));
+    }
+
+    /**
+     * Runs the DAO calls, then checks the plan of every statement they executed with a WHERE clause.
+     */
+    private static void assertIndexed(Runnable... calls) {
+        executed.clear();
+        for (Runnable call : calls) {
+            try {
+                call.run();
+            } catch (EmptyResultDataAccessException e) {
+                // Lookups of missing rows may throw; only the executed statement matters.
+            }
+        }
+        List<Executed> filtered = executed.stream()
+                .filter(statement -> statement.sql().toUpperCase(Locale.ROOT).contains("WHERE"))
+                .toList();
+        assertFalse(filtered.isEmpty());
+        for (Executed statement : filtered) {
+            String plan = explain(statement);
+            assertFalse(plan.contains("tableScan"), () -> "Full scan in the plan of " + statement.sql() + ":\n" + plan);
+        }
+    }
+
+    private static String explain(Executed statement) {
+        return new JdbcTemplate(dataSource).execute((Connection connection) -> {
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (Map.Entry<Integer, Object> parameter : statement.parameters().entrySet()) {
+                    ps.setObject(parameter.getKey(), parameter.getValue());
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wraps the data source so that every prepared statement is recorded with its parameters when executed.
+     */
+    private static DataSource recording(DataSource target) {
+        return proxy(DataSource.class, target, (method, args, result) -> {
+            if (method.getName().equals("getConnection")) {
+                return proxy(Connection.class, result, (connectionMethod, connectionArgs, statement) -> {
+                    if (connectionMethod.getName().equals("prepareStatement")) {
+                        return recordingStatement((String) connectionArgs[0], (PreparedStatement) statement);
+                    }
+                    return statement;
+                });
+            }
+            return result;
+        });
+    }
+
+    private static PreparedStatement recordingStatement(String sql, PreparedStatement target) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, target, (method, args, result) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, args[1]);
+            } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                executed.add(new Executed(sql, new TreeMap<>(parameters)));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Post-processes the result of a call on a proxied JDBC object.
+     */
+    private interface Interceptor {
+        Object after(Method method, Object[] args, Object result) throws SQLException;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Interceptor interceptor) {
+        return (T) Proxy.newProxyInstance(QueryPlanTest.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            try {
+                return interceptor.after(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    /**
+     * H2 stand-in for MySQL's FIELD(value, list...): the 1-based position of the value in the list, or 0.
+     */
+    public static int field(String value, String... list) {
+        for (int i = 0; i < list.length; i++) {
+            if (list[i].equals(value)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,175 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ReplicaRoutingDataSource.
+ * The primary and the replicas are separate in-memory H2 databases, each holding a row with its own name, so
+ * a query tells which database it was routed to.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    /**
+     * Stand-in for a service: its reads and writes query the database they are routed to.
+     */
+    public static class Catalogue {
+
+        private final JdbcTemplate jdbcTemplate;
+        private Catalogue self;
+
+        public Catalogue(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        public String getDatabase() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        public String updateDatabase() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        public String updateAndGetDatabase() {
+            return self.getDatabase();
+        }
+    }
+
+    private final AtomicLong nanoTime = new AtomicLong(1);
+    private final List<String> databases = List.of("primary", "replica1", "replica2");
+    private ReadYourWritesTracker tracker;
+    private ReplicaRoutingDataSource dataSource;
+    private Catalogue catalogue;
+
+    @BeforeEach
+    public void setup() {
+        for (String database : databases) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(embedded(database));
+            jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+            jdbcTemplate.update("INSERT INTO node VALUES (?)", database);
+        }
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), nanoTime::get);
+        dataSource = new ReplicaRoutingDataSource(embedded("primary"),
+                List.of(embedded("replica1"), embedded("replica2")), tracker, Duration.ofSeconds(30), nanoTime::get);
+        catalogue = catalogue(dataSource);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        for (String database : databases) {
+            new JdbcTemplate(embedded(database)).execute("DROP ALL OBJECTS");
+        }
+    }
+
+    /**
+     * Test that read-only methods use the replicas in turn, and that writes, reads made by a write and
+     * queries outside the services use the primary.
+     */
+    @Test
+    public void testRouting() {
+        assertEquals("replica1", catalogue.getDatabase());
+        assertEquals("replica2", catalogue.getDatabase());
+        assertEquals("replica1", catalogue.getDatabase());
+        assertEquals("primary", catalogue.updateDatabase());
+        assertEquals("primary", catalogue.updateAndGetDatabase());
+        assertEquals("primary", new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+        assertFalse(ReplicaRoutingDataSource.isReadOnly());
+    }
+
+    /**
+     * Test that reads wrapped for the primary, such as index reloads, stay there even through read-only methods.
+     */
+    @Test
+    public void testOnPrimary() {
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(catalogue::getDatabase));
+        String[] database = new String[1];
+        ReplicaRoutingDataSource.runOnPrimary(() -> database[0] = catalogue.getDatabase());
+        assertEquals("primary", database[0]);
+        assertEquals("replica1", catalogue.getDatabase());
+    }
+
+    /**
+     * Test that a client reads from the primary for the window after it has written, while other clients keep
+     * reading from the replicas.
+     */
+    @Test
+    public void testReadYourWrites() {
+        tracker.onDataChange(new DataChangeEvent(DataTable.TREND, 1L));
+        assertEquals("primary", catalogue.getDatabase());
+
+        MockHttpServletRequest other = new MockHttpServletRequest();
+        other.setRemoteAddr("10.0.0.2");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(other));
+        assertEquals("replica1", catalogue.getDatabase());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica2", catalogue.getDatabase());
+
+        MockHttpServletRequest writer = new MockHttpServletRequest();
+        writer.setRemoteAddr("10.0.0.1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(writer));
+        nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals("primary", catalogue.getDatabase());
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals("replica1", catalogue.getDatabase());
+    }
+
+    /**
+     * Test that a replica refusing connections is skipped until the retry interval has passed, and that the
+     * reads go to the primary when no replica is available.
+     */
+    @Test
+    public void testUnavailableReplica() {
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        Catalogue oneDown = catalogue(new ReplicaRoutingDataSource(embedded("primary"),
+                List.of(missing, embedded("replica2")), tracker, Duration.ofSeconds(30), nanoTime::get));
+        Catalogue allDown = catalogue(new ReplicaRoutingDataSource(embedded("primary"),
+                List.of(missing), tracker, Duration.ofSeconds(30), nanoTime::get));
+
+        assertEquals("primary", oneDown.getDatabase());
+        assertEquals("replica2", oneDown.getDatabase());
+        assertEquals("replica2", oneDown.getDatabase());
+        assertEquals("primary", allDown.getDatabase());
+        assertEquals("primary", allDown.getDatabase());
+
+        new JdbcTemplate(embedded("missing")).execute("CREATE TABLE node (name VARCHAR(20)) AS SELECT 'missing'");
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals("missing", allDown.getDatabase());
+        new JdbcTemplate(embedded("missing")).execute("DROP ALL OBJECTS");
+    }
+
+    private static DataSource embedded(String database) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+    }
+
+    private static Catalogue catalogue(ReplicaRoutingDataSource dataSource) {
+        Catalogue target = new Catalogue(new JdbcTemplate(dataSource));
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new ReadOnlyRoutingInterceptor(List.of("get*", "find*", "calculate*")));
+        Catalogue proxy = (Catalogue) factory.getProxy();
+        target.self = proxy;
+        return proxy;
+    }
+}
@@ -0,0 +1,143 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SchemaMigrator.
+ * It runs the migrations against an in-memory H2 database in MySQL mode.
+ */
+public class SchemaMigratorTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SchemaMigrator migrator;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:migrator;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migrator = new SchemaMigrator(jdbcTemplate, "classpath:db/migration", true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    /**
+     * Test that an empty database is migrated through every version once, with generated keys afterwards.
+     */
+    @Test
+    public void testMigrateEmptyDatabase() {
+        List<Integer> versions = migrator.migrate();
+
+        assertEquals(List.of(1, 2, 3, 4), versions);
+        assertEquals(List.of(), migrator.migrate());
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_version", Integer.class));
+
+        jdbcTemplate.update("INSERT INTO category (category_name) VALUES ('Tops')");
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT category_id FROM category", Integer.class));
+    }
+
+    /**
+     * Test that a database created by the schema script is recorded at the baseline without running it again.
+     */
+    @Test
+    public void testBaselineExistingSchema() {
+        SchemaMigrator.Migration baseline = migrator.migrations().get(0);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            ScriptUtils.executeSqlScript(connection, baseline.script());
+            return null;
+        });
+
+        // Running the baseline again would fail, as its tables exist.
+        assertEquals(List.of(1, 2, 3, 4), migrator.migrate());
+    }
+
+    /**
+     * Test that repeated links and scores are reduced to one row before their unique indexes are added.
+     */
+    @Test
+    public void testRepeatedRowsRemovedBeforeUniqueIndexes() {
+        createBaseline();
+        jdbcTemplate.update("INSERT INTO trend (trend_id, trend_name) VALUES (1, 'Parisian Chic')");
+        jdbcTemplate.update("INSERT INTO category (category_id, category_name) VALUES (1, 'Tops')");
+        jdbcTemplate.update("INSERT INTO trend_category VALUES (1, 1, 1), (2, 1, 1)");
+        jdbcTemplate.update("INSERT INTO category_popularity VALUES (1, 1, 'Fall', 40), (2, 1, 'Fall', 70), (3, 1, NULL, 10), (4, 1, NULL, 20)");
+
+        migrator.migrate();
+
+        assertEquals(List.of(1), jdbcTemplate.queryForList("SELECT trend_category_id FROM trend_category", Integer.class));
+        assertEquals(List.of(2, 3, 4), jdbcTemplate.queryForList(
+                "SELECT category_popularity_id FROM category_popularity ORDER BY category_popularity_id", Integer.class));
+    }
+
+    /**
+     * Test that repeated usernames stop the migration before any of its statements runs, naming the usernames.
+     */
+    @Test
+    public void testRepeatedUsernamesRefused() {
+        createBaseline();
+        jdbcTemplate.update("INSERT INTO fashion_user (user_id, username, email, password_hash, role) VALUES " +
+                "(1, 'anna', 'a1@example.com', 'x', 'USER'), (2, 'anna', 'a2@example.com', 'x', 'USER')");
+
+        IllegalStateException refused = assertThrows(IllegalStateException.class, migrator::migrate);
+
+        assertTrue(refused.getMessage().contains("uq_fashion_user_username on fashion_user (username): [anna] x2"));
+        assertFalse(refused.getMessage().contains("email"));
+        assertEquals(List.of(1), jdbcTemplate.queryForList("SELECT version FROM schema_version", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'idx_trend_season'", Integer.class));
+    }
+
+    /**
+     * Test that a script failing while foreign key checks are suspended switches them back on.
+     */
+    @Test
+    public void testForeignKeyChecksRestoredOnFailure(@TempDir Path location) throws IOException {
+        Files.writeString(location.resolve("V1__parent.sql"), "CREATE TABLE parent (id INT PRIMARY KEY);\n" +
+                "CREATE TABLE child (parent_id INT, FOREIGN KEY (parent_id) REFERENCES parent(id));");
+        Files.writeString(location.resolve("V2__broken.sql"), "SET FOREIGN_KEY_CHECKS = 0;\nALTER TABLE missing ADD x INT;");
+        SchemaMigrator broken = new SchemaMigrator(jdbcTemplate, location.toUri().toString(), true);
+
+        assertThrows(IllegalStateException.class, broken::migrate);
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("INSERT INTO child VALUES (1)"));
+    }
+
+    /**
+     * Test that a script changed after it was applied stops the migration.
+     */
+    @Test
+    public void testChangedScript() {
+        migrator.migrate();
+        jdbcTemplate.update("UPDATE schema_version SET checksum = checksum + 1 WHERE version = 2");
+
+        IllegalStateException changed = assertThrows(IllegalStateException.class, migrator::migrate);
+        assertTrue(changed.getMessage().contains("V2__add_lookup_indexes.sql"));
+    }
+
+    private void createBaseline() {
+        SchemaMigrator.Migration baseline = migrator.migrations().get(0);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            ScriptUtils.executeSqlScript(connection, baseline.script());
+            return null;
+        });
+    }
+}
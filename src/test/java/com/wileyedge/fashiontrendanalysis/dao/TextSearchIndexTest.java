@@ -0,0 +1,95 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.Product;
+import com.wileyedge.fashiontrendanalysis.model.SearchHit;
+import com.wileyedge.fashiontrendanalysis.model.Trend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TextSearchIndex.
+ * It checks the BM25 ranking of trends and products and that writes re-index the written document.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TextSearchIndexTest {
+
+    @Mock
+    private TrendDao trendDao;
+
+    @Mock
+    private ProductDao productDao;
+
+    private TextSearchIndex index;
+
+    /**
+     * Seeds the index with three trends and two products.
+     */
+    @BeforeEach
+    public void setup() {
+        when(trendDao.getAllTrends()).thenReturn(List.of(
+                new Trend(1L, "Parisian Chic", "Elegant tailored coats and silk scarves", 1L, 1L, "Paris", "Fall", null),
+                new Trend(2L, "Tokyo Street", "Oversized hoodies and denim jackets", 2L, 2L, "Tokyo", "Spring", null),
+                new Trend(3L, "Rio Beachwear", "Bright swimwear for the beach", 4L, 3L, "Rio de Janeiro", "Summer", null)));
+        when(productDao.getAllProducts()).thenReturn(List.of(
+                new Product(100L, "Denim Jacket", 2L, 2L, "Classic denim jacket"),
+                new Product(101L, "Silk Scarf", 3L, 1L, "Light silk scarf")));
+        index = new TextSearchIndex(trendDao, productDao);
+        index.loadOnStartup();
+    }
+
+    /**
+     * Test that a document matching the query in its name outranks one matching in its description only.
+     */
+    @Test
+    public void testRanking() {
+        List<SearchHit> hits = index.search("denim jacket", null, 10);
+
+        assertEquals(2, hits.size());
+        assertEquals(new SearchHit("product", 100L, "Denim Jacket", hits.get(0).getScore()), hits.get(0));
+        assertEquals("trend", hits.get(1).getType());
+        assertEquals(2L, hits.get(1).getId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    /**
+     * Test that the type filter and the limit are applied and that unknown terms match nothing.
+     */
+    @Test
+    public void testTypeAndLimit() {
+        List<SearchHit> trends = index.search("silk", "trend", 10);
+        assertEquals(1, trends.size());
+        assertEquals(1L, trends.get(0).getId());
+
+        assertEquals(1, index.search("silk", null, 1).size());
+        assertTrue(index.search("velvet", null, 10).isEmpty());
+    }
+
+    /**
+     * Test that an update re-indexes the trend and a delete removes the product.
+     */
+    @Test
+    public void testIncrementalUpdates() {
+        when(trendDao.getTrendById(3L)).thenReturn(
+                new Trend(3L, "Rio Velvet", "Velvet evening wear", 4L, 3L, "Rio de Janeiro", "Summer", null));
+        when(productDao.getProductById(100L)).thenThrow(new EmptyResultDataAccessException(1));
+
+        index.onDataChange(new DataChangeEvent(DataTable.TREND, 3L));
+        index.onDataChange(new DataChangeEvent(DataTable.PRODUCT, 100L));
+
+        assertEquals(3L, index.search("velvet", null, 10).get(0).getId());
+        assertTrue(index.search("swimwear", null, 10).isEmpty());
+        assertEquals(List.of("trend"), index.search("denim", null, 10).stream().map(SearchHit::getType).toList());
+        verify(trendDao, times(1)).getAllTrends();
+    }
+}
@@ -0,0 +1,92 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.Trend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TrendBitmapIndex.
+ * It checks the AND/OR semantics of the filters and that writes refresh single trends.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TrendBitmapIndexTest {
+
+    @Mock
+    private TrendDao trendDao;
+
+    private TrendBitmapIndex index;
+
+    /**
+     * Seeds the index with four trends.
+     */
+    @BeforeEach
+    public void setup() {
+        when(trendDao.getAllTrends()).thenReturn(List.of(
+                new Trend(1L, "Parisian Chic", "", 1L, 10L, "Paris", "Fall", 80),
+                new Trend(2L, "Tokyo Fashion", "", 2L, 11L, "Tokyo", "Summer", 60),
+                new Trend(3L, "Rio Beachwear", "", 2L, 10L, "Rio de Janeiro", "Summer", 90),
+                new Trend(4L, "Paris Street", "", 1L, 11L, "Paris", "Spring", 40)));
+        index = new TrendBitmapIndex(trendDao);
+        index.loadOnStartup();
+    }
+
+    /**
+     * Test that values of one attribute are ORed and attributes are ANDed, ignoring case.
+     */
+    @Test
+    public void testFilter() {
+        assertEquals(List.of(2L, 3L), ids(index.filter(List.of("SUMMER"), null, null, null)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.filter(List.of("fall", "summer"), List.of(), null, null)));
+        assertEquals(List.of(3L), ids(index.filter(List.of("Summer"), null, List.of(2L), List.of(10L))));
+        assertEquals(List.of(1L, 4L), ids(index.filter(null, List.of("paris"), null, null)));
+        assertEquals(0, index.count(List.of("Winter"), null, null, null));
+        assertEquals(4, index.count(null, null, null, null));
+    }
+
+    /**
+     * Test that an update moves a trend between bitmaps and a delete removes it.
+     */
+    @Test
+    public void testRefreshOnWrite() {
+        when(trendDao.getTrendById(2L)).thenReturn(new Trend(2L, "Tokyo Fashion", "", 2L, 11L, "Tokyo", "Fall", 60));
+        when(trendDao.getTrendById(3L)).thenThrow(new EmptyResultDataAccessException(1));
+
+        index.onDataChange(new DataChangeEvent(DataTable.TREND, 2L));
+        index.onDataChange(new DataChangeEvent(DataTable.TREND, 3L));
+
+        assertEquals(List.of(1L, 2L), ids(index.filter(List.of("Fall"), null, null, null)));
+        assertEquals(0, index.count(List.of("Summer"), null, null, null));
+        assertEquals(3, index.count(null, null, null, null));
+        verify(trendDao, times(1)).getAllTrends();
+    }
+
+    /**
+     * Test that callers get copies they can modify without affecting the index.
+     */
+    @Test
+    public void testFilterReturnsCopies() {
+        index.filter(null, null, List.of(1L), null).forEach(trend -> trend.setSeason("Winter"));
+
+        assertEquals(2, index.count(null, null, List.of(1L), null));
+        assertEquals(0, index.count(List.of("Winter"), null, null, null));
+    }
+
+    private static List<Long> ids(List<Trend> trends) {
+        List<Long> ids = new ArrayList<>();
+        trends.forEach(trend -> ids.add(trend.getTrendId()));
+        ids.sort(null);
+        return ids;
+    }
+}
@@ -0,0 +1,86 @@
+package com.wileyedge.fashiontrendanalysis.dao;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.model.SimilarTrend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TrendVectorIndex.
+ * It checks the ranking of similar trends and that a write re-indexes the written trend.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TrendVectorIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TrendVectorIndex index;
+
+    /**
+     * Seeds the index with four trends, two of them alike.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        when(jdbcTemplate.query(eq(TrendVectorIndex.TREND_SQL), any(RowMapper.class))).thenReturn(List.of(
+                source(1L, "Parisian Chic", "Elegant tailored coats and silk scarves", 1L, "Paris", "Fall"),
+                source(2L, "London Layers", "Tailored wool coats with elegant scarves", 1L, "London", "Fall"),
+                source(3L, "Rio Beachwear", "Bright swimwear and sandals for the beach", 4L, "Rio de Janeiro", "Summer"),
+                source(4L, "Tokyo Street", "Oversized hoodies and bold sneakers", 2L, "Tokyo", "Spring")));
+        when(jdbcTemplate.query(eq(TrendVectorIndex.CATEGORY_SQL), any(RowMapper.class)))
+                .thenReturn(List.of(new long[]{2L, 3L}));
+        when(jdbcTemplate.query(eq(TrendVectorIndex.SCORE_SQL + " GROUP BY trend_id"), any(RowMapper.class)))
+                .thenReturn(List.of(Map.entry(1L, 80.0), Map.entry(2L, 85.0), Map.entry(3L, 40.0)));
+        index = new TrendVectorIndex(jdbcTemplate, 8, 4);
+        index.loadOnStartup();
+    }
+
+    /**
+     * Test that the trend sharing category, season, popularity band and terms ranks first.
+     */
+    @Test
+    public void testSimilar() {
+        List<SimilarTrend> similar = index.similar(1L, 2);
+
+        assertFalse(similar.isEmpty());
+        assertTrue(similar.size() <= 2);
+        assertEquals(2L, similar.get(0).getTrendId());
+        assertTrue(similar.get(0).getSimilarity() > 0.5);
+        assertNull(index.similar(99L, 2));
+    }
+
+    /**
+     * Test that a deleted trend disappears from the results.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDeleteReindexes() {
+        when(jdbcTemplate.query(eq(TrendVectorIndex.TREND_SQL + " WHERE trend_id = ?"), any(RowMapper.class), eq(2L)))
+                .thenReturn(List.of());
+
+        index.onDataChange(new DataChangeEvent(DataTable.TREND, 2L));
+
+        assertNull(index.similar(2L, 2));
+        assertTrue(index.similar(1L, 3).stream().noneMatch(trend -> trend.getTrendId() == 2L));
+    }
+
+    private static TrendVectorIndex.Source source(long id, String name, String description, Long categoryId,
+                                                  String location, String season) {
+        return new TrendVectorIndex.Source(id, name, description, categoryId, location, season, new HashSet<>(), null);
+    }
+}
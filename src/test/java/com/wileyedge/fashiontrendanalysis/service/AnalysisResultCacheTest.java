@@ -0,0 +1,83 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.event.DataChangeEvent;
+import com.wileyedge.fashiontrendanalysis.event.DataTable;
+import com.wileyedge.fashiontrendanalysis.event.TableVersions;
+import com.wileyedge.fashiontrendanalysis.model.ResultCacheStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AnalysisResultCache.
+ * It checks that entries are reused per key, invalidated by writes to their tables only, and bounded.
+ */
+public class AnalysisResultCacheTest {
+
+    private final TableVersions tableVersions = new TableVersions();
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private final Supplier<Integer> compute = computations::incrementAndGet;
+
+    /**
+     * Test that a repeated lookup is a hit and a write to a dependency table forces a recomputation.
+     */
+    @Test
+    public void testInvalidatedByWrite() {
+        AnalysisResultCache cache = new AnalysisResultCache(tableVersions, 10);
+
+        assertEquals(1, cache.get("trends", "Fall", compute, DataTable.TREND, DataTable.TREND_POPULARITY));
+        assertEquals(1, cache.get("trends", "Fall", compute, DataTable.TREND, DataTable.TREND_POPULARITY));
+        assertEquals(2, cache.get("trends", "Summer", compute, DataTable.TREND, DataTable.TREND_POPULARITY));
+
+        write(cache, DataTable.CATEGORY_POPULARITY);
+        assertEquals(1, cache.get("trends", "Fall", compute, DataTable.TREND, DataTable.TREND_POPULARITY));
+
+        write(cache, DataTable.TREND_POPULARITY);
+        assertEquals(3, cache.get("trends", "Fall", compute, DataTable.TREND, DataTable.TREND_POPULARITY));
+
+        assertEquals(new ResultCacheStats(2, 3, 0, 2, 1, 10), cache.getStats());
+    }
+
+    /**
+     * Test that a result computed while a write commits is not served afterwards.
+     */
+    @Test
+    public void testRaceWithWrite() {
+        AnalysisResultCache cache = new AnalysisResultCache(tableVersions, 10);
+
+        cache.get("trends", "Fall", () -> {
+            // The write commits after the versions were taken but before the entry is stored.
+            write(cache, DataTable.TREND);
+            return 0;
+        }, DataTable.TREND);
+
+        assertEquals(1, cache.get("trends", "Fall", compute, DataTable.TREND));
+    }
+
+    /**
+     * Test that the least recently used entry is evicted beyond the capacity.
+     */
+    @Test
+    public void testEviction() {
+        AnalysisResultCache cache = new AnalysisResultCache(tableVersions, 2);
+
+        cache.get("trends", "Fall", compute, DataTable.TREND);
+        cache.get("trends", "Summer", compute, DataTable.TREND);
+        cache.get("trends", "Fall", compute, DataTable.TREND);
+        cache.get("trends", "Winter", compute, DataTable.TREND);
+
+        assertEquals(1, cache.get("trends", "Fall", compute, DataTable.TREND));
+        assertEquals(4, cache.get("trends", "Summer", compute, DataTable.TREND));
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    private void write(AnalysisResultCache cache, DataTable table) {
+        DataChangeEvent event = new DataChangeEvent(table, 1L);
+        tableVersions.onDataChange(event);
+        cache.onDataChange(event);
+    }
+}
@@ -0,0 +1,91 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.KeysetPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for KeysetPager.
+ * It checks that the cursors walk a listing exactly once and that foreign or malformed cursors are rejected.
+ */
+public class KeysetPagerTest {
+
+    private final KeysetPager pager = new KeysetPager(2, 3);
+
+    private final List<Long> ids = List.of(1L, 4L, 5L, 9L, 12L);
+
+    /**
+     * Reads up to limit IDs greater than afterId, as the DAOs do.
+     */
+    private List<Long> fetch(Long afterId, Integer limit) {
+        return ids.stream().filter(id -> afterId == null || id > afterId).limit(limit).toList();
+    }
+
+    /**
+     * Test that following the cursors returns every ID once and the last page has no cursor.
+     */
+    @Test
+    public void testWalkById() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<Long> page = pager.page("ids", cursor, null, this::fetch, Function.identity());
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(ids, seen);
+        assertEquals(3, pages);
+    }
+
+    /**
+     * Test that a page ending exactly at the last item has no cursor.
+     */
+    @Test
+    public void testExactLastPage() {
+        KeysetPage<Long> page = pager.page("ids", null, 3, this::fetch, Function.identity());
+        assertNotNull(page.getNextCursor());
+
+        KeysetPage<Long> last = pager.page("ids", page.getNextCursor(), 3, this::fetch, Function.identity());
+        assertEquals(List.of(9L, 12L), last.getItems());
+        assertNull(last.getNextCursor());
+    }
+
+    /**
+     * Test that a cursor encoded by the helpers decodes to its key parts, and only for its own listing.
+     */
+    @Test
+    public void testCursorHelpers() {
+        String cursor = KeysetPager.encode("letters", "rank", "c", "3");
+        assertEquals(List.of("rank", "c", "3"), KeysetPager.decode("letters", cursor, -1));
+        assertThrows(CustomUncheckedException.class, () -> KeysetPager.decode("letters", cursor, 1));
+        assertThrows(CustomUncheckedException.class, () -> KeysetPager.decode("numbers", cursor, -1));
+        assertEquals(2, pager.size(null));
+    }
+
+    /**
+     * Test that limits outside 1..max and cursors of another listing or not produced by the pager are rejected.
+     */
+    @Test
+    public void testInvalidRequests() {
+        CustomUncheckedException tooLarge = assertThrows(CustomUncheckedException.class,
+                () -> pager.page("ids", null, 4, this::fetch, Function.identity()));
+        assertEquals("INVALID_LIMIT", tooLarge.getErrorCode());
+        assertThrows(CustomUncheckedException.class, () -> pager.page("ids", null, 0, this::fetch, Function.identity()));
+
+        String cursor = pager.page("ids", null, null, this::fetch, Function.identity()).getNextCursor();
+        CustomUncheckedException foreign = assertThrows(CustomUncheckedException.class,
+                () -> pager.page("other", cursor, null, this::fetch, Function.identity()));
+        assertEquals("INVALID_CURSOR", foreign.getErrorCode());
+        assertThrows(CustomUncheckedException.class,
+                () -> pager.page("ids", "not a cursor!", null, this::fetch, Function.identity()));
+    }
+}
@@ -0,0 +1,137 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import com.wileyedge.fashiontrendanalysis.dao.PopularitySignalDao;
+import com.wileyedge.fashiontrendanalysis.exceptions.CustomUncheckedException;
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal;
+import com.wileyedge.fashiontrendanalysis.model.PopularitySignal.Target;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for PopularityIngestionServiceImpl.
+ * It checks that buffered signals are group-committed, that a batch that does not fit is rejected as a whole
+ * and that a batch that fails to write is retried signal by signal.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PopularityIngestionServiceImplTest {
+
+    @Mock
+    private PopularitySignalDao signalDao;
+
+    private PopularityIngestionServiceImpl ingestionService;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        ingestionService.stop();
+    }
+
+    /**
+     * Test that signals are written in batches of at most the batch size, in the order they were submitted.
+     */
+    @Test
+    public void testGroupCommit() throws InterruptedException {
+        List<List<PopularitySignal>> batches = Collections.synchronizedList(new ArrayList<>());
+        when(signalDao.writeBatch(anyList())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.getArgument(0)));
+            return 0;
+        });
+        ingestionService = new PopularityIngestionServiceImpl(signalDao, 100, 4, 10);
+        ingestionService.start();
+
+        List<PopularitySignal> signals = new ArrayList<>();
+        for (int score = 0; score < 10; score++) {
+            signals.add(new PopularitySignal(Target.TREND, 1L, null, null, null, score));
+        }
+        assertTrue(ingestionService.submit(signals));
+        ingestionService.stop();
+
+        List<PopularitySignal> written = new ArrayList<>();
+        for (List<PopularitySignal> batch : batches) {
+            assertTrue(batch.size() <= 4);
+            written.addAll(batch);
+        }
+        assertEquals(signals, written);
+        assertEquals(0, ingestionService.getPending());
+    }
+
+    /**
+     * Test that a batch larger than the free room is rejected without queueing any of it.
+     */
+    @Test
+    public void testFullBufferRejectsBatch() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(signalDao.writeBatch(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return 0;
+        });
+        ingestionService = new PopularityIngestionServiceImpl(signalDao, 3, 10, 10);
+        ingestionService.start();
+        PopularitySignal signal = new PopularitySignal(Target.CATEGORY, null, null, 2L, "Fall", 50);
+
+        // Hold the flusher in its first write so the buffer cannot drain.
+        assertTrue(ingestionService.submit(List.of(signal)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        assertTrue(ingestionService.submit(List.of(signal, signal)));
+        assertFalse(ingestionService.submit(List.of(signal, signal)));
+        assertEquals(2, ingestionService.getPending());
+
+        release.countDown();
+        ingestionService.stop();
+        assertEquals(0, ingestionService.getPending());
+    }
+
+    /**
+     * Test that a batch that fails is retried one signal at a time, so only the failing signal is dropped.
+     */
+    @Test
+    public void testFailedBatchRetriedPerSignal() throws InterruptedException {
+        PopularitySignal good = new PopularitySignal(Target.TREND, 1L, null, null, null, 50);
+        PopularitySignal bad = new PopularitySignal(Target.PRODUCT, 1L, 99L, null, null, 50);
+        List<List<PopularitySignal>> retries = Collections.synchronizedList(new ArrayList<>());
+        when(signalDao.writeBatch(anyList())).thenAnswer(invocation -> {
+            List<PopularitySignal> batch = invocation.getArgument(0);
+            if (batch.contains(bad)) {
+                throw new DataIntegrityViolationException("no such product");
+            }
+            retries.add(new ArrayList<>(batch));
+            return 1;
+        });
+        ingestionService = new PopularityIngestionServiceImpl(signalDao, 10, 10, 10);
+        ingestionService.start();
+
+        assertTrue(ingestionService.submit(List.of(good, bad)));
+        ingestionService.stop();
+
+        assertEquals(List.of(List.of(good)), retries);
+        verify(signalDao, times(3)).writeBatch(anyList());
+    }
+
+    /**
+     * Test that a signal without the key of its target is refused.
+     */
+    @Test
+    public void testInvalidSignal() {
+        ingestionService = new PopularityIngestionServiceImpl(signalDao, 10, 10, 10);
+
+        assertThrows(CustomUncheckedException.class, () -> ingestionService.submit(
+                List.of(new PopularitySignal(Target.PRODUCT, 1L, null, null, null, 50))));
+        verifyNoInteractions(signalDao);
+    }
+}
@@ -0,0 +1,48 @@
+package com.wileyedge.fashiontrendanalysis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TopK.
+ * It checks the order and size of the bounded-heap selection.
+ */
+public class TopKTest {
+
+    /**
+     * Test that the k highest scores are returned in descending order, ties broken by name.
+     */
+    @Test
+    public void testSelect() {
+        Map<String, Double> scores = new HashMap<>();
+        scores.put("Floral Dress", 70.0);
+        scores.put("Sneakers", 95.0);
+        scores.put("Beach Hat", 80.0);
+        scores.put("Denim Jacket", 80.0);
+        scores.put("Winter Boots", null);
+        scores.put("Sunglasses", 60.0);
+
+        Map<String, Double> top = TopK.select(scores, 3);
+
+        assertEquals(List.of("Sneakers", "Beach Hat", "Denim Jacket"), new ArrayList<>(top.keySet()));
+        assertEquals(95.0, top.get("Sneakers"));
+    }
+
+    /**
+     * Test that asking for more entries than exist returns all scored entries.
+     */
+    @Test
+    public void testSelectMoreThanAvailable() {
+        Map<String, Double> scores = new HashMap<>();
+        scores.put("Tops", 40.0);
+        scores.put("Outerwear", null);
+
+        assertEquals(Map.of("Tops", 40.0), TopK.select(scores, 5));
+    }
+}
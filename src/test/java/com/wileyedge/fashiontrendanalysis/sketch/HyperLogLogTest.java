@@ -0,0 +1,58 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HyperLogLog.
+ * It checks the distinct count estimates for small and large cardinalities and the merge of sketches.
+ */
+public class HyperLogLogTest {
+
+    /**
+     * Test that repeated values are counted once and small counts are exact enough to be useful.
+     */
+    @Test
+    public void testSmallCardinality() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (long id = 1; id <= 100; id++) {
+                sketch.offer(id);
+            }
+        }
+
+        assertEquals(100, sketch.cardinality(), 5);
+    }
+
+    /**
+     * Test that a large count is estimated within a few standard errors.
+     */
+    @Test
+    public void testLargeCardinality() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (long id = 0; id < 1_000_000; id++) {
+            sketch.offer(id);
+        }
+
+        assertEquals(1_000_000, sketch.cardinality(), 50_000);
+    }
+
+    /**
+     * Test that merging sketches over overlapping ranges counts the union.
+     */
+    @Test
+    public void testMerge() {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (long id = 0; id < 2_000; id++) {
+            first.offer(id);
+            second.offer(id + 1_000);
+        }
+
+        first.merge(second);
+
+        assertEquals(3_000, first.cardinality(), 150);
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(10)));
+    }
+}
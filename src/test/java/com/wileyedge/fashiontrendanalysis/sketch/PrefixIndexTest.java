@@ -0,0 +1,65 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PrefixIndex.
+ * It checks that completions match any word of a name, rank by score and follow puts and removes.
+ */
+public class PrefixIndexTest {
+
+    /**
+     * Test that a prefix matches the start of every word regardless of case, ranked by score with unscored last.
+     */
+    @Test
+    public void testCompleteRanksByScore() {
+        PrefixIndex index = new PrefixIndex();
+        index.put(1L, "Parisian Chic", 80.0);
+        index.put(2L, "Paris Street", 95.0);
+        index.put(3L, "Shanghai Chic", null);
+        index.put(4L, "Tokyo Fashion", 70.0);
+
+        assertEquals(List.of(2L, 1L), ids(index.complete("PAR", 10)));
+        assertEquals(List.of(1L, 3L), ids(index.complete("chic", 10)));
+        assertEquals(List.of(2L), ids(index.complete("p", 1)));
+        assertTrue(index.complete("milan", 10).isEmpty());
+    }
+
+    /**
+     * Test that a name matching the prefix in two words is suggested once.
+     */
+    @Test
+    public void testNoDuplicates() {
+        PrefixIndex index = new PrefixIndex();
+        index.put(1L, "Street Style Streetwear", 50.0);
+
+        assertEquals(List.of(1L), ids(index.complete("street", 10)));
+    }
+
+    /**
+     * Test that renaming replaces the old keys, removing drops all keys, and the arrays grow past their capacity.
+     */
+    @Test
+    public void testPutAndRemove() {
+        PrefixIndex index = new PrefixIndex();
+        for (long id = 0; id < 100; id++) {
+            index.put(id, "Look " + id, (double) id);
+        }
+        index.put(7L, "Velvet Evening", 7.0);
+        index.remove(99L);
+
+        assertEquals(99, index.size());
+        assertEquals(List.of(98L, 97L), ids(index.complete("look", 2)));
+        assertEquals(List.of(7L), ids(index.complete("ev", 10)));
+        assertFalse(ids(index.complete("look 7", 100)).contains(7L));
+        assertEquals(new PrefixIndex.Completion(7L, "Velvet Evening", 7.0), index.complete("velvet", 1).get(0));
+    }
+
+    private static List<Long> ids(List<PrefixIndex.Completion> completions) {
+        return completions.stream().map(PrefixIndex.Completion::id).toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ScoreStatistics.
+ * It checks the one-pass moments and histogram, and that merged partial summaries equal the summary of all values.
+ */
+public class ScoreStatisticsTest {
+
+    /**
+     * Test the moments, extremes and histogram of a small set of scores.
+     */
+    @Test
+    public void testSummary() {
+        ScoreStatistics statistics = ScoreStatistics.of(DoubleStream.of(2, 4, 4, 4, 5, 5, 7, 9, 100));
+
+        assertEquals(9, statistics.count());
+        assertEquals(140.0, statistics.sum());
+        assertEquals(140.0 / 9, statistics.mean(), 1e-12);
+        assertEquals(2.0, statistics.min());
+        assertEquals(100.0, statistics.max());
+        assertArrayEquals(new long[]{8, 0, 0, 0, 0, 0, 0, 0, 0, 1}, statistics.histogram());
+
+        double mean = 140.0 / 9;
+        double squares = DoubleStream.of(2, 4, 4, 4, 5, 5, 7, 9, 100).map(v -> (v - mean) * (v - mean)).sum();
+        assertEquals(squares / 9, statistics.variance(), 1e-9);
+    }
+
+    /**
+     * Test that summaries of partitions merge into the summary of the whole, also through a parallel stream.
+     */
+    @Test
+    public void testMerge() {
+        ScoreStatistics whole = new ScoreStatistics();
+        ScoreStatistics left = new ScoreStatistics();
+        ScoreStatistics right = new ScoreStatistics();
+        for (int i = 0; i < 1000; i++) {
+            double score = (i * 37) % 101;
+            whole.add(score);
+            (i < 300 ? left : right).add(score);
+        }
+        left.merge(right);
+        left.merge(new ScoreStatistics());
+
+        assertEquals(whole.count(), left.count());
+        assertEquals(whole.mean(), left.mean(), 1e-9);
+        assertEquals(whole.variance(), left.variance(), 1e-9);
+        assertEquals(whole.min(), left.min());
+        assertEquals(whole.max(), left.max());
+        assertArrayEquals(whole.histogram(), left.histogram());
+
+        ScoreStatistics parallel = ScoreStatistics.of(IntStream.range(0, 1000).parallel().mapToDouble(i -> (i * 37) % 101));
+        assertEquals(whole.variance(), parallel.variance(), 1e-9);
+    }
+
+    /**
+     * Test that an empty summary reports no moments.
+     */
+    @Test
+    public void testEmpty() {
+        ScoreStatistics statistics = new ScoreStatistics();
+
+        assertEquals(0, statistics.count());
+        assertTrue(Double.isNaN(statistics.mean()));
+        assertTrue(Double.isNaN(statistics.variance()));
+        assertTrue(Double.isNaN(statistics.min()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SimHashIndex.
+ * It checks that near-duplicate vectors are found without returning the whole index, and that removal works.
+ */
+public class SimHashIndexTest {
+
+    /**
+     * Test that the slightly perturbed copies of a vector are candidates, while most random vectors are not.
+     */
+    @Test
+    public void testNearNeighboursAreCandidates() {
+        SimHashIndex index = new SimHashIndex(8, 10, 1L);
+        Random random = new Random(7);
+        for (long id = 0; id < 1000; id++) {
+            index.put(id, randomVector(random));
+        }
+        Map<String, Double> query = randomVector(random);
+        Map<String, Double> nearby = new HashMap<>(query);
+        nearby.put("f0", nearby.getOrDefault("f0", 0.0) + 0.05);
+        index.put(5000L, query);
+        index.put(5001L, nearby);
+
+        Set<Long> candidates = index.candidates(query, 2);
+
+        assertTrue(candidates.contains(5000L));
+        assertTrue(candidates.contains(5001L));
+        assertTrue(candidates.size() < 200, "probed " + candidates.size() + " candidates");
+    }
+
+    /**
+     * Test that a removed vector is no longer returned.
+     */
+    @Test
+    public void testRemove() {
+        SimHashIndex index = new SimHashIndex(4, 6, 1L);
+        Map<String, Double> vector = Map.of("season:fall", 1.0);
+        index.put(1L, vector);
+        index.put(2L, vector);
+
+        index.remove(1L);
+
+        assertEquals(Set.of(2L), index.candidates(vector, 1));
+    }
+
+    private static Map<String, Double> randomVector(Random random) {
+        Map<String, Double> vector = new HashMap<>();
+        for (int i = 0; i < 8; i++) {
+            vector.put("f" + random.nextInt(50), random.nextDouble());
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,71 @@
+package com.wileyedge.fashiontrendanalysis.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TDigest.
+ * It checks the quantile estimates against exactly known distributions and that merged digests agree with a single one.
+ */
+public class TDigestTest {
+
+    /**
+     * Test that the quantiles of a uniform sequence are estimated closely, including the tails.
+     */
+    @Test
+    public void testUniformQuantiles() {
+        TDigest digest = new TDigest(100);
+        for (int i = 1; i <= 100_000; i++) {
+            digest.add(i);
+        }
+
+        assertEquals(100_000, digest.size());
+        assertEquals(1.0, digest.min());
+        assertEquals(100_000.0, digest.max());
+        assertEquals(50_000, digest.quantile(0.5), 500);
+        assertEquals(90_000, digest.quantile(0.9), 500);
+        assertEquals(99_000, digest.quantile(0.99), 100);
+    }
+
+    /**
+     * Test that merging digests built over disjoint halves gives the same estimates as one digest over all values.
+     */
+    @Test
+    public void testMerge() {
+        Random random = new Random(42);
+        TDigest whole = new TDigest(100);
+        TDigest left = new TDigest(100);
+        TDigest right = new TDigest(100);
+        for (int i = 0; i < 20_000; i++) {
+            double value = random.nextInt(101);
+            whole.add(value);
+            (i % 2 == 0 ? left : right).add(value);
+        }
+
+        TDigest merged = new TDigest(100);
+        merged.merge(left);
+        merged.merge(right);
+
+        assertEquals(whole.size(), merged.size());
+        assertEquals(10_000, left.size());
+        assertEquals(whole.quantile(0.5), merged.quantile(0.5), 1.5);
+        assertEquals(whole.quantile(0.99), merged.quantile(0.99), 1.5);
+    }
+
+    /**
+     * Test that an empty digest has no quantiles and a single value is every quantile.
+     */
+    @Test
+    public void testEmptyAndSingle() {
+        TDigest digest = new TDigest(100);
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+
+        digest.add(42);
+        assertEquals(42.0, digest.quantile(0.01));
+        assertEquals(42.0, digest.quantile(0.99));
+        assertThrows(IllegalArgumentException.class, () -> digest.quantile(1.5));
+    }
+}